@@ -0,0 +1,125 @@
+package datawave.microservice.query.cachedresults;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import datawave.microservice.query.cachedresults.config.CachedResultsQueryProperties;
+import datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus;
+import datawave.security.authorization.ProxiedUserDetails;
+import datawave.webservice.query.cachedresults.CacheableQueryRow;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Builds the service, query status, and rows used by the benchmarks, without a database, cache, or query service.
+ */
+final class BenchmarkSupport {
+    static final String USER = "benchmarkuser";
+    static final String QUERY_LOGIC = "EventQuery";
+    static final String DEFINED_QUERY_ID = "0123456789abcdef0123456789abcdef";
+    static final String TABLE_NAME = "t" + DEFINED_QUERY_ID;
+    static final String VIEW_NAME = "v" + DEFINED_QUERY_ID;
+    
+    private BenchmarkSupport() {}
+    
+    /**
+     * Creates a service whose jdbc template ignores the statements it is given
+     *
+     * @param numFields
+     *            the number of field columns in each table
+     * @return the service
+     */
+    static CachedResultsQueryService createService(int numFields) {
+        CachedResultsQueryProperties properties = new CachedResultsQueryProperties();
+        properties.setNumFields(numFields);
+        // the statement templates are normally bound from the configuration, and the table template is built when the service is constructed
+        properties.getStatementTemplates().setCreateTableTemplate("CREATE TABLE IF NOT EXISTS template (%FIELD_DEFINITIONS%)");
+        
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public void execute(String sql) {
+                // the table template is created when the service is constructed
+            }
+        };
+        
+        return new CachedResultsQueryService(properties, jdbcTemplate, null, null, null, null, null, null, null, null, null, null,
+                        new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    }
+    
+    /**
+     * Creates a query status whose field index map already contains every field, so that no columns are added while the benchmarks run
+     *
+     * @param fieldNames
+     *            the fields of the query
+     * @return the query status
+     */
+    static CachedResultsQueryStatus createStatus(List<String> fieldNames) {
+        CachedResultsQueryStatus status = new CachedResultsQueryStatus(DEFINED_QUERY_ID, null, null, createUser());
+        status.setQueryLogicName(QUERY_LOGIC);
+        status.setTableName(TABLE_NAME);
+        status.setView(VIEW_NAME);
+        
+        Map<String,Integer> fieldIndexMap = new ConcurrentHashMap<>();
+        int columnNumber = CacheableQueryRow.getFixedColumnSet().size();
+        for (String fieldName : fieldNames) {
+            fieldIndexMap.put(fieldName, ++columnNumber);
+        }
+        status.setFieldIndexMap(fieldIndexMap);
+        return status;
+    }
+    
+    /**
+     * Creates field names, where every other field is grouped so that both the quoted and unquoted paths are exercised
+     *
+     * @param numFields
+     *            the number of fields
+     * @return the field names
+     */
+    static List<String> createFieldNames(int numFields) {
+        List<String> fieldNames = new ArrayList<>();
+        for (int i = 0; i < numFields; i++) {
+            fieldNames.add((i % 2 == 0) ? "FIELD_" + i : "FIELD_" + i + "." + (i % 4));
+        }
+        return fieldNames;
+    }
+    
+    /**
+     * Creates a prepared statement which keeps the last value set for each parameter, and ignores all other calls
+     *
+     * @param values
+     *            the array which receives the values, indexed by parameter index
+     * @return the prepared statement
+     */
+    static PreparedStatement createPreparedStatement(Object[] values) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                        (proxy, method, args) -> {
+                            if ((method.getName().equals("setString") || method.getName().equals("setNull")) && args[0] instanceof Integer) {
+                                values[(Integer) args[0]] = args[1];
+                            }
+                            return null;
+                        });
+    }
+    
+    private static ProxiedUserDetails createUser() {
+        return (ProxiedUserDetails) Proxy.newProxyInstance(ProxiedUserDetails.class.getClassLoader(), new Class<?>[] {ProxiedUserDetails.class},
+                        (proxy, method, args) -> {
+                            switch (method.getName()) {
+                                case "getShortName":
+                                case "toString":
+                                    return USER;
+                                case "hashCode":
+                                    return System.identityHashCode(proxy);
+                                case "equals":
+                                    return proxy == args[0];
+                                default:
+                                    return null;
+                            }
+                        });
+    }
+}
@@ -0,0 +1,132 @@
+package datawave.microservice.query.cachedresults;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+
+import datawave.core.query.cachedresults.CacheableQueryRowImpl;
+import datawave.marking.MarkingFunctions;
+import datawave.microservice.query.cachedresults.load.CacheableQueryRowSetter;
+import datawave.microservice.query.cachedresults.load.ColumnSignature;
+import datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus;
+import datawave.webservice.query.cachedresults.CacheableQueryRow;
+
+/**
+ * Measures the binding of a batch of rows to the insert statement, for rows with an increasing number of populated fields, using either the full insert
+ * (which sets every unpopulated column to null) or the sparse insert (which only references the populated columns).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RowBindingBenchmark {
+    // matches the default number of field columns in each table
+    private static final int NUM_FIELDS = 900;
+    private static final int BATCH_SIZE = 100;
+    
+    @Param({"30", "300", "900"})
+    public int populatedFields;
+    
+    @Param({"false", "true"})
+    public boolean sparse;
+    
+    private CachedResultsQueryStatus status;
+    private CacheableQueryRowSetter.RowValues rowValues;
+    private List<CacheableQueryRow> rows;
+    private ColumnSignature columnSignature;
+    private PreparedStatement preparedStatement;
+    private Object[] values;
+    
+    @Setup
+    public void setup() {
+        List<String> fieldNames = BenchmarkSupport.createFieldNames(NUM_FIELDS);
+        status = BenchmarkSupport.createStatus(fieldNames);
+        rowValues = createRowValues(status);
+        
+        Map<String,String> markings = Collections.singletonMap("columnVisibility", "PUBLIC&PRIVATE");
+        rows = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            CacheableQueryRowImpl row = new CacheableQueryRowImpl();
+            row.setDataType("datatype");
+            row.setEventId("eventId" + i);
+            row.setRow("20240101_" + (i % 10));
+            row.setColFam("datatype\u0000eventId" + i);
+            row.setMarkings(markings);
+            for (int j = 0; j < populatedFields; j++) {
+                row.addColumn(fieldNames.get(j), "value" + i + "_" + j, markings, "PUBLIC&PRIVATE", 1704067200000L + i);
+            }
+            rows.add(row);
+        }
+        
+        // every row populates the same fields, so they share a signature
+        if (sparse) {
+            int[] columnNumbers = new int[populatedFields];
+            for (int j = 0; j < populatedFields; j++) {
+                columnNumbers[j] = status.getFieldIndexMap().get(fieldNames.get(j));
+            }
+            columnSignature = new ColumnSignature(columnNumbers);
+        }
+        
+        values = new Object[CacheableQueryRow.getFixedColumnSet().size() + NUM_FIELDS + 1];
+        preparedStatement = BenchmarkSupport.createPreparedStatement(values);
+    }
+    
+    @Benchmark
+    public Object[] bindBatch() throws SQLException {
+        BatchPreparedStatementSetter setter = new CacheableQueryRowSetter(status, rows, columnSignature, Integer.MAX_VALUE, NUM_FIELDS, rowValues);
+        for (int i = 0; i < setter.getBatchSize(); i++) {
+            setter.setValues(preparedStatement, i);
+        }
+        return values;
+    }
+    
+    // encodes the values the way the service does for a table without a markings dictionary or overflow table
+    private static CacheableQueryRowSetter.RowValues createRowValues(CachedResultsQueryStatus status) {
+        return new CacheableQueryRowSetter.RowValues() {
+            @Override
+            public int getColumnNumber(String columnName) {
+                return status.getFieldIndexMap().get(columnName);
+            }
+            
+            @Override
+            public String getColumnValue(CacheableQueryRow cacheableQueryRow, String columnName, String columnValue) {
+                return columnValue;
+            }
+            
+            @Override
+            public String getMarkingsValue(CacheableQueryRow cacheableQueryRow) {
+                return MarkingFunctions.Encoding.toString(new TreeMap<>(cacheableQueryRow.getMarkings()));
+            }
+            
+            @Override
+            public String getColumnMarkingsValue(CacheableQueryRow cacheableQueryRow) {
+                return cacheableQueryRow.getColumnSecurityMarkingString(status.getFieldIndexMap());
+            }
+            
+            @Override
+            public String getColumnTimestampsValue(CacheableQueryRow cacheableQueryRow) {
+                return cacheableQueryRow.getColumnTimestampString(status.getFieldIndexMap());
+            }
+        };
+    }
+}
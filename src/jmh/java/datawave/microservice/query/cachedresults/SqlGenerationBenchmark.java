@@ -0,0 +1,114 @@
+package datawave.microservice.query.cachedresults;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datawave.microservice.query.cachedresults.config.CachedResultsQueryProperties;
+import datawave.microservice.query.cachedresults.read.SqlQueryHelper;
+import datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus;
+
+/**
+ * Measures the translation of the fields, conditions, grouping, and order of a create request into a sql query, for views with an increasing number of
+ * columns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SqlGenerationBenchmark {
+    // the number of fields selected by the query
+    private static final int NUM_SELECTED_FIELDS = 20;
+    
+    @Param({"30", "300", "900"})
+    public int numFields;
+    
+    private CachedResultsQueryService service;
+    private SqlQueryHelper sqlQueryHelper;
+    private CachedResultsQueryStatus status;
+    private Set<String> viewColumnNames;
+    
+    private String fields;
+    private String order;
+    private String sqlQuery;
+    private String groupedField;
+    private String function;
+    
+    @Setup
+    public void setup() {
+        List<String> fieldNames = BenchmarkSupport.createFieldNames(numFields);
+        service = BenchmarkSupport.createService(numFields);
+        CachedResultsQueryProperties properties = new CachedResultsQueryProperties();
+        sqlQueryHelper = new SqlQueryHelper(properties.getReservedStatements(), properties.getAllowedFunctions());
+        status = BenchmarkSupport.createStatus(fieldNames);
+        viewColumnNames = status.getFieldIndexMap().keySet();
+        
+        // select fields from across the view, so that the lookups aren't limited to the first columns
+        int step = Math.max(1, numFields / NUM_SELECTED_FIELDS);
+        List<String> selectedFields = IntStream.range(0, numFields).filter(i -> i % step == 0).limit(NUM_SELECTED_FIELDS).mapToObj(fieldNames::get)
+                        .collect(Collectors.toList());
+        groupedField = fieldNames.get(1);
+        function = "COUNT(" + groupedField + ")";
+        
+        fields = String.join(", ", selectedFields) + ", " + function;
+        order = function + " DESC, " + fieldNames.get(0);
+        
+        status.setFields(fields);
+        status.setConditions(groupedField + " = 'value' AND " + fieldNames.get(0) + " > 5 AND " + fieldNames.get(2) + " IN ('a', 'b', 'c')");
+        status.setGrouping(fieldNames.get(0) + ", " + groupedField);
+        status.setOrder(order);
+        
+        sqlQuery = service.generateSqlQuery(status);
+    }
+    
+    @Benchmark
+    public String generateSqlQuery() {
+        return service.generateSqlQuery(status);
+    }
+    
+    @Benchmark
+    public String[] tokenizeOutsideParens() {
+        return SqlQueryHelper.tokenizeOutsideParens(fields, ',');
+    }
+    
+    @Benchmark
+    public String buildOrderClause() {
+        return sqlQueryHelper.buildOrderClause(order, viewColumnNames);
+    }
+    
+    @Benchmark
+    public boolean isSqlSafe() {
+        return sqlQueryHelper.isSqlSafe(sqlQuery);
+    }
+    
+    @Benchmark
+    public String quoteField() {
+        return sqlQueryHelper.quoteField(groupedField, viewColumnNames);
+    }
+    
+    @Benchmark
+    public String quoteFunction() {
+        return sqlQueryHelper.quoteField(function, viewColumnNames);
+    }
+    
+    @Benchmark
+    public boolean isFunction() {
+        return sqlQueryHelper.isFunction(function);
+    }
+}
@@ -0,0 +1,36 @@
+package datawave.microservice.query.cachedresults;
+
+import org.springframework.util.MultiValueMap;
+
+import datawave.security.authorization.ProxiedUserDetails;
+import datawave.webservice.result.BaseQueryResponse;
+import datawave.webservice.result.GenericResponse;
+import datawave.webservice.result.VoidResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * A non-blocking companion to {@link QueryService}.
+ *
+ * Each call returns a lazy {@link Mono} which completes with the response, or errors with a {@link datawave.webservice.query.exception.QueryException}. No
+ * thread is held while waiting for the remote query service to respond. Callers which need a {@link java.util.concurrent.CompletableFuture} can use
+ * {@link Mono#toFuture()}.
+ */
+public interface AsyncQueryService {
+    // duplicate
+    Mono<GenericResponse<String>> duplicateAsync(String queryId, ProxiedUserDetails currentUser);
+    
+    // duplicate, overriding the given query parameters on the new query
+    Mono<GenericResponse<String>> duplicateAsync(String queryId, MultiValueMap<String,String> parameters, ProxiedUserDetails currentUser);
+    
+    // next, errors with a NoResultsQueryException once the results are exhausted
+    Mono<BaseQueryResponse> nextAsync(String queryId, ProxiedUserDetails currentUser);
+    
+    // close
+    Mono<VoidResponse> closeAsync(String queryId, ProxiedUserDetails currentUser);
+    
+    // cancel
+    Mono<VoidResponse> cancelAsync(String queryId, ProxiedUserDetails currentUser);
+    
+    // remove
+    Mono<VoidResponse> removeAsync(String queryId, ProxiedUserDetails currentUser);
+}
@@ -0,0 +1,145 @@
+package datawave.microservice.query.cachedresults;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import datawave.microservice.query.cachedresults.config.CachedResultsQueryProperties;
+import datawave.security.authorization.ProxiedUserDetails;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * A bounded cache of signed bearer tokens, keyed by the primary user and the proxied user chain.
+ *
+ * Tokens are reused until they are within the configured refresh window of their expiration, or until they reach the configured maximum age.
+ */
+public class BearerTokenCache {
+    private static final Logger log = LoggerFactory.getLogger(BearerTokenCache.class);
+    
+    private final CachedResultsQueryProperties.RemoteQuery.TokenCache tokenCacheProperties;
+    private final ObjectMapper objectMapper;
+    private final Map<List<Object>,CachedToken> tokens;
+    private final Counter hits;
+    private final Counter misses;
+    
+    /**
+     * @param tokenCacheProperties
+     *            the token cache properties, not null
+     * @param objectMapper
+     *            the mapper used to read the token claims, not null
+     * @param meterRegistry
+     *            the registry for the token cache hit and miss counters, not null
+     */
+    public BearerTokenCache(CachedResultsQueryProperties.RemoteQuery.TokenCache tokenCacheProperties, ObjectMapper objectMapper,
+                    MeterRegistry meterRegistry) {
+        this.tokenCacheProperties = tokenCacheProperties;
+        this.objectMapper = objectMapper;
+        this.hits = createCounter(meterRegistry, "hit");
+        this.misses = createCounter(meterRegistry, "miss");
+        this.tokens = Collections.synchronizedMap(new LinkedHashMap<List<Object>,CachedToken>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>,CachedToken> eldest) {
+                return size() > tokenCacheProperties.getMaxSize();
+            }
+        });
+    }
+    
+    /**
+     * Gets a token for the user, creating a new token if there is no reusable token cached
+     *
+     * @param currentUser
+     *            the user to get a token for, not null
+     * @param tokenCreator
+     *            creates a new signed token for the user
+     * @return the token
+     */
+    public String getToken(ProxiedUserDetails currentUser, Supplier<String> tokenCreator) {
+        // the proxied users are part of the key, so any change to the chain or its authorizations results in a new token
+        List<Object> key = Arrays.asList(currentUser.getPrimaryUser().getName(), new ArrayList<>(currentUser.getProxiedUsers()));
+        
+        long currentTimeMillis = System.currentTimeMillis();
+        CachedToken cachedToken = tokens.get(key);
+        if (cachedToken != null && currentTimeMillis < cachedToken.refreshTimeMillis) {
+            hits.increment();
+            return cachedToken.token;
+        }
+        
+        misses.increment();
+        String token = tokenCreator.get();
+        tokens.put(key, new CachedToken(token, getRefreshTimeMillis(token, currentTimeMillis)));
+        
+        if (log.isDebugEnabled()) {
+            log.debug("Created bearer token for {}, token cache hits: {} misses: {}", currentUser.getPrimaryUser().getName(), getHits(),
+                            getMisses());
+        }
+        return token;
+    }
+    
+    public long getHits() {
+        return (long) hits.count();
+    }
+    
+    public long getMisses() {
+        return (long) misses.count();
+    }
+    
+    private static Counter createCounter(MeterRegistry meterRegistry, String result) {
+        // @formatter:off
+        return Counter.builder("cachedResults.remote.tokenCache")
+                .description("The number of bearer token lookups which reused a cached token, or had to sign a new one")
+                .tag("result", result)
+                .register(meterRegistry);
+        // @formatter:on
+    }
+    
+    // the token is refreshed at the earlier of its max age, or shortly before it expires
+    private long getRefreshTimeMillis(String token, long currentTimeMillis) {
+        long refreshTimeMillis = currentTimeMillis + tokenCacheProperties.getMaxAgeMillis();
+        Long expirationMillis = getExpirationMillis(token);
+        if (expirationMillis != null) {
+            refreshTimeMillis = Math.min(refreshTimeMillis, expirationMillis - tokenCacheProperties.getRefreshBeforeExpirationMillis());
+        }
+        return refreshTimeMillis;
+    }
+    
+    // reads the expiration claim from the token payload, without verifying the signature
+    private Long getExpirationMillis(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            if (parts.length >= 2) {
+                JsonNode claims = objectMapper.readTree(new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8));
+                JsonNode exp = claims.get("exp");
+                if (exp != null && exp.canConvertToLong()) {
+                    return TimeUnit.SECONDS.toMillis(exp.asLong());
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Unable to read the expiration of the bearer token", e);
+        }
+        return null;
+    }
+    
+    private static class CachedToken {
+        private final String token;
+        private final long refreshTimeMillis;
+        
+        private CachedToken(String token, long refreshTimeMillis) {
+            this.token = token;
+            this.refreshTimeMillis = refreshTimeMillis;
+        }
+    }
+}
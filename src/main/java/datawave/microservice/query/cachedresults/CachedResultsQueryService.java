@@ -1,5 +1,8 @@
 package datawave.microservice.query.cachedresults;
 
+import static datawave.microservice.query.QueryParameters.QUERY_MAX_RESULTS_OVERRIDE;
+import static datawave.microservice.query.QueryParameters.QUERY_PAGESIZE;
+import static datawave.microservice.query.QueryParameters.QUERY_PAGETIMEOUT;
 import static datawave.microservice.query.QueryParameters.QUERY_VISIBILITY;
 import static datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus.CACHED_RESULTS_STATE.CANCELED;
 import static datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus.CACHED_RESULTS_STATE.CREATED;
@@ -8,24 +11,41 @@ import static datawave.microservice.query.cachedresults.status.CachedResultsQuer
 import static datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus.CACHED_RESULTS_STATE.LOADED;
 import static datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus.CACHED_RESULTS_STATE.LOADING;
 import static datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus.CACHED_RESULTS_STATE.NONE;
+import static datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus.CACHED_RESULTS_STATE.QUEUED;
 
-import java.sql.PreparedStatement;
+import java.nio.charset.StandardCharsets;
+import java.sql.BatchUpdateException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.sql.Types;
+import java.sql.SQLWarning;
+import java.sql.Statement;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -35,14 +55,22 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.scope.ScopedObject;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.StatementCallback;
 import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
+import com.mysql.cj.jdbc.JdbcStatement;
+
 import datawave.core.common.audit.PrivateAuditConstants;
 import datawave.core.query.cache.ResultsPage;
 import datawave.core.query.cachedresults.CacheableLogic;
@@ -55,10 +83,36 @@ import datawave.marking.SecurityMarking;
 import datawave.microservice.audit.AuditClient;
 import datawave.microservice.authorization.user.DatawaveUserDetails;
 import datawave.microservice.config.RequestScopeBeanSupplier;
+import datawave.microservice.query.Query;
 import datawave.microservice.query.cachedresults.config.CachedResultsQueryProperties;
+import datawave.microservice.query.cachedresults.jfr.GetRowsExecutedEvent;
+import datawave.microservice.query.cachedresults.jfr.InsertRetryEvent;
+import datawave.microservice.query.cachedresults.jfr.LoadBatchInsertedEvent;
+import datawave.microservice.query.cachedresults.jfr.LoadPageFetchedEvent;
+import datawave.microservice.query.cachedresults.jfr.ViewCreatedEvent;
+import datawave.microservice.query.cachedresults.load.CacheableQueryRowSetter;
+import datawave.microservice.query.cachedresults.load.ColumnSignature;
+import datawave.microservice.query.cachedresults.load.CompactColumnEncoding;
+import datawave.microservice.query.cachedresults.load.DetachedRequestAttributes;
+import datawave.microservice.query.cachedresults.load.LoadDataInputStream;
+import datawave.microservice.query.cachedresults.load.LoadExecutors;
+import datawave.microservice.query.cachedresults.load.LoadMetrics;
+import datawave.microservice.query.cachedresults.load.LoadPipeline;
+import datawave.microservice.query.cachedresults.load.LoadScheduler;
+import datawave.microservice.query.cachedresults.load.MarkingsDictionary;
+import datawave.microservice.query.cachedresults.load.QueryFingerprint;
+import datawave.microservice.query.cachedresults.load.ResolvingResultSet;
+import datawave.microservice.query.cachedresults.load.cache.LoadJob;
+import datawave.microservice.query.cachedresults.load.cache.LoadJobCache;
+import datawave.microservice.query.cachedresults.read.CachedDictionary;
+import datawave.microservice.query.cachedresults.read.DecodedColumns;
+import datawave.microservice.query.cachedresults.read.ReadMetrics;
+import datawave.microservice.query.cachedresults.read.ReadTimings;
+import datawave.microservice.query.cachedresults.read.SqlQueryHelper;
 import datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus;
 import datawave.microservice.query.cachedresults.status.cache.CachedResultsQueryCache;
 import datawave.microservice.query.cachedresults.status.cache.util.CacheUpdater;
+import datawave.microservice.query.cachedresults.status.cache.util.LockedCacheUpdateUtil;
 import datawave.microservice.query.storage.QueryStatus;
 import datawave.microservice.query.storage.QueryStorageCache;
 import datawave.security.authorization.ProxiedUserDetails;
@@ -78,12 +132,19 @@ import datawave.webservice.query.exception.UnauthorizedQueryException;
 import datawave.webservice.query.result.EdgeQueryResponseBase;
 import datawave.webservice.query.result.event.ResponseObjectFactory;
 import datawave.webservice.result.BaseQueryResponse;
+import datawave.webservice.result.BaseResponse;
 import datawave.webservice.result.CachedResultsDescribeResponse;
 import datawave.webservice.result.CachedResultsResponse;
 import datawave.webservice.result.EventQueryResponseBase;
 import datawave.webservice.result.GenericResponse;
 import datawave.webservice.result.TotalResultsAware;
 import datawave.webservice.result.VoidResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 @ConditionalOnProperty(name = "datawave.query.cached-results.enabled", havingValue = "true", matchIfMissing = true)
@@ -98,10 +159,17 @@ public class CachedResultsQueryService {
     private static final String PREPARED_FIELDS_PLACEHOLDER = "%PREPARED_FIELDS%";
     private static final String PREPARED_VALUES_PLACEHOLDER = "%PREPARED_VALUES%";
     private static final String FIELD = "field";
-    private static final String BACKTICK = "`";
+    private static final String USER_COLUMN = "_user_";
+    private static final String OVERFLOW_PREFIX = "<overflow:";
+    private static final String OVERFLOW_SUFFIX = ">";
+    private static final String COLUMN_MARKINGS_COLUMN = "_column_markings_";
+    private static final String COLUMN_TIMESTAMPS_COLUMN = "_column_timestamps_";
+    private static final Set<String> DICTIONARY_COLUMNS = new HashSet<>(Arrays.asList("_markings_", COLUMN_MARKINGS_COLUMN, COLUMN_TIMESTAMPS_COLUMN));
     private static final String SPACE = " ";
-    private static final String LPAREN = "(";
-    private static final String RPAREN = ")";
+    private static final String STILL_LOADING_MESSAGE = "The query is still loading, so more rows may be added to the results";
+    private static final String SERVER_TIMING_PREFIX = "Server-Timing: ";
+    private static final String EARLY_CREATE_MESSAGE = "The query was already created while it was loading, use update to change its settings";
+    private static final int MAX_LOGGED_LOAD_DATA_WARNINGS = 10;
     
     private final CachedResultsQueryProperties cachedResultsQueryProperties;
     private final JdbcTemplate cachedResultsJdbcTemplate;
@@ -110,6 +178,8 @@ public class CachedResultsQueryService {
     private final AuditClient auditClient;
     // Note: SecurityMarking needs to be request scoped
     private final RequestScopeBeanSupplier<SecurityMarking> scopedSecurityMarking;
+    // the injected marking bean, used to create new markings for load jobs which run outside of a request
+    private final SecurityMarking securityMarking;
     private final QueryLogicFactory queryLogicFactory;
     private final QueryStorageCache queryStorageCache;
     private final ResponseObjectFactory responseObjectFactory;
@@ -119,18 +189,58 @@ public class CachedResultsQueryService {
     private final String fieldDefinitions;
     private final String preparedFields;
     private final String preparedValues;
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    // insert statements keyed by the populated columns, with the table placeholder left intact
+    // (the least recently used statements are evicted once the cache is full)
+    private final Map<ColumnSignature,String> sparseInserts;
+    // the markings dictionaries for the loads in progress, keyed by table name
+    private final Map<String,MarkingsDictionary> markingsDictionaries = new ConcurrentHashMap<>();
+    // the persisted markings dictionaries used for reads, keyed by dictionary table name
+    private final Map<String,CachedDictionary> cachedDictionaries;
+    // guards the creation of each load's tables and columns
+    // (a lock rather than a monitor, so that virtual threads aren't pinned while the ddl runs)
+    private final Map<String,Lock> tableLocks = new ConcurrentHashMap<>();
+    private final ExecutorService executorService;
+    private final ExecutorService loadWriterExecutorService;
+    private final ExecutorService insertWriterExecutorService;
+    // the bounded scheduler shared by the async loads, which only use a thread while writing to sql
+    private final Scheduler asyncLoadScheduler;
+    // queues the async loads fairly across users, if enabled
+    private final LoadScheduler loadScheduler;
+    // identifies this node as the owner of the loads it runs, so that other nodes can tell when those loads have been orphaned
+    private final String loadOwner = UUID.randomUUID().toString();
+    // the loads owned by this node, whose heartbeats are renewed until they finish
+    private final Map<String,CachedResultsQueryStatus> ownedLoads = new ConcurrentHashMap<>();
+    // the loads which were taken over by another node, and must stop without cleaning up after themselves
+    private final Set<String> abandonedLoads = ConcurrentHashMap.newKeySet();
+    // the event ids written before a load was resumed with a newly duplicated query, keyed by table name
+    private final Map<String,Set<String>> writtenEventIds = new ConcurrentHashMap<>();
+    // the number of fields in each load's provisional view, keyed by table name
+    private final Map<String,Integer> provisionalViewFields = new ConcurrentHashMap<>();
+    // the cluster-wide queue of loads waiting for a node with spare capacity
+    private final LoadJobCache loadJobCache;
+    private final LockedCacheUpdateUtil<LoadJob> loadJobLockedCacheUpdateUtil;
+    // the queued load jobs claimed by this node, whose leases are renewed until they finish
+    private final Set<String> claimedLoadJobs = ConcurrentHashMap.newKeySet();
+    // keeps this node from claiming more jobs than it has capacity for when jobs are claimed from several threads at once
+    private final Lock claimLoadJobsLock = new ReentrantLock();
+    private final LoadMetrics loadMetrics;
+    private final ReadMetrics readMetrics;
+    private final SqlQueryHelper sqlQueryHelper;
     
     public CachedResultsQueryService(CachedResultsQueryProperties cachedResultsQueryProperties, JdbcTemplate cachedResultsJdbcTemplate,
-                    CachedResultsQueryCache cachedResultsQueryCache, QueryService queryService, AuditClient auditClient, SecurityMarking securityMarking,
-                    QueryLogicFactory queryLogicFactory, QueryStorageCache queryStorageCache, ResponseObjectFactory responseObjectFactory,
-                    MarkingFunctions markingFunctions, CachedResultsQueryParameters cachedResultsQueryParameters) {
+                    CachedResultsQueryCache cachedResultsQueryCache, LoadJobCache loadJobCache, QueryService queryService, AuditClient auditClient,
+                    SecurityMarking securityMarking, QueryLogicFactory queryLogicFactory, QueryStorageCache queryStorageCache,
+                    ResponseObjectFactory responseObjectFactory, MarkingFunctions markingFunctions, CachedResultsQueryParameters cachedResultsQueryParameters,
+                    ObjectProvider<MeterRegistry> meterRegistry) {
         this.cachedResultsQueryProperties = cachedResultsQueryProperties;
         this.cachedResultsJdbcTemplate = cachedResultsJdbcTemplate;
         this.cachedResultsQueryCache = cachedResultsQueryCache;
+        this.loadJobCache = loadJobCache;
+        this.loadJobLockedCacheUpdateUtil = new LockedCacheUpdateUtil<>(loadJobCache);
         this.queryService = queryService;
         this.auditClient = auditClient;
         this.scopedSecurityMarking = new RequestScopeBeanSupplier<>(securityMarking);
+        this.securityMarking = securityMarking;
         this.queryLogicFactory = queryLogicFactory;
         this.queryStorageCache = queryStorageCache;
         this.responseObjectFactory = responseObjectFactory;
@@ -140,14 +250,49 @@ public class CachedResultsQueryService {
                         .collect(Collectors.joining(", "));
         this.preparedFields = IntStream.range(0, cachedResultsQueryProperties.getNumFields()).mapToObj(x -> FIELD + x).collect(Collectors.joining(", "));
         this.preparedValues = Stream.generate(() -> "?").limit(cachedResultsQueryProperties.getNumFields()).collect(Collectors.joining(", "));
+        this.sqlQueryHelper = new SqlQueryHelper(cachedResultsQueryProperties.getReservedStatements(), cachedResultsQueryProperties.getAllowedFunctions());
+        this.sparseInserts = Collections.synchronizedMap(new LinkedHashMap<ColumnSignature,String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ColumnSignature,String> eldest) {
+                return size() > cachedResultsQueryProperties.getSparseInsert().getMaxCachedStatements();
+            }
+        });
+        this.cachedDictionaries = Collections.synchronizedMap(new LinkedHashMap<String,CachedDictionary>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String,CachedDictionary> eldest) {
+                return size() > cachedResultsQueryProperties.getMarkingsDictionary().getMaxCachedDictionaries();
+            }
+        });
+        this.asyncLoadScheduler = cachedResultsQueryProperties.getAsyncLoad().isEnabled()
+                        ? Schedulers.newBoundedElastic(cachedResultsQueryProperties.getAsyncLoad().getMaxThreads(),
+                                        cachedResultsQueryProperties.getAsyncLoad().getMaxQueuedTasks(), "cached-results-load")
+                        : null;
+        boolean virtualThreads = cachedResultsQueryProperties.getVirtualThreads().isEnabled();
+        CachedResultsQueryProperties.LoadThreads loadThreads = cachedResultsQueryProperties.getLoadThreads();
+        this.executorService = LoadExecutors.newBoundedExecutor(virtualThreads, loadThreads.getMaxLoadThreads(), "cached-results-load");
+        this.loadWriterExecutorService = LoadExecutors.newBoundedExecutor(virtualThreads, loadThreads.getMaxWriterThreads(), "cached-results-load-writer");
+        this.insertWriterExecutorService = LoadExecutors.newBoundedExecutor(virtualThreads, loadThreads.getMaxWriterThreads(), "cached-results-insert-writer");
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        CachedResultsQueryProperties.LoadScheduling loadScheduling = cachedResultsQueryProperties.getLoadScheduling();
+        this.loadScheduler = loadScheduling.isEnabled()
+                        ? new LoadScheduler(loadScheduling.getMaxConcurrentLoads(), loadScheduling.getMaxConcurrentLoadsPerUser(), registry)
+                        : null;
+        this.loadMetrics = new LoadMetrics(registry);
+        this.readMetrics = new ReadMetrics(registry);
         initializeTableTemplate();
     }
     
     private void initializeTableTemplate() {
-        // @formatter:off
-        String createTableTemplate = cachedResultsQueryProperties.getStatementTemplates().getCreateTableTemplate()
-                .replace(FIELD_DEFINITIONS_PLACEHOLDER, fieldDefinitions);
-        // @formatter:on
+        String createTableTemplate;
+        if (cachedResultsQueryProperties.getDynamicColumns().isEnabled()) {
+            // dynamically sized tables start with only the fixed columns
+            createTableTemplate = cachedResultsQueryProperties.getStatementTemplates().getCreateFixedTableTemplate();
+        } else {
+            // @formatter:off
+            createTableTemplate = cachedResultsQueryProperties.getStatementTemplates().getCreateTableTemplate()
+                    .replace(FIELD_DEFINITIONS_PLACEHOLDER, fieldDefinitions);
+            // @formatter:on
+        }
         try {
             cachedResultsJdbcTemplate.execute(createTableTemplate);
         } catch (DataAccessException e) {
@@ -174,55 +319,115 @@ public class CachedResultsQueryService {
     public GenericResponse<String> load(String definedQueryId, String alias, ProxiedUserDetails currentUser) throws QueryException {
         log.info("Request: {}/load from {} with alias: {}", definedQueryId, ProxiedEntityUtils.getShortName(currentUser.getPrimaryUser().getName()), alias);
         
+        AtomicReference<CachedResultsQueryStatus> statusRef = new AtomicReference<>();
+        try {
+            CachedResultsQueryStatus cachedResultsQueryStatus = startLoad(definedQueryId, alias, currentUser, statusRef);
+            
+            // run the query and cache the results
+            // this could take a while!
+            load(cachedResultsQueryStatus);
+            
+            return finishLoad(cachedResultsQueryStatus);
+        } catch (Exception e) {
+            throw failLoad(statusRef.get(), e);
+        } finally {
+            releaseLoad(definedQueryId, statusRef.get());
+        }
+    }
+    
+    /**
+     * Loads the specified query without holding a thread while waiting on the query service
+     *
+     * @param definedQueryId
+     *            the query id of the defined query, not null
+     * @param alias
+     *            an optional, user-defined alias which can be used to reference the query
+     * @param currentUser
+     *            the current user, not null
+     * @return the view name, once the load completes
+     */
+    private Mono<GenericResponse<String>> loadAsync(String definedQueryId, String alias, ProxiedUserDetails currentUser) {
+        AtomicReference<CachedResultsQueryStatus> statusRef = new AtomicReference<>();
+        
+        // @formatter:off
+        return Mono.fromCallable(() -> startLoad(definedQueryId, alias, currentUser, statusRef))
+                .subscribeOn(asyncLoadScheduler)
+                .flatMap(cachedResultsQueryStatus -> loadAsync(cachedResultsQueryStatus)
+                        .then(Mono.fromCallable(() -> finishLoad(cachedResultsQueryStatus))))
+                .onErrorMap(Exception.class, e -> failLoad(statusRef.get(), e))
+                .doFinally(signalType -> {
+                    try {
+                        releaseLoad(definedQueryId, statusRef.get());
+                    } catch (QueryException e) {
+                        log.error("Unable to update query cache", e);
+                    }
+                });
+        // @formatter:on
+    }
+    
+    // creates or claims the cached results status for the load, publishing it to statusRef as soon as it is known
+    private CachedResultsQueryStatus startLoad(String definedQueryId, String alias, ProxiedUserDetails currentUser,
+                    AtomicReference<CachedResultsQueryStatus> statusRef) throws QueryException, InterruptedException {
         CachedResultsQueryStatus cachedResultsQueryStatus = null;
+        
+        // was load already called for this query id? if so, stop
+        boolean lockAcquired = cachedResultsQueryCache.tryLockQueryStatus(definedQueryId, TimeUnit.SECONDS.toMillis(30));
         try {
-            // was load already called for this query id? if so, stop
-            boolean lockAcquired = cachedResultsQueryCache.tryLockQueryStatus(definedQueryId, TimeUnit.SECONDS.toMillis(30));
-            try {
-                if (lockAcquired) {
-                    // get the cached results status for the query
-                    cachedResultsQueryStatus = cachedResultsQueryCache.getQueryStatus(definedQueryId);
-                    
-                    // if a cached results query doesn't already exist, create one
-                    if (cachedResultsQueryStatus == null) {
-                        cachedResultsQueryStatus = cachedResultsQueryCache.createQuery(definedQueryId, null, alias, currentUser);
-                        if (alias != null) {
-                            cachedResultsQueryCache.putQueryIdByAliasLookup(cachedResultsQueryStatus.getAlias(), definedQueryId);
-                        }
-                    } else if (cachedResultsQueryStatus.getState() == NONE) {
-                        // cachedResultsQueryStatus may have been set to NONE by loadAndCreateAsync
-                        cachedResultsQueryStatus.setState(LOADING);
-                    } else {
-                        // otherwise if a cached results query already exists then stop
-                        if (cachedResultsQueryStatus.getState() == FAILED) {
-                            log.warn("The cached results query for {} has FAILED", definedQueryId);
-                        } else {
-                            log.info("A cached results query for {} is {}", definedQueryId, cachedResultsQueryStatus.getState());
-                        }
-                        throw new QueryException(DatawaveErrorCode.QUERY_LOCKED_ERROR);
+            if (lockAcquired) {
+                // get the cached results status for the query
+                cachedResultsQueryStatus = cachedResultsQueryCache.getQueryStatus(definedQueryId);
+                
+                // if a cached results query doesn't already exist, create one
+                if (cachedResultsQueryStatus == null) {
+                    cachedResultsQueryStatus = cachedResultsQueryCache.createQuery(definedQueryId, null, alias, currentUser);
+                    if (alias != null) {
+                        cachedResultsQueryCache.putQueryIdByAliasLookup(cachedResultsQueryStatus.getAlias(), definedQueryId);
                     }
+                } else if (cachedResultsQueryStatus.getState() == NONE || cachedResultsQueryStatus.getState() == QUEUED) {
+                    // cachedResultsQueryStatus may have been set to NONE or QUEUED by loadAndCreateAsync
+                    cachedResultsQueryStatus.setState(LOADING);
                 } else {
-                    log.error("Unable obtain lock on query {}", definedQueryId);
+                    // otherwise if a cached results query already exists then stop
+                    if (cachedResultsQueryStatus.getState() == FAILED) {
+                        log.warn("The cached results query for {} has FAILED", definedQueryId);
+                    } else {
+                        log.info("A cached results query for {} is {}", definedQueryId, cachedResultsQueryStatus.getState());
+                    }
                     throw new QueryException(DatawaveErrorCode.QUERY_LOCKED_ERROR);
                 }
-            } finally {
-                if (cachedResultsQueryStatus != null) {
-                    try {
-                        cachedResultsQueryCache.update(definedQueryId, cachedResultsQueryStatus);
-                    } catch (Exception e) {
-                        log.error("Unable to update query cache", e);
-                    }
+                
+                // claim the load, so that another node can resume it if this node stops heartbeating
+                if (isRecoveryEnabled()) {
+                    ownLoad(cachedResultsQueryStatus);
                 }
-                if (lockAcquired) {
-                    cachedResultsQueryCache.unlockQueryStatus(definedQueryId);
+            } else {
+                log.error("Unable obtain lock on query {}", definedQueryId);
+                throw new QueryException(DatawaveErrorCode.QUERY_LOCKED_ERROR);
+            }
+        } finally {
+            statusRef.set(cachedResultsQueryStatus);
+            if (cachedResultsQueryStatus != null) {
+                try {
+                    cachedResultsQueryCache.update(definedQueryId, cachedResultsQueryStatus);
+                } catch (Exception e) {
+                    log.error("Unable to update query cache", e);
                 }
             }
-            
-            // run the query and cache the results
-            // this could take a while!
-            load(cachedResultsQueryStatus);
-            
-            // set the state based on that status of the running query
+            if (lockAcquired) {
+                cachedResultsQueryCache.unlockQueryStatus(definedQueryId);
+            }
+        }
+        
+        return cachedResultsQueryStatus;
+    }
+    
+    // sets the final state of the load, and creates the view
+    private GenericResponse<String> finishLoad(CachedResultsQueryStatus cachedResultsQueryStatus) throws QueryException {
+        String definedQueryId = cachedResultsQueryStatus.getDefinedQueryId();
+        
+        // set the state based on that status of the running query
+        // (a load which reused the tables of an earlier load never ran a query)
+        if (cachedResultsQueryStatus.getReusedDefinedQueryId() == null) {
             QueryStatus runningQueryStatus = queryStorageCache.getQueryStatus(cachedResultsQueryStatus.getRunningQueryId());
             switch (runningQueryStatus.getQueryState()) {
                 case CANCEL:
@@ -234,277 +439,1441 @@ public class CachedResultsQueryService {
                 default:
                     cachedResultsQueryStatus.setState(LOADED);
             }
-            
-            // create the view
+        } else {
+            cachedResultsQueryStatus.setState(LOADED);
+        }
+        
+        // create the view
+        // (replacing the provisional view, if one was published while loading)
+        if (cachedResultsQueryStatus.getView() == null) {
             cachedResultsQueryStatus.setView(getViewName(cachedResultsQueryStatus.getRunningQueryId()));
-            createView(cachedResultsQueryStatus.getTableName(), cachedResultsQueryStatus.getView(), cachedResultsQueryStatus.getFieldIndexMap());
+        }
+        String createViewTemplate = isEarlyAccessEnabled() ? cachedResultsQueryProperties.getStatementTemplates().getCreateOrReplaceView()
+                        : cachedResultsQueryProperties.getStatementTemplates().getCreateView();
+        // (the rows of reused tables carry the user which loaded them, so the view presents them as belonging to the current user)
+        String viewUser = (cachedResultsQueryStatus.getReusedDefinedQueryId() != null) ? cachedResultsQueryStatus.getCurrentUser().getShortName() : null;
+        createView(cachedResultsQueryStatus.getQueryLogicName(), createViewTemplate, cachedResultsQueryStatus.getTableName(),
+                        cachedResultsQueryStatus.getView(), cachedResultsQueryStatus.getFieldIndexMap(), viewUser);
+        
+        // add an alternate lookup path for the view
+        cachedResultsQueryCache.putQueryIdByViewLookup(cachedResultsQueryStatus.getView(), definedQueryId);
+        
+        // make the tables available to later loads of the same query
+        if (cachedResultsQueryStatus.getLoadedMillis() == 0) {
+            cachedResultsQueryStatus.setLoadedMillis(System.currentTimeMillis());
+        }
+        cachedResultsQueryCache.putQueryIdByFingerprintLookup(cachedResultsQueryStatus.getFingerprint(), definedQueryId);
+        
+        // return the view name in the response
+        GenericResponse<String> response = new GenericResponse<>();
+        response.setResult(cachedResultsQueryStatus.getView());
+        return response;
+    }
+    
+    // cleans up after a failed load, and returns the exception to throw
+    private QueryException failLoad(CachedResultsQueryStatus cachedResultsQueryStatus, Exception e) {
+        // Delete the sql table and view
+        // (unless another node has taken over the load, in which case the tables belong to the new owner)
+        if (cachedResultsQueryStatus != null && !abandonedLoads.contains(cachedResultsQueryStatus.getDefinedQueryId())) {
+            // reused tables still belong to the load which wrote them
+            boolean ownsTables = cachedResultsQueryStatus.getReusedDefinedQueryId() == null;
+            if (ownsTables && cachedResultsQueryStatus.getTableName() != null) {
+                dropTable(cachedResultsQueryStatus.getTableName());
+            }
             
-            // add an alternate lookup path for the view
-            cachedResultsQueryCache.putQueryIdByViewLookup(cachedResultsQueryStatus.getView(), definedQueryId);
+            if (ownsTables && cachedResultsQueryStatus.getOverflowTableName() != null) {
+                dropTable(cachedResultsQueryStatus.getOverflowTableName());
+            }
             
-            // return the view name in the response
-            GenericResponse<String> response = new GenericResponse<>();
-            response.setResult(cachedResultsQueryStatus.getView());
-            return response;
-        } catch (Exception e) {
-            // Delete the sql table and view
-            if (cachedResultsQueryStatus != null) {
-                if (cachedResultsQueryStatus.getTableName() != null) {
-                    dropTable(cachedResultsQueryStatus.getTableName());
-                }
-                
-                if (cachedResultsQueryStatus.getView() != null) {
-                    dropView(cachedResultsQueryStatus.getView());
-                }
+            if (ownsTables && cachedResultsQueryStatus.getDictionaryTableName() != null) {
+                dropTable(cachedResultsQueryStatus.getDictionaryTableName());
             }
             
-            if (cachedResultsQueryStatus != null && cachedResultsQueryStatus.getState() == LOADING) {
-                cachedResultsQueryStatus.setState(FAILED);
+            if (cachedResultsQueryStatus.getView() != null) {
+                dropView(cachedResultsQueryStatus.getView());
+            }
+        }
+        
+        if (cachedResultsQueryStatus != null && cachedResultsQueryStatus.getState() == LOADING) {
+            cachedResultsQueryStatus.setState(FAILED);
+        }
+        return e instanceof QueryException ? (QueryException) e : new QueryException(e);
+    }
+    
+    // writes the final status of the load, and stops renewing its heartbeat
+    private void releaseLoad(String definedQueryId, CachedResultsQueryStatus cachedResultsQueryStatus) throws QueryException {
+        ownedLoads.remove(definedQueryId);
+        
+        // a load which was taken over by another node must not overwrite the new owner's status
+        if (abandonedLoads.remove(definedQueryId)) {
+            return;
+        }
+        
+        // the final status is written under the lock, so that a heartbeat or an early create which is already in progress can't overwrite it
+        boolean locked = (isRecoveryEnabled() || isEarlyAccessEnabled())
+                        && cachedResultsQueryCache.tryLockQueryStatus(definedQueryId, cachedResultsQueryProperties.getLockWaitTimeMillis());
+        try {
+            if (isEarlyAccessEnabled() && cachedResultsQueryStatus != null) {
+                keepEarlyCreate(cachedResultsQueryStatus);
             }
-            throw e instanceof QueryException ? (QueryException) e : new QueryException(e);
+            updateQueryStatus(definedQueryId, cachedResultsQueryStatus);
         } finally {
-            if (cachedResultsQueryStatus != null) {
-                try {
-                    cachedResultsQueryCache.update(definedQueryId, cachedResultsQueryStatus);
-                } catch (InterruptedException e) {
-                    log.error("Unable to update query cache", e);
-                }
+            if (locked) {
+                cachedResultsQueryCache.unlockQueryStatus(definedQueryId);
+            }
+        }
+    }
+    
+    // carries over the settings of a query which was created while it was still loading, which finishes the create once the load is LOADED
+    private void keepEarlyCreate(CachedResultsQueryStatus cachedResultsQueryStatus) {
+        CachedResultsQueryStatus cachedStatus = cachedResultsQueryCache.getQueryStatus(cachedResultsQueryStatus.getDefinedQueryId());
+        if (cachedStatus != null && cachedStatus.isCreatedWhileLoading()) {
+            copyCreateSettings(cachedStatus, cachedResultsQueryStatus);
+            if (cachedResultsQueryStatus.getState() == LOADED) {
+                cachedResultsQueryStatus.setState(CREATED);
+            }
+        }
+    }
+    
+    private void copyCreateSettings(CachedResultsQueryStatus from, CachedResultsQueryStatus to) {
+        to.setCachedQueryId(from.getCachedQueryId());
+        to.setAlias(from.getAlias());
+        to.setFields(from.getFields());
+        to.setConditions(from.getConditions());
+        to.setGrouping(from.getGrouping());
+        to.setOrder(from.getOrder());
+        to.setPageSize(from.getPageSize());
+        to.setFixedFields(from.getFixedFields());
+        to.setSqlQuery(from.getSqlQuery());
+        to.setCreatedWhileLoading(from.isCreatedWhileLoading());
+    }
+    
+    private void updateQueryStatus(String definedQueryId, CachedResultsQueryStatus cachedResultsQueryStatus) throws QueryException {
+        if (cachedResultsQueryStatus != null) {
+            try {
+                cachedResultsQueryCache.update(definedQueryId, cachedResultsQueryStatus);
+            } catch (InterruptedException e) {
+                log.error("Unable to update query cache", e);
             }
         }
     }
     
     private void load(CachedResultsQueryStatus cachedResultsQueryStatus) throws QueryException {
-        boolean queryClosed = false;
+        final AtomicBoolean queryClosed = new AtomicBoolean(false);
         
         try {
-            // duplicate the query
-            GenericResponse<?> duplicateResponse = queryService.duplicate(cachedResultsQueryStatus.getDefinedQueryId(),
-                            cachedResultsQueryStatus.getCurrentUser());
-            
-            String runningQueryId = (String) duplicateResponse.getResult();
-            
-            // if duplicate was successful, then the user owns this query - no need to validate ownership
-            // get the query logic name
-            QueryStatus queryStatus = queryStorageCache.getQueryStatus(runningQueryId);
-            if (queryStatus != null) {
-                cachedResultsQueryStatus.setQueryLogicName(queryStatus.getQuery().getQueryLogicName());
-                cachedResultsQueryStatus.setOrigQuery(queryStatus.getQuery().getQuery());
-            } else {
-                log.error("Query for {} does not exist", cachedResultsQueryStatus.getDefinedQueryId());
-                throw new BadRequestQueryException("Query for " + cachedResultsQueryStatus.getDefinedQueryId() + "does not exist");
+            // a query which was already loaded only needs a new view over the existing tables
+            if (reuseResults(cachedResultsQueryStatus)) {
+                return;
             }
             
-            // get the query logic and make sure that it's cacheable. if not, close and remove the query
-            CacheableLogic cacheableLogic;
-            QueryLogic<?> queryLogic = queryLogicFactory.getQueryLogic(cachedResultsQueryStatus.getQueryLogicName(), cachedResultsQueryStatus.getCurrentUser());
-            Transformer<?,?> transformer = queryLogic.getTransformer(queryStatus.getQuery());
-            if (transformer instanceof CacheableLogic) {
-                cacheableLogic = (CacheableLogic) transformer;
+            CacheableLogic cacheableLogic = startQuery(cachedResultsQueryStatus);
+            loadMetrics.loadStarted(cachedResultsQueryStatus.getDefinedQueryId(), cachedResultsQueryStatus.getQueryLogicName());
+            
+            // get all of the pages and load the results into SQL
+            LoadPipeline.PageFetcher<CacheableQueryRow> fetcher = () -> nextPage(cachedResultsQueryStatus, cacheableLogic, queryClosed);
+            if (cachedResultsQueryProperties.getPipeline().isEnabled()) {
+                // fetch the next pages while the previous pages are being written
+                CachedResultsQueryProperties.Pipeline pipelineProperties = cachedResultsQueryProperties.getPipeline();
+                LoadPipeline<CacheableQueryRow> pipeline = new LoadPipeline<>(loadWriterExecutorService, pipelineProperties.getDepth(),
+                                pipelineProperties.getNumWriters(), pipelineProperties.getShutdownTimeoutMillis());
+                pipeline.run(fetcher, page -> loadCacheableQueryRows(cachedResultsQueryStatus, page));
             } else {
-                try {
-                    queryService.close(runningQueryId, cachedResultsQueryStatus.getCurrentUser());
-                    queryService.remove(runningQueryId, cachedResultsQueryStatus.getCurrentUser());
-                } catch (QueryException e) {
-                    log.error("Could not close or remove query: " + runningQueryId, e);
+                List<CacheableQueryRow> cacheableQueryRows;
+                while ((cacheableQueryRows = fetcher.fetch()) != null) {
+                    loadCacheableQueryRows(cachedResultsQueryStatus, cacheableQueryRows);
                 }
-                
-                log.error("Cannot load results for a query logic that is not cacheable: {}", cachedResultsQueryStatus.getQueryLogicName());
-                throw new BadRequestQueryException(
-                                "Cannot load results for a query logic that is not cacheable: " + cachedResultsQueryStatus.getQueryLogicName());
             }
             
-            cachedResultsQueryStatus.setQuery(queryStatus.getQuery());
-            
-            // store the running query id in the cache
-            cachedResultsQueryStatus.setRunningQueryId(runningQueryId);
-            
-            // create the SQL table
-            cachedResultsQueryStatus.setTableName(getTableName(cachedResultsQueryStatus.getRunningQueryId()));
-            createTable(cachedResultsQueryStatus.getTableName());
-            
-            // before we load the results, update the cached query status
-            cachedResultsQueryCache.update(cachedResultsQueryStatus.getDefinedQueryId(), cachedResultsQueryStatus);
-            
-            // save the field index map in the cache
-            cachedResultsQueryStatus.setFieldIndexMap(new HashMap<>());
-            
-            // get all of the pages and load the results into SQL
-            boolean done = false;
-            do {
-                // request the next page
-                BaseQueryResponse nextResponse = null;
-                try {
-                    nextResponse = queryService.next(cachedResultsQueryStatus.getRunningQueryId(), cachedResultsQueryStatus.getCurrentUser());
-                } catch (NoResultsQueryException e) {
-                    // the query is closed automatically if we exhaust the results.
-                    queryClosed = true;
-                } catch (QueryException e) {
-                    log.error("Encountered an unexpected error calling next for {}", cachedResultsQueryStatus.getRunningQueryId());
-                    throw e;
-                }
-                
-                if (nextResponse != null) {
-                    List<QueryExceptionType> exceptions = nextResponse.getExceptions();
-                    if (nextResponse.getExceptions() != null && !nextResponse.getExceptions().isEmpty()) {
-                        throw new RuntimeException(exceptions.get(0).getMessage());
-                    }
-                    
-                    // convert the response to a list of cacheable query rows
-                    List<CacheableQueryRow> cacheableQueryRows = new ArrayList<>();
-                    for (Object result : getResults(nextResponse)) {
-                        cacheableQueryRows.add(cacheableLogic.writeToCache(result));
-                    }
-                    
-                    // load the cacheable query rows into the SQL table
-                    if (!cacheableQueryRows.isEmpty()) {
-                        loadCacheableQueryRows(cachedResultsQueryStatus, cacheableQueryRows);
-                    } else {
-                        done = true;
-                    }
-                } else {
-                    done = true;
-                    
-                    // Dump the fieldMap for debugging
-                    if (log.isTraceEnabled()) {
-                        for (Map.Entry<String,Integer> e : cachedResultsQueryStatus.getFieldIndexMap().entrySet()) {
-                            log.trace("Field mapping: {} -> {}", e.getKey(), e.getValue());
-                        }
-                    }
-                }
-            } while (!done);
+            traceFieldIndexMap(cachedResultsQueryStatus);
         } catch (Exception e) {
-            log.error("Encountered unknown error loading query results for {}", cachedResultsQueryStatus.getDefinedQueryId(), e);
-            throw e instanceof QueryException ? (QueryException) e
-                            : new QueryException("Encountered unknown error loading query results for " + cachedResultsQueryStatus.getDefinedQueryId(), e);
+            throw toLoadException(cachedResultsQueryStatus, e);
         } finally {
-            if (!queryClosed && cachedResultsQueryStatus.getRunningQueryId() != null) {
-                try {
-                    queryService.close(cachedResultsQueryStatus.getRunningQueryId(), cachedResultsQueryStatus.getCurrentUser());
-                } catch (QueryException e) {
-                    // this may happen if the query has already been automatically closed
-                    log.warn("Encountered error while closing query {}: {}", cachedResultsQueryStatus.getRunningQueryId(), e.getMessage());
-                }
-            }
+            endQuery(cachedResultsQueryStatus, queryClosed);
         }
     }
     
-    protected List<?> getResults(BaseQueryResponse nextResponse) {
-        if (nextResponse instanceof EventQueryResponseBase) {
-            return ((EventQueryResponseBase) nextResponse).getEvents();
-        } else if (nextResponse instanceof EdgeQueryResponseBase) {
-            return ((EdgeQueryResponseBase) nextResponse).getEdges();
-        } else {
-            throw new IllegalStateException("incompatible response");
+    // creates the query parameters to override on the query duplicated for a load
+    private MultiValueMap<String,String> createLoadParameters() {
+        CachedResultsQueryProperties.LoadProfile loadProfile = cachedResultsQueryProperties.getLoadProfile();
+        MultiValueMap<String,String> parameters = new LinkedMultiValueMap<>();
+        if (loadProfile.getPageSize() != null) {
+            parameters.set(QUERY_PAGESIZE, Integer.toString(loadProfile.getPageSize()));
+        }
+        if (loadProfile.getMaxResultsOverride() != null) {
+            parameters.set(QUERY_MAX_RESULTS_OVERRIDE, Long.toString(loadProfile.getMaxResultsOverride()));
         }
+        if (loadProfile.getPageTimeout() != null) {
+            parameters.set(QUERY_PAGETIMEOUT, Integer.toString(loadProfile.getPageTimeout()));
+        }
+        return parameters;
     }
     
-    private void loadCacheableQueryRows(CachedResultsQueryStatus cachedResultsQueryStatus, List<CacheableQueryRow> cacheableQueryRows) {
-        // use the prepared insert statement to write all the values
+    // loads the results without holding a thread while waiting on the query service
+    // (each page is written on the load scheduler once it arrives, and then the next page is requested)
+    private Mono<Void> loadAsync(CachedResultsQueryStatus cachedResultsQueryStatus) {
+        final AtomicBoolean queryClosed = new AtomicBoolean(false);
+        
         // @formatter:off
-        String insert = cachedResultsQueryProperties.getStatementTemplates().getInsert()
-                .replace(TABLE_PLACEHOLDER, cachedResultsQueryStatus.getTableName())
-                .replace(PREPARED_FIELDS_PLACEHOLDER, preparedFields)
-                .replace(PREPARED_VALUES_PLACEHOLDER, preparedValues);
+        return Mono.fromCallable(() -> reuseResults(cachedResultsQueryStatus))
+                .subscribeOn(asyncLoadScheduler)
+                .filter(reused -> !reused)
+                .flatMap(reused -> Mono.fromCallable(() -> startQuery(cachedResultsQueryStatus)))
+                .doOnNext(cacheableLogic -> loadMetrics.loadStarted(cachedResultsQueryStatus.getDefinedQueryId(),
+                        cachedResultsQueryStatus.getQueryLogicName()))
+                .flatMap(cacheableLogic -> loadPagesAsync(cachedResultsQueryStatus, cacheableLogic, queryClosed))
+                .then(Mono.fromRunnable(() -> traceFieldIndexMap(cachedResultsQueryStatus)))
+                .onErrorMap(Exception.class, e -> toLoadException(cachedResultsQueryStatus, e))
+                .doFinally(signalType -> endQuery(cachedResultsQueryStatus, queryClosed))
+                .then();
+        // @formatter:on
+    }
+    
+    private Mono<Void> loadPagesAsync(CachedResultsQueryStatus cachedResultsQueryStatus, CacheableLogic cacheableLogic, AtomicBoolean queryClosed) {
+        // each repetition loads a single page, so the operator chain stays the same depth no matter how many pages are loaded
+        // @formatter:off
+        return Mono.defer(() -> loadPageAsync(cachedResultsQueryStatus, cacheableLogic, queryClosed))
+                .repeat()
+                .takeUntil(loaded -> !loaded)
+                .then();
+        // @formatter:on
+    }
+    
+    // loads the next page, completing with false once there are no more pages
+    private Mono<Boolean> loadPageAsync(CachedResultsQueryStatus cachedResultsQueryStatus, CacheableLogic cacheableLogic, AtomicBoolean queryClosed) {
+        // @formatter:off
+        return Mono.fromCallable(() -> countPageRequest(cachedResultsQueryStatus))
+                .then(Mono.defer(() -> {
+                    LoadPageFetchedEvent fetchedEvent = new LoadPageFetchedEvent();
+                    fetchedEvent.begin();
+                    long startNanos = System.nanoTime();
+                    return ((AsyncQueryService) queryService).nextAsync(cachedResultsQueryStatus.getRunningQueryId(), cachedResultsQueryStatus.getCurrentUser())
+                            .doOnNext(nextResponse -> {
+                                loadMetrics.recordNext(cachedResultsQueryStatus.getQueryLogicName(), System.nanoTime() - startNanos);
+                                fetchedEvent.commit(cachedResultsQueryStatus.getRunningQueryId(), cachedResultsQueryStatus.getQueryLogicName(),
+                                        getNumResults(nextResponse));
+                            });
+                }))
+                .publishOn(asyncLoadScheduler)
+                .onErrorResume(NoResultsQueryException.class, e -> {
+                    // the query is closed automatically if we exhaust the results.
+                    queryClosed.set(true);
+                    return Mono.empty();
+                })
+                .doOnError(e -> log.error("Encountered an unexpected error calling next for {}", cachedResultsQueryStatus.getRunningQueryId()))
+                .flatMap(nextResponse -> Mono.justOrEmpty(toCacheableQueryRows(cachedResultsQueryStatus, nextResponse, null, 0L, cacheableLogic)))
+                .flatMap(cacheableQueryRows -> Mono.fromCallable(() -> {
+                    loadCacheableQueryRows(cachedResultsQueryStatus, cacheableQueryRows);
+                    return true;
+                }))
+                .defaultIfEmpty(false);
         // @formatter:on
+    }
+    
+    // points the load at the tables of an earlier load of the same query, returning false if there are none which can be reused
+    private boolean reuseResults(CachedResultsQueryStatus cachedResultsQueryStatus) throws QueryException, InterruptedException {
+        if (!cachedResultsQueryProperties.getReuse().isEnabled()) {
+            return false;
+        }
         
-        int attempt = 0;
-        boolean success = false;
-        while (!success && attempt < cachedResultsQueryProperties.getMaxInsertAttempts()) {
-            
-            // determine the maximum value length
-            // (maximum value length progressively shrinks based on the number of attempts)
-            final int maxValueLength = (int) (cachedResultsQueryProperties.getMaxValueLength()
-                            * ((double) (cachedResultsQueryProperties.getMaxInsertAttempts() - attempt) / cachedResultsQueryProperties.getMaxInsertAttempts()));
+        // a load which already reused another load's tables only needs its view
+        if (cachedResultsQueryStatus.getReusedDefinedQueryId() != null) {
+            return true;
+        }
+        
+        // the defined query is only reused on behalf of its owner, since duplicating the query is what checks ownership otherwise
+        String definedQueryId = cachedResultsQueryStatus.getDefinedQueryId();
+        QueryStatus definedQueryStatus = queryStorageCache.getQueryStatus(definedQueryId);
+        ProxiedUserDetails currentUser = cachedResultsQueryStatus.getCurrentUser();
+        if (definedQueryStatus == null
+                        || !ProxiedEntityUtils.getShortName(currentUser.getPrimaryUser().getName()).equals(definedQueryStatus.getQuery().getOwner())) {
+            return false;
+        }
+        
+        String fingerprint = QueryFingerprint.compute(definedQueryStatus.getQuery(), createLoadParameters(), currentUser);
+        cachedResultsQueryStatus.setFingerprint(fingerprint);
+        
+        String reusedDefinedQueryId = cachedResultsQueryCache.lookupQueryIdByFingerprint(fingerprint);
+        CachedResultsQueryStatus reusedStatus = (reusedDefinedQueryId != null) ? cachedResultsQueryCache.getQueryStatus(reusedDefinedQueryId) : null;
+        if (!isReusable(reusedStatus, fingerprint)) {
+            return false;
+        }
+        
+        log.info("Reusing the tables loaded for {} for the load of {}", reusedDefinedQueryId, definedQueryId);
+        cachedResultsQueryStatus.setReusedDefinedQueryId(reusedDefinedQueryId);
+        cachedResultsQueryStatus.setLoadedMillis(reusedStatus.getLoadedMillis());
+        cachedResultsQueryStatus.setQueryLogicName(reusedStatus.getQueryLogicName());
+        cachedResultsQueryStatus.setOrigQuery(reusedStatus.getOrigQuery());
+        cachedResultsQueryStatus.setQuery(reusedStatus.getQuery());
+        cachedResultsQueryStatus.setTableName(reusedStatus.getTableName());
+        cachedResultsQueryStatus.setOverflowTableName(reusedStatus.getOverflowTableName());
+        cachedResultsQueryStatus.setDictionaryTableName(reusedStatus.getDictionaryTableName());
+        cachedResultsQueryStatus.setFieldIndexMap(new HashMap<>(reusedStatus.getFieldIndexMap()));
+        cachedResultsQueryStatus.setNumColumns(reusedStatus.getNumColumns());
+        cachedResultsQueryStatus.setRowsWritten(reusedStatus.getRowsWritten());
+        
+        // each load gets its own view, so that the reused tables can be closed and expired independently of the load which wrote them
+        cachedResultsQueryStatus.setView(getViewName(UUID.randomUUID().toString()));
+        
+        // the status references the reused tables from now on, which keeps them from being dropped by the monitor
+        cachedResultsQueryCache.update(definedQueryId, cachedResultsQueryStatus);
+        return true;
+    }
+    
+    // only tables which were fully loaded recently enough for the same fingerprint can be reused
+    private boolean isReusable(CachedResultsQueryStatus reusedStatus, String fingerprint) {
+        if (reusedStatus == null || !fingerprint.equals(reusedStatus.getFingerprint()) || reusedStatus.getTableName() == null) {
+            return false;
+        }
+        
+        CachedResultsQueryStatus.CACHED_RESULTS_STATE state = reusedStatus.getState();
+        long ageMillis = System.currentTimeMillis() - reusedStatus.getLoadedMillis();
+        return (state == LOADED || state == CREATING || state == CREATED) && ageMillis <= cachedResultsQueryProperties.getReuse().getMaxAgeMillis();
+    }
+    
+    // duplicates the query, and prepares the tables which its results will be loaded into
+    private CacheableLogic startQuery(CachedResultsQueryStatus cachedResultsQueryStatus) throws Exception {
+        // an orphaned load already has its tables, and is resumed from its last checkpoint
+        if (cachedResultsQueryStatus.getTableName() != null) {
+            return resumeQuery(cachedResultsQueryStatus);
+        }
+        
+        // duplicate the query
+        // (using the load profile, rather than the interactive settings of the defined query)
+        GenericResponse<?> duplicateResponse = queryService.duplicate(cachedResultsQueryStatus.getDefinedQueryId(), createLoadParameters(),
+                        cachedResultsQueryStatus.getCurrentUser());
+        
+        String runningQueryId = (String) duplicateResponse.getResult();
+        
+        // if duplicate was successful, then the user owns this query - no need to validate ownership
+        // get the query logic name
+        QueryStatus queryStatus = queryStorageCache.getQueryStatus(runningQueryId);
+        if (queryStatus != null) {
+            cachedResultsQueryStatus.setQueryLogicName(queryStatus.getQuery().getQueryLogicName());
+            cachedResultsQueryStatus.setOrigQuery(queryStatus.getQuery().getQuery());
+        } else {
+            log.error("Query for {} does not exist", cachedResultsQueryStatus.getDefinedQueryId());
+            throw new BadRequestQueryException("Query for " + cachedResultsQueryStatus.getDefinedQueryId() + "does not exist");
+        }
+        
+        // get the query logic and make sure that it's cacheable. if not, close and remove the query
+        CacheableLogic cacheableLogic;
+        QueryLogic<?> queryLogic = queryLogicFactory.getQueryLogic(cachedResultsQueryStatus.getQueryLogicName(), cachedResultsQueryStatus.getCurrentUser());
+        Transformer<?,?> transformer = queryLogic.getTransformer(queryStatus.getQuery());
+        if (transformer instanceof CacheableLogic) {
+            cacheableLogic = (CacheableLogic) transformer;
+        } else {
             try {
-                cachedResultsJdbcTemplate.batchUpdate(insert, new BatchPreparedStatementSetter() {
-                    @Override
-                    public void setValues(PreparedStatement ps, int i) throws SQLException {
-                        CacheableQueryRow cacheableQueryRow = cacheableQueryRows.get(i);
-                        
-                        // Each entry is a different visibility.
-                        ps.setString(1, cachedResultsQueryStatus.getCurrentUser().getShortName());
-                        ps.setString(2, cachedResultsQueryStatus.getDefinedQueryId());
-                        ps.setString(3, cachedResultsQueryStatus.getQueryLogicName());
-                        ps.setString(4, cacheableQueryRow.getDataType());
-                        ps.setString(5, cacheableQueryRow.getEventId());
-                        ps.setString(6, cacheableQueryRow.getRow());
-                        ps.setString(7, cacheableQueryRow.getColFam());
-                        ps.setString(8, MarkingFunctions.Encoding.toString(new TreeMap<>(cacheableQueryRow.getMarkings())));
-                        
-                        // keep track of the populated columns
-                        Set<Integer> populatedColumns = new HashSet<>();
-                        for (Map.Entry<String,String> entry : cacheableQueryRow.getColumnValues().entrySet()) {
-                            String columnName = entry.getKey();
-                            String columnValue = entry.getValue();
-                            
-                            // Get the field number from the fieldMap.
-                            Integer columnNumber = cachedResultsQueryStatus.getFieldIndexMap().computeIfAbsent(columnName,
-                                            k -> CacheableQueryRow.getFixedColumnSet().size() + cachedResultsQueryStatus.getFieldIndexMap().size() + 1);
-                            
-                            if (columnValue.length() > maxValueLength) {
-                                String truncated = "<truncated>";
-                                columnValue = columnValue.substring(0, maxValueLength - truncated.length()) + truncated;
-                                ps.setString(columnNumber, columnValue);
-                            } else {
-                                ps.setString(columnNumber, columnValue);
-                            }
-                            
-                            // keep track of which columns are/aren't populated
-                            populatedColumns.add(columnNumber);
-                            
-                            if (log.isTraceEnabled()) {
-                                log.trace("Set parameter: {} with field name: {} to value: {}", columnNumber, columnName, columnValue);
-                            }
-                        }
-                        
-                        ps.setString(9, cacheableQueryRow.getColumnSecurityMarkingString(cachedResultsQueryStatus.getFieldIndexMap()));
-                        ps.setString(10, cacheableQueryRow.getColumnTimestampString(cachedResultsQueryStatus.getFieldIndexMap()));
-                        
-                        // need to set all the unset columns to NULL
-                        int beginColumn = CacheableQueryRow.getFixedColumnSet().size() + 1;
-                        int endColumn = CacheableQueryRow.getFixedColumnSet().size() + cachedResultsQueryProperties.getNumFields();
-                        for (int columnIndex = beginColumn; columnIndex <= endColumn; columnIndex++) {
-                            if (!populatedColumns.contains(columnIndex)) {
-                                ps.setNull(columnIndex, Types.VARCHAR);
-                            }
-                        }
-                    }
-                    
-                    @Override
-                    public int getBatchSize() {
-                        return cacheableQueryRows.size();
-                    }
-                });
-                
-                success = true;
-                
-                // update the total number of rows written to sql
-                cachedResultsQueryStatus.setRowsWritten(cachedResultsQueryStatus.getRowsWritten() + cacheableQueryRows.size());
-            } catch (DataAccessException e) {
-                if (++attempt == cachedResultsQueryProperties.getMaxInsertAttempts()) {
-                    log.error("Batch write FAILED for query {}", cachedResultsQueryStatus.getRunningQueryId(), e);
-                    throw e;
-                } else {
-                    log.warn("Batch write FAILED for query {}", cachedResultsQueryStatus.getRunningQueryId(), e);
-                }
+                queryService.close(runningQueryId, cachedResultsQueryStatus.getCurrentUser());
+                queryService.remove(runningQueryId, cachedResultsQueryStatus.getCurrentUser());
+            } catch (QueryException e) {
+                log.error("Could not close or remove query: " + runningQueryId, e);
             }
+            
+            log.error("Cannot load results for a query logic that is not cacheable: {}", cachedResultsQueryStatus.getQueryLogicName());
+            throw new BadRequestQueryException(
+                            "Cannot load results for a query logic that is not cacheable: " + cachedResultsQueryStatus.getQueryLogicName());
+        }
+        
+        cachedResultsQueryStatus.setQuery(queryStatus.getQuery());
+        
+        // store the running query id in the cache
+        cachedResultsQueryStatus.setRunningQueryId(runningQueryId);
+        
+        // create the SQL table
+        cachedResultsQueryStatus.setTableName(getTableName(cachedResultsQueryStatus.getRunningQueryId()));
+        createTable(cachedResultsQueryStatus.getQueryLogicName(), cachedResultsQueryStatus.getTableName());
+        
+        // create the markings dictionary table
+        if (cachedResultsQueryProperties.getMarkingsDictionary().isEnabled() || cachedResultsQueryProperties.getCompactEncoding().isEnabled()) {
+            cachedResultsQueryStatus.setDictionaryTableName(getDictionaryTableName(cachedResultsQueryStatus.getRunningQueryId()));
+            createDictionaryTable(cachedResultsQueryStatus.getQueryLogicName(), cachedResultsQueryStatus.getDictionaryTableName());
+            markingsDictionaries.put(cachedResultsQueryStatus.getTableName(), createMarkingsDictionary(cachedResultsQueryStatus, 0));
         }
+        
+        // save the field index map in the cache
+        // (this may be updated concurrently by multiple writers)
+        cachedResultsQueryStatus.setFieldIndexMap(new ConcurrentHashMap<>());
+        
+        // before we load the results, update the cached query status
+        // (this is also the checkpoint a resumed load starts from, so it includes the empty field index map)
+        cachedResultsQueryCache.update(cachedResultsQueryStatus.getDefinedQueryId(), cachedResultsQueryStatus);
+        
+        return cacheableLogic;
     }
     
-    private void createTable(String tableName) throws DataAccessException {
-        // @formatter:off
-        String createTable = cachedResultsQueryProperties.getStatementTemplates().getCreateTable()
-                .replace(TABLE_PLACEHOLDER, tableName);
-        // @formatter:on
+    // resumes the query of an orphaned load, continuing its running query if no pages were lost, or duplicating the query again otherwise
+    // (package-private so that resuming can be tested without running a query)
+    CacheableLogic resumeQuery(CachedResultsQueryStatus cachedResultsQueryStatus) throws Exception {
+        String definedQueryId = cachedResultsQueryStatus.getDefinedQueryId();
+        String tableName = cachedResultsQueryStatus.getTableName();
+        
+        // a page which was requested by the previous owner, but never written, can't be requested from the running query again
+        QueryStatus runningQueryStatus = queryStorageCache.getQueryStatus(cachedResultsQueryStatus.getRunningQueryId());
+        boolean pagesLost = cachedResultsQueryStatus.getPagesRequested() != cachedResultsQueryStatus.getPagesLoaded();
+        
+        Query query;
+        if (cachedResultsQueryProperties.getRecovery().isReuseRunningQuery() && !pagesLost && runningQueryStatus != null
+                        && runningQueryStatus.getQueryState() == QueryStatus.QUERY_STATE.CREATE) {
+            log.info("Resuming the load of {} with running query {} after {} pages", definedQueryId, cachedResultsQueryStatus.getRunningQueryId(),
+                            cachedResultsQueryStatus.getPagesLoaded());
+            query = runningQueryStatus.getQuery();
+        } else {
+            if (cachedResultsQueryStatus.getRunningQueryId() != null) {
+                try {
+                    queryService.close(cachedResultsQueryStatus.getRunningQueryId(), cachedResultsQueryStatus.getCurrentUser());
+                } catch (QueryException e) {
+                    // this may happen if the query has already been closed, or has expired
+                    log.debug("Unable to close query {}: {}", cachedResultsQueryStatus.getRunningQueryId(), e.getMessage());
+                }
+            }
+            
+            // the duplicated query starts over from the beginning, so the events which were already written need to be skipped
+            GenericResponse<?> duplicateResponse = queryService.duplicate(definedQueryId, createLoadParameters(), cachedResultsQueryStatus.getCurrentUser());
+            String runningQueryId = (String) duplicateResponse.getResult();
+            QueryStatus queryStatus = queryStorageCache.getQueryStatus(runningQueryId);
+            if (queryStatus == null) {
+                log.error("Query for {} does not exist", definedQueryId);
+                throw new BadRequestQueryException("Query for " + definedQueryId + "does not exist");
+            }
+            query = queryStatus.getQuery();
+            
+            String selectEventIds = getStatement(cachedResultsQueryProperties.getStatementTemplates().getSelectEventIds(), tableName);
+            Set<String> eventIds = ConcurrentHashMap.newKeySet();
+            eventIds.addAll(cachedResultsJdbcTemplate.queryForList(selectEventIds, String.class));
+            writtenEventIds.put(tableName, eventIds);
+            
+            log.info("Resuming the load of {} with duplicated query {}, skipping {} events which were already written", definedQueryId, runningQueryId,
+                            eventIds.size());
+            cachedResultsQueryStatus.setRunningQueryId(runningQueryId);
+            
+            // the page counts start over with the new query
+            cachedResultsQueryStatus.setPagesRequested(cachedResultsQueryStatus.getPagesLoaded());
+        }
+        
+        QueryLogic<?> queryLogic = queryLogicFactory.getQueryLogic(cachedResultsQueryStatus.getQueryLogicName(), cachedResultsQueryStatus.getCurrentUser());
+        Transformer<?,?> transformer = queryLogic.getTransformer(query);
+        if (!(transformer instanceof CacheableLogic)) {
+            throw new BadRequestQueryException("Cannot load results for a query logic that is not cacheable: " + cachedResultsQueryStatus.getQueryLogicName());
+        }
+        cachedResultsQueryStatus.setQuery(query);
+        
+        // rows may have been written after the last checkpoint, so the table is the source of truth for what was written
+        String countRows = getStatement(cachedResultsQueryProperties.getStatementTemplates().getCountRows(), tableName);
+        cachedResultsQueryStatus.setRowsWritten(cachedResultsJdbcTemplate.queryForObject(countRows, Integer.class));
+        if (cachedResultsQueryProperties.getDynamicColumns().isEnabled()) {
+            cachedResultsQueryStatus.setNumColumns(getNumFieldColumns(tableName));
+        }
+        
+        // new dictionary entries continue from the last persisted id
+        if (cachedResultsQueryStatus.getDictionaryTableName() != null) {
+            String selectMaxDictionaryId = getStatement(cachedResultsQueryProperties.getStatementTemplates().getSelectMaxDictionaryId(),
+                            cachedResultsQueryStatus.getDictionaryTableName());
+            int lastId = cachedResultsJdbcTemplate.queryForObject(selectMaxDictionaryId, Integer.class);
+            markingsDictionaries.put(tableName, createMarkingsDictionary(cachedResultsQueryStatus, lastId));
+        }
+        
+        cachedResultsQueryCache.update(definedQueryId, cachedResultsQueryStatus);
+        
+        // the field index map may be updated concurrently by multiple writers
+        cachedResultsQueryStatus.setFieldIndexMap(cachedResultsQueryStatus.getFieldIndexMap() != null
+                        ? new ConcurrentHashMap<>(cachedResultsQueryStatus.getFieldIndexMap())
+                        : new ConcurrentHashMap<>());
+        
+        return (CacheableLogic) transformer;
+    }
+    
+    // returns the number of field columns in the table, which may have grown after the last checkpoint
+    private int getNumFieldColumns(String tableName) {
+        return cachedResultsJdbcTemplate.query(getStatement(cachedResultsQueryProperties.getStatementTemplates().getSelectColumns(), tableName), resultSet -> {
+            return resultSet.getMetaData().getColumnCount() - CacheableQueryRow.getFixedColumnSet().size();
+        });
+    }
+    
+    private String getStatement(String template, String tableName) {
+        return template.replace(TABLE_PLACEHOLDER, tableName);
+    }
+    
+    // with recovery enabled, each new entry is written as soon as it is assigned, so that a row never references an entry which wasn't persisted
+    private MarkingsDictionary createMarkingsDictionary(CachedResultsQueryStatus cachedResultsQueryStatus, int lastId) {
+        // a resumed load, or a reader of the provisional view, needs each marking to be written before the rows which reference it
+        if (isRecoveryEnabled() || isEarlyAccessEnabled()) {
+            String insertDictionary = getStatement(cachedResultsQueryProperties.getStatementTemplates().getInsertDictionary(),
+                            cachedResultsQueryStatus.getDictionaryTableName());
+            return new MarkingsDictionary(lastId, entry -> cachedResultsJdbcTemplate.update(insertDictionary, entry));
+        }
+        return new MarkingsDictionary();
+    }
+    
+    private boolean isRecoveryEnabled() {
+        return cachedResultsQueryProperties.getRecovery().isEnabled();
+    }
+    
+    private boolean isEarlyAccessEnabled() {
+        return cachedResultsQueryProperties.getEarlyAccess().isEnabled();
+    }
+    
+    private void ownLoad(CachedResultsQueryStatus cachedResultsQueryStatus) {
+        cachedResultsQueryStatus.setLoadOwner(loadOwner);
+        cachedResultsQueryStatus.setHeartbeatMillis(System.currentTimeMillis());
+        ownedLoads.put(cachedResultsQueryStatus.getDefinedQueryId(), cachedResultsQueryStatus);
+    }
+    
+    // counts the page before it is requested, so that a new owner can tell whether a page was lost along with this node
+    private int countPageRequest(CachedResultsQueryStatus cachedResultsQueryStatus) throws QueryException {
+        int pagesRequested = cachedResultsQueryStatus.incrementPagesRequested();
+        if (isRecoveryEnabled()) {
+            checkpointLoad(cachedResultsQueryStatus, cachedStatus -> cachedStatus.setPagesRequested(pagesRequested));
+        }
+        return pagesRequested;
+    }
+    
+    private void checkpointPage(CachedResultsQueryStatus cachedResultsQueryStatus) throws QueryException {
+        int pagesLoaded = cachedResultsQueryStatus.incrementPagesLoaded();
+        int rowsWritten = cachedResultsQueryStatus.getRowsWritten();
+        try {
+            // pages may be written out of order by concurrent writers
+            checkpointLoad(cachedResultsQueryStatus, cachedStatus -> {
+                cachedStatus.setPagesLoaded(Math.max(pagesLoaded, cachedStatus.getPagesLoaded()));
+                cachedStatus.setRowsWritten(Math.max(rowsWritten, cachedStatus.getRowsWritten()));
+            });
+        } catch (QueryException e) {
+            if (abandonedLoads.contains(cachedResultsQueryStatus.getDefinedQueryId())) {
+                throw e;
+            }
+            // a stale page count only means that the running query won't be reused if the load is resumed
+            log.warn("Unable to checkpoint the load of {}", cachedResultsQueryStatus.getDefinedQueryId(), e);
+        }
+    }
+    
+    // checkpoints the table layout whenever it changes, before any row which depends on the change is written
+    private void checkpointLayout(CachedResultsQueryStatus cachedResultsQueryStatus) {
+        if (isRecoveryEnabled()) {
+            Map<String,Integer> fieldIndexMap = new HashMap<>(cachedResultsQueryStatus.getFieldIndexMap());
+            String overflowTableName = cachedResultsQueryStatus.getOverflowTableName();
+            try {
+                checkpointLoad(cachedResultsQueryStatus, cachedStatus -> {
+                    cachedStatus.setFieldIndexMap(fieldIndexMap);
+                    cachedStatus.setOverflowTableName(overflowTableName);
+                });
+            } catch (QueryException e) {
+                throw new IllegalStateException("Unable to checkpoint the table layout for " + cachedResultsQueryStatus.getDefinedQueryId(), e);
+            }
+        }
+    }
+    
+    // applies the checkpoint to the distributed status, and renews the heartbeat, as long as this node still owns the load
+    private void checkpointLoad(CachedResultsQueryStatus cachedResultsQueryStatus, CacheUpdater<CachedResultsQueryStatus> checkpoint) throws QueryException {
+        String definedQueryId = cachedResultsQueryStatus.getDefinedQueryId();
+        try {
+            cachedResultsQueryCache.lockedUpdate(definedQueryId, cachedStatus -> {
+                if (loadOwner.equals(cachedStatus.getLoadOwner())) {
+                    checkpoint.apply(cachedStatus);
+                    cachedStatus.setHeartbeatMillis(System.currentTimeMillis());
+                } else {
+                    abandonedLoads.add(definedQueryId);
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryException("Interrupted while checkpointing the load of " + definedQueryId, e);
+        }
+        
+        if (abandonedLoads.contains(definedQueryId)) {
+            throw new QueryException("The load of " + definedQueryId + " has been taken over by another node");
+        }
+        cachedResultsQueryStatus.setHeartbeatMillis(System.currentTimeMillis());
+    }
+    
+    private void traceFieldIndexMap(CachedResultsQueryStatus cachedResultsQueryStatus) {
+        // Dump the fieldMap for debugging
+        if (log.isTraceEnabled()) {
+            for (Map.Entry<String,Integer> e : cachedResultsQueryStatus.getFieldIndexMap().entrySet()) {
+                log.trace("Field mapping: {} -> {}", e.getKey(), e.getValue());
+            }
+        }
+    }
+    
+    private QueryException toLoadException(CachedResultsQueryStatus cachedResultsQueryStatus, Exception e) {
+        log.error("Encountered unknown error loading query results for {}", cachedResultsQueryStatus.getDefinedQueryId(), e);
+        return e instanceof QueryException ? (QueryException) e
+                        : new QueryException("Encountered unknown error loading query results for " + cachedResultsQueryStatus.getDefinedQueryId(), e);
+    }
+    
+    // releases the load's resources, and closes the running query unless it has already been closed
+    private void endQuery(CachedResultsQueryStatus cachedResultsQueryStatus, AtomicBoolean queryClosed) {
+        loadMetrics.loadFinished(cachedResultsQueryStatus.getDefinedQueryId());
+        
+        if (cachedResultsQueryStatus.getTableName() != null) {
+            markingsDictionaries.remove(cachedResultsQueryStatus.getTableName());
+            tableLocks.remove(cachedResultsQueryStatus.getTableName());
+            writtenEventIds.remove(cachedResultsQueryStatus.getTableName());
+            provisionalViewFields.remove(cachedResultsQueryStatus.getTableName());
+        }
+        
+        // the running query of an abandoned load may be continued by its new owner
+        if (!queryClosed.get() && cachedResultsQueryStatus.getRunningQueryId() != null
+                        && !abandonedLoads.contains(cachedResultsQueryStatus.getDefinedQueryId())) {
+            try {
+                queryService.close(cachedResultsQueryStatus.getRunningQueryId(), cachedResultsQueryStatus.getCurrentUser());
+            } catch (QueryException e) {
+                // this may happen if the query has already been automatically closed
+                log.warn("Encountered error while closing query {}: {}", cachedResultsQueryStatus.getRunningQueryId(), e.getMessage());
+            }
+        }
+    }
+    
+    // returns the next page of results converted to cacheable query rows, or null if there are no more results
+    private List<CacheableQueryRow> nextPage(CachedResultsQueryStatus cachedResultsQueryStatus, CacheableLogic cacheableLogic, AtomicBoolean queryClosed)
+                    throws QueryException {
+        countPageRequest(cachedResultsQueryStatus);
+        
+        // request the next page
+        BaseQueryResponse nextResponse;
+        List<CacheableQueryRow> streamedRows = null;
+        // the time spent converting streamed results, which is excluded from the next latency
+        final long[] streamedConversionNanos = new long[1];
+        LoadPageFetchedEvent fetchedEvent = new LoadPageFetchedEvent();
+        fetchedEvent.begin();
+        long startNanos = System.nanoTime();
+        try {
+            if (cachedResultsQueryProperties.getRemoteQuery().isStreamNext()) {
+                // convert each result as soon as it is decoded, rather than once the whole page has been read
+                List<CacheableQueryRow> rows = new ArrayList<>();
+                nextResponse = queryService.next(cachedResultsQueryStatus.getRunningQueryId(), cachedResultsQueryStatus.getCurrentUser(), result -> {
+                    long conversionStartNanos = System.nanoTime();
+                    rows.add(cacheableLogic.writeToCache(result));
+                    streamedConversionNanos[0] += System.nanoTime() - conversionStartNanos;
+                });
+                streamedRows = rows;
+            } else {
+                nextResponse = queryService.next(cachedResultsQueryStatus.getRunningQueryId(), cachedResultsQueryStatus.getCurrentUser());
+            }
+            loadMetrics.recordNext(cachedResultsQueryStatus.getQueryLogicName(), System.nanoTime() - startNanos - streamedConversionNanos[0]);
+        } catch (NoResultsQueryException e) {
+            // the query is closed automatically if we exhaust the results.
+            queryClosed.set(true);
+            return null;
+        } catch (QueryException e) {
+            log.error("Encountered an unexpected error calling next for {}", cachedResultsQueryStatus.getRunningQueryId());
+            throw e;
+        }
+        
+        List<CacheableQueryRow> cacheableQueryRows = toCacheableQueryRows(cachedResultsQueryStatus, nextResponse, streamedRows, streamedConversionNanos[0],
+                        cacheableLogic);
+        fetchedEvent.commit(cachedResultsQueryStatus.getRunningQueryId(), cachedResultsQueryStatus.getQueryLogicName(),
+                        (cacheableQueryRows != null) ? cacheableQueryRows.size() : 0);
+        return cacheableQueryRows;
+    }
+    
+    // returns the number of results in the response, without converting them
+    private int getNumResults(BaseQueryResponse nextResponse) {
+        if (nextResponse instanceof EventQueryResponseBase || nextResponse instanceof EdgeQueryResponseBase) {
+            List<?> results = getResults(nextResponse);
+            return (results != null) ? results.size() : 0;
+        }
+        return 0;
+    }
+    
+    // converts the response to a list of cacheable query rows, or null if there are no results
+    // (streamed rows were already converted while the page was read, taking the given time)
+    private List<CacheableQueryRow> toCacheableQueryRows(CachedResultsQueryStatus cachedResultsQueryStatus, BaseQueryResponse nextResponse,
+                    List<CacheableQueryRow> streamedRows, long streamedConversionNanos, CacheableLogic cacheableLogic) {
+        if (nextResponse != null) {
+            List<QueryExceptionType> exceptions = nextResponse.getExceptions();
+            if (nextResponse.getExceptions() != null && !nextResponse.getExceptions().isEmpty()) {
+                throw new RuntimeException(exceptions.get(0).getMessage());
+            }
+            
+            // convert the response to a list of cacheable query rows
+            List<CacheableQueryRow> cacheableQueryRows = streamedRows;
+            long conversionNanos = streamedConversionNanos;
+            if (cacheableQueryRows == null) {
+                long startNanos = System.nanoTime();
+                cacheableQueryRows = new ArrayList<>();
+                for (Object result : getResults(nextResponse)) {
+                    cacheableQueryRows.add(cacheableLogic.writeToCache(result));
+                }
+                conversionNanos = System.nanoTime() - startNanos;
+            }
+            loadMetrics.recordPage(cachedResultsQueryStatus.getQueryLogicName(), cacheableQueryRows.size(), conversionNanos);
+            
+            if (!cacheableQueryRows.isEmpty()) {
+                return cacheableQueryRows;
+            }
+        }
+        return null;
+    }
+    
+    protected List<?> getResults(BaseQueryResponse nextResponse) {
+        if (nextResponse instanceof EventQueryResponseBase) {
+            return ((EventQueryResponseBase) nextResponse).getEvents();
+        } else if (nextResponse instanceof EdgeQueryResponseBase) {
+            return ((EdgeQueryResponseBase) nextResponse).getEdges();
+        } else {
+            throw new IllegalStateException("incompatible response");
+        }
+    }
+    
+    // package-private so that resumed loads can be tested without running a query
+    void loadCacheableQueryRows(CachedResultsQueryStatus cachedResultsQueryStatus, List<CacheableQueryRow> cacheableQueryRows) throws Exception {
+        // skip the events which were written before the load was resumed
+        Set<String> eventIds = writtenEventIds.get(cachedResultsQueryStatus.getTableName());
+        if (eventIds != null) {
+            cacheableQueryRows = cacheableQueryRows.stream().filter(row -> row.getEventId() == null || !eventIds.remove(row.getEventId()))
+                            .collect(Collectors.toList());
+        }
+        
+        if (!cacheableQueryRows.isEmpty()) {
+            writeCacheableQueryRows(cachedResultsQueryStatus, cacheableQueryRows);
+        }
+        
+        // now that the page has been written, checkpoint the progress of the load
+        if (isRecoveryEnabled()) {
+            checkpointPage(cachedResultsQueryStatus);
+        }
+        
+        if (isEarlyAccessEnabled()) {
+            publishProvisionalView(cachedResultsQueryStatus);
+        }
+    }
+    
+    // publishes the rows written so far through the provisional view, which is widened whenever new fields have been added
+    private void publishProvisionalView(CachedResultsQueryStatus cachedResultsQueryStatus) {
+        String definedQueryId = cachedResultsQueryStatus.getDefinedQueryId();
+        String tableName = cachedResultsQueryStatus.getTableName();
+        try {
+            Map<String,Integer> fieldIndexMap;
+            boolean viewChanged = false;
+            Lock tableLock = getTableLock(cachedResultsQueryStatus);
+            tableLock.lock();
+            try {
+                // the view name is kept for the life of the load, even if the load is resumed with a new running query
+                if (cachedResultsQueryStatus.getView() == null) {
+                    cachedResultsQueryStatus.setView(getViewName(cachedResultsQueryStatus.getRunningQueryId()));
+                    cachedResultsQueryCache.putQueryIdByViewLookup(cachedResultsQueryStatus.getView(), definedQueryId);
+                }
+                
+                fieldIndexMap = new HashMap<>(cachedResultsQueryStatus.getFieldIndexMap());
+                Integer numFields = provisionalViewFields.get(tableName);
+                if (numFields == null || numFields < fieldIndexMap.size()) {
+                    createView(cachedResultsQueryStatus.getQueryLogicName(), cachedResultsQueryProperties.getStatementTemplates().getCreateOrReplaceView(),
+                                    tableName, cachedResultsQueryStatus.getView(), fieldIndexMap, null);
+                    provisionalViewFields.put(tableName, fieldIndexMap.size());
+                    viewChanged = true;
+                }
+            } finally {
+                tableLock.unlock();
+            }
+            
+            String viewName = cachedResultsQueryStatus.getView();
+            int rowsWritten = cachedResultsQueryStatus.getRowsWritten();
+            boolean updateFields = viewChanged;
+            cachedResultsQueryCache.lockedUpdate(definedQueryId, cachedStatus -> {
+                cachedStatus.setView(viewName);
+                cachedStatus.setRowsWritten(Math.max(rowsWritten, cachedStatus.getRowsWritten()));
+                if (updateFields) {
+                    cachedStatus.setFieldIndexMap(fieldIndexMap);
+                }
+            });
+        } catch (Exception e) {
+            // the provisional view will catch up when the next page is written
+            log.warn("Unable to publish the provisional view for {}: {}", definedQueryId, e.getMessage());
+        }
+    }
+    
+    private void writeCacheableQueryRows(CachedResultsQueryStatus cachedResultsQueryStatus, List<CacheableQueryRow> cacheableQueryRows) throws Exception {
+        CachedResultsQueryProperties.ParallelInsert parallelInsert = cachedResultsQueryProperties.getParallelInsert();
+        int numShards = Math.min(parallelInsert.getNumWriters(), cacheableQueryRows.size() / Math.max(1, parallelInsert.getMinRowsPerWriter()));
+        if (parallelInsert.isEnabled() && numShards > 1) {
+            // assign the column numbers up front so that every writer sees the same column layout
+            for (CacheableQueryRow cacheableQueryRow : cacheableQueryRows) {
+                for (String columnName : cacheableQueryRow.getColumnValues().keySet()) {
+                    getColumnNumber(cachedResultsQueryStatus, columnName);
+                }
+            }
+            
+            // split the page into contiguous shards, and write each shard using a separate connection
+            int shardSize = (cacheableQueryRows.size() + numShards - 1) / numShards;
+            List<Future<?>> futures = new ArrayList<>();
+            for (int begin = 0; begin < cacheableQueryRows.size(); begin += shardSize) {
+                List<CacheableQueryRow> shard = cacheableQueryRows.subList(begin, Math.min(begin + shardSize, cacheableQueryRows.size()));
+                futures.add(insertWriterExecutorService.submit(() -> insertCacheableQueryRows(cachedResultsQueryStatus, shard)));
+            }
+            
+            // wait for all of the shards to be written before reporting the first failure
+            Exception failure = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } else {
+            insertCacheableQueryRows(cachedResultsQueryStatus, cacheableQueryRows);
+        }
+        
+        // persist any markings which were added to the dictionary by this page
+        MarkingsDictionary markingsDictionary = markingsDictionaries.get(cachedResultsQueryStatus.getTableName());
+        if (markingsDictionary != null) {
+            List<Object[]> entries = markingsDictionary.drainPendingEntries();
+            if (!entries.isEmpty()) {
+                String insertDictionary = cachedResultsQueryProperties.getStatementTemplates().getInsertDictionary().replace(TABLE_PLACEHOLDER,
+                                cachedResultsQueryStatus.getDictionaryTableName());
+                cachedResultsJdbcTemplate.batchUpdate(insertDictionary, entries);
+            }
+        }
+    }
+    
+    // package-private so that the insert strategies can be tested without running a query
+    void insertCacheableQueryRows(CachedResultsQueryStatus cachedResultsQueryStatus, List<CacheableQueryRow> cacheableQueryRows) {
+        if (cachedResultsQueryProperties.getInsertStrategy() == CachedResultsQueryProperties.InsertStrategy.LOAD_DATA
+                        && loadDataCacheableQueryRows(cachedResultsQueryStatus, cacheableQueryRows)) {
+            // the rows were loaded
+        } else if (cachedResultsQueryProperties.getSparseInsert().isEnabled() || cachedResultsQueryProperties.getDynamicColumns().isEnabled()) {
+            // dynamically sized tables may not have every field column, so they always use sparse inserts
+            // group the rows by their populated columns so that only real values need to be bound
+            Map<ColumnSignature,List<CacheableQueryRow>> rowsBySignature = new LinkedHashMap<>();
+            for (CacheableQueryRow cacheableQueryRow : cacheableQueryRows) {
+                int[] columnNumbers = cacheableQueryRow.getColumnValues().keySet().stream()
+                                .mapToInt(columnName -> getColumnNumber(cachedResultsQueryStatus, columnName)).toArray();
+                rowsBySignature.computeIfAbsent(new ColumnSignature(columnNumbers), k -> new ArrayList<>()).add(cacheableQueryRow);
+            }
+            
+            for (Map.Entry<ColumnSignature,List<CacheableQueryRow>> entry : rowsBySignature.entrySet()) {
+                insertCacheableQueryRows(cachedResultsQueryStatus, entry.getValue(), entry.getKey());
+            }
+        } else {
+            insertCacheableQueryRows(cachedResultsQueryStatus, cacheableQueryRows, null);
+        }
+        
+        // oversized values are only written once the rows which reference them have been written, so a failed insert leaves no orphaned values
+        if (cachedResultsQueryProperties.getOverflow().isEnabled()) {
+            overflowCacheableQueryRows(cachedResultsQueryStatus, cacheableQueryRows);
+        }
+    }
+    
+    private void insertCacheableQueryRows(CachedResultsQueryStatus cachedResultsQueryStatus, List<CacheableQueryRow> cacheableQueryRows,
+                    ColumnSignature columnSignature) {
+        // use the prepared insert statement to write all the values
+        String insert = getInsert(columnSignature).replace(TABLE_PLACEHOLDER, cachedResultsQueryStatus.getTableName());
+        
+        if (cachedResultsQueryProperties.getRetryStrategy() == CachedResultsQueryProperties.RetryStrategy.BISECT) {
+            bisectInsertCacheableQueryRows(cachedResultsQueryStatus, cacheableQueryRows, columnSignature, insert, 0);
+            return;
+        }
+        
+        int attempt = 0;
+        boolean success = false;
+        while (!success && attempt < cachedResultsQueryProperties.getMaxInsertAttempts()) {
+            
+            // determine the maximum value length
+            // (maximum value length progressively shrinks based on the number of attempts)
+            final int maxValueLength = (int) (cachedResultsQueryProperties.getMaxValueLength()
+                            * ((double) (cachedResultsQueryProperties.getMaxInsertAttempts() - attempt) / cachedResultsQueryProperties.getMaxInsertAttempts()));
+            try {
+                LoadBatchInsertedEvent insertedEvent = new LoadBatchInsertedEvent();
+                insertedEvent.begin();
+                long startNanos = System.nanoTime();
+                cachedResultsJdbcTemplate.batchUpdate(insert,
+                                createCacheableQueryRowSetter(cachedResultsQueryStatus, cacheableQueryRows, columnSignature, maxValueLength));
+                recordBatchWrite(cachedResultsQueryStatus, insertedEvent, startNanos, cacheableQueryRows.size(), 0L);
+                
+                success = true;
+                
+                // update the total number of rows written to sql
+                cachedResultsQueryStatus.incrementRowsWritten(cacheableQueryRows.size());
+            } catch (DataAccessException e) {
+                if (++attempt == cachedResultsQueryProperties.getMaxInsertAttempts()) {
+                    log.error("Batch write FAILED for query {}", cachedResultsQueryStatus.getRunningQueryId(), e);
+                    throw e;
+                } else {
+                    log.warn("Batch write FAILED for query {}", cachedResultsQueryStatus.getRunningQueryId(), e);
+                    recordInsertRetry(cachedResultsQueryStatus, cacheableQueryRows.size(), attempt);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Writes the rows, splitting the batch on failure in order to isolate the rows which cannot be written
+     *
+     * Values are only truncated for rows which have failed on their own, and the length they are truncated to shrinks with each attempt for that row.
+     *
+     * @param cachedResultsQueryStatus
+     *            the cached results query status, not null
+     * @param cacheableQueryRows
+     *            the rows to write, not null
+     * @param columnSignature
+     *            the populated columns for a sparse insert, or null for a full insert
+     * @param insert
+     *            the insert statement
+     * @param attempt
+     *            the number of previous attempts, only used once the batch has been reduced to a single row
+     */
+    private void bisectInsertCacheableQueryRows(CachedResultsQueryStatus cachedResultsQueryStatus, List<CacheableQueryRow> cacheableQueryRows,
+                    ColumnSignature columnSignature, String insert, int attempt) {
+        final int maxValueLength = (int) (cachedResultsQueryProperties.getMaxValueLength()
+                        * ((double) (cachedResultsQueryProperties.getMaxInsertAttempts() - attempt) / cachedResultsQueryProperties.getMaxInsertAttempts()));
+        try {
+            LoadBatchInsertedEvent insertedEvent = new LoadBatchInsertedEvent();
+            insertedEvent.begin();
+            long startNanos = System.nanoTime();
+            cachedResultsJdbcTemplate.batchUpdate(insert,
+                            createCacheableQueryRowSetter(cachedResultsQueryStatus, cacheableQueryRows, columnSignature, maxValueLength));
+            recordBatchWrite(cachedResultsQueryStatus, insertedEvent, startNanos, cacheableQueryRows.size(), 0L);
+            
+            // update the total number of rows written to sql
+            cachedResultsQueryStatus.incrementRowsWritten(cacheableQueryRows.size());
+        } catch (DataAccessException e) {
+            if (cacheableQueryRows.size() == 1) {
+                String eventId = cacheableQueryRows.get(0).getEventId();
+                if (attempt + 1 >= cachedResultsQueryProperties.getMaxInsertAttempts()) {
+                    log.error("Insert FAILED for event {} of query {} after {} attempts", eventId, cachedResultsQueryStatus.getRunningQueryId(), attempt + 1,
+                                    e);
+                    throw e;
+                }
+                log.warn("Insert FAILED for event {} of query {} on attempt {}", eventId, cachedResultsQueryStatus.getRunningQueryId(), attempt + 1, e);
+                recordInsertRetry(cachedResultsQueryStatus, 1, attempt + 1);
+                bisectInsertCacheableQueryRows(cachedResultsQueryStatus, cacheableQueryRows, columnSignature, insert, attempt + 1);
+                return;
+            }
+            
+            recordInsertRetry(cachedResultsQueryStatus, cacheableQueryRows.size(), attempt + 1);
+            
+            int[] updateCounts = getUpdateCounts(e);
+            if (updateCounts != null && updateCounts.length == cacheableQueryRows.size()) {
+                // the driver continued past the failed statements, so the update counts tell us exactly which rows failed
+                List<CacheableQueryRow> failedRows = new ArrayList<>();
+                for (int i = 0; i < updateCounts.length; i++) {
+                    if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                        failedRows.add(cacheableQueryRows.get(i));
+                    }
+                }
+                log.warn("Batch write FAILED for {} of {} rows for query {}", failedRows.size(), cacheableQueryRows.size(),
+                                cachedResultsQueryStatus.getRunningQueryId());
+                cachedResultsQueryStatus.incrementRowsWritten(cacheableQueryRows.size() - failedRows.size());
+                for (CacheableQueryRow failedRow : failedRows) {
+                    bisectInsertCacheableQueryRows(cachedResultsQueryStatus, Collections.singletonList(failedRow), columnSignature, insert, attempt + 1);
+                }
+            } else {
+                // the driver stopped at the first failure, so the rows before it were written and only the rest need to be retried
+                // (without any update counts, none of the rows are known to have been written)
+                int numWritten = getNumWritten(updateCounts, cacheableQueryRows.size());
+                cachedResultsQueryStatus.incrementRowsWritten(numWritten);
+                
+                List<CacheableQueryRow> remainingRows = cacheableQueryRows.subList(numWritten, cacheableQueryRows.size());
+                log.warn("Batch write FAILED for {} of {} rows for query {}, splitting batch", remainingRows.size(), cacheableQueryRows.size(),
+                                cachedResultsQueryStatus.getRunningQueryId());
+                if (remainingRows.size() == 1) {
+                    bisectInsertCacheableQueryRows(cachedResultsQueryStatus, remainingRows, columnSignature, insert, attempt);
+                } else {
+                    int middle = remainingRows.size() / 2;
+                    bisectInsertCacheableQueryRows(cachedResultsQueryStatus, remainingRows.subList(0, middle), columnSignature, insert, attempt);
+                    bisectInsertCacheableQueryRows(cachedResultsQueryStatus, remainingRows.subList(middle, remainingRows.size()), columnSignature, insert,
+                                    attempt);
+                }
+            }
+        }
+    }
+    
+    // records a successful write of the rows to sql
+    private void recordBatchWrite(CachedResultsQueryStatus cachedResultsQueryStatus, LoadBatchInsertedEvent insertedEvent, long startNanos, int numRows,
+                    long numBytes) {
+        loadMetrics.recordBatchWrite(cachedResultsQueryStatus.getQueryLogicName(), System.nanoTime() - startNanos, numRows);
+        insertedEvent.commit(cachedResultsQueryStatus.getRunningQueryId(), cachedResultsQueryStatus.getQueryLogicName(),
+                        cachedResultsQueryStatus.getTableName(), numRows, numBytes);
+    }
+    
+    // records a failed write of the rows which will be retried
+    private void recordInsertRetry(CachedResultsQueryStatus cachedResultsQueryStatus, int numRows, int attempt) {
+        loadMetrics.countInsertRetry(cachedResultsQueryStatus.getQueryLogicName());
+        new InsertRetryEvent().commit(cachedResultsQueryStatus.getRunningQueryId(), cachedResultsQueryStatus.getQueryLogicName(), numRows, attempt);
+    }
+    
+    // returns the update counts of the failed batch, or null if the driver didn't provide them
+    private int[] getUpdateCounts(DataAccessException e) {
+        Throwable cause = e;
+        while (cause != null && !(cause instanceof BatchUpdateException)) {
+            cause = cause.getCause();
+        }
+        return (cause != null) ? ((BatchUpdateException) cause).getUpdateCounts() : null;
+    }
+    
+    // returns the number of rows at the start of the batch which were written before the driver stopped
+    private int getNumWritten(int[] updateCounts, int numRows) {
+        int numWritten = 0;
+        if (updateCounts != null && updateCounts.length < numRows) {
+            while (numWritten < updateCounts.length && updateCounts[numWritten] != Statement.EXECUTE_FAILED) {
+                numWritten++;
+            }
+        }
+        return numWritten;
+    }
+    
+    private BatchPreparedStatementSetter createCacheableQueryRowSetter(CachedResultsQueryStatus cachedResultsQueryStatus,
+                    List<CacheableQueryRow> cacheableQueryRows, ColumnSignature columnSignature, int maxValueLength) {
+        return new CacheableQueryRowSetter(cachedResultsQueryStatus, cacheableQueryRows, columnSignature, maxValueLength,
+                        cachedResultsQueryProperties.getNumFields(), new CacheableQueryRowSetter.RowValues() {
+                            @Override
+                            public int getColumnNumber(String columnName) {
+                                return CachedResultsQueryService.this.getColumnNumber(cachedResultsQueryStatus, columnName);
+                            }
+                            
+                            @Override
+                            public String getColumnValue(CacheableQueryRow cacheableQueryRow, String columnName, String columnValue) {
+                                return CachedResultsQueryService.this.getStoredColumnValue(cacheableQueryRow, columnName, columnValue);
+                            }
+                            
+                            @Override
+                            public String getMarkingsValue(CacheableQueryRow cacheableQueryRow) {
+                                return CachedResultsQueryService.this.getMarkingsValue(cachedResultsQueryStatus, cacheableQueryRow);
+                            }
+                            
+                            @Override
+                            public String getColumnMarkingsValue(CacheableQueryRow cacheableQueryRow) {
+                                return CachedResultsQueryService.this.getColumnMarkingsValue(cachedResultsQueryStatus, cacheableQueryRow);
+                            }
+                            
+                            @Override
+                            public String getColumnTimestampsValue(CacheableQueryRow cacheableQueryRow) {
+                                return CachedResultsQueryService.this.getColumnTimestampsValue(cachedResultsQueryStatus, cacheableQueryRow);
+                            }
+                        });
+    }
+    
+    /**
+     * Streams the rows into the table using LOAD DATA LOCAL INFILE
+     *
+     * @param cachedResultsQueryStatus
+     *            the cached results query status, not null
+     * @param cacheableQueryRows
+     *            the rows to load, not null
+     * @return true if the rows were loaded, or false if the rows should be written using batched inserts instead
+     */
+    private boolean loadDataCacheableQueryRows(CachedResultsQueryStatus cachedResultsQueryStatus, List<CacheableQueryRow> cacheableQueryRows) {
+        // the load statement names every column populated within this page
+        // (this also makes sure that the columns exist before the load starts)
+        Set<Integer> columnNumberSet = new HashSet<>();
+        for (CacheableQueryRow cacheableQueryRow : cacheableQueryRows) {
+            for (String columnName : cacheableQueryRow.getColumnValues().keySet()) {
+                columnNumberSet.add(getColumnNumber(cachedResultsQueryStatus, columnName));
+            }
+        }
+        ColumnSignature columnSignature = new ColumnSignature(columnNumberSet.stream().mapToInt(Integer::intValue).toArray());
+        
+        int numFixedColumns = CacheableQueryRow.getFixedColumnSet().size();
+        String loadData = cachedResultsQueryProperties.getStatementTemplates().getLoadData().replace(TABLE_PLACEHOLDER,
+                        cachedResultsQueryStatus.getTableName());
+        if (columnSignature.isEmpty()) {
+            loadData = loadData.replaceAll(",\\s*" + Pattern.quote(PREPARED_FIELDS_PLACEHOLDER), "");
+        } else {
+            loadData = loadData.replace(PREPARED_FIELDS_PLACEHOLDER, Arrays.stream(columnSignature.getColumnNumbers())
+                            .mapToObj(columnNumber -> FIELD + (columnNumber - numFixedColumns - 1)).collect(Collectors.joining(", ")));
+        }
+        
+        // rows are encoded as the load statement reads them, so the page is never written out in full
+        final int maxValueLength = cachedResultsQueryProperties.getMaxValueLength();
+        // @formatter:off
+        LoadDataInputStream inputStream = new LoadDataInputStream(cacheableQueryRows.stream()
+                .map(cacheableQueryRow -> toLoadDataRecord(cachedResultsQueryStatus, cacheableQueryRow, columnSignature, maxValueLength))
+                .iterator());
+        // @formatter:on
+        
+        final String statement = loadData;
+        long rowsLoaded;
+        try {
+            LoadBatchInsertedEvent insertedEvent = new LoadBatchInsertedEvent();
+            insertedEvent.begin();
+            long startNanos = System.nanoTime();
+            Long updateCount = cachedResultsJdbcTemplate.execute((StatementCallback<Long>) stmt -> {
+                stmt.unwrap(JdbcStatement.class).setLocalInfileInputStream(inputStream);
+                long count = stmt.executeLargeUpdate(statement);
+                logLoadDataWarnings(cachedResultsQueryStatus, stmt.getWarnings());
+                return count;
+            });
+            rowsLoaded = (updateCount != null) ? updateCount : 0L;
+            recordBatchWrite(cachedResultsQueryStatus, insertedEvent, startNanos, (int) rowsLoaded, inputStream.getBytesRead());
+        } catch (DataAccessException e) {
+            // if the server never read any of the data, then nothing was loaded and it is safe to fall back to batched inserts
+            if (inputStream.getBytesRead() == 0) {
+                log.warn("Load data FAILED for query {}, falling back to batched inserts", cachedResultsQueryStatus.getRunningQueryId(), e);
+                return false;
+            }
+            log.error("Load data FAILED for query {}", cachedResultsQueryStatus.getRunningQueryId(), e);
+            throw e;
+        }
+        
+        // data errors are downgraded to warnings by LOAD DATA LOCAL, and the rows which caused them are skipped
+        // (the table isn't transactional, so the rows which were loaded are deleted before the page is written with batched inserts instead)
+        if (rowsLoaded != cacheableQueryRows.size()) {
+            log.warn("Load data FAILED for query {}, loaded {} of {} rows, retrying with batched inserts", cachedResultsQueryStatus.getRunningQueryId(),
+                            rowsLoaded, cacheableQueryRows.size());
+            deleteEvents(cachedResultsQueryStatus, cacheableQueryRows);
+            return false;
+        }
+        
+        // update the total number of rows written to sql
+        cachedResultsQueryStatus.incrementRowsWritten(cacheableQueryRows.size());
+        return true;
+    }
+    
+    // deletes any rows which were written for the events of the given rows
+    private void deleteEvents(CachedResultsQueryStatus cachedResultsQueryStatus, List<CacheableQueryRow> cacheableQueryRows) {
+        Object[] eventIds = cacheableQueryRows.stream().map(CacheableQueryRow::getEventId).distinct().toArray();
+        // @formatter:off
+        String deleteEvents = cachedResultsQueryProperties.getStatementTemplates().getDeleteEvents()
+                .replace(TABLE_PLACEHOLDER, cachedResultsQueryStatus.getTableName())
+                .replace(PREPARED_VALUES_PLACEHOLDER, Stream.generate(() -> "?").limit(eventIds.length).collect(Collectors.joining(", ")));
+        // @formatter:on
+        try {
+            int numDeleted = cachedResultsJdbcTemplate.update(deleteEvents, eventIds);
+            log.debug("Deleted {} partially loaded rows for query {}", numDeleted, cachedResultsQueryStatus.getRunningQueryId());
+        } catch (DataAccessException e) {
+            log.error("Unable to delete the partially loaded rows for query {}", cachedResultsQueryStatus.getRunningQueryId(), e);
+            throw e;
+        }
+    }
+    
+    // logs the warnings raised by a load, e.g. for truncated values
+    private void logLoadDataWarnings(CachedResultsQueryStatus cachedResultsQueryStatus, SQLWarning warning) {
+        int numWarnings = 0;
+        for (; warning != null; warning = warning.getNextWarning()) {
+            if (numWarnings++ < MAX_LOGGED_LOAD_DATA_WARNINGS) {
+                log.warn("Load data warning for query {}: {}", cachedResultsQueryStatus.getRunningQueryId(), warning.getMessage());
+            }
+        }
+        if (numWarnings > MAX_LOGGED_LOAD_DATA_WARNINGS) {
+            log.warn("Load data raised {} warnings for query {}", numWarnings, cachedResultsQueryStatus.getRunningQueryId());
+        }
+    }
+    
+    private List<String> toLoadDataRecord(CachedResultsQueryStatus cachedResultsQueryStatus, CacheableQueryRow cacheableQueryRow,
+                    ColumnSignature columnSignature, int maxValueLength) {
+        List<String> record = new ArrayList<>(CacheableQueryRow.getFixedColumnSet().size() + columnSignature.getColumnNumbers().length);
+        record.add(cachedResultsQueryStatus.getCurrentUser().getShortName());
+        record.add(cachedResultsQueryStatus.getDefinedQueryId());
+        record.add(cachedResultsQueryStatus.getQueryLogicName());
+        record.add(cacheableQueryRow.getDataType());
+        record.add(cacheableQueryRow.getEventId());
+        record.add(cacheableQueryRow.getRow());
+        record.add(cacheableQueryRow.getColFam());
+        record.add(getMarkingsValue(cachedResultsQueryStatus, cacheableQueryRow));
+        record.add(getColumnMarkingsValue(cachedResultsQueryStatus, cacheableQueryRow));
+        record.add(getColumnTimestampsValue(cachedResultsQueryStatus, cacheableQueryRow));
+        
+        // unpopulated columns are loaded as NULL
+        String[] columnValues = new String[columnSignature.getColumnNumbers().length];
+        for (Map.Entry<String,String> entry : cacheableQueryRow.getColumnValues().entrySet()) {
+            String columnValue = getStoredColumnValue(cacheableQueryRow, entry.getKey(), entry.getValue());
+            if (columnValue.length() > maxValueLength) {
+                String truncated = "<truncated>";
+                columnValue = columnValue.substring(0, maxValueLength - truncated.length()) + truncated;
+            }
+            columnValues[columnSignature.indexOf(getColumnNumber(cachedResultsQueryStatus, entry.getKey()))] = columnValue;
+        }
+        record.addAll(Arrays.asList(columnValues));
+        return record;
+    }
+    
+    // returns the value to store for the column, which is a reference to the overflow table for values longer than the overflow threshold
+    private String getStoredColumnValue(CacheableQueryRow cacheableQueryRow, String columnName, String columnValue) {
+        if (cachedResultsQueryProperties.getOverflow().isEnabled() && columnValue.length() > cachedResultsQueryProperties.getOverflow().getThreshold()) {
+            return getOverflowReference(getOverflowId(cacheableQueryRow.getEventId(), columnName, columnValue));
+        }
+        return columnValue;
+    }
+    
+    // the id is derived from the value, so the rows never need to be modified to hold their references,
+    // and identical values within an event share a single overflow row
+    private static String getOverflowId(String eventId, String columnName, String columnValue) {
+        return UUID.nameUUIDFromBytes((eventId + '\0' + columnName + '\0' + columnValue).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+    
+    private static String getOverflowReference(String id) {
+        return OVERFLOW_PREFIX + id + OVERFLOW_SUFFIX;
+    }
+    
+    /**
+     * Writes values longer than the overflow threshold to the overflow table
+     *
+     * The rows themselves are left unchanged, and their stored values reference the overflow rows by id. Each overflow row also records the event and column
+     * it belongs to, which is what marks a stored value as overflowed when it is read.
+     *
+     * @param cachedResultsQueryStatus
+     *            the cached results query status, not null
+     * @param cacheableQueryRows
+     *            the rows which were written, not null
+     */
+    private void overflowCacheableQueryRows(CachedResultsQueryStatus cachedResultsQueryStatus, List<CacheableQueryRow> cacheableQueryRows) {
+        int threshold = cachedResultsQueryProperties.getOverflow().getThreshold();
+        
+        // each overflow row is the id, event id, column name, and value
+        Map<String,Object[]> overflowValues = new LinkedHashMap<>();
+        for (CacheableQueryRow cacheableQueryRow : cacheableQueryRows) {
+            for (Map.Entry<String,String> entry : cacheableQueryRow.getColumnValues().entrySet()) {
+                if (entry.getValue().length() > threshold) {
+                    String id = getOverflowId(cacheableQueryRow.getEventId(), entry.getKey(), entry.getValue());
+                    overflowValues.put(id, new Object[] {id, cacheableQueryRow.getEventId(), entry.getKey(), entry.getValue()});
+                }
+            }
+        }
+        
+        if (!overflowValues.isEmpty()) {
+            // the overflow table is only created once it is needed
+            if (cachedResultsQueryStatus.getOverflowTableName() == null) {
+                Lock tableLock = getTableLock(cachedResultsQueryStatus);
+                tableLock.lock();
+                try {
+                    if (cachedResultsQueryStatus.getOverflowTableName() == null) {
+                        String overflowTableName = getOverflowTableName(cachedResultsQueryStatus.getRunningQueryId());
+                        String createOverflowTable = cachedResultsQueryProperties.getStatementTemplates().getCreateOverflowTable().replace(TABLE_PLACEHOLDER,
+                                        overflowTableName);
+                        try {
+                            long startNanos = System.nanoTime();
+                            cachedResultsJdbcTemplate.execute(createOverflowTable);
+                            loadMetrics.recordDdl(cachedResultsQueryStatus.getQueryLogicName(), "createOverflowTable", System.nanoTime() - startNanos);
+                        } catch (DataAccessException e) {
+                            log.error("Unable to create overflow table {} using statement {}", overflowTableName, createOverflowTable, e);
+                            throw e;
+                        }
+                        cachedResultsQueryStatus.setOverflowTableName(overflowTableName);
+                        checkpointLayout(cachedResultsQueryStatus);
+                    }
+                } finally {
+                    tableLock.unlock();
+                }
+            }
+            
+            String insertOverflow = cachedResultsQueryProperties.getStatementTemplates().getInsertOverflow().replace(TABLE_PLACEHOLDER,
+                            cachedResultsQueryStatus.getOverflowTableName());
+            cachedResultsJdbcTemplate.batchUpdate(insertOverflow, new ArrayList<>(overflowValues.values()));
+            
+            log.debug("Moved {} oversized values to overflow table {}", overflowValues.size(), cachedResultsQueryStatus.getOverflowTableName());
+        }
+    }
+    
+    // returns the encoded markings for the row, or a reference to them if the markings are dictionary encoded
+    private String getMarkingsValue(CachedResultsQueryStatus cachedResultsQueryStatus, CacheableQueryRow cacheableQueryRow) {
+        Map<String,String> markings = cacheableQueryRow.getMarkings();
+        MarkingsDictionary markingsDictionary = markingsDictionaries.get(cachedResultsQueryStatus.getTableName());
+        if (markingsDictionary != null) {
+            // the markings are only encoded the first time they are seen
+            String reference = markingsDictionary.lookup(markings);
+            if (reference == null) {
+                reference = markingsDictionary.getReference(new HashMap<>(markings), () -> MarkingFunctions.Encoding.toString(new TreeMap<>(markings)));
+            }
+            return reference;
+        }
+        return MarkingFunctions.Encoding.toString(new TreeMap<>(markings));
+    }
+    
+    // returns the value to store for the column markings of the row
+    private String getColumnMarkingsValue(CachedResultsQueryStatus cachedResultsQueryStatus, CacheableQueryRow cacheableQueryRow) {
+        MarkingsDictionary markingsDictionary = markingsDictionaries.get(cachedResultsQueryStatus.getTableName());
+        if (markingsDictionary != null && cachedResultsQueryProperties.getCompactEncoding().isEnabled()) {
+            // @formatter:off
+            return encodeColumns(cachedResultsQueryStatus, cacheableQueryRow, (columnNumbers, columnNames) -> {
+                int[] markingIds = new int[columnNames.length];
+                int[] visibilityIds = new int[columnNames.length];
+                for (int i = 0; i < columnNames.length; i++) {
+                    markingIds[i] = getDictionaryId(markingsDictionary, cacheableQueryRow.getColumnMarkings(columnNames[i]));
+                    visibilityIds[i] = getDictionaryId(markingsDictionary, cacheableQueryRow.getColumnVisibility(columnNames[i]));
+                }
+                return CompactColumnEncoding.encodeMarkings(columnNumbers, markingIds, visibilityIds);
+            });
+            // @formatter:on
+        }
+        return getDictionaryValue(markingsDictionary, cacheableQueryRow.getColumnSecurityMarkingString(cachedResultsQueryStatus.getFieldIndexMap()));
+    }
+    
+    // returns the value to store for the column timestamps of the row
+    private String getColumnTimestampsValue(CachedResultsQueryStatus cachedResultsQueryStatus, CacheableQueryRow cacheableQueryRow) {
+        MarkingsDictionary markingsDictionary = markingsDictionaries.get(cachedResultsQueryStatus.getTableName());
+        if (markingsDictionary != null && cachedResultsQueryProperties.getCompactEncoding().isEnabled()) {
+            // @formatter:off
+            return encodeColumns(cachedResultsQueryStatus, cacheableQueryRow, (columnNumbers, columnNames) -> {
+                Long[] timestamps = new Long[columnNames.length];
+                for (int i = 0; i < columnNames.length; i++) {
+                    timestamps[i] = cacheableQueryRow.getColumnTimestamp(columnNames[i]);
+                }
+                return CompactColumnEncoding.encodeTimestamps(columnNumbers, timestamps);
+            });
+            // @formatter:on
+        }
+        return getDictionaryValue(markingsDictionary, cacheableQueryRow.getColumnTimestampString(cachedResultsQueryStatus.getFieldIndexMap()));
+    }
+    
+    // orders the columns of the row by column number before encoding them
+    private String encodeColumns(CachedResultsQueryStatus cachedResultsQueryStatus, CacheableQueryRow cacheableQueryRow,
+                    BiFunction<int[],String[],String> encoder) {
+        TreeMap<Integer,String> columnNamesByNumber = new TreeMap<>();
+        for (String columnName : cacheableQueryRow.getColumnValues().keySet()) {
+            columnNamesByNumber.put(getColumnNumber(cachedResultsQueryStatus, columnName), columnName);
+        }
+        int[] columnNumbers = columnNamesByNumber.keySet().stream().mapToInt(Integer::intValue).toArray();
+        String[] columnNames = columnNamesByNumber.values().toArray(new String[0]);
+        return encoder.apply(columnNumbers, columnNames);
+    }
+    
+    // returns the dictionary id for the markings or visibility, or 0 if there is none
+    private int getDictionaryId(MarkingsDictionary markingsDictionary, Object value) {
+        String reference = null;
+        if (value instanceof Map) {
+            Map<String,String> markings = (Map<String,String>) value;
+            reference = markingsDictionary.lookup(markings);
+            if (reference == null) {
+                reference = markingsDictionary.getReference(new HashMap<>(markings), () -> MarkingFunctions.Encoding.toString(new TreeMap<>(markings)));
+            }
+        } else if (value != null) {
+            reference = markingsDictionary.getReference(value, value::toString);
+        }
+        return (reference != null) ? MarkingsDictionary.parseReference(reference) : 0;
+    }
+    
+    // returns the value, or a reference to it if there is a markings dictionary
+    private String getDictionaryValue(MarkingsDictionary markingsDictionary, String value) {
+        if (markingsDictionary != null && value != null) {
+            return markingsDictionary.getReference(value, () -> value);
+        }
+        return value;
+    }
+    
+    // returns the insert statement for the given column signature, or the full insert statement if the signature is null
+    private String getInsert(ColumnSignature columnSignature) {
+        if (columnSignature == null) {
+            // @formatter:off
+            return cachedResultsQueryProperties.getStatementTemplates().getInsert()
+                    .replace(PREPARED_FIELDS_PLACEHOLDER, preparedFields)
+                    .replace(PREPARED_VALUES_PLACEHOLDER, preparedValues);
+            // @formatter:on
+        }
+        
+        String insert = sparseInserts.get(columnSignature);
+        if (insert == null) {
+            int numFixedColumns = CacheableQueryRow.getFixedColumnSet().size();
+            if (columnSignature.isEmpty()) {
+                // only the fixed columns are populated, so drop the field placeholders along with their leading separators
+                // @formatter:off
+                insert = cachedResultsQueryProperties.getStatementTemplates().getInsert()
+                        .replaceAll(",\\s*" + Pattern.quote(PREPARED_FIELDS_PLACEHOLDER), "")
+                        .replaceAll(",\\s*" + Pattern.quote(PREPARED_VALUES_PLACEHOLDER), "");
+                // @formatter:on
+            } else {
+                // @formatter:off
+                insert = cachedResultsQueryProperties.getStatementTemplates().getInsert()
+                        .replace(PREPARED_FIELDS_PLACEHOLDER, Arrays.stream(columnSignature.getColumnNumbers())
+                                .mapToObj(columnNumber -> FIELD + (columnNumber - numFixedColumns - 1))
+                                .collect(Collectors.joining(", ")))
+                        .replace(PREPARED_VALUES_PLACEHOLDER, Stream.generate(() -> "?")
+                                .limit(columnSignature.getColumnNumbers().length)
+                                .collect(Collectors.joining(", ")));
+                // @formatter:on
+            }
+            sparseInserts.put(columnSignature, insert);
+        }
+        return insert;
+    }
+    
+    private Lock getTableLock(CachedResultsQueryStatus cachedResultsQueryStatus) {
+        return tableLocks.computeIfAbsent(cachedResultsQueryStatus.getTableName(), tableName -> new ReentrantLock());
+    }
+    
+    private Integer getColumnNumber(CachedResultsQueryStatus cachedResultsQueryStatus, String columnName) {
+        Map<String,Integer> fieldIndexMap = cachedResultsQueryStatus.getFieldIndexMap();
+        Integer columnNumber = fieldIndexMap.get(columnName);
+        if (columnNumber == null) {
+            // column numbers are assigned sequentially, so new columns need to be added one at a time
+            Lock tableLock = getTableLock(cachedResultsQueryStatus);
+            tableLock.lock();
+            try {
+                columnNumber = fieldIndexMap.get(columnName);
+                if (columnNumber == null) {
+                    // make sure the column exists before the column number is handed out
+                    if (cachedResultsQueryProperties.getDynamicColumns().isEnabled()) {
+                        ensureColumnCapacity(cachedResultsQueryStatus, fieldIndexMap.size() + 1);
+                    }
+                    columnNumber = CacheableQueryRow.getFixedColumnSet().size() + fieldIndexMap.size() + 1;
+                    fieldIndexMap.put(columnName, columnNumber);
+                    checkpointLayout(cachedResultsQueryStatus);
+                }
+            } finally {
+                tableLock.unlock();
+            }
+        }
+        return columnNumber;
+    }
+    
+    // grows a dynamically sized table, in chunks, until it has at least the requested number of field columns
+    private void ensureColumnCapacity(CachedResultsQueryStatus cachedResultsQueryStatus, int numColumns) {
+        int currentNumColumns = cachedResultsQueryStatus.getNumColumns();
+        if (numColumns > currentNumColumns) {
+            int maxColumns = cachedResultsQueryProperties.getDynamicColumns().getMaxColumns() > 0
+                            ? cachedResultsQueryProperties.getDynamicColumns().getMaxColumns()
+                            : cachedResultsQueryProperties.getNumFields();
+            if (numColumns > maxColumns) {
+                throw new IllegalStateException("Unable to add more than " + maxColumns + " columns to " + cachedResultsQueryStatus.getTableName());
+            }
+            
+            int newNumColumns = Math.min(maxColumns,
+                            Math.max(numColumns, currentNumColumns + Math.max(1, cachedResultsQueryProperties.getDynamicColumns().getGrowthChunk())));
+            String columnDefinitions = IntStream.range(currentNumColumns, newNumColumns).mapToObj(x -> FIELD + x + " LONGTEXT")
+                            .collect(Collectors.joining(", "));
+            
+            // @formatter:off
+            String addColumns = cachedResultsQueryProperties.getStatementTemplates().getAddColumns()
+                    .replace(TABLE_PLACEHOLDER, cachedResultsQueryStatus.getTableName())
+                    .replace(FIELD_DEFINITIONS_PLACEHOLDER, columnDefinitions);
+            // @formatter:on
+            
+            try {
+                long startNanos = System.nanoTime();
+                cachedResultsJdbcTemplate.execute(addColumns);
+                loadMetrics.recordDdl(cachedResultsQueryStatus.getQueryLogicName(), "addColumns", System.nanoTime() - startNanos);
+            } catch (DataAccessException e) {
+                log.error("Unable to add columns to table {} using statement {}", cachedResultsQueryStatus.getTableName(), addColumns, e);
+                throw e;
+            }
+            
+            log.debug("Grew table {} from {} to {} columns", cachedResultsQueryStatus.getTableName(), currentNumColumns, newNumColumns);
+            cachedResultsQueryStatus.setNumColumns(newNumColumns);
+        }
+    }
+    
+    private void createTable(String queryLogicName, String tableName) throws DataAccessException {
+        String createTableTemplate = cachedResultsQueryProperties.getDynamicColumns().isEnabled()
+                        ? cachedResultsQueryProperties.getStatementTemplates().getCreateFixedTable()
+                        : cachedResultsQueryProperties.getStatementTemplates().getCreateTable();
+        String createTable = createTableTemplate.replace(TABLE_PLACEHOLDER, tableName);
         
         try {
+            long startNanos = System.nanoTime();
             cachedResultsJdbcTemplate.execute(createTable);
+            loadMetrics.recordDdl(queryLogicName, "createTable", System.nanoTime() - startNanos);
         } catch (DataAccessException e) {
             log.error("Unable to create table {} using statement {}", tableName, createTable, e);
             throw e;
         }
     }
     
+    private void createDictionaryTable(String queryLogicName, String tableName) throws DataAccessException {
+        String createDictionaryTable = cachedResultsQueryProperties.getStatementTemplates().getCreateDictionaryTable().replace(TABLE_PLACEHOLDER, tableName);
+        try {
+            long startNanos = System.nanoTime();
+            cachedResultsJdbcTemplate.execute(createDictionaryTable);
+            loadMetrics.recordDdl(queryLogicName, "createDictionaryTable", System.nanoTime() - startNanos);
+        } catch (DataAccessException e) {
+            log.error("Unable to create dictionary table {} using statement {}", tableName, createDictionaryTable, e);
+            throw e;
+        }
+    }
+    
     private void dropTable(String tableName) {
         String statement = cachedResultsQueryProperties.getStatementTemplates().getDropTable().replace(TABLE_PLACEHOLDER, tableName);
         try {
@@ -514,19 +1883,27 @@ public class CachedResultsQueryService {
         }
     }
     
-    private void createView(String tableName, String viewName, Map<String,Integer> fieldIndexMap) {
+    // if a view user is given, the view selects it in place of the user stored with each row
+    private void createView(String queryLogicName, String createViewTemplate, String tableName, String viewName, Map<String,Integer> fieldIndexMap,
+                    String viewUser) {
         String baseCols = String.join(",", CacheableQueryRow.getFixedColumnSet());
         StringBuilder viewCols = new StringBuilder();
         StringBuilder tableCols = new StringBuilder();
         viewCols.append(baseCols);
-        tableCols.append(baseCols);
+        if (viewUser == null) {
+            tableCols.append(baseCols);
+        } else {
+            String quotedUser = "'" + viewUser.replace("\\", "\\\\").replace("'", "''") + "'";
+            tableCols.append(CacheableQueryRow.getFixedColumnSet().stream().map(col -> col.equals(USER_COLUMN) ? quotedUser : col)
+                            .collect(Collectors.joining(",")));
+        }
         for (Map.Entry<String,Integer> entry : fieldIndexMap.entrySet()) {
             viewCols.append(",").append("`").append(entry.getKey()).append("`");
             tableCols.append(",").append(FIELD).append(entry.getValue() - CacheableQueryRow.getFixedColumnSet().size() - 1);
         }
         
         // @formatter:off
-        String createView = cachedResultsQueryProperties.getStatementTemplates().getCreateView()
+        String createView = createViewTemplate
                 .replace(TABLE_PLACEHOLDER, tableName)
                 .replace(VIEW_PLACEHOLDER, viewName)
                 .replace(TABLE_COLS_PLACEHOLDER, tableCols)
@@ -534,7 +1911,12 @@ public class CachedResultsQueryService {
         // @formatter:on
         
         try {
+            ViewCreatedEvent createdEvent = new ViewCreatedEvent();
+            createdEvent.begin();
+            long startNanos = System.nanoTime();
             cachedResultsJdbcTemplate.execute(createView);
+            loadMetrics.recordDdl(queryLogicName, "createView", System.nanoTime() - startNanos);
+            createdEvent.commit(queryLogicName, tableName, viewName, fieldIndexMap.size());
         } catch (DataAccessException e) {
             log.error("Unable to create view {} using statement {}", tableName, createView, e);
             throw e;
@@ -554,11 +1936,25 @@ public class CachedResultsQueryService {
         return "t" + newQueryId.replace("-", "");
     }
     
+    private String getOverflowTableName(String newQueryId) {
+        return "o" + newQueryId.replace("-", "");
+    }
+    
+    private String getDictionaryTableName(String newQueryId) {
+        return "d" + newQueryId.replace("-", "");
+    }
+    
     private String getViewName(String newQueryId) {
         return "v" + newQueryId.replace("-", "");
     }
     
     public CachedResultsResponse create(String key, MultiValueMap<String,String> parameters, ProxiedUserDetails currentUser) throws QueryException {
+        return create(key, parameters, currentUser, false);
+    }
+    
+    // loadAndCreate keeps the settings of a query which was created while it was loading, while an explicit create is rejected once the load has finished
+    private CachedResultsResponse create(String key, MultiValueMap<String,String> parameters, ProxiedUserDetails currentUser, boolean keepEarlyCreate)
+                    throws QueryException {
         String user = ProxiedEntityUtils.getShortName(currentUser.getPrimaryUser().getName());
         if (log.isDebugEnabled()) {
             log.info("Request: {}/create from {} with params: {}", key, user, parameters);
@@ -570,7 +1966,13 @@ public class CachedResultsQueryService {
             // make sure the query is valid, and the user can act on it
             CachedResultsQueryStatus cachedResultsQueryStatus = validateRequest(key, currentUser);
             
-            if (cachedResultsQueryStatus.getState() == LOADED) {
+            if (cachedResultsQueryStatus.getState() == CREATED && cachedResultsQueryStatus.isCreatedWhileLoading() && !keepEarlyCreate) {
+                throw new BadRequestQueryException(EARLY_CREATE_MESSAGE, HttpStatus.SC_BAD_REQUEST + "-1");
+            }
+            
+            // a query which was created while it was loading may still be created by loadAndCreate, which keeps the earlier settings
+            if (cachedResultsQueryStatus.getState() == LOADED || isProvisionallyReadable(cachedResultsQueryStatus)
+                            || (cachedResultsQueryStatus.getState() == CREATED && cachedResultsQueryStatus.isCreatedWhileLoading())) {
                 if (cachedResultsQueryStatus.getDefinedQueryId() != null) {
                     parameters.computeIfAbsent(CachedResultsQueryParameters.QUERY_ID,
                                     s -> Collections.singletonList(cachedResultsQueryStatus.getDefinedQueryId()));
@@ -581,7 +1983,7 @@ public class CachedResultsQueryService {
                 if (cachedResultsQueryStatus.getView() != null) {
                     parameters.computeIfAbsent(CachedResultsQueryParameters.VIEW, s -> Collections.singletonList(cachedResultsQueryStatus.getView()));
                 }
-                return create(cachedResultsQueryStatus.getDefinedQueryId(), parameters);
+                return create(cachedResultsQueryStatus.getDefinedQueryId(), parameters, keepEarlyCreate);
             } else {
                 throw new BadRequestQueryException("Cannot call create on a query that has not finished loading", HttpStatus.SC_BAD_REQUEST + "-1");
             }
@@ -594,20 +1996,37 @@ public class CachedResultsQueryService {
         }
     }
     
-    private CachedResultsResponse create(String definedQueryId, MultiValueMap<String,String> parameters)
+    private CachedResultsResponse create(String definedQueryId, MultiValueMap<String,String> parameters, boolean keepEarlyCreate)
                     throws QueryException, InterruptedException, CloneNotSupportedException {
+        ReadTimings readTimings = new ReadTimings();
         CachedResultsQueryParameters cachedResultsQueryParameters = scopedCachedResultsQueryParameters.get();
         cachedResultsQueryParameters.validate(parameters);
         
         // mark the query as CREATING
+        // (unless it is still loading, in which case the load owns the state, and the query is marked CREATED when the load finishes)
+        AtomicBoolean createdWhileLoading = new AtomicBoolean(false);
         CachedResultsQueryStatus cachedResultsQueryStatus = cachedResultsQueryCache.lockedUpdate(definedQueryId, status -> {
             if (status.getState() == LOADED) {
                 status.setState(CREATING);
+            } else if (isProvisionallyReadable(status)) {
+                createdWhileLoading.set(true);
+            } else if (status.getState() == CREATED && status.isCreatedWhileLoading()) {
+                // the load finished while this request was being validated
+                if (!keepEarlyCreate) {
+                    throw new BadRequestQueryException(EARLY_CREATE_MESSAGE, HttpStatus.SC_BAD_REQUEST + "-1");
+                }
+                createdWhileLoading.set(true);
             } else {
                 throw new BadRequestQueryException("Cannot call create on a query that is not loaded", HttpStatus.SC_BAD_REQUEST + "-1");
             }
         });
         
+        // a query which was created while it was loading keeps those settings once the load finishes
+        // (e.g. when loadAndCreate gets to its create after the user already created the query)
+        if (cachedResultsQueryStatus.getState() == CREATED) {
+            return finishRead(ReadMetrics.CREATE, cachedResultsQueryStatus, readTimings, 0, createResponse(cachedResultsQueryStatus));
+        }
+        
         // this will allow cachedResultsQueryStatus to be accessed by the cachedQueryId
         cachedResultsQueryCache.putQueryIdByCachedQueryIdLookup(cachedResultsQueryParameters.getQueryId(), definedQueryId);
         cachedResultsQueryStatus.setCachedQueryId(cachedResultsQueryParameters.getQueryId());
@@ -645,9 +2064,12 @@ public class CachedResultsQueryService {
         cachedResultsQueryStatus.setFixedFields(fixedFields);
         
         // generate the sql query
+        long stageStartNanos = System.nanoTime();
         cachedResultsQueryStatus.setSqlQuery(generateSqlQuery(cachedResultsQueryStatus));
+        stageStartNanos = readTimings.addSince(ReadTimings.GENERATE_SQL_QUERY, stageStartNanos);
         
         QueryLogic<?> queryLogic = queryLogicFactory.getQueryLogic(cachedResultsQueryStatus.getQueryLogicName(), cachedResultsQueryStatus.getCurrentUser());
+        stageStartNanos = readTimings.addSince(ReadTimings.GET_QUERY_LOGIC, stageStartNanos);
         if (queryLogic == null) {
             log.error("Could not find description for logic {}", cachedResultsQueryStatus.getQueryLogicName());
             throw new QueryException(DatawaveErrorCode.QUERY_LOGIC_ERROR,
@@ -656,7 +2078,7 @@ public class CachedResultsQueryService {
         
         // audit the query again
         // @formatter:off
-        audit(cachedResultsQueryStatus.getRunningQueryId(),
+        audit((cachedResultsQueryStatus.getRunningQueryId() != null) ? cachedResultsQueryStatus.getRunningQueryId() : definedQueryId,
                 queryLogic.getAuditType(),
                 queryLogic.getLogicName(),
                 cachedResultsQueryStatus.getOrigQuery(),
@@ -664,20 +2086,59 @@ public class CachedResultsQueryService {
                 createAuditParameters(parameters, cachedResultsQueryStatus),
                 cachedResultsQueryStatus.getCurrentUser());
         // @formatter:on
+        readTimings.addSince(ReadTimings.AUDIT, stageStartNanos);
+        
+        if (createdWhileLoading.get()) {
+            // only the settings of the query are written, since the rest of the status still belongs to the load
+            cachedResultsQueryStatus.setCreatedWhileLoading(true);
+            CachedResultsQueryStatus updatedStatus = cachedResultsQueryCache.lockedUpdate(definedQueryId, status -> {
+                copyCreateSettings(cachedResultsQueryStatus, status);
+                
+                // the load may have finished while the query was being created
+                if (status.getState() == LOADED) {
+                    status.setState(CREATED);
+                }
+            });
+            return finishRead(ReadMetrics.CREATE, cachedResultsQueryStatus, readTimings, 0, createResponse(updatedStatus));
+        }
         
         // mark the query as CREATED
         cachedResultsQueryStatus.setState(CREATED);
         cachedResultsQueryCache.update(definedQueryId, cachedResultsQueryStatus);
         
+        return finishRead(ReadMetrics.CREATE, cachedResultsQueryStatus, readTimings, 0, createResponse(cachedResultsQueryStatus));
+    }
+    
+    // records the stage timings of the request, adding them to the response if enabled
+    private <T extends BaseResponse> T finishRead(String operation, CachedResultsQueryStatus cachedResultsQueryStatus, ReadTimings readTimings, int numRows,
+                    T response) {
+        CachedResultsQueryProperties.ReadTiming readTiming = cachedResultsQueryProperties.getReadTiming();
+        if (response != null && readTiming.isServerTimingEnabled()) {
+            response.addMessage(SERVER_TIMING_PREFIX + readTimings.toServerTiming());
+        }
+        readMetrics.record(operation, cachedResultsQueryStatus.getQueryLogicName(), readTimings, numRows, cachedResultsQueryStatus.getSqlQuery(),
+                        readTiming.getSlowQueryThresholdMillis());
+        return response;
+    }
+    
+    private CachedResultsResponse createResponse(CachedResultsQueryStatus cachedResultsQueryStatus) {
         CachedResultsResponse response = new CachedResultsResponse();
         response.setAlias(cachedResultsQueryStatus.getAlias());
         response.setOriginalQueryId(cachedResultsQueryStatus.getDefinedQueryId());
         response.setQueryId(cachedResultsQueryStatus.getCachedQueryId());
         response.setViewName(cachedResultsQueryStatus.getView());
         response.setTotalRows(cachedResultsQueryStatus.getRowsWritten());
+        if (cachedResultsQueryStatus.getState() == LOADING) {
+            response.addMessage(STILL_LOADING_MESSAGE);
+        }
         return response;
     }
     
+    // a query which is still loading can be created and read once its provisional view has been published
+    private boolean isProvisionallyReadable(CachedResultsQueryStatus cachedResultsQueryStatus) {
+        return isEarlyAccessEnabled() && cachedResultsQueryStatus.getState() == LOADING && cachedResultsQueryStatus.getView() != null;
+    }
+    
     public CachedResultsResponse loadAndCreate(String definedQueryId, MultiValueMap<String,String> parameters, ProxiedUserDetails currentUser)
                     throws QueryException {
         String user = ProxiedEntityUtils.getShortName(currentUser.getPrimaryUser().getName());
@@ -689,7 +2150,7 @@ public class CachedResultsQueryService {
         
         String alias = parameters.getFirst(CachedResultsQueryParameters.ALIAS);
         GenericResponse<String> loadResponse = load(definedQueryId, alias, currentUser);
-        return create(loadResponse.getResult(), parameters, currentUser);
+        return create(loadResponse.getResult(), parameters, currentUser, true);
     }
     
     public VoidResponse loadAndCreateAsync(String definedQueryId, MultiValueMap<String,String> parameters, ProxiedUserDetails currentUser,
@@ -715,9 +2176,9 @@ public class CachedResultsQueryService {
             
             cachedResultsQueryCache.createQuery(definedQueryId, queryId, alias, currentUser);
             cachedResultsQueryCache.lockedUpdate(definedQueryId, cachedResultsQueryStatus -> {
-                // this allows load() to differentiate between allowed loadAndCreateAsync calls (status == NONE) and
-                // disallowed duplicate load() calls (cachedResultsQueryStatus already exists and status != NONE)
-                cachedResultsQueryStatus.setState(NONE);
+                // this allows load() to differentiate between allowed loadAndCreateAsync calls (status == NONE or QUEUED) and
+                // disallowed duplicate load() calls (cachedResultsQueryStatus already exists and status != NONE or QUEUED)
+                cachedResultsQueryStatus.setState((loadScheduler != null || isLoadQueueEnabled()) ? QUEUED : NONE);
                 
                 // this will allow cachedResultsQueryStatus to be accessed by the cachedQueryId
                 cachedResultsQueryCache.putQueryIdByCachedQueryIdLookup(queryId, definedQueryId);
@@ -730,7 +2191,49 @@ public class CachedResultsQueryService {
                 }
             });
             
-            executorService.submit(() -> {
+            if (isLoadQueueEnabled()) {
+                // the load will be run by whichever node has the capacity to claim it, which may be this one
+                loadJobCache.create(definedQueryId, new LinkedMultiValueMap<>(parameters), currentUser, getSecurityMarkingClassName(threadSecurityMarking));
+                claimLoadJobs();
+            } else {
+                submitLoad(definedQueryId, currentUser,
+                                createLoad(definedQueryId, parameters, currentUser, threadCachedResultsQueryParameters, threadSecurityMarking));
+            }
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+            response.addException(e);
+        }
+        return response;
+    }
+    
+    // creates the load, which runs loadAndCreate with the given request state once it is started
+    private LoadScheduler.Load createLoad(String definedQueryId, MultiValueMap<String,String> parameters, ProxiedUserDetails currentUser,
+                    CachedResultsQueryParameters threadCachedResultsQueryParameters, SecurityMarking threadSecurityMarking) {
+        LoadScheduler.Load load;
+        if (isAsyncLoad()) {
+            // nothing waits on the returned mono, so the load only holds a thread while it is writing to sql
+            // @formatter:off
+            load = onComplete -> loadAsync(definedQueryId, parameters.getFirst(CachedResultsQueryParameters.ALIAS), currentUser)
+                    .map(loadResponse -> {
+                        try {
+                            scopedCachedResultsQueryParameters.getThreadLocalOverride().set(threadCachedResultsQueryParameters);
+                            scopedSecurityMarking.getThreadLocalOverride().set(threadSecurityMarking);
+                            return create(loadResponse.getResult(), parameters, currentUser, true);
+                        } catch (QueryException e) {
+                            throw Exceptions.propagate(e);
+                        } finally {
+                            scopedCachedResultsQueryParameters.getThreadLocalOverride().remove();
+                            scopedSecurityMarking.getThreadLocalOverride().remove();
+                        }
+                    })
+                    .doFinally(signalType -> onComplete.run())
+                    .subscribe(createResponse -> {}, e -> {
+                        log.error(e.getMessage(), e);
+                        cachedResultsQueryCache.removeQueryStatus(definedQueryId);
+                    });
+            // @formatter:on
+        } else {
+            load = onComplete -> executorService.submit(() -> {
                 try {
                     scopedCachedResultsQueryParameters.getThreadLocalOverride().set(threadCachedResultsQueryParameters);
                     scopedSecurityMarking.getThreadLocalOverride().set(threadSecurityMarking);
@@ -741,13 +2244,284 @@ public class CachedResultsQueryService {
                 } finally {
                     scopedCachedResultsQueryParameters.getThreadLocalOverride().remove();
                     scopedSecurityMarking.getThreadLocalOverride().remove();
+                    onComplete.run();
                 }
             });
+        }
+        
+        return load;
+    }
+    
+    // starts the load, or queues it if the loads are being scheduled
+    private void submitLoad(String definedQueryId, ProxiedUserDetails currentUser, LoadScheduler.Load load) {
+        if (loadScheduler != null) {
+            // the load is started once the global and per-user limits allow
+            String user = ProxiedEntityUtils.getShortName(currentUser.getPrimaryUser().getName());
+            int priority = cachedResultsQueryProperties.getLoadScheduling().getUserPriorities().getOrDefault(user,
+                            cachedResultsQueryProperties.getLoadScheduling().getDefaultPriority());
+            loadScheduler.submit(definedQueryId, user, priority, load);
+        } else {
+            load.start(() -> {});
+        }
+    }
+    
+    // async loads are only possible if the query service can be called without blocking
+    private boolean isAsyncLoad() {
+        return asyncLoadScheduler != null && queryService instanceof AsyncQueryService;
+    }
+    
+    private boolean isLoadQueueEnabled() {
+        return cachedResultsQueryProperties.getLoadQueue().isEnabled();
+    }
+    
+    /**
+     * Claims as many of the queued load jobs as this node has capacity for, oldest first, and runs them
+     *
+     * Jobs whose owner has stopped renewing its lease are claimable as well, so the jobs claimed by a node which goes down are taken over by the nodes which
+     * remain.
+     */
+    public void claimLoadJobs() {
+        claimLoadJobsLock.lock();
+        try {
+            long currentTimeMillis = System.currentTimeMillis();
+            // @formatter:off
+            List<LoadJob> claimableJobs = loadJobCache.getAll().stream()
+                    .filter(loadJob -> loadJob.isClaimable(currentTimeMillis))
+                    .sorted(Comparator.comparingLong(LoadJob::getSubmittedMillis))
+                    .collect(Collectors.toList());
+            // @formatter:on
+            
+            for (LoadJob loadJob : claimableJobs) {
+                if (claimedLoadJobs.size() >= cachedResultsQueryProperties.getLoadQueue().getMaxConcurrentLoads()) {
+                    break;
+                }
+                
+                try {
+                    LoadJob claimedJob = claimLoadJob(loadJob.getDefinedQueryId());
+                    if (claimedJob != null) {
+                        runLoadJob(claimedJob);
+                    }
+                } catch (Exception e) {
+                    log.warn("Unable to claim the load job for {}: {}", loadJob.getDefinedQueryId(), e.getMessage());
+                }
+            }
+        } finally {
+            claimLoadJobsLock.unlock();
+        }
+    }
+    
+    // claims the load job for this node, returning null if another node got to it first
+    private LoadJob claimLoadJob(String definedQueryId) throws QueryException, InterruptedException {
+        AtomicBoolean claimed = new AtomicBoolean(false);
+        LoadJob loadJob = loadJobLockedCacheUpdateUtil.lockedUpdate(definedQueryId, cachedJob -> {
+            long currentTimeMillis = System.currentTimeMillis();
+            if (cachedJob.isClaimable(currentTimeMillis)) {
+                if (cachedJob.getOwner() != null) {
+                    log.info("Taking over the load job for {} from {}", definedQueryId, cachedJob.getOwner());
+                }
+                cachedJob.setOwner(loadOwner);
+                cachedJob.setLeaseExpirationMillis(currentTimeMillis + cachedResultsQueryProperties.getLoadQueue().getLeaseTimeMillis());
+                claimed.set(true);
+            }
+        }, cachedResultsQueryProperties.getLockWaitTimeMillis(), cachedResultsQueryProperties.getLockLeaseTimeMillis());
+        
+        if (claimed.get()) {
+            claimedLoadJobs.add(definedQueryId);
+            return loadJob;
+        }
+        return null;
+    }
+    
+    // runs whatever is left of the job's loadAndCreate, based on the state of its cached results query
+    private void runLoadJob(LoadJob loadJob) {
+        String definedQueryId = loadJob.getDefinedQueryId();
+        MultiValueMap<String,String> parameters = loadJob.getParameters();
+        ProxiedUserDetails currentUser = loadJob.getCurrentUser();
+        try {
+            CachedResultsQueryStatus cachedResultsQueryStatus = cachedResultsQueryCache.getQueryStatus(definedQueryId);
+            CachedResultsQueryStatus.CACHED_RESULTS_STATE state = (cachedResultsQueryStatus != null) ? cachedResultsQueryStatus.getState() : null;
+            if (state == NONE || state == QUEUED) {
+                log.info("Running the queued load job for {}", definedQueryId);
+                LoadScheduler.Load load = createLoad(definedQueryId, parameters, currentUser, createCachedResultsQueryParameters(parameters),
+                                createSecurityMarking(loadJob));
+                submitLoad(definedQueryId, currentUser, onComplete -> load.start(() -> {
+                    completeLoadJob(definedQueryId);
+                    onComplete.run();
+                }));
+            } else if (state == LOADED) {
+                // the load was finished by another node (e.g. after it was recovered), so only the create is left to run
+                log.info("Running the create for the queued load job for {}", definedQueryId);
+                CachedResultsQueryParameters threadCachedResultsQueryParameters = createCachedResultsQueryParameters(parameters);
+                SecurityMarking threadSecurityMarking = createSecurityMarking(loadJob);
+                executorService.submit(() -> {
+                    try {
+                        scopedCachedResultsQueryParameters.getThreadLocalOverride().set(threadCachedResultsQueryParameters);
+                        scopedSecurityMarking.getThreadLocalOverride().set(threadSecurityMarking);
+                        create(definedQueryId, parameters, currentUser, true);
+                    } catch (Exception e) {
+                        log.error(e.getMessage(), e);
+                        cachedResultsQueryCache.removeQueryStatus(definedQueryId);
+                    } finally {
+                        scopedCachedResultsQueryParameters.getThreadLocalOverride().remove();
+                        scopedSecurityMarking.getThreadLocalOverride().remove();
+                        completeLoadJob(definedQueryId);
+                    }
+                });
+            } else if (state == LOADING) {
+                // the load is still running elsewhere, or is waiting to be recovered, so the job is left for its lease to expire and be checked again
+                claimedLoadJobs.remove(definedQueryId);
+            } else {
+                // the query was already created, or it was canceled, failed, or closed
+                completeLoadJob(definedQueryId);
+            }
         } catch (Exception e) {
-            log.error(e.getMessage(), e);
-            response.addException(e);
+            log.error("Unable to run the load job for {}", definedQueryId, e);
+            cachedResultsQueryCache.removeQueryStatus(definedQueryId);
+            completeLoadJob(definedQueryId);
+        }
+    }
+    
+    // rebuilds the request scoped parameters for a load job, since the job may be run by a different node than the one which received the request
+    private CachedResultsQueryParameters createCachedResultsQueryParameters(MultiValueMap<String,String> parameters) {
+        CachedResultsQueryParameters cachedResultsQueryParameters = new CachedResultsQueryParameters();
+        cachedResultsQueryParameters.clear();
+        cachedResultsQueryParameters.validate(parameters);
+        return cachedResultsQueryParameters;
+    }
+    
+    // rebuilds the request scoped security marking for a load job, since the job may be run by a different node than the one which received the request
+    private SecurityMarking createSecurityMarking(LoadJob loadJob) {
+        SecurityMarking jobSecurityMarking;
+        if (securityMarking instanceof ScopedObject) {
+            // spring creates the marking within a detached request, so that it is configured the same way as the request's marking
+            jobSecurityMarking = DetachedRequestAttributes.createTarget((ScopedObject) securityMarking, SecurityMarking.class);
+        } else {
+            Class<?> securityMarkingClass = ClassUtils.resolveClassName(loadJob.getSecurityMarkingClassName(), getClass().getClassLoader());
+            jobSecurityMarking = BeanUtils.instantiateClass(securityMarkingClass, SecurityMarking.class);
+            jobSecurityMarking.clear();
+        }
+        jobSecurityMarking.validate(loadJob.getParameters());
+        return jobSecurityMarking;
+    }
+    
+    // the request's marking may be a scoped proxy, whose generated class can't be loaded by the other nodes
+    private String getSecurityMarkingClassName(SecurityMarking securityMarking) {
+        Object target = (securityMarking instanceof ScopedObject) ? ((ScopedObject) securityMarking).getTargetObject() : securityMarking;
+        return ClassUtils.getUserClass(target).getName();
+    }
+    
+    private void completeLoadJob(String definedQueryId) {
+        claimedLoadJobs.remove(definedQueryId);
+        loadJobCache.remove(definedQueryId);
+    }
+    
+    /**
+     * Renews the lease on each load job claimed by this node, so that other nodes don't take them over
+     */
+    public void renewLoadJobLeases() {
+        long leaseTimeMillis = cachedResultsQueryProperties.getLoadQueue().getLeaseTimeMillis();
+        for (String definedQueryId : claimedLoadJobs) {
+            try {
+                loadJobLockedCacheUpdateUtil.lockedUpdate(definedQueryId, loadJob -> {
+                    if (loadOwner.equals(loadJob.getOwner())) {
+                        loadJob.setLeaseExpirationMillis(System.currentTimeMillis() + leaseTimeMillis);
+                    } else {
+                        log.warn("The load job for {} has been taken over by {}", definedQueryId, loadJob.getOwner());
+                    }
+                }, cachedResultsQueryProperties.getLockWaitTimeMillis(), cachedResultsQueryProperties.getLockLeaseTimeMillis());
+            } catch (NotFoundQueryException e) {
+                // the job was removed from the queue, e.g. because its query was canceled
+                log.debug("The load job for {} is no longer queued", definedQueryId);
+            } catch (Exception e) {
+                log.warn("Unable to renew the lease for the load job for {}: {}", definedQueryId, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Renews the heartbeat of each load run by this node, so that other nodes don't mistake them for orphaned loads
+     */
+    public void heartbeatLoads() {
+        for (CachedResultsQueryStatus cachedResultsQueryStatus : ownedLoads.values()) {
+            try {
+                checkpointLoad(cachedResultsQueryStatus, cachedStatus -> {});
+            } catch (Exception e) {
+                log.warn("Unable to renew the heartbeat for the load of {}: {}", cachedResultsQueryStatus.getDefinedQueryId(), e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Takes over the loads whose owners have stopped heartbeating, and resumes each of them from its last checkpoint
+     *
+     * The running query is continued if no pages were lost with the previous owner. Otherwise, the defined query is duplicated again, and the events which
+     * were already written are skipped. A resumed load finishes in the LOADED state, so a load started by loadAndCreateAsync still needs to be created.
+     */
+    public void recoverLoads() {
+        long currentTimeMillis = System.currentTimeMillis();
+        for (CachedResultsQueryStatus cachedResultsQueryStatus : cachedResultsQueryCache.getQueryStatuses()) {
+            if (isLoadOrphaned(cachedResultsQueryStatus, currentTimeMillis)) {
+                try {
+                    CachedResultsQueryStatus claimedStatus = claimLoad(cachedResultsQueryStatus.getDefinedQueryId());
+                    if (claimedStatus != null) {
+                        executorService.submit(() -> resumeLoad(claimedStatus));
+                    }
+                } catch (Exception e) {
+                    log.warn("Unable to take over the load of {}", cachedResultsQueryStatus.getDefinedQueryId(), e);
+                }
+            }
+        }
+    }
+    
+    // only loads which were claimed by a node with recovery enabled have a heartbeat
+    private boolean isLoadOrphaned(CachedResultsQueryStatus cachedResultsQueryStatus, long currentTimeMillis) {
+        long leaseTimeMillis = cachedResultsQueryProperties.getRecovery().getLeaseTimeMillis();
+        return cachedResultsQueryStatus.getState() == LOADING && cachedResultsQueryStatus.getLoadOwner() != null
+                        && !loadOwner.equals(cachedResultsQueryStatus.getLoadOwner())
+                        && (currentTimeMillis - cachedResultsQueryStatus.getHeartbeatMillis()) > leaseTimeMillis;
+    }
+    
+    // claims the orphaned load for this node, returning null if another node got to it first
+    private CachedResultsQueryStatus claimLoad(String definedQueryId) throws QueryException, InterruptedException {
+        AtomicBoolean claimed = new AtomicBoolean(false);
+        CachedResultsQueryStatus cachedResultsQueryStatus = cachedResultsQueryCache.lockedUpdate(definedQueryId, cachedStatus -> {
+            if (isLoadOrphaned(cachedStatus, System.currentTimeMillis())) {
+                log.info("Taking over the load of {} from {}", definedQueryId, cachedStatus.getLoadOwner());
+                cachedStatus.setLoadOwner(loadOwner);
+                cachedStatus.setHeartbeatMillis(System.currentTimeMillis());
+                cachedStatus.setRecoveryAttempts(cachedStatus.getRecoveryAttempts() + 1);
+                claimed.set(true);
+            }
+        });
+        
+        if (claimed.get()) {
+            ownedLoads.put(definedQueryId, cachedResultsQueryStatus);
+            return cachedResultsQueryStatus;
+        }
+        return null;
+    }
+    
+    private void resumeLoad(CachedResultsQueryStatus cachedResultsQueryStatus) {
+        String definedQueryId = cachedResultsQueryStatus.getDefinedQueryId();
+        try {
+            if (cachedResultsQueryStatus.getRecoveryAttempts() > cachedResultsQueryProperties.getRecovery().getMaxAttempts()) {
+                throw new QueryException("The load of " + definedQueryId + " has been taken over too many times");
+            }
+            
+            load(cachedResultsQueryStatus);
+            finishLoad(cachedResultsQueryStatus);
+            
+            log.info("Finished the resumed load of {} with {} rows", definedQueryId, cachedResultsQueryStatus.getRowsWritten());
+        } catch (Exception e) {
+            log.error("Unable to resume the load of {}", definedQueryId, e);
+            failLoad(cachedResultsQueryStatus, e);
+        } finally {
+            try {
+                releaseLoad(definedQueryId, cachedResultsQueryStatus);
+            } catch (QueryException e) {
+                log.error("Unable to update query cache", e);
+            }
         }
-        return response;
     }
     
     private MultiValueMap<String,String> createAuditParameters(CachedResultsQueryStatus cachedResultsQueryStatus) {
@@ -859,13 +2633,13 @@ public class CachedResultsQueryService {
         
         if (!fields.equals("*")) {
             LinkedHashSet<String> fieldSet = new LinkedHashSet<>();
-            String[] result = tokenizeOutsideParens(fields, ',');
+            String[] result = SqlQueryHelper.tokenizeOutsideParens(fields, ',');
             
             LinkedHashSet<String> requestedFieldSet = new LinkedHashSet<>();
             
             for (String s : result) {
                 s = s.replace("`", "").trim();
-                s = quoteField(s, viewColumnNames);
+                s = sqlQueryHelper.quoteField(s, viewColumnNames);
                 requestedFieldSet.add(s);
             }
             
@@ -888,8 +2662,8 @@ public class CachedResultsQueryService {
             String[] conditionsSplit = conditions.split(" ");
             for (String s : conditionsSplit) {
                 String field = s.replace("`", "").trim();
-                if (cachedResultsQueryStatus.getFieldIndexMap().containsKey(field) || isFunction(field)) {
-                    newConditions.append(quoteField(field, viewColumnNames)).append(SPACE);
+                if (cachedResultsQueryStatus.getFieldIndexMap().containsKey(field) || sqlQueryHelper.isFunction(field)) {
+                    newConditions.append(sqlQueryHelper.quoteField(field, viewColumnNames)).append(SPACE);
                 } else {
                     newConditions.append(s).append(SPACE);
                 }
@@ -901,7 +2675,7 @@ public class CachedResultsQueryService {
             }
         }
         
-        order = buildOrderClause(order, viewColumnNames);
+        order = sqlQueryHelper.buildOrderClause(order, viewColumnNames);
         
         if (null != grouping) {
             // quote fields in the group by
@@ -910,7 +2684,7 @@ public class CachedResultsQueryService {
             for (String s : groupSplit) {
                 s = s.replace("`", "").trim();
                 // add quoted field
-                newGroup.add(quoteField(s, viewColumnNames));
+                newGroup.add(sqlQueryHelper.quoteField(s, viewColumnNames));
             }
             if (newGroup.isEmpty()) {
                 grouping = null;
@@ -944,7 +2718,7 @@ public class CachedResultsQueryService {
             log.trace("sqlQuery: " + buf);
         }
         
-        if (!isSqlSafe(buf.toString())) {
+        if (!sqlQueryHelper.isSqlSafe(buf.toString())) {
             throw new IllegalArgumentException("Illegal arguments found");
         }
         
@@ -952,127 +2726,15 @@ public class CachedResultsQueryService {
     }
     
     public static String[] tokenizeOutsideParens(String fields, char c) {
-        return tokenizeOutside(fields, new char[] {'(', ')'}, c);
+        return SqlQueryHelper.tokenizeOutsideParens(fields, c);
     }
     
     public static String[] tokenizeOutside(String fields, char[] delimiters, char c) {
-        if (delimiters == null || delimiters.length != 2) {
-            return new String[] {fields};
-        }
-        char leftDelimiter = delimiters[0];
-        char rightDelimiter = delimiters[1];
-        List<String> result = new ArrayList<>();
-        int start = 0;
-        boolean inParens = false;
-        for (int current = 0; current < fields.length(); current++) {
-            char charAtCurrent = fields.charAt(current);
-            if (charAtCurrent == leftDelimiter) {
-                inParens = true;
-            }
-            if (charAtCurrent == rightDelimiter) {
-                inParens = false;
-            }
-            boolean atLastChar = (current == fields.length() - 1);
-            String trimmedSubstr = "";
-            if (atLastChar) {
-                trimmedSubstr = fields.substring(start).trim();
-            } else if (charAtCurrent == c && !inParens) {
-                trimmedSubstr = fields.substring(start, current).trim();
-                start = current + 1;
-            }
-            if (!trimmedSubstr.isEmpty()) {
-                result.add(trimmedSubstr);
-            }
-        }
-        return result.toArray(new String[0]);
+        return SqlQueryHelper.tokenizeOutside(fields, delimiters, c);
     }
     
     public String buildOrderClause(String order, Set<String> viewColumnNames) {
-        if (order != null) {
-            String[] commaSplit = tokenizeOutsideParens(order, ',');
-            StringBuilder out = new StringBuilder();
-            for (String s : commaSplit) {
-                // in case its a function with a direction, separate them
-                String[] spaceParsed = tokenizeOutsideParens(s, ' ');
-                if (out.length() > 0) {
-                    out.append(",");
-                }
-                for (int j = 0; j < spaceParsed.length; j++) {
-                    // get rid of incoming back-tics
-                    spaceParsed[j] = spaceParsed[j].replace("`", "").trim();
-                    spaceParsed[j] = quoteField(spaceParsed[j], viewColumnNames);
-                    if (j > 0) {
-                        out.append(" ");
-                    }
-                    out.append(spaceParsed[j]);
-                }
-            }
-            if (out.length() == 0) {
-                order = null;
-            } else {
-                order = out.toString();
-            }
-        }
-        return order;
-    }
-    
-    private boolean isSqlSafe(String sqlQuery) {
-        
-        boolean isSqlSafe = true;
-        String compareString = sqlQuery.toUpperCase();
-        
-        for (String b : cachedResultsQueryProperties.getReservedStatements()) {
-            if (compareString.matches(b)) {
-                isSqlSafe = false;
-                break;
-            }
-        }
-        
-        return isSqlSafe;
-    }
-    
-    // Ensure that identifiers (column names, etc) are quoted with backticks.
-    private String quoteField(String field, Set<String> viewColumnNames) {
-        if (!field.equals("*") && field.contains(".")) {
-            if (isFunction(field)) {
-                if (!field.contains("(*)")) {
-                    // Parse the arguments to the function
-                    int startParen = field.lastIndexOf(LPAREN) + 1;
-                    int endParen = field.indexOf(RPAREN);
-                    String[] args = field.substring(startParen, endParen).split(",");
-                    for (String arg : args) {
-                        if (!arg.contains("'") && !arg.contains("\"")) {
-                            if (viewColumnNames != null && viewColumnNames.contains(arg)) {
-                                field = field.replaceAll(arg, BACKTICK + arg + BACKTICK);
-                            }
-                        }
-                    }
-                }
-                return field;
-            } else {
-                return BACKTICK + field + BACKTICK;
-            }
-        } else {
-            return field;
-        }
-    }
-    
-    private boolean isFunction(String field) {
-        if (field.contains(LPAREN) && field.contains(RPAREN) && field.indexOf(LPAREN) > 0) {
-            boolean matches = false;
-            for (String pattern : cachedResultsQueryProperties.getAllowedFunctions()) {
-                matches = field.matches(pattern);
-                if (matches) {
-                    break;
-                }
-            }
-            if (!matches) {
-                throw new IllegalArgumentException(
-                                "Function not allowed. Allowed functions are: " + StringUtils.join(cachedResultsQueryProperties.getAllowedFunctions(), ","));
-            }
-            return true;
-        }
-        return false;
+        return sqlQueryHelper.buildOrderClause(order, viewColumnNames);
     }
     
     public BaseQueryResponse getRows(String key, Integer rowBegin, Integer rowEnd, ProxiedUserDetails currentUser) throws QueryException {
@@ -1087,7 +2749,8 @@ public class CachedResultsQueryService {
             // make sure the query is valid, and the user can act on it
             CachedResultsQueryStatus cachedResultsQueryStatus = validateRequest(key, currentUser);
             
-            if (cachedResultsQueryStatus.getState() == CREATED) {
+            if (cachedResultsQueryStatus.getState() == CREATED
+                            || (isProvisionallyReadable(cachedResultsQueryStatus) && cachedResultsQueryStatus.isCreatedWhileLoading())) {
                 return getRows(cachedResultsQueryStatus, rowBegin, rowEnd);
             } else {
                 throw new BadRequestQueryException("Cannot call getRows on a query that has not finished creating", HttpStatus.SC_BAD_REQUEST + "-1");
@@ -1128,39 +2791,100 @@ public class CachedResultsQueryService {
         }
         
         // fetch the rows from sql
+        // (the time spent creating and sizing the rows is tracked separately from the time spent reading them)
+        final ReadTimings readTimings = new ReadTimings();
+        final GetRowsExecutedEvent executedEvent = new GetRowsExecutedEvent();
+        executedEvent.begin();
+        final long[] rowNanos = new long[1];
+        final long[] pageBytes = new long[1];
         final AtomicBoolean hitPageByteTrigger = new AtomicBoolean(false);
+        final CachedDictionary dictionary = getDictionary(cachedResultsQueryStatus);
+        long stageStartNanos = System.nanoTime();
         final List<CacheableQueryRow> cacheableQueryRows = cachedResultsJdbcTemplate
-                        .query(getSqlQuery(cachedResultsQueryStatus.getSqlQuery(), rowBegin, rowEnd), resultSet -> {
+                        .query(getSqlQuery(cachedResultsQueryStatus.getSqlQuery(), rowBegin, rowEnd), rs -> {
                             List<CacheableQueryRow> rows = new ArrayList<>();
                             
-                            long resultBytes = 0;
-                            while (resultSet.next() && !hitPageByteTrigger.get()) {
+                            // resolve any dictionary encoded markings as they are read
+                            // (compact encoded columns are hidden from the row reader, and are decoded straight into the rows instead)
+                            ResultSet resultSet = rs;
+                            int columnMarkingsIndex = 0;
+                            int columnTimestampsIndex = 0;
+                            Map<String,DecodedColumns> decodedColumns = new HashMap<>();
+                            if (dictionary != null) {
+                                resultSet = ResolvingResultSet.wrap(rs, DICTIONARY_COLUMNS,
+                                                value -> resolveStoredValue(cachedResultsQueryStatus, dictionary, value));
+                                ResultSetMetaData metaData = rs.getMetaData();
+                                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                                    if (COLUMN_MARKINGS_COLUMN.equals(metaData.getColumnLabel(i))) {
+                                        columnMarkingsIndex = i;
+                                    } else if (COLUMN_TIMESTAMPS_COLUMN.equals(metaData.getColumnLabel(i))) {
+                                        columnTimestampsIndex = i;
+                                    }
+                                }
+                            }
+                            
+                            while (resultSet.next()) {
+                                long rowStartNanos = System.nanoTime();
                                 CacheableQueryRow row = CacheableQueryRowReader.createRow(resultSet, cachedResultsQueryStatus.getFixedFields(),
                                                 responseObjectFactory, markingFunctions);
-                                rows.add(row);
-                                if (cachedResultsQueryProperties.getPageByteTrigger() != 0) {
-                                    resultBytes += ObjectSizeOf.Sizer.getObjectSize(row);
-                                    if (resultBytes >= cachedResultsQueryProperties.getPageByteTrigger()) {
-                                        hitPageByteTrigger.set(true);
+                                if (dictionary != null) {
+                                    DecodedColumns decodedMarkings = getDecodedColumns(cachedResultsQueryStatus, dictionary, decodedColumns, rs,
+                                                    columnMarkingsIndex);
+                                    DecodedColumns decodedTimestamps = getDecodedColumns(cachedResultsQueryStatus, dictionary, decodedColumns, rs,
+                                                    columnTimestampsIndex);
+                                    if (decodedMarkings != null || decodedTimestamps != null) {
+                                        DecodedColumns.apply(row, decodedMarkings, decodedTimestamps);
                                     }
                                 }
+                                rows.add(row);
+                                rowNanos[0] += System.nanoTime() - rowStartNanos;
                             }
                             
                             return rows;
                         });
         
+        long sqlEndNanos = System.nanoTime();
+        readTimings.add(ReadTimings.SQL, sqlEndNanos - stageStartNanos - rowNanos[0]);
+        readTimings.add(ReadTimings.CREATE_ROW, rowNanos[0]);
+        stageStartNanos = sqlEndNanos;
+        
+        // only values in the projected columns are read back from the overflow table
+        if (cachedResultsQueryStatus.getOverflowTableName() != null && cacheableQueryRows != null) {
+            rehydrateOverflowValues(cachedResultsQueryStatus, cacheableQueryRows);
+            stageStartNanos = readTimings.addSince(ReadTimings.OVERFLOW, stageStartNanos);
+        }
+        
+        // the rows are sized once any overflowed values have been read back, so that the page byte trigger sees their real size
+        if (cachedResultsQueryProperties.getPageByteTrigger() != 0 && cacheableQueryRows != null) {
+            long resultBytes = 0;
+            for (int i = 0; i < cacheableQueryRows.size(); i++) {
+                resultBytes += ObjectSizeOf.Sizer.getObjectSize(cacheableQueryRows.get(i));
+                if (resultBytes >= cachedResultsQueryProperties.getPageByteTrigger()) {
+                    // the rows after the one which hit the trigger are left for the next page
+                    hitPageByteTrigger.set(true);
+                    cacheableQueryRows.subList(i + 1, cacheableQueryRows.size()).clear();
+                    break;
+                }
+            }
+            pageBytes[0] = resultBytes;
+            stageStartNanos = readTimings.addSince(ReadTimings.OBJECT_SIZE, stageStartNanos);
+        }
+        
         QueryLogic<?> queryLogic = queryLogicFactory.getQueryLogic(cachedResultsQueryStatus.getQueryLogicName(), cachedResultsQueryStatus.getCurrentUser());
         CacheableLogic cacheableLogic = (CacheableLogic) queryLogic.getTransformer(cachedResultsQueryStatus.getQuery());
+        stageStartNanos = readTimings.addSince(ReadTimings.GET_QUERY_LOGIC, stageStartNanos);
         List<Object> results = new ArrayList<>();
         for (CacheableQueryRow cacheableQueryRow : cacheableQueryRows) {
             results.add(cacheableLogic.readFromCache(cacheableQueryRow));
         }
+        stageStartNanos = readTimings.addSince(ReadTimings.READ_FROM_CACHE, stageStartNanos);
         
         BaseQueryResponse response;
         if (!results.isEmpty()) {
             ResultsPage<?> resultsPage = new ResultsPage<>(results, (hitPageByteTrigger.get() ? ResultsPage.Status.PARTIAL : ResultsPage.Status.COMPLETE));
             
             response = queryLogic.getEnrichedTransformer(cachedResultsQueryStatus.getQuery()).createResponse(resultsPage);
+            readTimings.addSince(ReadTimings.CREATE_RESPONSE, stageStartNanos);
             
             response.setHasResults(true);
             response.setLogicName(cachedResultsQueryStatus.getQueryLogicName());
@@ -1168,11 +2892,147 @@ public class CachedResultsQueryService {
             if (response instanceof TotalResultsAware) {
                 ((TotalResultsAware) response).setTotalResults(cachedResultsQueryStatus.getRowsWritten());
             }
+            if (cachedResultsQueryStatus.getState() == LOADING) {
+                response.addMessage(STILL_LOADING_MESSAGE);
+            }
         } else {
+            finishRead(ReadMetrics.GET_ROWS, cachedResultsQueryStatus, readTimings, 0, null);
+            executedEvent.commit(cachedResultsQueryStatus.getDefinedQueryId(), cachedResultsQueryStatus.getQueryLogicName(), rowBegin, 0, pageBytes[0], false);
             throw new NoResultsQueryException(DatawaveErrorCode.NO_CONTENT_STATUS);
         }
         
-        return response;
+        executedEvent.commit(cachedResultsQueryStatus.getDefinedQueryId(), cachedResultsQueryStatus.getQueryLogicName(), rowBegin, results.size(), pageBytes[0],
+                        hitPageByteTrigger.get());
+        return finishRead(ReadMetrics.GET_ROWS, cachedResultsQueryStatus, readTimings, results.size(), response);
+    }
+    
+    // returns the markings dictionary for the query, or null if the markings are not dictionary encoded
+    private CachedDictionary getDictionary(CachedResultsQueryStatus cachedResultsQueryStatus) {
+        String dictionaryTableName = cachedResultsQueryStatus.getDictionaryTableName();
+        if (dictionaryTableName == null) {
+            return null;
+        }
+        
+        CachedDictionary dictionary = cachedDictionaries.get(dictionaryTableName);
+        if (dictionary == null) {
+            CachedDictionary loadedDictionary = new CachedDictionary((afterId, entryConsumer) -> readDictionary(dictionaryTableName, afterId, entryConsumer));
+            loadedDictionary.refresh();
+            
+            // concurrent readers share whichever dictionary was cached first
+            dictionary = cachedDictionaries.putIfAbsent(dictionaryTableName, loadedDictionary);
+            if (dictionary == null) {
+                dictionary = loadedDictionary;
+            }
+        }
+        return dictionary;
+    }
+    
+    private void readDictionary(String dictionaryTableName, int afterId, BiConsumer<Integer,String> entryConsumer) {
+        CachedResultsQueryProperties.Statements statementTemplates = cachedResultsQueryProperties.getStatementTemplates();
+        RowCallbackHandler rowCallbackHandler = resultSet -> entryConsumer.accept(resultSet.getInt(1), resultSet.getString(2));
+        if (afterId == 0) {
+            cachedResultsJdbcTemplate.query(statementTemplates.getSelectDictionary().replace(TABLE_PLACEHOLDER, dictionaryTableName), rowCallbackHandler);
+        } else {
+            // only the entries which were added since the dictionary was last read
+            cachedResultsJdbcTemplate.query(statementTemplates.getSelectDictionaryAfter().replace(TABLE_PLACEHOLDER, dictionaryTableName), rowCallbackHandler,
+                            afterId);
+        }
+    }
+    
+    // rows read through the provisional view may reference markings added after the dictionary was read,
+    // so a miss while loading reads the entries which were added since
+    private String lookupDictionary(CachedResultsQueryStatus cachedResultsQueryStatus, CachedDictionary dictionary, int id) {
+        String value = dictionary.get(id);
+        if (value == null && cachedResultsQueryStatus.getState() == LOADING && id > dictionary.getMaxId()) {
+            dictionary.refresh();
+            value = dictionary.get(id);
+        }
+        return value;
+    }
+    
+    // resolves a dictionary reference or compact encoding to the value the cacheable query row reader expects
+    private String resolveStoredValue(CachedResultsQueryStatus cachedResultsQueryStatus, CachedDictionary dictionary, String value) {
+        Integer id = MarkingsDictionary.parseReference(value);
+        if (id != null) {
+            String resolved = lookupDictionary(cachedResultsQueryStatus, dictionary, id);
+            return (resolved != null) ? resolved : value;
+        } else if (CompactColumnEncoding.isEncoded(value)) {
+            // the row reader sees the same value as a row without any columns, and the decoded columns are applied to the row afterwards
+            return "";
+        }
+        return value;
+    }
+    
+    // returns the decoded columns for the compact encoded value of the given column, or null if the value is not compact encoded
+    private DecodedColumns getDecodedColumns(CachedResultsQueryStatus cachedResultsQueryStatus, CachedDictionary dictionary,
+                    Map<String,DecodedColumns> decodedColumns, ResultSet resultSet, int columnIndex) throws SQLException {
+        String value = (columnIndex > 0) ? resultSet.getString(columnIndex) : null;
+        if (!CompactColumnEncoding.isEncoded(value)) {
+            return null;
+        }
+        
+        // rows tend to share their encodings, so only decode each distinct encoding once
+        DecodedColumns decoded = decodedColumns.get(value);
+        if (decoded == null) {
+            decoded = decodeColumns(cachedResultsQueryStatus, dictionary, value);
+            decodedColumns.put(value, decoded);
+        }
+        return decoded;
+    }
+    
+    private DecodedColumns decodeColumns(CachedResultsQueryStatus cachedResultsQueryStatus, CachedDictionary dictionary, String value) {
+        CompactColumnEncoding.Columns columns = CompactColumnEncoding.decode(value);
+        
+        Map<Integer,String> columnNamesByNumber = new HashMap<>();
+        for (Map.Entry<String,Integer> entry : cachedResultsQueryStatus.getFieldIndexMap().entrySet()) {
+            columnNamesByNumber.put(entry.getValue(), entry.getKey());
+        }
+        
+        DecodedColumns decoded = new DecodedColumns();
+        for (int i = 0; i < columns.getColumnNumbers().length; i++) {
+            String columnName = columnNamesByNumber.get(columns.getColumnNumbers()[i]);
+            if (columnName != null) {
+                if (columns.isMarkings()) {
+                    String markings = lookupDictionary(cachedResultsQueryStatus, dictionary, columns.getMarkingIds()[i]);
+                    Map<String,String> columnMarkings = (markings != null) ? MarkingFunctions.Encoding.fromString(markings) : new HashMap<>();
+                    String visibility = lookupDictionary(cachedResultsQueryStatus, dictionary, columns.getVisibilityIds()[i]);
+                    decoded.putMarkings(columnName, columnMarkings, visibility);
+                } else {
+                    decoded.putTimestamp(columnName, columns.getTimestamps()[i]);
+                }
+            }
+        }
+        return decoded;
+    }
+    
+    // replaces the overflowed values in the rows with their original values
+    // (the overflow table records which event and column each value belongs to, so stored values are never inspected to find the overflowed ones)
+    private void rehydrateOverflowValues(CachedResultsQueryStatus cachedResultsQueryStatus, List<CacheableQueryRow> cacheableQueryRows) {
+        Map<String,List<CacheableQueryRow>> rowsByEventId = new HashMap<>();
+        for (CacheableQueryRow cacheableQueryRow : cacheableQueryRows) {
+            if (cacheableQueryRow.getEventId() != null) {
+                rowsByEventId.computeIfAbsent(cacheableQueryRow.getEventId(), k -> new ArrayList<>()).add(cacheableQueryRow);
+            }
+        }
+        
+        if (!rowsByEventId.isEmpty()) {
+            List<String> eventIds = new ArrayList<>(rowsByEventId.keySet());
+            // @formatter:off
+            String selectOverflow = cachedResultsQueryProperties.getStatementTemplates().getSelectOverflow()
+                    .replace(TABLE_PLACEHOLDER, cachedResultsQueryStatus.getOverflowTableName())
+                    .replace(PREPARED_VALUES_PLACEHOLDER, Stream.generate(() -> "?").limit(eventIds.size()).collect(Collectors.joining(", ")));
+            // @formatter:on
+            
+            cachedResultsJdbcTemplate.query(selectOverflow, resultSet -> {
+                String reference = getOverflowReference(resultSet.getString(1));
+                String columnName = resultSet.getString(3);
+                String value = resultSet.getString(4);
+                for (CacheableQueryRow cacheableQueryRow : rowsByEventId.getOrDefault(resultSet.getString(2), Collections.emptyList())) {
+                    // only the row whose column was written with this overflow row's reference is replaced
+                    cacheableQueryRow.getColumnValues().replace(columnName, reference, value);
+                }
+            }, eventIds.toArray());
+        }
     }
     
     private String getSqlQuery(String sqlQuery, int beginRow, int endRow) {
@@ -1228,6 +3088,14 @@ public class CachedResultsQueryService {
                 queryService.cancel(cachedResultsQueryStatus.getRunningQueryId(), currentUser);
             }
             
+            // a queued load hasn't started yet, so it only needs to be taken out of the queue
+            if (cachedResultsQueryStatus.getState() == QUEUED && loadScheduler != null) {
+                loadScheduler.cancel(cachedResultsQueryStatus.getDefinedQueryId());
+            }
+            if (cachedResultsQueryStatus.getState() == QUEUED && isLoadQueueEnabled()) {
+                loadJobCache.remove(cachedResultsQueryStatus.getDefinedQueryId());
+            }
+            
             cachedResultsQueryStatus.setState(CANCELED);
             cachedResultsQueryCache.update(cachedResultsQueryStatus.getDefinedQueryId(), cachedResultsQueryStatus);
             
@@ -1260,6 +3128,14 @@ public class CachedResultsQueryService {
                 queryService.cancel(cachedResultsQueryStatus.getRunningQueryId(), currentUser);
             }
             
+            // a queued load hasn't started yet, so it only needs to be taken out of the queue
+            if (cachedResultsQueryStatus.getState() == QUEUED && loadScheduler != null) {
+                loadScheduler.cancel(cachedResultsQueryStatus.getDefinedQueryId());
+            }
+            if (cachedResultsQueryStatus.getState() == QUEUED && isLoadQueueEnabled()) {
+                loadJobCache.remove(cachedResultsQueryStatus.getDefinedQueryId());
+            }
+            
             // remove the query from the cache
             cachedResultsQueryCache.removeQueryStatus(cachedResultsQueryStatus.getDefinedQueryId());
             
@@ -1345,6 +3221,7 @@ public class CachedResultsQueryService {
     
     private CachedResultsResponse update(CachedResultsQueryStatus cachedResultsQueryStatus, String key, String fields, String conditions, String grouping,
                     String order, Integer pagesize) throws QueryException, InterruptedException, CloneNotSupportedException {
+        ReadTimings readTimings = new ReadTimings();
         if (pagesize == null || pagesize <= 0) {
             pagesize = cachedResultsQueryProperties.getDefaultPageSize();
         }
@@ -1378,10 +3255,13 @@ public class CachedResultsQueryService {
             }
             
             if (fieldChanged) {
+                long stageStartNanos = System.nanoTime();
                 cachedResultsQueryStatus.setSqlQuery(generateSqlQuery(cachedResultsQueryStatus));
+                stageStartNanos = readTimings.addSince(ReadTimings.GENERATE_SQL_QUERY, stageStartNanos);
                 
                 QueryLogic<?> queryLogic = queryLogicFactory.getQueryLogic(cachedResultsQueryStatus.getQueryLogicName(),
                                 cachedResultsQueryStatus.getCurrentUser());
+                stageStartNanos = readTimings.addSince(ReadTimings.GET_QUERY_LOGIC, stageStartNanos);
                 
                 // audit the query again
                 // @formatter:off
@@ -1393,6 +3273,7 @@ public class CachedResultsQueryService {
                         createAuditParameters(cachedResultsQueryStatus),
                         cachedResultsQueryStatus.getCurrentUser());
                 // @formatter:on
+                readTimings.addSince(ReadTimings.AUDIT, stageStartNanos);
             }
         }
         
@@ -1404,7 +3285,7 @@ public class CachedResultsQueryService {
         response.setViewName(cachedResultsQueryStatus.getView());
         response.setAlias(cachedResultsQueryStatus.getAlias());
         response.setTotalRows(cachedResultsQueryStatus.getRowsWritten());
-        return response;
+        return finishRead(ReadMetrics.UPDATE, cachedResultsQueryStatus, readTimings, 0, response);
     }
     
     private CachedResultsQueryStatus validateRequest(String key, ProxiedUserDetails currentUser) throws NotFoundQueryException, UnauthorizedQueryException {
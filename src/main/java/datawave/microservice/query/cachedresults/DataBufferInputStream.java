@@ -0,0 +1,83 @@
+package datawave.microservice.query.cachedresults;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Reads a flux of data buffers as a blocking input stream.
+ *
+ * Only a bounded number of buffers are requested ahead of the reader, and each buffer is released once it has been read. Closing the stream cancels the
+ * remainder of the flux.
+ */
+class DataBufferInputStream extends InputStream {
+    private final Stream<DataBuffer> bufferStream;
+    private final Iterator<DataBuffer> buffers;
+    private DataBuffer current;
+    
+    DataBufferInputStream(Flux<DataBuffer> body, int prefetch) {
+        this.bufferStream = body.doOnDiscard(DataBuffer.class, DataBufferUtils::release).toStream(prefetch);
+        this.buffers = bufferStream.iterator();
+    }
+    
+    @Override
+    public int read() throws IOException {
+        if (!advance()) {
+            return -1;
+        }
+        return current.read() & 0xff;
+    }
+    
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!advance()) {
+            return -1;
+        }
+        int numBytes = Math.min(len, current.readableByteCount());
+        current.read(b, off, numBytes);
+        return numBytes;
+    }
+    
+    @Override
+    public int available() {
+        return (current != null) ? current.readableByteCount() : 0;
+    }
+    
+    @Override
+    public void close() {
+        release();
+        bufferStream.close();
+    }
+    
+    // moves to the next buffer with readable bytes, returning false once the flux is complete
+    private boolean advance() throws IOException {
+        while (current == null || current.readableByteCount() == 0) {
+            release();
+            try {
+                if (!buffers.hasNext()) {
+                    return false;
+                }
+                current = buffers.next();
+            } catch (RuntimeException e) {
+                throw new IOException("Unable to read response body", e);
+            }
+        }
+        return true;
+    }
+    
+    private void release() {
+        if (current != null) {
+            DataBufferUtils.release(current);
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package datawave.microservice.query.cachedresults;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import java.util.concurrent.Callable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import datawave.security.authorization.ProxiedUserDetails;
+import datawave.webservice.query.exception.QueryException;
+import datawave.webservice.result.BaseQueryResponse;
+import datawave.webservice.result.GenericResponse;
+import datawave.webservice.result.VoidResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A {@link QueryService} which calls the query management service directly, for deployments where this starter runs in the same JVM as the query service.
+ *
+ * This avoids the HTTP round trip, the JSON serialization of each page, and the creation of a JWT for each call. The query management service is not a
+ * dependency of this starter, so it is looked up by name, and its methods are resolved by their parameter types once the application context has been
+ * initialized. This service must be explicitly enabled, and startup fails if it is enabled without a query management service bean, rather than failing on
+ * every call.
+ *
+ * The async calls run the direct calls on the bounded elastic scheduler, since the query management service itself blocks.
+ */
+@Service
+@Primary
+@ConditionalOnClass(name = LocalQueryService.QUERY_MANAGEMENT_SERVICE_CLASS)
+@ConditionalOnProperty(name = {"datawave.query.cached-results.enabled", "datawave.query.cached-results.local-query.enabled"}, havingValue = "true")
+public class LocalQueryService implements QueryService, AsyncQueryService, SmartInitializingSingleton {
+    
+    private static final Logger log = LoggerFactory.getLogger(LocalQueryService.class);
+    
+    static final String QUERY_MANAGEMENT_SERVICE_CLASS = "datawave.microservice.query.QueryManagementService";
+    
+    private final ApplicationContext applicationContext;
+    private volatile QueryManagementService queryManagementService;
+    
+    public LocalQueryService(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+    
+    // the query management service may depend on beans which are created after this one, so it is only looked up once every singleton exists
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            Class<?> serviceClass = Class.forName(QUERY_MANAGEMENT_SERVICE_CLASS, true, applicationContext.getClassLoader());
+            queryManagementService = new QueryManagementService(applicationContext.getBean(serviceClass));
+        } catch (Exception e) {
+            throw new IllegalStateException("Local query is enabled, but the query management service could not be found", e);
+        }
+    }
+    
+    @Override
+    public GenericResponse<String> duplicate(String queryId, MultiValueMap<String,String> parameters, ProxiedUserDetails currentUser) throws QueryException {
+        log.info("LocalQueryService duplicate {} for {} with params: {}", queryId, currentUser.getPrimaryUser(), parameters);
+        QueryManagementService service = getQueryManagementService();
+        return (GenericResponse<String>) service.invoke(service.duplicate, queryId, parameters, currentUser);
+    }
+    
+    @Override
+    public BaseQueryResponse next(String queryId, ProxiedUserDetails currentUser) throws QueryException {
+        log.info("LocalQueryService next {} for {}", queryId, currentUser.getPrimaryUser());
+        QueryManagementService service = getQueryManagementService();
+        return (BaseQueryResponse) service.invoke(service.next, queryId, currentUser);
+    }
+    
+    @Override
+    public VoidResponse close(String queryId, ProxiedUserDetails currentUser) throws QueryException {
+        log.info("LocalQueryService close {} for {}", queryId, currentUser.getPrimaryUser());
+        QueryManagementService service = getQueryManagementService();
+        return (VoidResponse) service.invoke(service.close, queryId, currentUser);
+    }
+    
+    @Override
+    public VoidResponse cancel(String queryId, ProxiedUserDetails currentUser) throws QueryException {
+        log.info("LocalQueryService cancel {} for {}", queryId, currentUser.getPrimaryUser());
+        QueryManagementService service = getQueryManagementService();
+        return (VoidResponse) service.invoke(service.cancel, queryId, currentUser);
+    }
+    
+    @Override
+    public VoidResponse remove(String queryId, ProxiedUserDetails currentUser) throws QueryException {
+        log.info("LocalQueryService remove {} for {}", queryId, currentUser.getPrimaryUser());
+        QueryManagementService service = getQueryManagementService();
+        return (VoidResponse) service.invoke(service.remove, queryId, currentUser);
+    }
+    
+    @Override
+    public Mono<GenericResponse<String>> duplicateAsync(String queryId, ProxiedUserDetails currentUser) {
+        return duplicateAsync(queryId, new LinkedMultiValueMap<>(), currentUser);
+    }
+    
+    @Override
+    public Mono<GenericResponse<String>> duplicateAsync(String queryId, MultiValueMap<String,String> parameters, ProxiedUserDetails currentUser) {
+        return toMono(() -> duplicate(queryId, parameters, currentUser));
+    }
+    
+    @Override
+    public Mono<BaseQueryResponse> nextAsync(String queryId, ProxiedUserDetails currentUser) {
+        return toMono(() -> next(queryId, currentUser));
+    }
+    
+    @Override
+    public Mono<VoidResponse> closeAsync(String queryId, ProxiedUserDetails currentUser) {
+        return toMono(() -> close(queryId, currentUser));
+    }
+    
+    @Override
+    public Mono<VoidResponse> cancelAsync(String queryId, ProxiedUserDetails currentUser) {
+        return toMono(() -> cancel(queryId, currentUser));
+    }
+    
+    @Override
+    public Mono<VoidResponse> removeAsync(String queryId, ProxiedUserDetails currentUser) {
+        return toMono(() -> remove(queryId, currentUser));
+    }
+    
+    private static <T> Mono<T> toMono(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+    
+    private QueryManagementService getQueryManagementService() throws QueryException {
+        QueryManagementService service = queryManagementService;
+        if (service == null) {
+            throw new QueryException("The query management service has not been initialized");
+        }
+        return service;
+    }
+    
+    private static class QueryManagementService {
+        private final Object target;
+        private final Method duplicate;
+        private final Method next;
+        private final Method close;
+        private final Method cancel;
+        private final Method remove;
+        
+        private QueryManagementService(Object target) throws NoSuchMethodException {
+            this.target = target;
+            // the methods are looked up by their exact parameter types, since the service has overloads with the same names
+            Class<?> targetClass = target.getClass();
+            this.duplicate = targetClass.getMethod("duplicate", String.class, MultiValueMap.class, ProxiedUserDetails.class);
+            this.next = targetClass.getMethod("next", String.class, ProxiedUserDetails.class);
+            this.close = targetClass.getMethod("close", String.class, ProxiedUserDetails.class);
+            this.cancel = targetClass.getMethod("cancel", String.class, ProxiedUserDetails.class);
+            this.remove = targetClass.getMethod("remove", String.class, ProxiedUserDetails.class);
+        }
+        
+        // invokes the method, rethrowing any query exception as-is so that callers see the same exceptions as the remote service
+        private Object invoke(Method method, Object... args) throws QueryException {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof QueryException) {
+                    throw (QueryException) e.getCause();
+                }
+                throw new QueryException("Unknown error occurred while calling " + method.getName(), e.getCause());
+            } catch (IllegalAccessException | IllegalArgumentException e) {
+                throw new QueryException("Unable to call " + method.getName() + " on the query management service", e);
+            }
+        }
+    }
+}
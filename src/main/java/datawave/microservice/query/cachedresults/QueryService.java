@@ -1,18 +1,42 @@
 package datawave.microservice.query.cachedresults;
 
+import java.util.function.Consumer;
+
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
 import datawave.security.authorization.ProxiedUserDetails;
 import datawave.webservice.query.exception.QueryException;
+import datawave.webservice.query.result.EdgeQueryResponseBase;
 import datawave.webservice.result.BaseQueryResponse;
+import datawave.webservice.result.EventQueryResponseBase;
 import datawave.webservice.result.GenericResponse;
 import datawave.webservice.result.VoidResponse;
 
 public interface QueryService {
     // duplicate
-    GenericResponse<String> duplicate(String queryId, ProxiedUserDetails currentUser) throws QueryException;
+    default GenericResponse<String> duplicate(String queryId, ProxiedUserDetails currentUser) throws QueryException {
+        return duplicate(queryId, new LinkedMultiValueMap<>(), currentUser);
+    }
+    
+    // duplicate, overriding the given query parameters on the new query
+    GenericResponse<String> duplicate(String queryId, MultiValueMap<String,String> parameters, ProxiedUserDetails currentUser) throws QueryException;
     
     // next
     BaseQueryResponse next(String queryId, ProxiedUserDetails currentUser) throws QueryException;
     
+    // next, handing each result to the consumer as it becomes available
+    // (the results are not guaranteed to be present in the returned response)
+    default BaseQueryResponse next(String queryId, ProxiedUserDetails currentUser, Consumer<Object> resultConsumer) throws QueryException {
+        BaseQueryResponse response = next(queryId, currentUser);
+        if (response instanceof EventQueryResponseBase) {
+            ((EventQueryResponseBase) response).getEvents().forEach(resultConsumer);
+        } else if (response instanceof EdgeQueryResponseBase) {
+            ((EdgeQueryResponseBase) response).getEdges().forEach(resultConsumer);
+        }
+        return response;
+    }
+    
     // close
     VoidResponse close(String queryId, ProxiedUserDetails currentUser) throws QueryException;
     
@@ -1,20 +1,45 @@
 package datawave.microservice.query.cachedresults;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.text.MessageFormat;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.http.HttpHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
 import datawave.microservice.query.cachedresults.config.CachedResultsQueryProperties;
 import datawave.security.authorization.JWTTokenHandler;
 import datawave.security.authorization.ProxiedUserDetails;
@@ -22,251 +47,493 @@ import datawave.webservice.query.exception.DatawaveErrorCode;
 import datawave.webservice.query.exception.NoResultsQueryException;
 import datawave.webservice.query.exception.QueryException;
 import datawave.webservice.query.exception.QueryExceptionType;
+import datawave.webservice.query.result.event.ResponseObjectFactory;
 import datawave.webservice.result.BaseQueryResponse;
 import datawave.webservice.result.BaseResponse;
 import datawave.webservice.result.GenericResponse;
 import datawave.webservice.result.VoidResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Service
 @ConditionalOnProperty(name = "datawave.query.cached-results.enabled", havingValue = "true", matchIfMissing = true)
-public class RemoteQueryService implements QueryService {
+public class RemoteQueryService implements QueryService, AsyncQueryService {
     
     private static final Logger log = LoggerFactory.getLogger(RemoteQueryService.class);
     
+    // the response fields which hold the results of a next call
+    private static final String EVENTS_FIELD = "Events";
+    private static final String EDGES_FIELD = "Edges";
+    
+    private static final MediaType APPLICATION_CBOR = MediaType.valueOf("application/cbor");
+    private static final String GZIP_ENCODING = "gzip";
+    
     private final WebClient webClient;
     private final JWTTokenHandler jwtTokenHandler;
     private final CachedResultsQueryProperties.RemoteQuery remoteQueryProperties;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborObjectMapper;
+    private final String nextAcceptHeader;
+    private final ResponseObjectFactory responseObjectFactory;
+    private final BearerTokenCache bearerTokenCache;
     
-    public RemoteQueryService(CachedResultsQueryProperties cachedResultsQueryProperties, WebClient.Builder webClientBuilder, JWTTokenHandler jwtTokenHandler) {
+    public RemoteQueryService(CachedResultsQueryProperties cachedResultsQueryProperties, WebClient.Builder webClientBuilder, JWTTokenHandler jwtTokenHandler,
+                    ObjectMapper objectMapper, Jackson2ObjectMapperBuilder objectMapperBuilder, ResponseObjectFactory responseObjectFactory,
+                    ObjectProvider<MeterRegistry> meterRegistry) {
         remoteQueryProperties = cachedResultsQueryProperties.getRemoteQuery();
+        this.objectMapper = objectMapper;
+        this.responseObjectFactory = responseObjectFactory;
+        
+        // the cbor mapper is built from the application's builder so that it uses the same modules and features as the json mapper
+        this.cborObjectMapper = objectMapperBuilder.factory(new CBORFactory()).build();
+        Jackson2CborDecoder cborDecoder = new Jackson2CborDecoder(cborObjectMapper);
+        cborDecoder.setMaxInMemorySize(remoteQueryProperties.getMaxBytesToBuffer());
+        
+        // when cbor is enabled, it is preferred for next pages, but json is still accepted from query services which can't produce cbor
+        if (remoteQueryProperties.isCborEnabled()) {
+            this.nextAcceptHeader = APPLICATION_CBOR + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.9";
+        } else {
+            this.nextAcceptHeader = MediaType.APPLICATION_JSON_VALUE;
+        }
         
         // @formatter:off
         this.webClient = webClientBuilder
                 .baseUrl(cachedResultsQueryProperties.getRemoteQuery().getQueryServiceUri())
                 .exchangeStrategies(ExchangeStrategies.builder()
-                        .codecs(clientCodecConfigurer -> clientCodecConfigurer
-                                .defaultCodecs()
-                                .maxInMemorySize(cachedResultsQueryProperties.getRemoteQuery().getMaxBytesToBuffer()))
+                        .codecs(clientCodecConfigurer -> {
+                            clientCodecConfigurer
+                                    .defaultCodecs()
+                                    .maxInMemorySize(cachedResultsQueryProperties.getRemoteQuery().getMaxBytesToBuffer());
+                            clientCodecConfigurer
+                                    .customCodecs()
+                                    .register(cborDecoder);
+                        })
                         .build())
+                .filters(filters -> {
+                    if (remoteQueryProperties.isGzipEnabled()) {
+                        filters.add(this::gzipResponse);
+                    }
+                })
                 .build();
         // @formatter:on
         this.jwtTokenHandler = jwtTokenHandler;
+        this.bearerTokenCache = new BearerTokenCache(remoteQueryProperties.getTokenCache(), objectMapper,
+                        meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
     }
     
     private String createBearerHeader(ProxiedUserDetails currentUser) {
-        return "Bearer " + jwtTokenHandler.createTokenFromUsers(currentUser.getPrimaryUser().getName(), currentUser.getProxiedUsers());
+        if (remoteQueryProperties.getTokenCache().isEnabled()) {
+            // signing a token is expensive, so reuse the user's token for as long as it is valid
+            return "Bearer " + bearerTokenCache.getToken(currentUser, () -> createToken(currentUser));
+        }
+        return "Bearer " + createToken(currentUser);
+    }
+    
+    private String createToken(ProxiedUserDetails currentUser) {
+        return jwtTokenHandler.createTokenFromUsers(currentUser.getPrimaryUser().getName(), currentUser.getProxiedUsers());
+    }
+    
+    public BearerTokenCache getBearerTokenCache() {
+        return bearerTokenCache;
     }
     
     @Override
-    public GenericResponse<String> duplicate(String queryId, ProxiedUserDetails currentUser) throws QueryException {
-        log.info("RemoteQueryService duplicate {} for {}", queryId, currentUser.getPrimaryUser());
+    public GenericResponse<String> duplicate(String queryId, MultiValueMap<String,String> parameters, ProxiedUserDetails currentUser) throws QueryException {
+        return block(duplicateAsync(queryId, parameters, currentUser));
+    }
+    
+    @Override
+    public Mono<GenericResponse<String>> duplicateAsync(String queryId, ProxiedUserDetails currentUser) {
+        return duplicateAsync(queryId, new LinkedMultiValueMap<>(), currentUser);
+    }
+    
+    @Override
+    public Mono<GenericResponse<String>> duplicateAsync(String queryId, MultiValueMap<String,String> parameters, ProxiedUserDetails currentUser) {
+        log.info("RemoteQueryService duplicate {} for {} with params: {}", queryId, currentUser.getPrimaryUser(), parameters);
         
-        try {
-            // @formatter:off
-            ResponseEntity<BaseResponse> baseResponseEntity = webClient.post()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/" + queryId + "/duplicate")
-                            .build())
-                    .header("Authorization", createBearerHeader(currentUser))
-                    .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                    .retrieve()
-                    .toEntity(BaseResponse.class)
-                    .block(Duration.ofMillis(remoteQueryProperties.getDuplicateTimeoutMillis()));
-            // @formatter:on
-            
-            QueryException queryException;
-            if (baseResponseEntity != null) {
-                BaseResponse baseResponse = baseResponseEntity.getBody();
-                
-                if (baseResponse instanceof GenericResponse && baseResponseEntity.getStatusCode() == HttpStatus.OK) {
-                    return (GenericResponse<String>) baseResponse;
-                } else {
-                    if (baseResponse != null && baseResponse.getExceptions().size() > 0) {
-                        QueryExceptionType exceptionType = baseResponse.getExceptions().get(0);
-                        queryException = new QueryException(exceptionType.getCode(), exceptionType.getCause(), exceptionType.getMessage());
-                    } else {
-                        queryException = new QueryException("Unknown error occurred while calling duplicate for " + queryId,
-                                        baseResponseEntity.getStatusCodeValue());
-                    }
-                }
+        // @formatter:off
+        Mono<ResponseEntity<BaseResponse>> baseResponseEntity = webClient.post()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/" + queryId + "/duplicate")
+                        .build())
+                .header("Authorization", createBearerHeader(currentUser))
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .body(BodyInserters.fromFormData(parameters))
+                .retrieve()
+                .toEntity(BaseResponse.class);
+        // @formatter:on
+        
+        return toResponse("duplicate", queryId, baseResponseEntity, remoteQueryProperties.getDuplicateTimeoutMillis(), this::toDuplicateResponse);
+    }
+    
+    private GenericResponse<String> toDuplicateResponse(String queryId, ResponseEntity<BaseResponse> baseResponseEntity) throws QueryException {
+        BaseResponse baseResponse = baseResponseEntity.getBody();
+        
+        if (baseResponse instanceof GenericResponse && baseResponseEntity.getStatusCode() == HttpStatus.OK) {
+            return (GenericResponse<String>) baseResponse;
+        } else {
+            if (baseResponse != null && baseResponse.getExceptions().size() > 0) {
+                QueryExceptionType exceptionType = baseResponse.getExceptions().get(0);
+                throw new QueryException(exceptionType.getCode(), exceptionType.getCause(), exceptionType.getMessage());
             } else {
-                queryException = new QueryException("Unknown error occurred while calling duplicate for " + queryId);
+                throw new QueryException("Unknown error occurred while calling duplicate for " + queryId, baseResponseEntity.getStatusCodeValue());
             }
-            throw queryException;
-        } catch (RuntimeException e) {
-            log.error("Timed out waiting for remote query duplicate response");
-            throw new QueryException("Timed out waiting for remote query duplicate response", e);
         }
     }
     
     @Override
     public BaseQueryResponse next(String queryId, ProxiedUserDetails currentUser) throws QueryException {
+        return block(nextAsync(queryId, currentUser));
+    }
+    
+    @Override
+    public Mono<BaseQueryResponse> nextAsync(String queryId, ProxiedUserDetails currentUser) {
         log.info("RemoteQueryService next {} for {}", queryId, currentUser.getPrimaryUser());
         
+        // @formatter:off
+        Mono<ResponseEntity<BaseResponse>> baseResponseEntity = webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/" + queryId + "/next")
+                        .build())
+                .header("Authorization", createBearerHeader(currentUser))
+                .header(HttpHeaders.ACCEPT, nextAcceptHeader)
+                .retrieve()
+                .toEntity(BaseResponse.class);
+        // @formatter:on
+        
+        return toResponse("next", queryId, baseResponseEntity, remoteQueryProperties.getNextTimeoutMillis(), this::toNextResponse);
+    }
+    
+    private BaseQueryResponse toNextResponse(String queryId, ResponseEntity<BaseResponse> baseResponseEntity) throws QueryException {
+        BaseResponse baseResponse = baseResponseEntity.getBody();
+        
+        // if we got what we were looking for, return it
+        if (baseResponse instanceof BaseQueryResponse) {
+            return (BaseQueryResponse) baseResponse;
+        } else {
+            if (baseResponseEntity.getStatusCode() == HttpStatus.NO_CONTENT) {
+                throw new NoResultsQueryException(DatawaveErrorCode.NO_QUERY_RESULTS_FOUND, MessageFormat.format("{0}", queryId));
+            } else if (baseResponse != null && baseResponse.getExceptions().size() > 0) {
+                QueryExceptionType exceptionType = baseResponse.getExceptions().get(0);
+                throw new QueryException(exceptionType.getCode(), exceptionType.getCause(), exceptionType.getMessage());
+            } else {
+                throw new QueryException("Unknown error occurred while calling next for " + queryId, baseResponseEntity.getStatusCodeValue());
+            }
+        }
+    }
+    
+    @Override
+    public BaseQueryResponse next(String queryId, ProxiedUserDetails currentUser, Consumer<Object> resultConsumer) throws QueryException {
+        if (!remoteQueryProperties.isStreamNext()) {
+            return QueryService.super.next(queryId, currentUser, resultConsumer);
+        }
+        
+        log.info("RemoteQueryService streaming next {} for {}", queryId, currentUser.getPrimaryUser());
+        
         try {
             // @formatter:off
-            ResponseEntity<BaseResponse> baseResponseEntity = webClient.get()
+            ResponseEntity<Flux<DataBuffer>> bodyEntity = webClient.get()
                     .uri(uriBuilder -> uriBuilder
                             .path("/" + queryId + "/next")
                             .build())
                     .header("Authorization", createBearerHeader(currentUser))
-                    .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                    .header(HttpHeaders.ACCEPT, nextAcceptHeader)
+                    .headers(headers -> {
+                        // the streamed body is decompressed here, so it is safe to ask for a compressed response
+                        if (remoteQueryProperties.isGzipEnabled()) {
+                            headers.set(HttpHeaders.ACCEPT_ENCODING, GZIP_ENCODING);
+                        }
+                    })
                     .retrieve()
-                    .toEntity(BaseResponse.class)
-                    .block(Duration.ofMillis(remoteQueryProperties.getNextTimeoutMillis()));
+                    .toEntityFlux(DataBuffer.class)
+                    .timeout(Duration.ofMillis(remoteQueryProperties.getNextTimeoutMillis()))
+                    .block();
             // @formatter:on
             
             QueryException queryException;
-            if (baseResponseEntity != null) {
-                BaseResponse baseResponse = baseResponseEntity.getBody();
+            if (bodyEntity != null) {
+                if (bodyEntity.getStatusCode() == HttpStatus.NO_CONTENT) {
+                    if (bodyEntity.getBody() != null) {
+                        bodyEntity.getBody().subscribe(DataBufferUtils::release);
+                    }
+                    throw new NoResultsQueryException(DatawaveErrorCode.NO_QUERY_RESULTS_FOUND, MessageFormat.format("{0}", queryId));
+                }
+                
+                BaseResponse baseResponse = null;
+                if (bodyEntity.getBody() != null) {
+                    Flux<DataBuffer> body = bodyEntity.getBody().timeout(Duration.ofMillis(remoteQueryProperties.getNextTimeoutMillis()));
+                    try (InputStream inputStream = getInputStream(bodyEntity, body)) {
+                        baseResponse = readNextResponse(getObjectMapper(bodyEntity.getHeaders().getContentType()), inputStream, resultConsumer);
+                    }
+                }
                 
                 // if we got what we were looking for, return it
                 if (baseResponse instanceof BaseQueryResponse) {
                     return (BaseQueryResponse) baseResponse;
                 } else {
-                    if (baseResponseEntity.getStatusCode() == HttpStatus.NO_CONTENT) {
-                        queryException = new NoResultsQueryException(DatawaveErrorCode.NO_QUERY_RESULTS_FOUND, MessageFormat.format("{0}", queryId));
-                    } else if (baseResponse != null && baseResponse.getExceptions().size() > 0) {
+                    if (baseResponse != null && baseResponse.getExceptions().size() > 0) {
                         QueryExceptionType exceptionType = baseResponse.getExceptions().get(0);
                         queryException = new QueryException(exceptionType.getCode(), exceptionType.getCause(), exceptionType.getMessage());
                     } else {
-                        queryException = new QueryException("Unknown error occurred while calling next for " + queryId,
-                                        baseResponseEntity.getStatusCodeValue());
+                        queryException = new QueryException("Unknown error occurred while calling next for " + queryId, bodyEntity.getStatusCodeValue());
                     }
                 }
             } else {
                 queryException = new QueryException("Unknown error occurred while calling next for " + queryId);
             }
             throw queryException;
+        } catch (IOException e) {
+            // a timeout while streaming the body surfaces as a read failure
+            if (isTimeout(e)) {
+                log.error("Timed out waiting for remote query next response");
+                throw new QueryException("Timed out waiting for remote query next response", e);
+            }
+            log.error("Unable to read remote query next response", e);
+            throw new QueryException("Unable to read remote query next response", e);
         } catch (RuntimeException e) {
-            log.error("Timed out waiting for remote query next response");
-            throw new QueryException("Timed out waiting for remote query next response", e);
+            throw toQueryException("next", Exceptions.unwrap(e));
         }
     }
     
-    @Override
-    public VoidResponse close(String queryId, ProxiedUserDetails currentUser) throws QueryException {
-        log.info("RemoteQueryService close {} for {}", queryId, currentUser.getPrimaryUser());
+    // asks for a compressed response, and decompresses it before it is buffered and decoded
+    // (requests which ask for an encoding themselves, such as a streamed next, decompress their own responses)
+    private Mono<ClientResponse> gzipResponse(ClientRequest request, ExchangeFunction next) {
+        if (request.headers().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            return next.exchange(request);
+        }
         
-        try {
-            // @formatter:off
-            ResponseEntity<VoidResponse> voidResponseEntity = webClient.put()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/" + queryId + "/close")
-                            .build())
-                    .header("Authorization", createBearerHeader(currentUser))
-                    .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                    .retrieve()
-                    .toEntity(VoidResponse.class)
-                    .block(Duration.ofMillis(remoteQueryProperties.getCloseTimeoutMillis()));
-            // @formatter:on
+        ClientRequest gzipRequest = ClientRequest.from(request).header(HttpHeaders.ACCEPT_ENCODING, GZIP_ENCODING).build();
+        return next.exchange(gzipRequest).map(response -> {
+            String contentEncoding = response.headers().asHttpHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+            if (contentEncoding != null && contentEncoding.trim().equalsIgnoreCase(GZIP_ENCODING)) {
+                // @formatter:off
+                return response.mutate()
+                        .headers(headers -> {
+                            headers.remove(HttpHeaders.CONTENT_ENCODING);
+                            headers.remove(HttpHeaders.CONTENT_LENGTH);
+                        })
+                        .body(this::gunzip)
+                        .build();
+                // @formatter:on
+            }
+            return response;
+        });
+    }
+    
+    // the buffered responses are held in memory anyway, so the body is joined and decompressed in one go, within the same buffer limit
+    private Flux<DataBuffer> gunzip(Flux<DataBuffer> body) {
+        int maxBytesToBuffer = remoteQueryProperties.getMaxBytesToBuffer();
+        return DataBufferUtils.join(body, maxBytesToBuffer).<DataBuffer> map(compressed -> {
+            try (InputStream inputStream = new GZIPInputStream(compressed.asInputStream(true))) {
+                return DefaultDataBufferFactory.sharedInstance.wrap(readAllBytes(inputStream, maxBytesToBuffer));
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }).flux();
+    }
+    
+    // reads the decompressed bytes, failing once they exceed the buffer limit (-1 is unlimited)
+    private byte[] readAllBytes(InputStream inputStream, int maxBytesToBuffer) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int numRead;
+        while ((numRead = inputStream.read(buffer)) != -1) {
+            if (maxBytesToBuffer >= 0 && outputStream.size() + numRead > maxBytesToBuffer) {
+                throw new DataBufferLimitException("Exceeded limit on max bytes to buffer : " + maxBytesToBuffer);
+            }
+            outputStream.write(buffer, 0, numRead);
+        }
+        return outputStream.toByteArray();
+    }
+    
+    private InputStream getInputStream(ResponseEntity<?> bodyEntity, Flux<DataBuffer> body) throws IOException {
+        InputStream inputStream = new DataBufferInputStream(body, remoteQueryProperties.getStreamPrefetch());
+        String contentEncoding = bodyEntity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding != null && contentEncoding.trim().equalsIgnoreCase(GZIP_ENCODING)) {
+            try {
+                inputStream = new GZIPInputStream(inputStream);
+            } catch (IOException e) {
+                inputStream.close();
+                throw e;
+            }
+        }
+        return inputStream;
+    }
+    
+    // picks the mapper for the negotiated response format, falling back to json
+    private ObjectMapper getObjectMapper(MediaType contentType) {
+        if (contentType != null && APPLICATION_CBOR.isCompatibleWith(contentType)) {
+            return cborObjectMapper;
+        }
+        return objectMapper;
+    }
+    
+    // reads the response, handing each event or edge to the consumer as soon as it has been decoded
+    // (the results are not retained in the returned response)
+    private BaseResponse readNextResponse(ObjectMapper objectMapper, InputStream inputStream, Consumer<Object> resultConsumer) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected the next response to be an object");
+            }
             
-            QueryException queryException;
-            if (voidResponseEntity != null) {
-                VoidResponse voidResponse = voidResponseEntity.getBody();
-                
-                if (voidResponseEntity.getStatusCode() == HttpStatus.OK) {
-                    return voidResponse;
-                } else {
-                    if (voidResponse != null && voidResponse.getExceptions().size() > 0) {
-                        QueryExceptionType exceptionType = voidResponse.getExceptions().get(0);
-                        queryException = new QueryException(exceptionType.getCode(), exceptionType.getCause(), exceptionType.getMessage());
-                    } else {
-                        queryException = new QueryException("Unknown error occurred while calling close for " + queryId,
-                                        voidResponseEntity.getStatusCodeValue());
+            ObjectNode responseNode = objectMapper.createObjectNode();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY && (EVENTS_FIELD.equals(fieldName) || EDGES_FIELD.equals(fieldName))) {
+                    Class<?> resultClass = EVENTS_FIELD.equals(fieldName) ? responseObjectFactory.getEvent().getClass()
+                                    : responseObjectFactory.getEdge().getClass();
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        resultConsumer.accept(objectMapper.readValue(parser, resultClass));
                     }
+                    responseNode.putArray(fieldName);
+                } else {
+                    responseNode.set(fieldName, objectMapper.readTree(parser));
                 }
-            } else {
-                queryException = new QueryException("Unknown error occurred while calling close for " + queryId);
             }
-            throw queryException;
-        } catch (RuntimeException e) {
-            log.error("Timed out waiting for remote query close response");
-            throw new QueryException("Timed out waiting for remote query close response", e);
+            
+            return objectMapper.treeToValue(responseNode, BaseResponse.class);
         }
     }
     
+    @Override
+    public VoidResponse close(String queryId, ProxiedUserDetails currentUser) throws QueryException {
+        return block(closeAsync(queryId, currentUser));
+    }
+    
+    @Override
+    public Mono<VoidResponse> closeAsync(String queryId, ProxiedUserDetails currentUser) {
+        log.info("RemoteQueryService close {} for {}", queryId, currentUser.getPrimaryUser());
+        
+        // @formatter:off
+        Mono<ResponseEntity<VoidResponse>> voidResponseEntity = webClient.put()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/" + queryId + "/close")
+                        .build())
+                .header("Authorization", createBearerHeader(currentUser))
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .retrieve()
+                .toEntity(VoidResponse.class);
+        // @formatter:on
+        
+        return toResponse("close", queryId, voidResponseEntity, remoteQueryProperties.getCloseTimeoutMillis(),
+                        (id, entity) -> toVoidResponse("close", id, entity));
+    }
+    
     @Override
     public VoidResponse cancel(String queryId, ProxiedUserDetails currentUser) throws QueryException {
+        return block(cancelAsync(queryId, currentUser));
+    }
+    
+    @Override
+    public Mono<VoidResponse> cancelAsync(String queryId, ProxiedUserDetails currentUser) {
         log.info("RemoteQueryService cancel {} for {}", queryId, currentUser.getPrimaryUser());
         
-        try {
-            // @formatter:off
-            ResponseEntity<VoidResponse> voidResponseEntity = webClient.put()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/" + queryId + "/cancel")
-                            .build())
-                    .header("Authorization", createBearerHeader(currentUser))
-                    .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                    .retrieve()
-                    .toEntity(VoidResponse.class)
-                    .block(Duration.ofMillis(remoteQueryProperties.getCancelTimeoutMillis()));
-            // @formatter:on
-            
-            QueryException queryException;
-            if (voidResponseEntity != null) {
-                VoidResponse voidResponse = voidResponseEntity.getBody();
-                
-                if (voidResponseEntity.getStatusCode() == HttpStatus.OK) {
-                    return voidResponse;
-                } else {
-                    if (voidResponse != null && voidResponse.getExceptions().size() > 0) {
-                        QueryExceptionType exceptionType = voidResponse.getExceptions().get(0);
-                        queryException = new QueryException(exceptionType.getCode(), exceptionType.getCause(), exceptionType.getMessage());
-                    } else {
-                        queryException = new QueryException("Unknown error occurred while calling cancel for " + queryId,
-                                        voidResponseEntity.getStatusCodeValue());
-                    }
-                }
-            } else {
-                queryException = new QueryException("Unknown error occurred while calling cancel for " + queryId);
-            }
-            throw queryException;
-        } catch (RuntimeException e) {
-            log.error("Timed out waiting for remote query cancel response");
-            throw new QueryException("Timed out waiting for remote query cancel response", e);
-        }
+        // @formatter:off
+        Mono<ResponseEntity<VoidResponse>> voidResponseEntity = webClient.put()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/" + queryId + "/cancel")
+                        .build())
+                .header("Authorization", createBearerHeader(currentUser))
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .retrieve()
+                .toEntity(VoidResponse.class);
+        // @formatter:on
+        
+        return toResponse("cancel", queryId, voidResponseEntity, remoteQueryProperties.getCancelTimeoutMillis(),
+                        (id, entity) -> toVoidResponse("cancel", id, entity));
     }
     
     @Override
     public VoidResponse remove(String queryId, ProxiedUserDetails currentUser) throws QueryException {
+        return block(removeAsync(queryId, currentUser));
+    }
+    
+    @Override
+    public Mono<VoidResponse> removeAsync(String queryId, ProxiedUserDetails currentUser) {
         log.info("RemoteQueryService remove {} for {}", queryId, currentUser.getPrimaryUser());
         
-        try {
-            // @formatter:off
-            ResponseEntity<VoidResponse> voidResponseEntity = webClient.put()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/" + queryId + "/remove")
-                            .build())
-                    .header("Authorization", createBearerHeader(currentUser))
-                    .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                    .retrieve()
-                    .toEntity(VoidResponse.class)
-                    .block(Duration.ofMillis(remoteQueryProperties.getRemoveTimeoutMillis()));
-            // @formatter:on
-            
-            QueryException queryException;
-            if (voidResponseEntity != null) {
-                VoidResponse voidResponse = voidResponseEntity.getBody();
-                
-                if (voidResponseEntity.getStatusCode() == HttpStatus.OK) {
-                    return voidResponse;
-                } else {
-                    if (voidResponse != null && voidResponse.getExceptions().size() > 0) {
-                        QueryExceptionType exceptionType = voidResponse.getExceptions().get(0);
-                        queryException = new QueryException(exceptionType.getCode(), exceptionType.getCause(), exceptionType.getMessage());
-                    } else {
-                        queryException = new QueryException("Unknown error occurred while calling remove for " + queryId,
-                                        voidResponseEntity.getStatusCodeValue());
-                    }
-                }
+        // @formatter:off
+        Mono<ResponseEntity<VoidResponse>> voidResponseEntity = webClient.put()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/" + queryId + "/remove")
+                        .build())
+                .header("Authorization", createBearerHeader(currentUser))
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .retrieve()
+                .toEntity(VoidResponse.class);
+        // @formatter:on
+        
+        return toResponse("remove", queryId, voidResponseEntity, remoteQueryProperties.getRemoveTimeoutMillis(),
+                        (id, entity) -> toVoidResponse("remove", id, entity));
+    }
+    
+    private VoidResponse toVoidResponse(String operation, String queryId, ResponseEntity<VoidResponse> voidResponseEntity) throws QueryException {
+        VoidResponse voidResponse = voidResponseEntity.getBody();
+        
+        if (voidResponseEntity.getStatusCode() == HttpStatus.OK) {
+            return voidResponse;
+        } else {
+            if (voidResponse != null && voidResponse.getExceptions().size() > 0) {
+                QueryExceptionType exceptionType = voidResponse.getExceptions().get(0);
+                throw new QueryException(exceptionType.getCode(), exceptionType.getCause(), exceptionType.getMessage());
             } else {
-                queryException = new QueryException("Unknown error occurred while calling remove for " + queryId);
+                throw new QueryException("Unknown error occurred while calling " + operation + " for " + queryId, voidResponseEntity.getStatusCodeValue());
             }
-            throw queryException;
+        }
+    }
+    
+    // converts the response entity once it arrives, mapping any failure to a query exception
+    private <E,T> Mono<T> toResponse(String operation, String queryId, Mono<ResponseEntity<E>> responseEntity, long timeoutMillis,
+                    ResponseConverter<E,T> responseConverter) {
+        // @formatter:off
+        return responseEntity
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .switchIfEmpty(Mono.error(() -> new QueryException("Unknown error occurred while calling " + operation + " for " + queryId)))
+                .<T> handle((entity, sink) -> {
+                    try {
+                        sink.next(responseConverter.convert(queryId, entity));
+                    } catch (QueryException e) {
+                        sink.error(e);
+                    }
+                })
+                .onErrorMap(e -> !(e instanceof QueryException), e -> toQueryException(operation, e));
+        // @formatter:on
+    }
+    
+    // only a timeout is reported as one, other failures keep their own cause
+    private QueryException toQueryException(String operation, Throwable e) {
+        if (isTimeout(e)) {
+            log.error("Timed out waiting for remote query {} response", operation);
+            return new QueryException("Timed out waiting for remote query " + operation + " response", e);
+        }
+        log.error("Remote query {} failed", operation, e);
+        return new QueryException("Remote query " + operation + " failed: " + e.getMessage(), e);
+    }
+    
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (Exceptions.unwrap(cause) instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // waits for the response, rethrowing the query exception it errored with
+    private <T> T block(Mono<T> response) throws QueryException {
+        try {
+            return response.block();
         } catch (RuntimeException e) {
-            log.error("Timed out waiting for remote query remove response");
-            throw new QueryException("Timed out waiting for remote query remove response", e);
+            Throwable cause = Exceptions.unwrap(e);
+            throw (cause instanceof QueryException) ? (QueryException) cause : new QueryException(cause);
         }
     }
+    
+    private interface ResponseConverter<E,T> {
+        T convert(String queryId, ResponseEntity<E> responseEntity) throws QueryException;
+    }
 }
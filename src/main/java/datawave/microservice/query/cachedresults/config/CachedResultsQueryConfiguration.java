@@ -25,10 +25,12 @@ import datawave.microservice.cached.CacheInspector;
 import datawave.microservice.cached.LockableCacheInspector;
 import datawave.microservice.cached.LockableHazelcastCacheInspector;
 import datawave.microservice.cached.UniversalLockableCacheInspector;
+import datawave.microservice.query.cachedresults.load.cache.LoadJobCache;
 import datawave.microservice.query.cachedresults.status.cache.CachedResultsQueryCache;
 import datawave.microservice.query.cachedresults.status.cache.CachedResultsQueryStatusCache;
 import datawave.microservice.query.cachedresults.status.cache.DefinedQueryIdByAliasCache;
 import datawave.microservice.query.cachedresults.status.cache.DefinedQueryIdByCachedQueryIdCache;
+import datawave.microservice.query.cachedresults.status.cache.DefinedQueryIdByFingerprintCache;
 import datawave.microservice.query.cachedresults.status.cache.DefinedQueryIdByViewCache;
 
 @Configuration
@@ -108,6 +110,17 @@ public class CachedResultsQueryConfiguration {
         return new DefinedQueryIdByViewCache(lockableCacheInspector);
     }
     
+    @Bean
+    public DefinedQueryIdByFingerprintCache cachedResultsQueryIdByFingerprintCache(
+                    @Qualifier("cacheInspectorFactory") Function<CacheManager,CacheInspector> cacheInspectorFactory, CacheManager cacheManager) {
+        LockableCacheInspector lockableCacheInspector;
+        if (cacheManager instanceof HazelcastCacheManager)
+            lockableCacheInspector = new LockableHazelcastCacheInspector(cacheManager);
+        else
+            lockableCacheInspector = new UniversalLockableCacheInspector(cacheInspectorFactory.apply(cacheManager));
+        return new DefinedQueryIdByFingerprintCache(lockableCacheInspector);
+    }
+    
     @Bean
     public CachedResultsQueryStatusCache cachedResultsStatusCache(
                     @Qualifier("cacheInspectorFactory") Function<CacheManager,CacheInspector> cacheInspectorFactory, CacheManager cacheManager) {
@@ -119,11 +132,23 @@ public class CachedResultsQueryConfiguration {
         return new CachedResultsQueryStatusCache(lockableCacheInspector);
     }
     
+    @Bean
+    public LoadJobCache cachedResultsLoadJobCache(@Qualifier("cacheInspectorFactory") Function<CacheManager,CacheInspector> cacheInspectorFactory,
+                    CacheManager cacheManager) {
+        LockableCacheInspector lockableCacheInspector;
+        if (cacheManager instanceof HazelcastCacheManager)
+            lockableCacheInspector = new LockableHazelcastCacheInspector(cacheManager);
+        else
+            lockableCacheInspector = new UniversalLockableCacheInspector(cacheInspectorFactory.apply(cacheManager));
+        return new LoadJobCache(lockableCacheInspector);
+    }
+    
     @Bean
     public CachedResultsQueryCache cachedResultsQueryCache(CachedResultsQueryProperties cachedResultsQueryProperties,
                     DefinedQueryIdByCachedQueryIdCache definedQueryIdByCachedQueryIdCache, DefinedQueryIdByAliasCache definedQueryIdByAliasCache,
-                    DefinedQueryIdByViewCache definedQueryIdByViewCache, CachedResultsQueryStatusCache cachedResultsStatusCache) {
+                    DefinedQueryIdByViewCache definedQueryIdByViewCache, DefinedQueryIdByFingerprintCache definedQueryIdByFingerprintCache,
+                    CachedResultsQueryStatusCache cachedResultsStatusCache) {
         return new CachedResultsQueryCache(cachedResultsQueryProperties, cachedResultsStatusCache, definedQueryIdByCachedQueryIdCache,
-                        definedQueryIdByAliasCache, definedQueryIdByViewCache);
+                        definedQueryIdByAliasCache, definedQueryIdByViewCache, definedQueryIdByFingerprintCache);
     }
 }
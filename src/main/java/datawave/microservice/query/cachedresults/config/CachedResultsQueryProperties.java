@@ -1,7 +1,9 @@
 package datawave.microservice.query.cachedresults.config;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -14,6 +16,8 @@ public class CachedResultsQueryProperties {
     private int maxPageSize = 0;
     private long pageByteTrigger = 0;
     private int maxInsertAttempts = 10;
+    // PAGE retries the whole batch with shrinking values, BISECT splits the failed batch to isolate the failing rows
+    private RetryStrategy retryStrategy = RetryStrategy.PAGE;
     private int maxValueLength = 1073741824;
     private int daysToLive = 1;
     
@@ -26,7 +30,28 @@ public class CachedResultsQueryProperties {
                     ".*DROP[\\s]+DATABASE.*", ".*CREATE[\\s]+PROCEDURE.*", ".*DELETE[\\s].*", ".*INSERT[\\s].*");
     private List<String> allowedFunctions = Arrays.asList(".*COUNT\\(.*\\).*", ".*SUM\\(.*\\).*", ".*MIN\\(.*\\).*", ".*MAX\\(.*\\).*", ".*LOWER\\(.*\\).*",
                     ".*UPPER\\(.*\\).*", ".*INET_ATON\\(.*\\).*", ".*INET_NTOA\\(.*\\).*", ".*CONVERT\\(.*\\).*", ".*STR_TO_DATE\\(.*\\).*");
+    // BATCH uses batched prepared statements, LOAD_DATA streams rows using LOAD DATA LOCAL INFILE
+    // (LOAD_DATA requires allowLoadLocalInfile=true on the connection url, and local_infile enabled on the server)
+    private InsertStrategy insertStrategy = InsertStrategy.BATCH;
     private RemoteQuery remoteQuery = new RemoteQuery();
+    private LocalQuery localQuery = new LocalQuery();
+    private LoadProfile loadProfile = new LoadProfile();
+    private LoadScheduling loadScheduling = new LoadScheduling();
+    private Pipeline pipeline = new Pipeline();
+    private AsyncLoad asyncLoad = new AsyncLoad();
+    private VirtualThreads virtualThreads = new VirtualThreads();
+    private LoadThreads loadThreads = new LoadThreads();
+    private Recovery recovery = new Recovery();
+    private LoadQueue loadQueue = new LoadQueue();
+    private EarlyAccess earlyAccess = new EarlyAccess();
+    private Reuse reuse = new Reuse();
+    private ReadTiming readTiming = new ReadTiming();
+    private ParallelInsert parallelInsert = new ParallelInsert();
+    private SparseInsert sparseInsert = new SparseInsert();
+    private DynamicColumns dynamicColumns = new DynamicColumns();
+    private Overflow overflow = new Overflow();
+    private MarkingsDictionary markingsDictionary = new MarkingsDictionary();
+    private CompactEncoding compactEncoding = new CompactEncoding();
     private Statements statementTemplates = new Statements();
     
     public int getNumFields() {
@@ -69,6 +94,14 @@ public class CachedResultsQueryProperties {
         this.maxInsertAttempts = maxInsertAttempts;
     }
     
+    public RetryStrategy getRetryStrategy() {
+        return retryStrategy;
+    }
+    
+    public void setRetryStrategy(RetryStrategy retryStrategy) {
+        this.retryStrategy = retryStrategy;
+    }
+    
     public int getMaxValueLength() {
         return maxValueLength;
     }
@@ -141,6 +174,14 @@ public class CachedResultsQueryProperties {
         this.allowedFunctions = allowedFunctions;
     }
     
+    public InsertStrategy getInsertStrategy() {
+        return insertStrategy;
+    }
+    
+    public void setInsertStrategy(InsertStrategy insertStrategy) {
+        this.insertStrategy = insertStrategy;
+    }
+    
     public RemoteQuery getRemoteQuery() {
         return remoteQuery;
     }
@@ -149,6 +190,150 @@ public class CachedResultsQueryProperties {
         this.remoteQuery = remoteQuery;
     }
     
+    public LocalQuery getLocalQuery() {
+        return localQuery;
+    }
+    
+    public void setLocalQuery(LocalQuery localQuery) {
+        this.localQuery = localQuery;
+    }
+    
+    public LoadProfile getLoadProfile() {
+        return loadProfile;
+    }
+    
+    public void setLoadProfile(LoadProfile loadProfile) {
+        this.loadProfile = loadProfile;
+    }
+    
+    public LoadScheduling getLoadScheduling() {
+        return loadScheduling;
+    }
+    
+    public void setLoadScheduling(LoadScheduling loadScheduling) {
+        this.loadScheduling = loadScheduling;
+    }
+    
+    public Pipeline getPipeline() {
+        return pipeline;
+    }
+    
+    public void setPipeline(Pipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+    
+    public AsyncLoad getAsyncLoad() {
+        return asyncLoad;
+    }
+    
+    public void setAsyncLoad(AsyncLoad asyncLoad) {
+        this.asyncLoad = asyncLoad;
+    }
+    
+    public VirtualThreads getVirtualThreads() {
+        return virtualThreads;
+    }
+    
+    public void setVirtualThreads(VirtualThreads virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+    
+    public LoadThreads getLoadThreads() {
+        return loadThreads;
+    }
+    
+    public void setLoadThreads(LoadThreads loadThreads) {
+        this.loadThreads = loadThreads;
+    }
+    
+    public Recovery getRecovery() {
+        return recovery;
+    }
+    
+    public void setRecovery(Recovery recovery) {
+        this.recovery = recovery;
+    }
+    
+    public LoadQueue getLoadQueue() {
+        return loadQueue;
+    }
+    
+    public void setLoadQueue(LoadQueue loadQueue) {
+        this.loadQueue = loadQueue;
+    }
+    
+    public EarlyAccess getEarlyAccess() {
+        return earlyAccess;
+    }
+    
+    public void setEarlyAccess(EarlyAccess earlyAccess) {
+        this.earlyAccess = earlyAccess;
+    }
+    
+    public Reuse getReuse() {
+        return reuse;
+    }
+    
+    public void setReuse(Reuse reuse) {
+        this.reuse = reuse;
+    }
+    
+    public ReadTiming getReadTiming() {
+        return readTiming;
+    }
+    
+    public void setReadTiming(ReadTiming readTiming) {
+        this.readTiming = readTiming;
+    }
+    
+    public ParallelInsert getParallelInsert() {
+        return parallelInsert;
+    }
+    
+    public void setParallelInsert(ParallelInsert parallelInsert) {
+        this.parallelInsert = parallelInsert;
+    }
+    
+    public SparseInsert getSparseInsert() {
+        return sparseInsert;
+    }
+    
+    public void setSparseInsert(SparseInsert sparseInsert) {
+        this.sparseInsert = sparseInsert;
+    }
+    
+    public DynamicColumns getDynamicColumns() {
+        return dynamicColumns;
+    }
+    
+    public void setDynamicColumns(DynamicColumns dynamicColumns) {
+        this.dynamicColumns = dynamicColumns;
+    }
+    
+    public Overflow getOverflow() {
+        return overflow;
+    }
+    
+    public void setOverflow(Overflow overflow) {
+        this.overflow = overflow;
+    }
+    
+    public MarkingsDictionary getMarkingsDictionary() {
+        return markingsDictionary;
+    }
+    
+    public void setMarkingsDictionary(MarkingsDictionary markingsDictionary) {
+        this.markingsDictionary = markingsDictionary;
+    }
+    
+    public CompactEncoding getCompactEncoding() {
+        return compactEncoding;
+    }
+    
+    public void setCompactEncoding(CompactEncoding compactEncoding) {
+        this.compactEncoding = compactEncoding;
+    }
+    
     public Statements getStatementTemplates() {
         return statementTemplates;
     }
@@ -157,6 +342,14 @@ public class CachedResultsQueryProperties {
         this.statementTemplates = statementTemplates;
     }
     
+    public enum InsertStrategy {
+        BATCH, LOAD_DATA
+    }
+    
+    public enum RetryStrategy {
+        PAGE, BISECT
+    }
+    
     public static class RemoteQuery {
         private String queryServiceUri = "https://query:8443/query/v1/query";
         // max bytes to buffer for each rest call (-1 is unlimited)
@@ -181,6 +374,16 @@ public class CachedResultsQueryProperties {
         private long removeTimeout = 30;
         
         private TimeUnit remoteTimeoutUnit = TimeUnit.SECONDS;
+        // when enabled, the results of each next call are decoded and converted as they are read rather than buffering the whole page
+        private boolean streamNext = false;
+        // the number of response body buffers to read ahead when streaming next
+        private int streamPrefetch = 32;
+        // when enabled, next pages are requested as cbor, falling back to json if the query service can't produce cbor
+        private boolean cborEnabled = false;
+        // when enabled, responses from the query service are requested with gzip content encoding, and decompressed as they are read
+        // (only responses are compressed, since the requests are small and the query service doesn't accept compressed request bodies)
+        private boolean gzipEnabled = false;
+        private TokenCache tokenCache = new TokenCache();
         
         public String getQueryServiceUri() {
             return queryServiceUri;
@@ -297,16 +500,774 @@ public class CachedResultsQueryProperties {
         public void setRemoteTimeoutUnit(TimeUnit remoteTimeoutUnit) {
             this.remoteTimeoutUnit = remoteTimeoutUnit;
         }
+        
+        public boolean isStreamNext() {
+            return streamNext;
+        }
+        
+        public void setStreamNext(boolean streamNext) {
+            this.streamNext = streamNext;
+        }
+        
+        public int getStreamPrefetch() {
+            return streamPrefetch;
+        }
+        
+        public void setStreamPrefetch(int streamPrefetch) {
+            this.streamPrefetch = streamPrefetch;
+        }
+        
+        public boolean isCborEnabled() {
+            return cborEnabled;
+        }
+        
+        public void setCborEnabled(boolean cborEnabled) {
+            this.cborEnabled = cborEnabled;
+        }
+        
+        public boolean isGzipEnabled() {
+            return gzipEnabled;
+        }
+        
+        public void setGzipEnabled(boolean gzipEnabled) {
+            this.gzipEnabled = gzipEnabled;
+        }
+        
+        public TokenCache getTokenCache() {
+            return tokenCache;
+        }
+        
+        public void setTokenCache(TokenCache tokenCache) {
+            this.tokenCache = tokenCache;
+        }
+        
+        public static class TokenCache {
+            // when enabled, bearer tokens are reused for the same user and proxy chain until they are close to expiring
+            private boolean enabled = false;
+            // the maximum number of tokens to cache
+            private int maxSize = 1000;
+            // tokens are refreshed this long before they expire
+            private long refreshBeforeExpiration = 1;
+            private TimeUnit refreshBeforeExpirationUnit = TimeUnit.MINUTES;
+            // the maximum amount of time to reuse a token, regardless of its expiration
+            private long maxAge = 10;
+            private TimeUnit maxAgeUnit = TimeUnit.MINUTES;
+            
+            public boolean isEnabled() {
+                return enabled;
+            }
+            
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+            
+            public int getMaxSize() {
+                return maxSize;
+            }
+            
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+            
+            public long getRefreshBeforeExpiration() {
+                return refreshBeforeExpiration;
+            }
+            
+            public long getRefreshBeforeExpirationMillis() {
+                return refreshBeforeExpirationUnit.toMillis(refreshBeforeExpiration);
+            }
+            
+            public void setRefreshBeforeExpiration(long refreshBeforeExpiration) {
+                this.refreshBeforeExpiration = refreshBeforeExpiration;
+            }
+            
+            public TimeUnit getRefreshBeforeExpirationUnit() {
+                return refreshBeforeExpirationUnit;
+            }
+            
+            public void setRefreshBeforeExpirationUnit(TimeUnit refreshBeforeExpirationUnit) {
+                this.refreshBeforeExpirationUnit = refreshBeforeExpirationUnit;
+            }
+            
+            public long getMaxAge() {
+                return maxAge;
+            }
+            
+            public long getMaxAgeMillis() {
+                return maxAgeUnit.toMillis(maxAge);
+            }
+            
+            public void setMaxAge(long maxAge) {
+                this.maxAge = maxAge;
+            }
+            
+            public TimeUnit getMaxAgeUnit() {
+                return maxAgeUnit;
+            }
+            
+            public void setMaxAgeUnit(TimeUnit maxAgeUnit) {
+                this.maxAgeUnit = maxAgeUnit;
+            }
+        }
+    }
+    
+    public static class LocalQuery {
+        // when enabled, the query management service is called directly instead of over http
+        // (only enable this when the query management service runs in the same application, otherwise startup fails)
+        private boolean enabled = false;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+    
+    public static class LoadProfile {
+        // the query parameters to override when the query is duplicated for a load, unset values are inherited from the defined query
+        // (larger pages mean fewer round trips to the query service when caching a large result set)
+        private Integer pageSize;
+        private Long maxResultsOverride;
+        // the page timeout, in minutes
+        private Integer pageTimeout;
+        
+        public Integer getPageSize() {
+            return pageSize;
+        }
+        
+        public void setPageSize(Integer pageSize) {
+            this.pageSize = pageSize;
+        }
+        
+        public Long getMaxResultsOverride() {
+            return maxResultsOverride;
+        }
+        
+        public void setMaxResultsOverride(Long maxResultsOverride) {
+            this.maxResultsOverride = maxResultsOverride;
+        }
+        
+        public Integer getPageTimeout() {
+            return pageTimeout;
+        }
+        
+        public void setPageTimeout(Integer pageTimeout) {
+            this.pageTimeout = pageTimeout;
+        }
+    }
+    
+    public static class LoadScheduling {
+        // when enabled, async loads are queued and started fairly across users, subject to the concurrency limits below
+        private boolean enabled = false;
+        // the maximum number of async loads to run at once, or 0 for no limit
+        private int maxConcurrentLoads = 10;
+        // the maximum number of async loads to run at once for a single user, or 0 for no limit
+        private int maxConcurrentLoadsPerUser = 2;
+        // the priority of loads for users without an entry in userPriorities, higher priorities are started first
+        private int defaultPriority = 0;
+        // the load priority for each user, keyed by the user's short name
+        private Map<String,Integer> userPriorities = new HashMap<>();
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getMaxConcurrentLoads() {
+            return maxConcurrentLoads;
+        }
+        
+        public void setMaxConcurrentLoads(int maxConcurrentLoads) {
+            this.maxConcurrentLoads = maxConcurrentLoads;
+        }
+        
+        public int getMaxConcurrentLoadsPerUser() {
+            return maxConcurrentLoadsPerUser;
+        }
+        
+        public void setMaxConcurrentLoadsPerUser(int maxConcurrentLoadsPerUser) {
+            this.maxConcurrentLoadsPerUser = maxConcurrentLoadsPerUser;
+        }
+        
+        public int getDefaultPriority() {
+            return defaultPriority;
+        }
+        
+        public void setDefaultPriority(int defaultPriority) {
+            this.defaultPriority = defaultPriority;
+        }
+        
+        public Map<String,Integer> getUserPriorities() {
+            return userPriorities;
+        }
+        
+        public void setUserPriorities(Map<String,Integer> userPriorities) {
+            this.userPriorities = userPriorities;
+        }
+    }
+    
+    public static class Pipeline {
+        // when enabled, pages are fetched from the query service while previously fetched pages are written to sql
+        private boolean enabled = false;
+        // the maximum number of converted pages to buffer between the fetcher and the writers
+        private int depth = 4;
+        // the number of writers draining the buffered pages into sql
+        private int numWriters = 1;
+        // how long to wait for the writers to stop after a failure, before the load is cleaned up
+        private long shutdownTimeout = 30;
+        private TimeUnit shutdownTimeoutUnit = TimeUnit.SECONDS;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getDepth() {
+            return depth;
+        }
+        
+        public void setDepth(int depth) {
+            this.depth = depth;
+        }
+        
+        public int getNumWriters() {
+            return numWriters;
+        }
+        
+        public void setNumWriters(int numWriters) {
+            this.numWriters = numWriters;
+        }
+        
+        public long getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+        
+        public long getShutdownTimeoutMillis() {
+            return shutdownTimeoutUnit.toMillis(shutdownTimeout);
+        }
+        
+        public void setShutdownTimeout(long shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+        
+        public TimeUnit getShutdownTimeoutUnit() {
+            return shutdownTimeoutUnit;
+        }
+        
+        public void setShutdownTimeoutUnit(TimeUnit shutdownTimeoutUnit) {
+            this.shutdownTimeoutUnit = shutdownTimeoutUnit;
+        }
+    }
+    
+    public static class AsyncLoad {
+        // when enabled, async loads wait on the query service without holding a thread, and only use a thread while writing to sql
+        // (requires a query service which implements AsyncQueryService)
+        private boolean enabled = false;
+        // the maximum number of threads shared by all of the async loads
+        private int maxThreads = 10;
+        // the maximum number of async load tasks which may be queued waiting for a thread
+        private int maxQueuedTasks = 100000;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getMaxThreads() {
+            return maxThreads;
+        }
+        
+        public void setMaxThreads(int maxThreads) {
+            this.maxThreads = maxThreads;
+        }
+        
+        public int getMaxQueuedTasks() {
+            return maxQueuedTasks;
+        }
+        
+        public void setMaxQueuedTasks(int maxQueuedTasks) {
+            this.maxQueuedTasks = maxQueuedTasks;
+        }
+    }
+    
+    public static class VirtualThreads {
+        // when enabled, loads and their writers run on virtual threads (requires java 21 or later, otherwise platform threads are used)
+        private boolean enabled = false;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+    
+    public static class LoadThreads {
+        // the maximum number of threads running async loads, queued load jobs, and recovered loads, or 0 for no limit
+        // (synchronous loads run on the thread of the request which started them)
+        private int maxLoadThreads = 100;
+        // the maximum number of threads used by each of the pipeline and parallel insert writers, or 0 for no limit
+        private int maxWriterThreads = 100;
+        
+        public int getMaxLoadThreads() {
+            return maxLoadThreads;
+        }
+        
+        public void setMaxLoadThreads(int maxLoadThreads) {
+            this.maxLoadThreads = maxLoadThreads;
+        }
+        
+        public int getMaxWriterThreads() {
+            return maxWriterThreads;
+        }
+        
+        public void setMaxWriterThreads(int maxWriterThreads) {
+            this.maxWriterThreads = maxWriterThreads;
+        }
+    }
+    
+    public static class Recovery {
+        // when enabled, loads checkpoint their progress, and a load is resumed by another node if the node running it stops heartbeating
+        private boolean enabled = false;
+        // how often the heartbeats are renewed and orphaned loads are looked for (defaults to every 10 seconds)
+        private String schedulerCrontab;
+        // how often each node renews the heartbeats of the loads it is running
+        private long heartbeatInterval = 30;
+        private TimeUnit heartbeatIntervalUnit = TimeUnit.SECONDS;
+        // how long a load can go without a heartbeat before another node takes it over
+        private long leaseTime = 5;
+        private TimeUnit leaseTimeUnit = TimeUnit.MINUTES;
+        // how often each node looks for orphaned loads
+        private long scanInterval = 1;
+        private TimeUnit scanIntervalUnit = TimeUnit.MINUTES;
+        // whether to continue the orphaned load's running query when no pages were lost, rather than duplicating the query again
+        private boolean reuseRunningQuery = true;
+        // the number of times a load can be taken over before it is failed
+        private int maxAttempts = 3;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public String getSchedulerCrontab() {
+            return schedulerCrontab;
+        }
+        
+        public void setSchedulerCrontab(String schedulerCrontab) {
+            this.schedulerCrontab = schedulerCrontab;
+        }
+        
+        public long getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+        
+        public long getHeartbeatIntervalMillis() {
+            return heartbeatIntervalUnit.toMillis(heartbeatInterval);
+        }
+        
+        public void setHeartbeatInterval(long heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+        
+        public TimeUnit getHeartbeatIntervalUnit() {
+            return heartbeatIntervalUnit;
+        }
+        
+        public void setHeartbeatIntervalUnit(TimeUnit heartbeatIntervalUnit) {
+            this.heartbeatIntervalUnit = heartbeatIntervalUnit;
+        }
+        
+        public long getLeaseTime() {
+            return leaseTime;
+        }
+        
+        public long getLeaseTimeMillis() {
+            return leaseTimeUnit.toMillis(leaseTime);
+        }
+        
+        public void setLeaseTime(long leaseTime) {
+            this.leaseTime = leaseTime;
+        }
+        
+        public TimeUnit getLeaseTimeUnit() {
+            return leaseTimeUnit;
+        }
+        
+        public void setLeaseTimeUnit(TimeUnit leaseTimeUnit) {
+            this.leaseTimeUnit = leaseTimeUnit;
+        }
+        
+        public long getScanInterval() {
+            return scanInterval;
+        }
+        
+        public long getScanIntervalMillis() {
+            return scanIntervalUnit.toMillis(scanInterval);
+        }
+        
+        public void setScanInterval(long scanInterval) {
+            this.scanInterval = scanInterval;
+        }
+        
+        public TimeUnit getScanIntervalUnit() {
+            return scanIntervalUnit;
+        }
+        
+        public void setScanIntervalUnit(TimeUnit scanIntervalUnit) {
+            this.scanIntervalUnit = scanIntervalUnit;
+        }
+        
+        public boolean isReuseRunningQuery() {
+            return reuseRunningQuery;
+        }
+        
+        public void setReuseRunningQuery(boolean reuseRunningQuery) {
+            this.reuseRunningQuery = reuseRunningQuery;
+        }
+        
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+        
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+    }
+    
+    public static class LoadQueue {
+        // when enabled, async loads are added to a cluster-wide queue, and are run by whichever node has capacity to claim them
+        private boolean enabled = false;
+        // how often each node renews its claims and looks for jobs to claim (defaults to every 5 seconds)
+        private String schedulerCrontab;
+        // the maximum number of queued jobs each node will run at once
+        private int maxConcurrentLoads = 4;
+        // how long a claim lasts without being renewed, after which another node can take the job
+        private long leaseTime = 1;
+        private TimeUnit leaseTimeUnit = TimeUnit.MINUTES;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public String getSchedulerCrontab() {
+            return schedulerCrontab;
+        }
+        
+        public void setSchedulerCrontab(String schedulerCrontab) {
+            this.schedulerCrontab = schedulerCrontab;
+        }
+        
+        public int getMaxConcurrentLoads() {
+            return maxConcurrentLoads;
+        }
+        
+        public void setMaxConcurrentLoads(int maxConcurrentLoads) {
+            this.maxConcurrentLoads = maxConcurrentLoads;
+        }
+        
+        public long getLeaseTime() {
+            return leaseTime;
+        }
+        
+        public long getLeaseTimeMillis() {
+            return leaseTimeUnit.toMillis(leaseTime);
+        }
+        
+        public void setLeaseTime(long leaseTime) {
+            this.leaseTime = leaseTime;
+        }
+        
+        public TimeUnit getLeaseTimeUnit() {
+            return leaseTimeUnit;
+        }
+        
+        public void setLeaseTimeUnit(TimeUnit leaseTimeUnit) {
+            this.leaseTimeUnit = leaseTimeUnit;
+        }
+    }
+    
+    public static class EarlyAccess {
+        // when enabled, the rows written so far are published through a provisional view, so that a query can be created and read while it is still loading
+        private boolean enabled = false;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+    
+    public static class Reuse {
+        // when enabled, a load of a query which was already loaded with the same effective auths gets a new view over the existing table
+        private boolean enabled = false;
+        // the maximum age of a table which can be reused, so that shared tables are eventually left to expire
+        private long maxAge = 1;
+        private TimeUnit maxAgeUnit = TimeUnit.HOURS;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public long getMaxAge() {
+            return maxAge;
+        }
+        
+        public long getMaxAgeMillis() {
+            return maxAgeUnit.toMillis(maxAge);
+        }
+        
+        public void setMaxAge(long maxAge) {
+            this.maxAge = maxAge;
+        }
+        
+        public TimeUnit getMaxAgeUnit() {
+            return maxAgeUnit;
+        }
+        
+        public void setMaxAgeUnit(TimeUnit maxAgeUnit) {
+            this.maxAgeUnit = maxAgeUnit;
+        }
+    }
+    
+    public static class ReadTiming {
+        // when enabled, the create, update, and getRows responses include a Server-Timing style breakdown of their stages as a message
+        private boolean serverTimingEnabled = false;
+        // reads which take at least this long are logged with the fingerprint of their sql query, or 0 to disable the slow query log
+        private long slowQueryThreshold = 1;
+        private TimeUnit slowQueryThresholdUnit = TimeUnit.SECONDS;
+        
+        public boolean isServerTimingEnabled() {
+            return serverTimingEnabled;
+        }
+        
+        public void setServerTimingEnabled(boolean serverTimingEnabled) {
+            this.serverTimingEnabled = serverTimingEnabled;
+        }
+        
+        public long getSlowQueryThreshold() {
+            return slowQueryThreshold;
+        }
+        
+        public long getSlowQueryThresholdMillis() {
+            return slowQueryThresholdUnit.toMillis(slowQueryThreshold);
+        }
+        
+        public void setSlowQueryThreshold(long slowQueryThreshold) {
+            this.slowQueryThreshold = slowQueryThreshold;
+        }
+        
+        public TimeUnit getSlowQueryThresholdUnit() {
+            return slowQueryThresholdUnit;
+        }
+        
+        public void setSlowQueryThresholdUnit(TimeUnit slowQueryThresholdUnit) {
+            this.slowQueryThresholdUnit = slowQueryThresholdUnit;
+        }
+    }
+    
+    public static class ParallelInsert {
+        // when enabled, each page is split into shards which are written concurrently using separate connections
+        private boolean enabled = false;
+        // the maximum number of concurrent writers per page
+        private int numWriters = 4;
+        // pages are only split if each writer would receive at least this many rows
+        private int minRowsPerWriter = 100;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getNumWriters() {
+            return numWriters;
+        }
+        
+        public void setNumWriters(int numWriters) {
+            this.numWriters = numWriters;
+        }
+        
+        public int getMinRowsPerWriter() {
+            return minRowsPerWriter;
+        }
+        
+        public void setMinRowsPerWriter(int minRowsPerWriter) {
+            this.minRowsPerWriter = minRowsPerWriter;
+        }
+    }
+    
+    public static class SparseInsert {
+        // when enabled, rows are inserted using statements which only reference their populated columns
+        private boolean enabled = false;
+        // the maximum number of distinct insert statements to keep cached
+        private int maxCachedStatements = 1000;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getMaxCachedStatements() {
+            return maxCachedStatements;
+        }
+        
+        public void setMaxCachedStatements(int maxCachedStatements) {
+            this.maxCachedStatements = maxCachedStatements;
+        }
+    }
+    
+    public static class DynamicColumns {
+        // when enabled, tables start with only the fixed columns, and field columns are added as they are needed
+        // (this implies sparse inserts, since the full insert references every field column)
+        private boolean enabled = false;
+        // the number of field columns to add each time the table needs to grow
+        private int growthChunk = 32;
+        // the maximum number of field columns a table may grow to, defaults to numFields if not positive
+        private int maxColumns = 0;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getGrowthChunk() {
+            return growthChunk;
+        }
+        
+        public void setGrowthChunk(int growthChunk) {
+            this.growthChunk = growthChunk;
+        }
+        
+        public int getMaxColumns() {
+            return maxColumns;
+        }
+        
+        public void setMaxColumns(int maxColumns) {
+            this.maxColumns = maxColumns;
+        }
+    }
+    
+    public static class Overflow {
+        // when enabled, values longer than the threshold are moved to an overflow table rather than being truncated
+        // (the table stores a reference in place of each overflowed value, so sql WHERE, ORDER BY, and GROUP BY clauses on the view
+        // see the reference rather than the value, and only the returned rows have their values restored)
+        private boolean enabled = false;
+        // the length above which values are moved to the overflow table
+        private int threshold = 65536;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getThreshold() {
+            return threshold;
+        }
+        
+        public void setThreshold(int threshold) {
+            this.threshold = threshold;
+        }
+    }
+    
+    public static class MarkingsDictionary {
+        // when enabled, rows store a reference to a per-load dictionary entry rather than their encoded markings
+        private boolean enabled = false;
+        // the maximum number of dictionaries to keep cached for reads
+        private int maxCachedDictionaries = 100;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getMaxCachedDictionaries() {
+            return maxCachedDictionaries;
+        }
+        
+        public void setMaxCachedDictionaries(int maxCachedDictionaries) {
+            this.maxCachedDictionaries = maxCachedDictionaries;
+        }
+    }
+    
+    public static class CompactEncoding {
+        // when enabled, the column markings and column timestamps are stored using a compact binary encoding
+        // (this implies a markings dictionary, which the encoded markings refer to)
+        private boolean enabled = false;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
     }
     
     public static class Statements {
         private String createTableTemplate;
+        private String createFixedTableTemplate;
         private String createTable;
+        private String createFixedTable;
+        private String addColumns;
         private String dropTable;
         private String dropView;
         private String insert;
+        private String loadData;
+        private String deleteEvents;
+        private String createOverflowTable;
+        private String insertOverflow;
+        private String selectOverflow;
+        private String createDictionaryTable;
+        private String insertDictionary;
+        private String selectDictionary;
+        private String selectDictionaryAfter;
         private String createView;
+        private String createOrReplaceView;
         private String listExpiredTablesAndViews;
+        private String countRows;
+        private String selectEventIds;
+        private String selectColumns;
+        private String selectMaxDictionaryId;
         
         public String getCreateTableTemplate() {
             return createTableTemplate;
@@ -316,6 +1277,14 @@ public class CachedResultsQueryProperties {
             this.createTableTemplate = createTableTemplate;
         }
         
+        public String getCreateFixedTableTemplate() {
+            return createFixedTableTemplate;
+        }
+        
+        public void setCreateFixedTableTemplate(String createFixedTableTemplate) {
+            this.createFixedTableTemplate = createFixedTableTemplate;
+        }
+        
         public String getCreateTable() {
             return createTable;
         }
@@ -324,6 +1293,22 @@ public class CachedResultsQueryProperties {
             this.createTable = createTable;
         }
         
+        public String getCreateFixedTable() {
+            return createFixedTable;
+        }
+        
+        public void setCreateFixedTable(String createFixedTable) {
+            this.createFixedTable = createFixedTable;
+        }
+        
+        public String getAddColumns() {
+            return addColumns;
+        }
+        
+        public void setAddColumns(String addColumns) {
+            this.addColumns = addColumns;
+        }
+        
         public String getDropTable() {
             return dropTable;
         }
@@ -348,6 +1333,78 @@ public class CachedResultsQueryProperties {
             this.insert = insert;
         }
         
+        public String getLoadData() {
+            return loadData;
+        }
+        
+        public void setLoadData(String loadData) {
+            this.loadData = loadData;
+        }
+        
+        public String getDeleteEvents() {
+            return deleteEvents;
+        }
+        
+        public void setDeleteEvents(String deleteEvents) {
+            this.deleteEvents = deleteEvents;
+        }
+        
+        public String getCreateOverflowTable() {
+            return createOverflowTable;
+        }
+        
+        public void setCreateOverflowTable(String createOverflowTable) {
+            this.createOverflowTable = createOverflowTable;
+        }
+        
+        public String getInsertOverflow() {
+            return insertOverflow;
+        }
+        
+        public void setInsertOverflow(String insertOverflow) {
+            this.insertOverflow = insertOverflow;
+        }
+        
+        public String getSelectOverflow() {
+            return selectOverflow;
+        }
+        
+        public void setSelectOverflow(String selectOverflow) {
+            this.selectOverflow = selectOverflow;
+        }
+        
+        public String getCreateDictionaryTable() {
+            return createDictionaryTable;
+        }
+        
+        public void setCreateDictionaryTable(String createDictionaryTable) {
+            this.createDictionaryTable = createDictionaryTable;
+        }
+        
+        public String getInsertDictionary() {
+            return insertDictionary;
+        }
+        
+        public void setInsertDictionary(String insertDictionary) {
+            this.insertDictionary = insertDictionary;
+        }
+        
+        public String getSelectDictionary() {
+            return selectDictionary;
+        }
+        
+        public void setSelectDictionary(String selectDictionary) {
+            this.selectDictionary = selectDictionary;
+        }
+        
+        public String getSelectDictionaryAfter() {
+            return selectDictionaryAfter;
+        }
+        
+        public void setSelectDictionaryAfter(String selectDictionaryAfter) {
+            this.selectDictionaryAfter = selectDictionaryAfter;
+        }
+        
         public String getCreateView() {
             return createView;
         }
@@ -356,6 +1413,14 @@ public class CachedResultsQueryProperties {
             this.createView = createView;
         }
         
+        public String getCreateOrReplaceView() {
+            return createOrReplaceView;
+        }
+        
+        public void setCreateOrReplaceView(String createOrReplaceView) {
+            this.createOrReplaceView = createOrReplaceView;
+        }
+        
         public String getListExpiredTablesAndViews() {
             return listExpiredTablesAndViews;
         }
@@ -363,5 +1428,37 @@ public class CachedResultsQueryProperties {
         public void setListExpiredTablesAndViews(String listExpiredTablesAndViews) {
             this.listExpiredTablesAndViews = listExpiredTablesAndViews;
         }
+        
+        public String getCountRows() {
+            return countRows;
+        }
+        
+        public void setCountRows(String countRows) {
+            this.countRows = countRows;
+        }
+        
+        public String getSelectEventIds() {
+            return selectEventIds;
+        }
+        
+        public void setSelectEventIds(String selectEventIds) {
+            this.selectEventIds = selectEventIds;
+        }
+        
+        public String getSelectColumns() {
+            return selectColumns;
+        }
+        
+        public void setSelectColumns(String selectColumns) {
+            this.selectColumns = selectColumns;
+        }
+        
+        public String getSelectMaxDictionaryId() {
+            return selectMaxDictionaryId;
+        }
+        
+        public void setSelectMaxDictionaryId(String selectMaxDictionaryId) {
+            this.selectMaxDictionaryId = selectMaxDictionaryId;
+        }
     }
 }
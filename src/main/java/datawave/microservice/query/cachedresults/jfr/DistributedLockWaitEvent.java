@@ -0,0 +1,54 @@
+package datawave.microservice.query.cachedresults.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The time spent waiting for a distributed cache lock.
+ */
+@Name("datawave.cachedresults.DistributedLockWait")
+@Label("Distributed Lock Wait")
+@Category({"Datawave", "Cached Results"})
+@Description("The time spent waiting for a distributed cache lock")
+public class DistributedLockWaitEvent extends Event {
+    @Label("Cache")
+    private String cache;
+    
+    @Label("Key")
+    private String key;
+    
+    @Label("Wait Time")
+    @Description("The maximum time to wait for the lock")
+    @Timespan(Timespan.MILLISECONDS)
+    private long waitTime;
+    
+    @Label("Acquired")
+    private boolean acquired;
+    
+    /**
+     * Ends the event, and commits it with the given values if it is enabled
+     *
+     * @param cache
+     *            the name of the cache
+     * @param key
+     *            the key which was locked
+     * @param waitTime
+     *            the maximum time to wait for the lock in milliseconds, or -1 to wait indefinitely
+     * @param acquired
+     *            whether the lock was acquired
+     */
+    public void commit(String cache, String key, long waitTime, boolean acquired) {
+        end();
+        if (shouldCommit()) {
+            this.cache = cache;
+            this.key = key;
+            this.waitTime = waitTime;
+            this.acquired = acquired;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package datawave.microservice.query.cachedresults.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A page of rows read from a cached results query.
+ */
+@StackTrace(false)
+@Name("datawave.cachedresults.GetRowsExecuted")
+@Label("Get Rows Executed")
+@Category({"Datawave", "Cached Results"})
+@Description("A page of rows read from a cached results query")
+public class GetRowsExecutedEvent extends Event {
+    @Label("Query Id")
+    private String queryId;
+    
+    @Label("Query Logic")
+    private String logic;
+    
+    @Label("Row Begin")
+    private int rowBegin;
+    
+    @Label("Rows")
+    private int rows;
+    
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+    
+    @Label("Partial")
+    private boolean partial;
+    
+    /**
+     * Ends the event, and commits it with the given values if it is enabled
+     *
+     * @param queryId
+     *            the defined query id
+     * @param logic
+     *            the query logic
+     * @param rowBegin
+     *            the first row requested
+     * @param rows
+     *            the number of rows returned
+     * @param bytes
+     *            the size of the rows, or 0 if the page byte trigger is disabled
+     * @param partial
+     *            whether the page was cut short by the page byte trigger
+     */
+    public void commit(String queryId, String logic, int rowBegin, int rows, long bytes, boolean partial) {
+        end();
+        if (shouldCommit()) {
+            this.queryId = queryId;
+            this.logic = logic;
+            this.rowBegin = rowBegin;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.partial = partial;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package datawave.microservice.query.cachedresults.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A failed write of a batch of rows which will be retried.
+ */
+@Name("datawave.cachedresults.InsertRetry")
+@Label("Insert Retry")
+@Category({"Datawave", "Cached Results"})
+@Description("A failed write of a batch of rows which will be retried")
+public class InsertRetryEvent extends Event {
+    @Label("Query Id")
+    private String queryId;
+    
+    @Label("Query Logic")
+    private String logic;
+    
+    @Label("Rows")
+    private int rows;
+    
+    @Label("Attempt")
+    private int attempt;
+    
+    /**
+     * Commits the event with the given values, if it is enabled
+     *
+     * @param queryId
+     *            the running query id
+     * @param logic
+     *            the query logic
+     * @param rows
+     *            the number of rows in the failed batch
+     * @param attempt
+     *            the attempt which failed, starting at 1
+     */
+    public void commit(String queryId, String logic, int rows, int attempt) {
+        if (shouldCommit()) {
+            this.queryId = queryId;
+            this.logic = logic;
+            this.rows = rows;
+            this.attempt = attempt;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package datawave.microservice.query.cachedresults.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A batch of rows written to sql by a load.
+ */
+@StackTrace(false)
+@Name("datawave.cachedresults.LoadBatchInserted")
+@Label("Load Batch Inserted")
+@Category({"Datawave", "Cached Results"})
+@Description("A batch of rows written to sql by a load")
+public class LoadBatchInsertedEvent extends Event {
+    @Label("Query Id")
+    private String queryId;
+    
+    @Label("Query Logic")
+    private String logic;
+    
+    @Label("Table")
+    private String table;
+    
+    @Label("Rows")
+    private int rows;
+    
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+    
+    /**
+     * Ends the event, and commits it with the given values if it is enabled
+     *
+     * @param queryId
+     *            the running query id
+     * @param logic
+     *            the query logic
+     * @param table
+     *            the table written to
+     * @param rows
+     *            the number of rows written
+     * @param bytes
+     *            the number of bytes sent to sql, or 0 if unknown
+     */
+    public void commit(String queryId, String logic, String table, int rows, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.queryId = queryId;
+            this.logic = logic;
+            this.table = table;
+            this.rows = rows;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
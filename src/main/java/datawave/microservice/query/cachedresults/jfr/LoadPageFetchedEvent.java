@@ -0,0 +1,47 @@
+package datawave.microservice.query.cachedresults.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A page of results fetched from the query service by a load.
+ */
+@StackTrace(false)
+@Name("datawave.cachedresults.LoadPageFetched")
+@Label("Load Page Fetched")
+@Category({"Datawave", "Cached Results"})
+@Description("A page of results fetched from the query service by a load")
+public class LoadPageFetchedEvent extends Event {
+    @Label("Query Id")
+    private String queryId;
+    
+    @Label("Query Logic")
+    private String logic;
+    
+    @Label("Results")
+    private int results;
+    
+    /**
+     * Ends the event, and commits it with the given values if it is enabled
+     *
+     * @param queryId
+     *            the running query id
+     * @param logic
+     *            the query logic
+     * @param results
+     *            the number of results in the page
+     */
+    public void commit(String queryId, String logic, int results) {
+        end();
+        if (shouldCommit()) {
+            this.queryId = queryId;
+            this.logic = logic;
+            this.results = results;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package datawave.microservice.query.cachedresults.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A sweep of the expired cached results tables and views.
+ */
+@StackTrace(false)
+@Name("datawave.cachedresults.MonitorSweep")
+@Label("Monitor Sweep")
+@Category({"Datawave", "Cached Results"})
+@Description("A sweep of the expired cached results tables and views")
+public class MonitorSweepEvent extends Event {
+    @Label("Expired Tables")
+    private int expiredTables;
+    
+    @Label("Queries Removed")
+    private int queriesRemoved;
+    
+    @Label("Tables Dropped")
+    private int tablesDropped;
+    
+    @Label("Tables Kept")
+    private int tablesKept;
+    
+    /**
+     * Ends the event, and commits it with the given values if it is enabled
+     *
+     * @param expiredTables
+     *            the number of expired tables and views found
+     * @param queriesRemoved
+     *            the number of cached results queries removed
+     * @param tablesDropped
+     *            the number of tables and views dropped
+     * @param tablesKept
+     *            the number of expired tables kept because they are still in use
+     */
+    public void commit(int expiredTables, int queriesRemoved, int tablesDropped, int tablesKept) {
+        end();
+        if (shouldCommit()) {
+            this.expiredTables = expiredTables;
+            this.queriesRemoved = queriesRemoved;
+            this.tablesDropped = tablesDropped;
+            this.tablesKept = tablesKept;
+            commit();
+        }
+    }
+}
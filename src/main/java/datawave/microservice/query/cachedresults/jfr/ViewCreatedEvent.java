@@ -0,0 +1,53 @@
+package datawave.microservice.query.cachedresults.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A view created or replaced over the table of a load.
+ */
+@StackTrace(false)
+@Name("datawave.cachedresults.ViewCreated")
+@Label("View Created")
+@Category({"Datawave", "Cached Results"})
+@Description("A view created or replaced over the table of a load")
+public class ViewCreatedEvent extends Event {
+    @Label("Query Logic")
+    private String logic;
+    
+    @Label("Table")
+    private String table;
+    
+    @Label("View")
+    private String view;
+    
+    @Label("Fields")
+    private int fields;
+    
+    /**
+     * Ends the event, and commits it with the given values if it is enabled
+     *
+     * @param logic
+     *            the query logic
+     * @param table
+     *            the table the view reads from
+     * @param view
+     *            the view
+     * @param fields
+     *            the number of fields in the view
+     */
+    public void commit(String logic, String table, String view, int fields) {
+        end();
+        if (shouldCommit()) {
+            this.logic = logic;
+            this.table = table;
+            this.view = view;
+            this.fields = fields;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package datawave.microservice.query.cachedresults.load;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+
+import datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus;
+import datawave.webservice.query.cachedresults.CacheableQueryRow;
+
+/**
+ * Binds a batch of rows to the parameters of the insert statement, using either the full insert (which sets every unpopulated column to null) or a sparse
+ * insert (which only references the columns of its signature).
+ */
+public class CacheableQueryRowSetter implements BatchPreparedStatementSetter {
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+    
+    private static final String TRUNCATED = "<truncated>";
+    
+    /**
+     * Supplies the values of a row which depend on the layout and dictionaries of the table being written
+     */
+    public interface RowValues {
+        /**
+         * Gets the column number of the field, assigning one if the field doesn't have a column yet
+         *
+         * @param columnName
+         *            the field name
+         * @return the column number
+         */
+        int getColumnNumber(String columnName);
+        
+        /**
+         * Gets the value to store for the column, e.g. a reference to an overflowed value
+         *
+         * @param cacheableQueryRow
+         *            the row
+         * @param columnName
+         *            the field name
+         * @param columnValue
+         *            the value of the field
+         * @return the value to store
+         */
+        String getColumnValue(CacheableQueryRow cacheableQueryRow, String columnName, String columnValue);
+        
+        // the stored values of the row markings, column markings, and column timestamps
+        String getMarkingsValue(CacheableQueryRow cacheableQueryRow);
+        
+        String getColumnMarkingsValue(CacheableQueryRow cacheableQueryRow);
+        
+        String getColumnTimestampsValue(CacheableQueryRow cacheableQueryRow);
+    }
+    
+    private final CachedResultsQueryStatus cachedResultsQueryStatus;
+    private final List<CacheableQueryRow> cacheableQueryRows;
+    private final ColumnSignature columnSignature;
+    private final int maxValueLength;
+    private final int numFields;
+    private final RowValues rowValues;
+    
+    /**
+     * @param cachedResultsQueryStatus
+     *            the cached results query status, not null
+     * @param cacheableQueryRows
+     *            the rows to bind, not null
+     * @param columnSignature
+     *            the populated columns for a sparse insert, or null for a full insert
+     * @param maxValueLength
+     *            the length beyond which values are truncated
+     * @param numFields
+     *            the number of field columns in the full insert
+     * @param rowValues
+     *            the values which depend on the table being written, not null
+     */
+    public CacheableQueryRowSetter(CachedResultsQueryStatus cachedResultsQueryStatus, List<CacheableQueryRow> cacheableQueryRows,
+                    ColumnSignature columnSignature, int maxValueLength, int numFields, RowValues rowValues) {
+        this.cachedResultsQueryStatus = cachedResultsQueryStatus;
+        this.cacheableQueryRows = cacheableQueryRows;
+        this.columnSignature = columnSignature;
+        this.maxValueLength = maxValueLength;
+        this.numFields = numFields;
+        this.rowValues = rowValues;
+    }
+    
+    @Override
+    public void setValues(PreparedStatement ps, int i) throws SQLException {
+        CacheableQueryRow cacheableQueryRow = cacheableQueryRows.get(i);
+        
+        // Each entry is a different visibility.
+        ps.setString(1, cachedResultsQueryStatus.getCurrentUser().getShortName());
+        ps.setString(2, cachedResultsQueryStatus.getDefinedQueryId());
+        ps.setString(3, cachedResultsQueryStatus.getQueryLogicName());
+        ps.setString(4, cacheableQueryRow.getDataType());
+        ps.setString(5, cacheableQueryRow.getEventId());
+        ps.setString(6, cacheableQueryRow.getRow());
+        ps.setString(7, cacheableQueryRow.getColFam());
+        ps.setString(8, rowValues.getMarkingsValue(cacheableQueryRow));
+        
+        // keep track of the populated columns
+        Set<Integer> populatedColumns = new HashSet<>();
+        for (Map.Entry<String,String> entry : cacheableQueryRow.getColumnValues().entrySet()) {
+            String columnName = entry.getKey();
+            String columnValue = rowValues.getColumnValue(cacheableQueryRow, columnName, entry.getValue());
+            
+            // Get the field number from the fieldMap.
+            int columnNumber = rowValues.getColumnNumber(columnName);
+            
+            // with a sparse insert, the parameter index is based on the column's position within the signature
+            int parameterIndex = columnNumber;
+            if (columnSignature != null) {
+                parameterIndex = CacheableQueryRow.getFixedColumnSet().size() + columnSignature.indexOf(columnNumber) + 1;
+            }
+            
+            if (columnValue.length() > maxValueLength) {
+                columnValue = columnValue.substring(0, maxValueLength - TRUNCATED.length()) + TRUNCATED;
+            }
+            ps.setString(parameterIndex, columnValue);
+            
+            // keep track of which columns are/aren't populated
+            populatedColumns.add(columnNumber);
+            
+            if (log.isTraceEnabled()) {
+                log.trace("Set parameter: {} with field name: {} to value: {}", columnNumber, columnName, columnValue);
+            }
+        }
+        
+        ps.setString(9, rowValues.getColumnMarkingsValue(cacheableQueryRow));
+        ps.setString(10, rowValues.getColumnTimestampsValue(cacheableQueryRow));
+        
+        // need to set all the unset columns to NULL
+        // (a sparse insert only references the populated columns)
+        if (columnSignature == null) {
+            int beginColumn = CacheableQueryRow.getFixedColumnSet().size() + 1;
+            int endColumn = CacheableQueryRow.getFixedColumnSet().size() + numFields;
+            for (int columnIndex = beginColumn; columnIndex <= endColumn; columnIndex++) {
+                if (!populatedColumns.contains(columnIndex)) {
+                    ps.setNull(columnIndex, Types.VARCHAR);
+                }
+            }
+        }
+    }
+    
+    @Override
+    public int getBatchSize() {
+        return cacheableQueryRows.size();
+    }
+}
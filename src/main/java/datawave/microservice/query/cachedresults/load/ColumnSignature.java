@@ -0,0 +1,58 @@
+package datawave.microservice.query.cachedresults.load;
+
+import java.util.Arrays;
+
+/**
+ * The sorted set of column numbers populated by a row. Rows which share a signature can be written using the same insert statement.
+ */
+public class ColumnSignature {
+    private final int[] columnNumbers;
+    private final int hashCode;
+    
+    public ColumnSignature(int[] columnNumbers) {
+        this.columnNumbers = columnNumbers.clone();
+        Arrays.sort(this.columnNumbers);
+        this.hashCode = Arrays.hashCode(this.columnNumbers);
+    }
+    
+    public int[] getColumnNumbers() {
+        return columnNumbers;
+    }
+    
+    public boolean isEmpty() {
+        return columnNumbers.length == 0;
+    }
+    
+    /**
+     * Gets the position of the column within this signature
+     *
+     * @param columnNumber
+     *            the column number
+     * @return the zero-based position of the column, or a negative value if the column is not part of this signature
+     */
+    public int indexOf(int columnNumber) {
+        return Arrays.binarySearch(columnNumbers, columnNumber);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ColumnSignature that = (ColumnSignature) o;
+        return hashCode == that.hashCode && Arrays.equals(columnNumbers, that.columnNumbers);
+    }
+    
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+    
+    @Override
+    public String toString() {
+        return Arrays.toString(columnNumbers);
+    }
+}
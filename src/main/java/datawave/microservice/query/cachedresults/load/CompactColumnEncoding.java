@@ -0,0 +1,197 @@
+package datawave.microservice.query.cachedresults.load;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * A versioned, compact encoding for the per-column markings and timestamps of a row.
+ *
+ * Column numbers are delta encoded varints in ascending order. Markings and visibilities are varint references to the markings dictionary, where 0 means
+ * there is no value. Timestamps are preceded by a bitmap of the columns which have a timestamp, and are zigzag varint deltas from the previous timestamp.
+ *
+ * The encoded bytes are stored as base64 text with a prefix identifying the version, so that they can be kept in the existing text columns.
+ */
+public class CompactColumnEncoding {
+    public static final int VERSION = 1;
+    
+    private static final String PREFIX = "<compact" + VERSION + ":";
+    private static final String SUFFIX = ">";
+    private static final byte MARKINGS = 'M';
+    private static final byte TIMESTAMPS = 'T';
+    
+    private CompactColumnEncoding() {}
+    
+    /**
+     * Encodes the markings for each column
+     *
+     * @param columnNumbers
+     *            the column numbers, in ascending order
+     * @param markingIds
+     *            the dictionary id of each column's markings, or 0
+     * @param visibilityIds
+     *            the dictionary id of each column's visibility, or 0
+     * @return the encoded markings
+     */
+    public static String encodeMarkings(int[] columnNumbers, int[] markingIds, int[] visibilityIds) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4 + columnNumbers.length * 4);
+        out.write(VERSION);
+        out.write(MARKINGS);
+        writeVarint(out, columnNumbers.length);
+        int previousColumnNumber = 0;
+        for (int i = 0; i < columnNumbers.length; i++) {
+            writeVarint(out, columnNumbers[i] - previousColumnNumber);
+            writeVarint(out, markingIds[i]);
+            writeVarint(out, visibilityIds[i]);
+            previousColumnNumber = columnNumbers[i];
+        }
+        return PREFIX + Base64.getEncoder().encodeToString(out.toByteArray()) + SUFFIX;
+    }
+    
+    /**
+     * Encodes the timestamp for each column
+     *
+     * @param columnNumbers
+     *            the column numbers, in ascending order
+     * @param timestamps
+     *            the timestamp of each column, or null
+     * @return the encoded timestamps
+     */
+    public static String encodeTimestamps(int[] columnNumbers, Long[] timestamps) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4 + columnNumbers.length * 4);
+        out.write(VERSION);
+        out.write(TIMESTAMPS);
+        writeVarint(out, columnNumbers.length);
+        
+        // a separate bitmap keeps the full range of the zigzag deltas, e.g. for timestamps of Long.MAX_VALUE
+        byte[] present = new byte[(columnNumbers.length + 7) / 8];
+        for (int i = 0; i < columnNumbers.length; i++) {
+            if (timestamps[i] != null) {
+                present[i >>> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        out.write(present, 0, present.length);
+        
+        int previousColumnNumber = 0;
+        long previousTimestamp = 0;
+        for (int i = 0; i < columnNumbers.length; i++) {
+            writeVarint(out, columnNumbers[i] - previousColumnNumber);
+            if (timestamps[i] != null) {
+                long delta = timestamps[i] - previousTimestamp;
+                writeVarint(out, (delta << 1) ^ (delta >> 63));
+                previousTimestamp = timestamps[i];
+            }
+            previousColumnNumber = columnNumbers[i];
+        }
+        return PREFIX + Base64.getEncoder().encodeToString(out.toByteArray()) + SUFFIX;
+    }
+    
+    public static boolean isEncoded(String value) {
+        return value != null && value.startsWith(PREFIX) && value.endsWith(SUFFIX);
+    }
+    
+    /**
+     * Decodes a value produced by this class
+     *
+     * @param value
+     *            the encoded value
+     * @return the decoded columns
+     * @throws IllegalArgumentException
+     *             if the value is not encoded, or was encoded with an unsupported version
+     */
+    public static Columns decode(String value) {
+        if (!isEncoded(value)) {
+            throw new IllegalArgumentException("Value is not compact encoded");
+        }
+        
+        ByteBuffer in = ByteBuffer.wrap(Base64.getDecoder().decode(value.substring(PREFIX.length(), value.length() - SUFFIX.length())));
+        int version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported compact encoding version: " + version);
+        }
+        
+        byte type = in.get();
+        int numColumns = (int) readVarint(in);
+        Columns columns = new Columns(type == MARKINGS, numColumns);
+        byte[] present = null;
+        if (type != MARKINGS) {
+            present = new byte[(numColumns + 7) / 8];
+            in.get(present);
+        }
+        
+        int columnNumber = 0;
+        long timestamp = 0;
+        for (int i = 0; i < numColumns; i++) {
+            columnNumber += (int) readVarint(in);
+            columns.columnNumbers[i] = columnNumber;
+            if (type == MARKINGS) {
+                columns.markingIds[i] = (int) readVarint(in);
+                columns.visibilityIds[i] = (int) readVarint(in);
+            } else if ((present[i >>> 3] & (1 << (i & 7))) != 0) {
+                long zigzag = readVarint(in);
+                timestamp += (zigzag >>> 1) ^ -(zigzag & 1L);
+                columns.timestamps[i] = timestamp;
+            }
+        }
+        return columns;
+    }
+    
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+    
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+    
+    /**
+     * The decoded columns of a row. Only the marking or timestamp arrays are populated, depending on what was encoded.
+     */
+    public static class Columns {
+        private final boolean markings;
+        private final int[] columnNumbers;
+        private final int[] markingIds;
+        private final int[] visibilityIds;
+        private final Long[] timestamps;
+        
+        private Columns(boolean markings, int numColumns) {
+            this.markings = markings;
+            this.columnNumbers = new int[numColumns];
+            this.markingIds = markings ? new int[numColumns] : null;
+            this.visibilityIds = markings ? new int[numColumns] : null;
+            this.timestamps = markings ? null : new Long[numColumns];
+        }
+        
+        public boolean isMarkings() {
+            return markings;
+        }
+        
+        public int[] getColumnNumbers() {
+            return columnNumbers;
+        }
+        
+        public int[] getMarkingIds() {
+            return markingIds;
+        }
+        
+        public int[] getVisibilityIds() {
+            return visibilityIds;
+        }
+        
+        public Long[] getTimestamps() {
+            return timestamps;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package datawave.microservice.query.cachedresults.load;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.aop.scope.ScopedObject;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Request attributes for work which runs outside of any request, e.g. a queued load job run by a different node than the one which received the request.
+ *
+ * Binding these to the current thread lets Spring create request scoped beans, so that they are configured exactly as they would be for a request, rather
+ * than being rebuilt from their class.
+ */
+public class DetachedRequestAttributes implements RequestAttributes {
+    private final Map<String,Object> attributes = new ConcurrentHashMap<>();
+    
+    /**
+     * Creates a new instance of a request scoped bean, using the bean's scoped proxy
+     *
+     * @param scopedProxy
+     *            the scoped proxy of a request scoped bean, not null
+     * @param type
+     *            the type of the bean, not null
+     * @param <T>
+     *            the type of the bean
+     * @return a new instance of the bean, created and configured by Spring
+     */
+    public static <T> T createTarget(ScopedObject scopedProxy, Class<T> type) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        RequestContextHolder.setRequestAttributes(new DetachedRequestAttributes());
+        try {
+            return type.cast(scopedProxy.getTargetObject());
+        } finally {
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+        }
+    }
+    
+    @Override
+    public Object getAttribute(String name, int scope) {
+        return attributes.get(name);
+    }
+    
+    @Override
+    public void setAttribute(String name, Object value, int scope) {
+        attributes.put(name, value);
+    }
+    
+    @Override
+    public void removeAttribute(String name, int scope) {
+        attributes.remove(name);
+    }
+    
+    @Override
+    public String[] getAttributeNames(int scope) {
+        return attributes.keySet().toArray(new String[0]);
+    }
+    
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback, int scope) {
+        // the beans outlive the detached request, so they are left for the garbage collector rather than destroyed with it
+    }
+    
+    @Override
+    public Object resolveReference(String key) {
+        return null;
+    }
+    
+    @Override
+    public String getSessionId() {
+        return "";
+    }
+    
+    @Override
+    public Object getSessionMutex() {
+        return this;
+    }
+}
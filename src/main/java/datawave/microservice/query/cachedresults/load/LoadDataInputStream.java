@@ -0,0 +1,135 @@
+package datawave.microservice.query.cachedresults.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Encodes records on demand as a stream suitable for LOAD DATA LOCAL INFILE.
+ *
+ * Fields are tab separated, and records are newline terminated. Backslash, tab, newline, carriage return, and NUL characters are escaped with a backslash,
+ * and null values are written as \N. The stream is encoded as UTF-8.
+ */
+public class LoadDataInputStream extends InputStream {
+    private static final byte[] NULL_VALUE = {'\\', 'N'};
+    
+    private final Iterator<? extends List<String>> records;
+    private byte[] buffer = new byte[0];
+    private int position = 0;
+    private long bytesRead = 0;
+    
+    public LoadDataInputStream(Iterator<? extends List<String>> records) {
+        this.records = records;
+    }
+    
+    @Override
+    public int read() {
+        if (!fill()) {
+            return -1;
+        }
+        bytesRead++;
+        return buffer[position++] & 0xff;
+    }
+    
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int numBytes = Math.min(len, buffer.length - position);
+        System.arraycopy(buffer, position, b, off, numBytes);
+        position += numBytes;
+        bytesRead += numBytes;
+        return numBytes;
+    }
+    
+    @Override
+    public int available() {
+        return buffer.length - position;
+    }
+    
+    /**
+     * Gets the number of bytes which have been read from this stream
+     *
+     * @return the number of bytes read
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+    
+    // encodes the next record once the current one has been consumed
+    private boolean fill() {
+        while (position >= buffer.length) {
+            if (!records.hasNext()) {
+                return false;
+            }
+            buffer = encode(records.next());
+            position = 0;
+        }
+        return true;
+    }
+    
+    static byte[] encode(List<String> record) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < record.size(); i++) {
+            if (i > 0) {
+                out.write('\t');
+            }
+            
+            String value = record.get(i);
+            if (value == null) {
+                out.write(NULL_VALUE, 0, NULL_VALUE.length);
+            } else {
+                byte[] bytes = escape(value).getBytes(StandardCharsets.UTF_8);
+                out.write(bytes, 0, bytes.length);
+            }
+        }
+        out.write('\n');
+        return out.toByteArray();
+    }
+    
+    static String escape(String value) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement;
+            switch (c) {
+                case '\\':
+                    replacement = "\\\\";
+                    break;
+                case '\t':
+                    replacement = "\\t";
+                    break;
+                case '\n':
+                    replacement = "\\n";
+                    break;
+                case '\r':
+                    replacement = "\\r";
+                    break;
+                case '\0':
+                    replacement = "\\0";
+                    break;
+                default:
+                    replacement = null;
+            }
+            
+            // only copy the value if something needs to be escaped
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(c);
+                }
+            }
+        }
+        return escaped != null ? escaped.toString() : value;
+    }
+}
@@ -0,0 +1,116 @@
+package datawave.microservice.query.cachedresults.load;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the executors used to run loads.
+ *
+ * Loads spend almost all of their time blocked on the query service, sql, or distributed locks, so they are a good fit for virtual threads. Virtual threads
+ * are only available on Java 21 and later, so they are looked up reflectively, falling back to platform threads on older runtimes.
+ *
+ * Bounded executors limit the number of tasks which run at once, whether they run on virtual or platform threads, and queue the rest. This keeps a burst of
+ * loads from starting more concurrent work than MySQL and the query service can handle.
+ */
+public class LoadExecutors {
+    private static final Logger log = LoggerFactory.getLogger(LoadExecutors.class);
+    
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+    
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadPerTaskExecutor();
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = findVirtualThreadFactory();
+    
+    private LoadExecutors() {}
+    
+    /**
+     * Creates an executor which runs each task on its own thread
+     *
+     * @param virtualThreads
+     *            whether to use virtual threads, if the runtime supports them
+     * @return the executor
+     */
+    public static ExecutorService newThreadPerTaskExecutor(boolean virtualThreads) {
+        if (virtualThreads) {
+            if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+                try {
+                    return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+                } catch (ReflectiveOperationException e) {
+                    log.warn("Unable to create a virtual thread executor, using platform threads instead", e);
+                }
+            } else {
+                log.warn("Virtual threads are not supported by this runtime, using platform threads instead");
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+    
+    /**
+     * Creates an executor which runs at most the given number of tasks at once, and queues the rest
+     *
+     * @param virtualThreads
+     *            whether to use virtual threads, if the runtime supports them
+     * @param maxThreads
+     *            the maximum number of tasks to run at once, or 0 for no limit
+     * @param name
+     *            the prefix for the names of the platform threads
+     * @return the executor
+     */
+    public static ExecutorService newBoundedExecutor(boolean virtualThreads, int maxThreads, String name) {
+        if (maxThreads <= 0) {
+            return newThreadPerTaskExecutor(virtualThreads);
+        }
+        
+        ThreadFactory threadFactory;
+        if (virtualThreads && VIRTUAL_THREAD_FACTORY != null) {
+            threadFactory = VIRTUAL_THREAD_FACTORY;
+        } else {
+            if (virtualThreads) {
+                log.warn("Virtual threads are not supported by this runtime, using platform threads instead");
+            }
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadFactory defaultThreadFactory = Executors.defaultThreadFactory();
+            threadFactory = runnable -> {
+                Thread thread = defaultThreadFactory.newThread(runnable);
+                thread.setName(name + "-" + threadNumber.incrementAndGet());
+                return thread;
+            };
+        }
+        
+        // idle threads are released, so the pool only holds threads while loads are running
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                        threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+    
+    public static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+    
+    // Thread.ofVirtual().factory(), if the runtime supports virtual threads
+    private static ThreadFactory findVirtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+    
+    private static Method findVirtualThreadPerTaskExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package datawave.microservice.query.cachedresults.load;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records the metrics for each stage of a load, tagged by query logic.
+ *
+ * The rate of rows written to sql is available from the rate of the rows counter, and the batch write timer gives the latency of each write.
+ */
+public class LoadMetrics {
+    public static final String LOGIC_TAG = "logic";
+    public static final String STATEMENT_TAG = "statement";
+    
+    private static final String UNKNOWN_LOGIC = "unknown";
+    
+    private final MeterRegistry meterRegistry;
+    // the meters for each query logic, created when the logic is first seen
+    private final Map<String,LogicMeters> logicMeters = new ConcurrentHashMap<>();
+    // the logic of each running load, keyed by defined query id, so that a load is only counted once
+    private final Map<String,String> activeLoads = new ConcurrentHashMap<>();
+    
+    /**
+     * @param meterRegistry
+     *            the registry for the load metrics, not null
+     */
+    public LoadMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Records a call to next
+     *
+     * @param logic
+     *            the query logic
+     * @param nanos
+     *            the time spent waiting on the query service
+     */
+    public void recordNext(String logic, long nanos) {
+        getLogicMeters(logic).nextTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Records the conversion of a page of results to cacheable query rows
+     *
+     * @param logic
+     *            the query logic
+     * @param pageSize
+     *            the number of results in the page
+     * @param nanos
+     *            the time spent in writeToCache
+     */
+    public void recordPage(String logic, int pageSize, long nanos) {
+        LogicMeters meters = getLogicMeters(logic);
+        meters.pageSizeSummary.record(pageSize);
+        meters.conversionTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Records a successful write of a batch of rows to sql
+     *
+     * @param logic
+     *            the query logic
+     * @param nanos
+     *            the time spent writing the batch
+     * @param numRows
+     *            the number of rows written
+     */
+    public void recordBatchWrite(String logic, long nanos, int numRows) {
+        LogicMeters meters = getLogicMeters(logic);
+        meters.batchWriteTimer.record(nanos, TimeUnit.NANOSECONDS);
+        meters.rowsCounter.increment(numRows);
+    }
+    
+    /**
+     * Counts a failed write which will be retried
+     *
+     * @param logic
+     *            the query logic
+     */
+    public void countInsertRetry(String logic) {
+        getLogicMeters(logic).insertRetryCounter.increment();
+    }
+    
+    /**
+     * Records the execution of a ddl statement
+     *
+     * @param logic
+     *            the query logic
+     * @param statement
+     *            the name of the statement template, e.g. createTable
+     * @param nanos
+     *            the time spent executing the statement
+     */
+    public void recordDdl(String logic, String statement, long nanos) {
+        // @formatter:off
+        Timer.builder("cachedResults.load.ddl")
+                .description("The time spent creating and altering the tables and views of a load")
+                .tag(LOGIC_TAG, toTag(logic))
+                .tag(STATEMENT_TAG, statement)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        // @formatter:on
+    }
+    
+    /**
+     * Counts the load as active until {@link #loadFinished(String)} is called for it
+     *
+     * @param definedQueryId
+     *            the defined query id of the load
+     * @param logic
+     *            the query logic
+     */
+    public void loadStarted(String definedQueryId, String logic) {
+        String tag = toTag(logic);
+        if (activeLoads.putIfAbsent(definedQueryId, tag) == null) {
+            getLogicMeters(tag).activeLoads.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Stops counting the load as active, if it was counted
+     *
+     * @param definedQueryId
+     *            the defined query id of the load
+     */
+    public void loadFinished(String definedQueryId) {
+        String tag = activeLoads.remove(definedQueryId);
+        if (tag != null) {
+            getLogicMeters(tag).activeLoads.decrementAndGet();
+        }
+    }
+    
+    private LogicMeters getLogicMeters(String logic) {
+        return logicMeters.computeIfAbsent(toTag(logic), tag -> new LogicMeters(meterRegistry, tag));
+    }
+    
+    private static String toTag(String logic) {
+        return (logic != null) ? logic : UNKNOWN_LOGIC;
+    }
+    
+    private static class LogicMeters {
+        private final Timer nextTimer;
+        private final DistributionSummary pageSizeSummary;
+        private final Timer conversionTimer;
+        private final Timer batchWriteTimer;
+        private final Counter rowsCounter;
+        private final Counter insertRetryCounter;
+        private final AtomicInteger activeLoads = new AtomicInteger();
+        
+        private LogicMeters(MeterRegistry meterRegistry, String logic) {
+            // @formatter:off
+            this.nextTimer = Timer.builder("cachedResults.load.next")
+                    .description("The time spent waiting on the query service for each page")
+                    .tag(LOGIC_TAG, logic)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.pageSizeSummary = DistributionSummary.builder("cachedResults.load.page.size")
+                    .description("The number of results in each page")
+                    .tag(LOGIC_TAG, logic)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.conversionTimer = Timer.builder("cachedResults.load.conversion")
+                    .description("The time spent converting each page of results to cacheable query rows")
+                    .tag(LOGIC_TAG, logic)
+                    .register(meterRegistry);
+            this.batchWriteTimer = Timer.builder("cachedResults.load.write")
+                    .description("The time spent writing each batch of rows to sql")
+                    .tag(LOGIC_TAG, logic)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.rowsCounter = Counter.builder("cachedResults.load.rows")
+                    .description("The number of rows written to sql")
+                    .tag(LOGIC_TAG, logic)
+                    .register(meterRegistry);
+            this.insertRetryCounter = Counter.builder("cachedResults.load.insert.retries")
+                    .description("The number of failed writes which were retried")
+                    .tag(LOGIC_TAG, logic)
+                    .register(meterRegistry);
+            Gauge.builder("cachedResults.load.active", activeLoads, AtomicInteger::get)
+                    .description("The number of loads running on this node")
+                    .tag(LOGIC_TAG, logic)
+                    .register(meterRegistry);
+            // @formatter:on
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package datawave.microservice.query.cachedresults.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Overlaps fetching pages of results with writing them to SQL.
+ *
+ * The calling thread acts as the fetcher, and places each page into a bounded buffer. One or more writers, running on the supplied executor, drain the
+ * buffer. If either side fails, the pipeline is torn down and the failure is rethrown to the caller once the writers have stopped, so that nothing is written
+ * while the caller cleans up after the failure.
+ *
+ * @param <T>
+ *            the type of the rows contained in each page
+ */
+public class LoadPipeline<T> {
+    private static final long POLL_INTERVAL_MILLIS = 100L;
+    
+    private final ExecutorService writerExecutor;
+    private final int depth;
+    private final int numWriters;
+    private final long shutdownTimeoutMillis;
+    
+    public LoadPipeline(ExecutorService writerExecutor, int depth, int numWriters, long shutdownTimeoutMillis) {
+        this.writerExecutor = writerExecutor;
+        this.depth = Math.max(1, depth);
+        this.numWriters = Math.max(1, numWriters);
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+    
+    /**
+     * Fetches pages until the fetcher is exhausted, writing each page as it becomes available
+     *
+     * @param fetcher
+     *            supplies the pages to write, not null
+     * @param writer
+     *            writes each page, not null
+     * @throws Exception
+     *             if the fetcher or any of the writers fail
+     */
+    public void run(PageFetcher<T> fetcher, PageWriter<T> writer) throws Exception {
+        final BlockingQueue<List<T>> pages = new ArrayBlockingQueue<>(depth);
+        final List<T> endOfPages = new ArrayList<>(0);
+        final AtomicBoolean aborted = new AtomicBoolean(false);
+        // cancelled futures complete immediately, so the writers count down when they have actually stopped
+        final CountDownLatch stoppedWriters = new CountDownLatch(numWriters);
+        
+        List<Future<Void>> writers = new ArrayList<>();
+        for (int i = 0; i < numWriters; i++) {
+            writers.add(writerExecutor.submit(() -> {
+                try {
+                    while (!aborted.get()) {
+                        List<T> page = pages.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                        if (page == endOfPages) {
+                            // put the marker back so that the other writers see it too
+                            pages.offer(endOfPages);
+                            break;
+                        } else if (page != null) {
+                            writer.write(page);
+                        }
+                    }
+                    return null;
+                } finally {
+                    stoppedWriters.countDown();
+                }
+            }));
+        }
+        
+        try {
+            List<T> page;
+            while ((page = fetcher.fetch()) != null) {
+                put(pages, page, writers);
+                checkWriters(writers);
+            }
+            put(pages, endOfPages, writers);
+            
+            // wait for the writers to drain the buffer
+            for (Future<Void> future : writers) {
+                get(future);
+            }
+        } catch (Exception e) {
+            aborted.set(true);
+            pages.clear();
+            for (Future<Void> future : writers) {
+                future.cancel(true);
+            }
+            awaitWriters(stoppedWriters, writers, e);
+            throw e;
+        }
+    }
+    
+    // waits for the cancelled writers to stop, and attaches their failures to the original failure
+    private void awaitWriters(CountDownLatch stoppedWriters, List<Future<Void>> writers, Exception failure) {
+        try {
+            if (!stoppedWriters.await(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                failure.addSuppressed(new TimeoutException("Writers did not stop within " + shutdownTimeoutMillis + " ms"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.addSuppressed(e);
+        }
+        
+        for (Future<Void> future : writers) {
+            if (future.isDone() && !future.isCancelled()) {
+                try {
+                    get(future);
+                } catch (Exception e) {
+                    if (e != failure) {
+                        failure.addSuppressed(e);
+                    }
+                } catch (Error e) {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+    }
+    
+    private void put(BlockingQueue<List<T>> pages, List<T> page, List<Future<Void>> writers) throws Exception {
+        while (!pages.offer(page, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+            checkWriters(writers);
+        }
+    }
+    
+    // writers only finish early if they fail
+    private void checkWriters(List<Future<Void>> writers) throws Exception {
+        for (Future<Void> future : writers) {
+            if (future.isDone()) {
+                get(future);
+                throw new IllegalStateException("Writer stopped before all pages were written");
+            }
+        }
+    }
+    
+    private void get(Future<Void> future) throws Exception {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    public interface PageFetcher<T> {
+        // returns null once there are no more pages
+        List<T> fetch() throws Exception;
+    }
+    
+    public interface PageWriter<T> {
+        void write(List<T> page) throws Exception;
+    }
+}
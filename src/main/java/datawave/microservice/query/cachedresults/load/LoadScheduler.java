@@ -0,0 +1,198 @@
+package datawave.microservice.query.cachedresults.load;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Limits the number of loads which run concurrently, both overall and for each user.
+ *
+ * Loads which can't be started right away are queued by priority, where higher priorities are always started first. Within a priority, users take turns in
+ * round-robin order, so that a user with many queued loads can't starve the other users.
+ */
+public class LoadScheduler {
+    private static final Logger log = LoggerFactory.getLogger(LoadScheduler.class);
+    
+    private final int maxConcurrentLoads;
+    private final int maxConcurrentLoadsPerUser;
+    private final Timer waitTimer;
+    
+    // the queued loads for each priority, highest priority first, and then by user in round-robin order
+    private final TreeMap<Integer,LinkedHashMap<String,Deque<QueuedLoad>>> queues = new TreeMap<>(Collections.reverseOrder());
+    private final Map<String,QueuedLoad> queuedLoads = new HashMap<>();
+    private final Map<String,Integer> runningLoadsByUser = new HashMap<>();
+    private int runningLoads;
+    
+    /**
+     * @param maxConcurrentLoads
+     *            the maximum number of loads to run at once, or 0 for no limit
+     * @param maxConcurrentLoadsPerUser
+     *            the maximum number of loads to run at once for a single user, or 0 for no limit
+     * @param meterRegistry
+     *            the registry for the queue depth and wait time metrics, not null
+     */
+    public LoadScheduler(int maxConcurrentLoads, int maxConcurrentLoadsPerUser, MeterRegistry meterRegistry) {
+        this.maxConcurrentLoads = maxConcurrentLoads;
+        this.maxConcurrentLoadsPerUser = maxConcurrentLoadsPerUser;
+        this.waitTimer = Timer.builder("cachedResults.load.wait").description("The time loads spend queued before they are started").register(meterRegistry);
+        Gauge.builder("cachedResults.load.queued", this, LoadScheduler::getQueuedLoads).description("The number of queued loads").register(meterRegistry);
+        Gauge.builder("cachedResults.load.running", this, LoadScheduler::getRunningLoads).description("The number of running loads").register(meterRegistry);
+    }
+    
+    /**
+     * Queues the load, and starts it as soon as the concurrency limits allow
+     *
+     * @param id
+     *            the id of the load, used to cancel it while it is queued
+     * @param user
+     *            the user the load is being run for
+     * @param priority
+     *            the priority of the load, where higher priorities are started first
+     * @param load
+     *            the load to start
+     */
+    public void submit(String id, String user, int priority, Load load) {
+        QueuedLoad queuedLoad = new QueuedLoad(id, user, load);
+        synchronized (this) {
+            queues.computeIfAbsent(priority, p -> new LinkedHashMap<>()).computeIfAbsent(user, u -> new ArrayDeque<>()).add(queuedLoad);
+            queuedLoads.put(id, queuedLoad);
+        }
+        dispatch();
+    }
+    
+    /**
+     * Removes the load from the queue, if it has not already been started
+     *
+     * @param id
+     *            the id of the load
+     * @return true if the load was removed from the queue
+     */
+    public synchronized boolean cancel(String id) {
+        QueuedLoad queuedLoad = queuedLoads.remove(id);
+        if (queuedLoad != null) {
+            for (Iterator<LinkedHashMap<String,Deque<QueuedLoad>>> priorities = queues.values().iterator(); priorities.hasNext();) {
+                LinkedHashMap<String,Deque<QueuedLoad>> users = priorities.next();
+                Deque<QueuedLoad> userLoads = users.get(queuedLoad.user);
+                if (userLoads != null && userLoads.remove(queuedLoad)) {
+                    if (userLoads.isEmpty()) {
+                        users.remove(queuedLoad.user);
+                    }
+                    if (users.isEmpty()) {
+                        priorities.remove();
+                    }
+                    break;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+    
+    public synchronized int getQueuedLoads() {
+        return queuedLoads.size();
+    }
+    
+    public synchronized int getRunningLoads() {
+        return runningLoads;
+    }
+    
+    // starts as many queued loads as the limits allow
+    private void dispatch() {
+        List<QueuedLoad> loadsToStart = new ArrayList<>();
+        synchronized (this) {
+            QueuedLoad queuedLoad;
+            while ((maxConcurrentLoads <= 0 || runningLoads < maxConcurrentLoads) && (queuedLoad = pollNextLoad()) != null) {
+                runningLoads++;
+                runningLoadsByUser.merge(queuedLoad.user, 1, Integer::sum);
+                loadsToStart.add(queuedLoad);
+            }
+        }
+        
+        // the loads are started outside of the lock, since starting a load may take a moment
+        for (QueuedLoad queuedLoad : loadsToStart) {
+            waitTimer.record(System.currentTimeMillis() - queuedLoad.queuedTimeMillis, TimeUnit.MILLISECONDS);
+            try {
+                queuedLoad.load.start(() -> complete(queuedLoad.user));
+            } catch (RuntimeException e) {
+                log.error("Unable to start load {}", queuedLoad.id, e);
+                complete(queuedLoad.user);
+            }
+        }
+    }
+    
+    // takes the next load from the highest priority with a user who is under their limit
+    private QueuedLoad pollNextLoad() {
+        for (Iterator<LinkedHashMap<String,Deque<QueuedLoad>>> priorities = queues.values().iterator(); priorities.hasNext();) {
+            LinkedHashMap<String,Deque<QueuedLoad>> users = priorities.next();
+            for (Map.Entry<String,Deque<QueuedLoad>> entry : users.entrySet()) {
+                String user = entry.getKey();
+                if (maxConcurrentLoadsPerUser <= 0 || runningLoadsByUser.getOrDefault(user, 0) < maxConcurrentLoadsPerUser) {
+                    Deque<QueuedLoad> userLoads = entry.getValue();
+                    QueuedLoad queuedLoad = userLoads.poll();
+                    
+                    // move the user to the back of the line
+                    users.remove(user);
+                    if (!userLoads.isEmpty()) {
+                        users.put(user, userLoads);
+                    }
+                    if (users.isEmpty()) {
+                        priorities.remove();
+                    }
+                    
+                    queuedLoads.remove(queuedLoad.id);
+                    return queuedLoad;
+                }
+            }
+        }
+        return null;
+    }
+    
+    private void complete(String user) {
+        synchronized (this) {
+            runningLoads--;
+            runningLoadsByUser.computeIfPresent(user, (u, count) -> (count > 1) ? count - 1 : null);
+        }
+        dispatch();
+    }
+    
+    /**
+     * A load which can be started by the scheduler
+     */
+    public interface Load {
+        /**
+         * Starts the load, which must call onComplete exactly once when it finishes, whether or not it succeeds
+         *
+         * @param onComplete
+         *            releases the load's place in the scheduler
+         */
+        void start(Runnable onComplete);
+    }
+    
+    private static class QueuedLoad {
+        private final String id;
+        private final String user;
+        private final Load load;
+        private final long queuedTimeMillis = System.currentTimeMillis();
+        
+        private QueuedLoad(String id, String user, Load load) {
+            this.id = id;
+            this.user = user;
+            this.load = load;
+        }
+    }
+}
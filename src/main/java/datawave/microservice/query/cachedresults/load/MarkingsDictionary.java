@@ -0,0 +1,144 @@
+package datawave.microservice.query.cachedresults.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Interns the distinct marking encodings written during a single load.
+ *
+ * Each distinct encoding is assigned a small integer id, and rows store a reference to that id rather than the encoding itself. Newly assigned entries are
+ * queued until they are drained and persisted to the dictionary table, or are written through as soon as they are assigned.
+ */
+public class MarkingsDictionary {
+    private static final String REFERENCE_PREFIX = "<dictionary:";
+    private static final String REFERENCE_SUFFIX = ">";
+    private static final int NUM_WRITE_LOCKS = 64;
+    
+    private final Map<Object,String> references = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId;
+    private final Queue<Object[]> pendingEntries = new ConcurrentLinkedQueue<>();
+    private final Consumer<Object[]> entryWriter;
+    // serializes the writes of new entries for keys which share a lock, so that concurrent writers of the same key don't each persist an entry
+    // (locks rather than monitors, and held outside of the map, so that virtual threads aren't pinned while the entry is written)
+    private final Lock[] writeLocks;
+    
+    public MarkingsDictionary() {
+        this(0, null);
+    }
+    
+    /**
+     * @param lastId
+     *            the last id which was assigned, so that a resumed load doesn't reuse the ids it has already written
+     * @param entryWriter
+     *            if not null, persists each new entry as soon as it is assigned, rather than queuing it until the entries are drained
+     */
+    public MarkingsDictionary(int lastId, Consumer<Object[]> entryWriter) {
+        this.nextId = new AtomicInteger(lastId);
+        this.entryWriter = entryWriter;
+        this.writeLocks = (entryWriter != null) ? new Lock[NUM_WRITE_LOCKS] : null;
+        if (writeLocks != null) {
+            for (int i = 0; i < writeLocks.length; i++) {
+                writeLocks[i] = new ReentrantLock();
+            }
+        }
+    }
+    
+    /**
+     * Gets the reference for the given key
+     *
+     * @param key
+     *            the key to look up
+     * @return the reference, or null if the key has not been interned
+     */
+    public String lookup(Object key) {
+        return references.get(key);
+    }
+    
+    /**
+     * Gets the reference for the given key, assigning a new id if the key has not been seen before
+     *
+     * @param key
+     *            the key to intern, must not be modified once it has been interned
+     * @param encoder
+     *            supplies the encoding to store for the key, only called for new keys
+     * @return the reference to store in place of the encoding
+     */
+    public String getReference(Object key, Supplier<String> encoder) {
+        String reference = references.get(key);
+        if (reference == null) {
+            if (entryWriter != null) {
+                reference = writeReference(key, encoder);
+            } else {
+                reference = references.computeIfAbsent(key, k -> {
+                    int id = nextId.incrementAndGet();
+                    pendingEntries.add(new Object[] {id, encoder.get()});
+                    return toReference(id);
+                });
+            }
+        }
+        return reference;
+    }
+    
+    // persists the entry before it is published, without holding any of the map's locks while it is written
+    private String writeReference(Object key, Supplier<String> encoder) {
+        Lock writeLock = writeLocks[Math.floorMod(key.hashCode(), writeLocks.length)];
+        writeLock.lock();
+        try {
+            String reference = references.get(key);
+            if (reference == null) {
+                int id = nextId.incrementAndGet();
+                entryWriter.accept(new Object[] {id, encoder.get()});
+                reference = toReference(id);
+                references.putIfAbsent(key, reference);
+            }
+            return reference;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Removes and returns the entries which have not yet been persisted
+     *
+     * @return the id and encoding of each pending entry
+     */
+    public List<Object[]> drainPendingEntries() {
+        List<Object[]> entries = new ArrayList<>();
+        Object[] entry;
+        while ((entry = pendingEntries.poll()) != null) {
+            entries.add(entry);
+        }
+        return entries;
+    }
+    
+    public static String toReference(int id) {
+        return REFERENCE_PREFIX + id + REFERENCE_SUFFIX;
+    }
+    
+    /**
+     * Parses the id from a reference
+     *
+     * @param value
+     *            the stored value
+     * @return the id, or null if the value is not a reference
+     */
+    public static Integer parseReference(String value) {
+        if (value != null && value.startsWith(REFERENCE_PREFIX) && value.endsWith(REFERENCE_SUFFIX)) {
+            try {
+                return Integer.valueOf(value.substring(REFERENCE_PREFIX.length(), value.length() - REFERENCE_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,123 @@
+package datawave.microservice.query.cachedresults.load;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.springframework.util.MultiValueMap;
+
+import datawave.microservice.query.Query;
+import datawave.microservice.query.QueryImpl;
+import datawave.security.authorization.DatawaveUser;
+import datawave.security.authorization.ProxiedUserDetails;
+
+/**
+ * Computes a fingerprint which identifies the results of a load, so that loads of the same query can share a table.
+ *
+ * The fingerprint covers the query logic, the query string, the date range, the query parameters, the parameters overridden for the load, and the effective
+ * authorizations of the user. The effective authorizations are the requested authorizations which each entity in the proxy chain actually holds, or all of
+ * the authorizations each entity holds when none were requested, so two users only share a fingerprint if the query would return the same results for both
+ * of them. Each value is length prefixed, and the parameters and authorizations are sorted, so that the fingerprint does not depend on the order in which
+ * they were given.
+ */
+public class QueryFingerprint {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    private QueryFingerprint() {}
+    
+    /**
+     * Computes the fingerprint for a load of the query
+     *
+     * @param query
+     *            the defined query, not null
+     * @param loadParameters
+     *            the parameters overridden on the query duplicated for the load, not null
+     * @param currentUser
+     *            the user the query is being loaded for, not null
+     * @return the fingerprint, as a hex encoded sha-256 digest
+     */
+    public static String compute(Query query, MultiValueMap<String,String> loadParameters, ProxiedUserDetails currentUser) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this runtime", e);
+        }
+        
+        update(digest, query.getQueryLogicName());
+        update(digest, query.getQuery());
+        update(digest, toString(query.getBeginDate()));
+        update(digest, toString(query.getEndDate()));
+        
+        TreeSet<String> parameters = new TreeSet<>();
+        if (query.getParameters() != null) {
+            for (QueryImpl.Parameter parameter : query.getParameters()) {
+                parameters.add(parameter.getParameterName() + "=" + parameter.getParameterValue());
+            }
+        }
+        update(digest, parameters);
+        
+        TreeSet<String> overrides = new TreeSet<>();
+        for (Map.Entry<String,List<String>> entry : loadParameters.entrySet()) {
+            overrides.add(entry.getKey() + "=" + entry.getValue());
+        }
+        update(digest, overrides);
+        
+        update(digest, getEffectiveAuths(query.getQueryAuthorizations(), currentUser));
+        
+        byte[] bytes = digest.digest();
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(hex);
+    }
+    
+    // the requested auths held by each entity in the proxy chain, sorted so that the order of the chain doesn't matter
+    // (a query which doesn't request any auths runs with every auth the chain holds, so then every auth held by each entity is used)
+    private static List<String> getEffectiveAuths(String queryAuthorizations, ProxiedUserDetails currentUser) {
+        TreeSet<String> requestedAuths = new TreeSet<>();
+        if (queryAuthorizations != null) {
+            for (String auth : queryAuthorizations.split(",")) {
+                if (!auth.trim().isEmpty()) {
+                    requestedAuths.add(auth.trim());
+                }
+            }
+        }
+        
+        TreeSet<String> effectiveAuths = new TreeSet<>();
+        for (DatawaveUser user : currentUser.getProxiedUsers()) {
+            TreeSet<String> userAuths = new TreeSet<>(user.getAuths());
+            if (!requestedAuths.isEmpty()) {
+                userAuths.retainAll(requestedAuths);
+            }
+            effectiveAuths.add(String.join(",", userAuths));
+        }
+        return new ArrayList<>(effectiveAuths);
+    }
+    
+    private static String toString(Date date) {
+        return (date != null) ? Long.toString(date.getTime()) : "";
+    }
+    
+    private static void update(MessageDigest digest, Collection<String> values) {
+        update(digest, Integer.toString(values.size()));
+        for (String value : values) {
+            update(digest, value);
+        }
+    }
+    
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = (value != null) ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+}
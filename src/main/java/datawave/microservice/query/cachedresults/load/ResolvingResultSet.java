@@ -0,0 +1,79 @@
+package datawave.microservice.query.cachedresults.load;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Wraps a result set so that the stored values in the given columns are resolved to their original values, e.g. dictionary references or compact encodings.
+ *
+ * Only getString and getObject are resolved, which is how the cacheable query row reader reads the marking columns.
+ */
+public class ResolvingResultSet implements InvocationHandler {
+    private final ResultSet resultSet;
+    private final Set<String> columnLabels;
+    private final Function<String,String> resolver;
+    private final Map<Integer,Boolean> resolvedColumnIndexes = new HashMap<>();
+    
+    private ResolvingResultSet(ResultSet resultSet, Set<String> columnLabels, Function<String,String> resolver) {
+        this.resultSet = resultSet;
+        this.columnLabels = columnLabels;
+        this.resolver = resolver;
+    }
+    
+    /**
+     * Wraps the result set
+     *
+     * @param resultSet
+     *            the result set to wrap, not null
+     * @param columnLabels
+     *            the labels of the columns to resolve, not null
+     * @param resolver
+     *            resolves a stored value to its original value, not null
+     * @return the wrapped result set
+     */
+    public static ResultSet wrap(ResultSet resultSet, Set<String> columnLabels, Function<String,String> resolver) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+                        new ResolvingResultSet(resultSet, columnLabels, resolver));
+    }
+    
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Object result;
+        try {
+            result = method.invoke(resultSet, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+        
+        if (result instanceof String && args != null && args.length == 1 && isResolvedMethod(method) && isResolvedColumn(args[0])) {
+            result = resolver.apply((String) result);
+        }
+        return result;
+    }
+    
+    private boolean isResolvedMethod(Method method) {
+        return method.getName().equals("getString") || method.getName().equals("getObject");
+    }
+    
+    private boolean isResolvedColumn(Object column) throws SQLException {
+        if (column instanceof String) {
+            return columnLabels.contains(column);
+        } else if (column instanceof Integer) {
+            Boolean resolvedColumn = resolvedColumnIndexes.get(column);
+            if (resolvedColumn == null) {
+                resolvedColumn = columnLabels.contains(resultSet.getMetaData().getColumnLabel((Integer) column));
+                resolvedColumnIndexes.put((Integer) column, resolvedColumn);
+            }
+            return resolvedColumn;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,93 @@
+package datawave.microservice.query.cachedresults.load.cache;
+
+import java.io.Serializable;
+
+import org.springframework.util.LinkedMultiValueMap;
+
+import datawave.security.authorization.ProxiedUserDetails;
+
+/**
+ * A loadAndCreate request waiting in the cluster-wide load queue, along with the node which has claimed it, if any.
+ */
+public class LoadJob implements Serializable {
+    private static final long serialVersionUID = 4307467213556380121L;
+    
+    private String definedQueryId;
+    private LinkedMultiValueMap<String,String> parameters;
+    private ProxiedUserDetails currentUser;
+    // the implementation of the request's security marking, so that the marking can be rebuilt by whichever node runs the job
+    private String securityMarkingClassName;
+    private long submittedMillis;
+    // the node running the job, and the time at which its claim expires unless it is renewed
+    private String owner;
+    private long leaseExpirationMillis;
+    
+    public LoadJob(String definedQueryId, LinkedMultiValueMap<String,String> parameters, ProxiedUserDetails currentUser, String securityMarkingClassName) {
+        this.definedQueryId = definedQueryId;
+        this.parameters = parameters;
+        this.currentUser = currentUser;
+        this.securityMarkingClassName = securityMarkingClassName;
+        this.submittedMillis = System.currentTimeMillis();
+    }
+    
+    public String getDefinedQueryId() {
+        return definedQueryId;
+    }
+    
+    public void setDefinedQueryId(String definedQueryId) {
+        this.definedQueryId = definedQueryId;
+    }
+    
+    public LinkedMultiValueMap<String,String> getParameters() {
+        return parameters;
+    }
+    
+    public void setParameters(LinkedMultiValueMap<String,String> parameters) {
+        this.parameters = parameters;
+    }
+    
+    public ProxiedUserDetails getCurrentUser() {
+        return currentUser;
+    }
+    
+    public void setCurrentUser(ProxiedUserDetails currentUser) {
+        this.currentUser = currentUser;
+    }
+    
+    public String getSecurityMarkingClassName() {
+        return securityMarkingClassName;
+    }
+    
+    public void setSecurityMarkingClassName(String securityMarkingClassName) {
+        this.securityMarkingClassName = securityMarkingClassName;
+    }
+    
+    public long getSubmittedMillis() {
+        return submittedMillis;
+    }
+    
+    public void setSubmittedMillis(long submittedMillis) {
+        this.submittedMillis = submittedMillis;
+    }
+    
+    public String getOwner() {
+        return owner;
+    }
+    
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+    
+    public long getLeaseExpirationMillis() {
+        return leaseExpirationMillis;
+    }
+    
+    public void setLeaseExpirationMillis(long leaseExpirationMillis) {
+        this.leaseExpirationMillis = leaseExpirationMillis;
+    }
+    
+    // a job can be claimed if it has never been claimed, or if its owner has stopped renewing the claim
+    public boolean isClaimable(long currentTimeMillis) {
+        return owner == null || currentTimeMillis > leaseExpirationMillis;
+    }
+}
@@ -0,0 +1,54 @@
+package datawave.microservice.query.cachedresults.load.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.util.LinkedMultiValueMap;
+
+import datawave.microservice.cached.LockableCacheInspector;
+import datawave.microservice.query.cachedresults.status.cache.LockableCache;
+import datawave.security.authorization.ProxiedUserDetails;
+
+@CacheConfig(cacheNames = LoadJobCache.CACHE_NAME)
+public class LoadJobCache extends LockableCache<LoadJob> {
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+    
+    public static final String CACHE_NAME = "cachedResultsLoadJobCache";
+    
+    public LoadJobCache(LockableCacheInspector cacheInspector) {
+        super(cacheInspector, CACHE_NAME);
+    }
+    
+    @CachePut(key = "#definedQueryId")
+    public LoadJob create(String definedQueryId, LinkedMultiValueMap<String,String> parameters, ProxiedUserDetails currentUser,
+                    String securityMarkingClassName) {
+        return new LoadJob(definedQueryId, parameters, currentUser, securityMarkingClassName);
+    }
+    
+    @Override
+    public LoadJob get(String definedQueryId) {
+        return cacheInspector.list(CACHE_NAME, LoadJob.class, definedQueryId);
+    }
+    
+    public List<LoadJob> getAll() {
+        return new ArrayList<>(cacheInspector.listAll(CACHE_NAME, LoadJob.class));
+    }
+    
+    @Override
+    @CachePut(key = "#definedQueryId")
+    public LoadJob update(String definedQueryId, LoadJob loadJob) {
+        return loadJob;
+    }
+    
+    @CacheEvict(key = "#definedQueryId")
+    public void remove(String definedQueryId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Evicting load job {}", definedQueryId);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package datawave.microservice.query.cachedresults.monitor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import datawave.microservice.query.cachedresults.CachedResultsQueryService;
+
+/**
+ * Renews the leases on the load jobs claimed by this node, and claims more queued load jobs whenever this node has capacity for them.
+ */
+@Component
+@EnableScheduling
+@ConditionalOnExpression("${datawave.query.cached-results.enabled:true} and ${datawave.query.cached-results.load-queue.enabled:false}")
+public class LoadQueueMonitor {
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+    
+    private final CachedResultsQueryService cachedResultsQueryService;
+    
+    public LoadQueueMonitor(CachedResultsQueryService cachedResultsQueryService) {
+        this.cachedResultsQueryService = cachedResultsQueryService;
+    }
+    
+    // this runs every 5 seconds (by default)
+    @Scheduled(cron = "${datawave.query.cached-results.load-queue.scheduler-crontab:0/5 * * * * ?}")
+    public void loadQueueTaskScheduler() {
+        // the leases are renewed first, so that this node's jobs aren't mistaken for abandoned ones
+        cachedResultsQueryService.renewLoadJobLeases();
+        
+        try {
+            cachedResultsQueryService.claimLoadJobs();
+        } catch (RuntimeException e) {
+            log.error("Unable to claim queued load jobs", e);
+        }
+    }
+}
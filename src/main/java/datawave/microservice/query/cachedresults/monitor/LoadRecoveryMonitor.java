@@ -0,0 +1,53 @@
+package datawave.microservice.query.cachedresults.monitor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import datawave.microservice.query.cachedresults.CachedResultsQueryService;
+import datawave.microservice.query.cachedresults.config.CachedResultsQueryProperties;
+
+/**
+ * Renews the heartbeats of the loads run by this node, and takes over the loads which were orphaned by other nodes.
+ */
+@Component
+@EnableScheduling
+@ConditionalOnExpression("${datawave.query.cached-results.enabled:true} and ${datawave.query.cached-results.recovery.enabled:false}")
+public class LoadRecoveryMonitor {
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+    
+    private final CachedResultsQueryProperties cachedResultsQueryProperties;
+    private final CachedResultsQueryService cachedResultsQueryService;
+    
+    private long lastHeartbeatMillis;
+    private long lastScanMillis;
+    
+    public LoadRecoveryMonitor(CachedResultsQueryProperties cachedResultsQueryProperties, CachedResultsQueryService cachedResultsQueryService) {
+        this.cachedResultsQueryProperties = cachedResultsQueryProperties;
+        this.cachedResultsQueryService = cachedResultsQueryService;
+    }
+    
+    // this runs every 10 seconds (by default)
+    @Scheduled(cron = "${datawave.query.cached-results.recovery.scheduler-crontab:0/10 * * * * ?}")
+    public void recoveryTaskScheduler() {
+        long currentTimeMillis = System.currentTimeMillis();
+        CachedResultsQueryProperties.Recovery recovery = cachedResultsQueryProperties.getRecovery();
+        
+        if ((currentTimeMillis - lastHeartbeatMillis) >= recovery.getHeartbeatIntervalMillis()) {
+            lastHeartbeatMillis = currentTimeMillis;
+            cachedResultsQueryService.heartbeatLoads();
+        }
+        
+        if ((currentTimeMillis - lastScanMillis) >= recovery.getScanIntervalMillis()) {
+            lastScanMillis = currentTimeMillis;
+            try {
+                cachedResultsQueryService.recoverLoads();
+            } catch (RuntimeException e) {
+                log.error("Unable to look for orphaned loads", e);
+            }
+        }
+    }
+}
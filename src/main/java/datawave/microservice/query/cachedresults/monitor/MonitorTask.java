@@ -1,12 +1,17 @@
 package datawave.microservice.query.cachedresults.monitor;
 
 import static datawave.microservice.query.cachedresults.CachedResultsQueryService.TABLE_PLACEHOLDER;
+import static datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus.CACHED_RESULTS_STATE.CANCELED;
+import static datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus.CACHED_RESULTS_STATE.FAILED;
 import static datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus.CACHED_RESULTS_STATE.LOADING;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +20,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 
 import datawave.microservice.query.cachedresults.CachedResultsQueryService;
 import datawave.microservice.query.cachedresults.config.CachedResultsQueryProperties;
+import datawave.microservice.query.cachedresults.jfr.MonitorSweepEvent;
 import datawave.microservice.query.cachedresults.monitor.cache.MonitorStatus;
 import datawave.microservice.query.cachedresults.monitor.cache.MonitorStatusCache;
 import datawave.microservice.query.cachedresults.monitor.config.MonitorProperties;
@@ -73,9 +79,15 @@ public class MonitorTask implements Callable<Void> {
     
     // Perform the following actions:
     // Find all result tables older than 24 hours
-    // Drop the view & table for each of the result tables
-    // Clean up the cache entries for the dropped tables/views
+    // Drop the view for each of the expired views, and clean up its cache entries
+    // Drop each of the expired tables which is no longer used by any cached results query
     private void monitor(long currentTimeMillis) {
+        MonitorSweepEvent sweepEvent = new MonitorSweepEvent();
+        sweepEvent.begin();
+        int queriesRemoved = 0;
+        int tablesDropped = 0;
+        int tablesKept = 0;
+        
         // lookup all of the result tables older than 24 hours
         List<String> expiredTables = cachedResultsJdbcTemplate.query(listExpiredTablesAndViews(), resultSet -> {
             List<String> tables = new ArrayList<>();
@@ -85,47 +97,121 @@ public class MonitorTask implements Callable<Void> {
             return tables;
         });
         
-        // drop each of the expired views/tables
         if (expiredTables != null) {
+            // drop each of the expired views
             for (String tableName : expiredTables) {
-                try {
-                    String statement = null;
-                    if (tableName.startsWith("t")) {
-                        statement = cachedResultsQueryProperties.getStatementTemplates().getDropTable().replace(TABLE_PLACEHOLDER, tableName);
-                    } else if (tableName.startsWith("v")) {
-                        statement = cachedResultsQueryProperties.getStatementTemplates().getDropView().replace(TABLE_PLACEHOLDER, tableName);
-                    }
-                    
-                    if (statement != null) {
-                        cachedResultsJdbcTemplate.execute(statement);
-                    }
-                } catch (DataAccessException e) {
-                    log.warn("Unable to drop expired table: {}", tableName, e);
+                if (tableName.startsWith("v")
+                                && dropTable(cachedResultsQueryProperties.getStatementTemplates().getDropView().replace(TABLE_PLACEHOLDER, tableName))) {
+                    tablesDropped++;
                 }
             }
             
             // delete the cache entries for the dropped tables/views
             for (String tableName : expiredTables) {
                 CachedResultsQueryStatus cachedResultsQueryStatus = cachedResultsQueryCache.lookupQueryStatus(tableName);
-                if (cachedResultsQueryStatus.getState() == LOADING) {
-                    try {
-                        cachedResultsQueryService.cancel(cachedResultsQueryStatus.getDefinedQueryId(), cachedResultsQueryStatus.getCurrentUser());
-                    } catch (QueryException e) {
-                        log.warn("Unable to cancel cached results query: {}", cachedResultsQueryStatus.getDefinedQueryId(), e);
-                    }
+                if (cachedResultsQueryStatus != null) {
+                    removeQueryStatus(cachedResultsQueryStatus);
+                    queriesRemoved++;
                 }
-                
-                if (cachedResultsQueryStatus.getAlias() != null) {
-                    cachedResultsQueryCache.removeQueryIdByAliasLookup(cachedResultsQueryStatus.getAlias());
+            }
+            
+            // delete the cache entries which reference an expired table, but have finished or been idle for longer than the tables live
+            // (such as a load which failed, or never had a view created, and so is not found by the lookups above)
+            Set<String> expiredTableNames = new HashSet<>(expiredTables);
+            for (CachedResultsQueryStatus cachedResultsQueryStatus : cachedResultsQueryCache.getQueryStatuses()) {
+                if (isStale(cachedResultsQueryStatus, currentTimeMillis)
+                                && getTableNames(cachedResultsQueryStatus).stream().anyMatch(expiredTableNames::contains)) {
+                    removeQueryStatus(cachedResultsQueryStatus);
+                    queriesRemoved++;
                 }
-                
-                if (cachedResultsQueryStatus.getView() != null) {
-                    cachedResultsQueryCache.removeQueryIdByViewLookup(cachedResultsQueryStatus.getView());
+            }
+            
+            // drop each of the expired tables, unless a remaining cached results query still uses it
+            // (a table which was reused by a later load is dropped once the views of every load which uses it have expired)
+            Set<String> tablesInUse = getTablesInUse(currentTimeMillis);
+            for (String tableName : expiredTables) {
+                if (tableName.startsWith("t") || tableName.startsWith("o") || tableName.startsWith("d")) {
+                    if (tablesInUse.contains(tableName)) {
+                        log.debug("Keeping expired table {}, which is still in use", tableName);
+                        tablesKept++;
+                    } else if (dropTable(cachedResultsQueryProperties.getStatementTemplates().getDropTable().replace(TABLE_PLACEHOLDER, tableName))) {
+                        tablesDropped++;
+                    }
                 }
-                
-                cachedResultsQueryCache.removeQueryStatus(cachedResultsQueryStatus.getDefinedQueryId());
             }
         }
+        
+        sweepEvent.commit((expiredTables != null) ? expiredTables.size() : 0, queriesRemoved, tablesDropped, tablesKept);
+    }
+    
+    private void removeQueryStatus(CachedResultsQueryStatus cachedResultsQueryStatus) {
+        if (cachedResultsQueryStatus.getState() == LOADING) {
+            try {
+                cachedResultsQueryService.cancel(cachedResultsQueryStatus.getDefinedQueryId(), cachedResultsQueryStatus.getCurrentUser());
+            } catch (QueryException e) {
+                log.warn("Unable to cancel cached results query: {}", cachedResultsQueryStatus.getDefinedQueryId(), e);
+            }
+        }
+        
+        if (cachedResultsQueryStatus.getAlias() != null) {
+            cachedResultsQueryCache.removeQueryIdByAliasLookup(cachedResultsQueryStatus.getAlias());
+        }
+        
+        if (cachedResultsQueryStatus.getView() != null) {
+            cachedResultsQueryCache.removeQueryIdByViewLookup(cachedResultsQueryStatus.getView());
+        }
+        
+        // later loads of the same query can't reuse tables which are about to be dropped
+        String fingerprint = cachedResultsQueryStatus.getFingerprint();
+        if (fingerprint != null && cachedResultsQueryStatus.getDefinedQueryId().equals(cachedResultsQueryCache.lookupQueryIdByFingerprint(fingerprint))) {
+            cachedResultsQueryCache.removeQueryIdByFingerprintLookup(fingerprint);
+        }
+        
+        cachedResultsQueryCache.removeQueryStatus(cachedResultsQueryStatus.getDefinedQueryId());
+    }
+    
+    // a query which failed or was canceled, or which hasn't been updated for longer than the tables live, no longer needs its tables
+    private boolean isStale(CachedResultsQueryStatus cachedResultsQueryStatus, long currentTimeMillis) {
+        if (cachedResultsQueryStatus.getState() == FAILED || cachedResultsQueryStatus.getState() == CANCELED) {
+            return true;
+        }
+        return currentTimeMillis - cachedResultsQueryStatus.getLastUpdatedMillis() > TimeUnit.DAYS.toMillis(cachedResultsQueryProperties.getDaysToLive());
+    }
+    
+    // the tables referenced by each of the remaining cached results queries which still needs them
+    private Set<String> getTablesInUse(long currentTimeMillis) {
+        Set<String> tablesInUse = new HashSet<>();
+        for (CachedResultsQueryStatus cachedResultsQueryStatus : cachedResultsQueryCache.getQueryStatuses()) {
+            if (!isStale(cachedResultsQueryStatus, currentTimeMillis)) {
+                tablesInUse.addAll(getTableNames(cachedResultsQueryStatus));
+            }
+        }
+        return tablesInUse;
+    }
+    
+    private List<String> getTableNames(CachedResultsQueryStatus cachedResultsQueryStatus) {
+        List<String> tableNames = new ArrayList<>();
+        if (cachedResultsQueryStatus.getTableName() != null) {
+            tableNames.add(cachedResultsQueryStatus.getTableName());
+        }
+        if (cachedResultsQueryStatus.getOverflowTableName() != null) {
+            tableNames.add(cachedResultsQueryStatus.getOverflowTableName());
+        }
+        if (cachedResultsQueryStatus.getDictionaryTableName() != null) {
+            tableNames.add(cachedResultsQueryStatus.getDictionaryTableName());
+        }
+        return tableNames;
+    }
+    
+    // returns true if the table was dropped
+    private boolean dropTable(String statement) {
+        try {
+            cachedResultsJdbcTemplate.execute(statement);
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Unable to drop expired table using statement: {}", statement, e);
+            return false;
+        }
     }
     
     private String listExpiredTablesAndViews() {
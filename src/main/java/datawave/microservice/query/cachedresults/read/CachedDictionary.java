@@ -0,0 +1,73 @@
+package datawave.microservice.query.cachedresults.read;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * The entries of a persisted markings dictionary which have been read so far.
+ *
+ * Dictionary ids are assigned in increasing order as entries are written, so a dictionary which is still being loaded is refreshed by only reading the
+ * entries with an id greater than the highest id which has already been read.
+ */
+public class CachedDictionary {
+    private final Map<Integer,String> values = new ConcurrentHashMap<>();
+    private final DictionaryReader dictionaryReader;
+    // a lock rather than a monitor, so that virtual threads aren't pinned while the dictionary is read
+    private final Lock refreshLock = new ReentrantLock();
+    private volatile int maxId = 0;
+    
+    /**
+     * Reads the entries of the dictionary table
+     */
+    public interface DictionaryReader {
+        /**
+         * Reads the entries with an id greater than the given id
+         *
+         * @param afterId
+         *            the highest id which has already been read
+         * @param entryConsumer
+         *            receives the id and value of each entry
+         */
+        void read(int afterId, BiConsumer<Integer,String> entryConsumer);
+    }
+    
+    /**
+     * @param dictionaryReader
+     *            reads the entries of the dictionary table, not null
+     */
+    public CachedDictionary(DictionaryReader dictionaryReader) {
+        this.dictionaryReader = dictionaryReader;
+    }
+    
+    public String get(int id) {
+        return values.get(id);
+    }
+    
+    /**
+     * Reads the entries which have been written since the dictionary was last read
+     */
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            int[] newMaxId = {maxId};
+            dictionaryReader.read(maxId, (id, value) -> {
+                values.put(id, value);
+                newMaxId[0] = Math.max(newMaxId[0], id);
+            });
+            maxId = newMaxId[0];
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+    
+    public int getMaxId() {
+        return maxId;
+    }
+    
+    public int size() {
+        return values.size();
+    }
+}
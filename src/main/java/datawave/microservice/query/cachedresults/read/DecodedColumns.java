@@ -0,0 +1,59 @@
+package datawave.microservice.query.cachedresults.read;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import datawave.webservice.query.cachedresults.CacheableQueryRow;
+
+/**
+ * The per-column markings or timestamps of a row, decoded from their compact encoding and keyed by column name.
+ *
+ * Rows tend to share their encodings, so each distinct encoding is decoded once, and the decoded columns are then applied directly to each row which uses
+ * it, rather than being rendered into the legacy format for the row reader to parse again.
+ */
+public class DecodedColumns {
+    private final Map<String,Map<String,String>> markings = new HashMap<>();
+    private final Map<String,String> visibilities = new HashMap<>();
+    private final Map<String,Long> timestamps = new HashMap<>();
+    
+    public void putMarkings(String columnName, Map<String,String> columnMarkings, String visibility) {
+        markings.put(columnName, columnMarkings);
+        visibilities.put(columnName, visibility);
+    }
+    
+    public void putTimestamp(String columnName, Long timestamp) {
+        timestamps.put(columnName, timestamp);
+    }
+    
+    /**
+     * Sets the markings and timestamps of each column of the row
+     *
+     * @param cacheableQueryRow
+     *            the row, not null
+     * @param decodedMarkings
+     *            the decoded column markings, or null to keep the markings the row was read with
+     * @param decodedTimestamps
+     *            the decoded column timestamps, or null to keep the timestamps the row was read with
+     */
+    public static void apply(CacheableQueryRow cacheableQueryRow, DecodedColumns decodedMarkings, DecodedColumns decodedTimestamps) {
+        List<Map.Entry<String,String>> columns = new ArrayList<>(cacheableQueryRow.getColumnValues().entrySet());
+        for (Map.Entry<String,String> column : columns) {
+            String columnName = column.getKey();
+            Map<String,String> columnMarkings;
+            String visibility;
+            if (decodedMarkings != null) {
+                // each row gets its own copy, since the decoded markings are shared by every row with the same encoding
+                Map<String,String> sharedMarkings = decodedMarkings.markings.get(columnName);
+                columnMarkings = (sharedMarkings != null) ? new HashMap<>(sharedMarkings) : new HashMap<>();
+                visibility = decodedMarkings.visibilities.get(columnName);
+            } else {
+                columnMarkings = cacheableQueryRow.getColumnMarkings(columnName);
+                visibility = cacheableQueryRow.getColumnVisibility(columnName);
+            }
+            Long timestamp = (decodedTimestamps != null) ? decodedTimestamps.timestamps.get(columnName) : cacheableQueryRow.getColumnTimestamp(columnName);
+            cacheableQueryRow.addColumn(columnName, column.getValue(), columnMarkings, visibility, timestamp);
+        }
+    }
+}
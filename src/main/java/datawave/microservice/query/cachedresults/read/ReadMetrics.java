@@ -0,0 +1,133 @@
+package datawave.microservice.query.cachedresults.read;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records the time spent in each stage of the create, update, and getRows requests, tagged by operation and query logic, and logs the requests which are
+ * slower than the configured threshold.
+ */
+public class ReadMetrics {
+    private static final Logger log = LoggerFactory.getLogger(ReadMetrics.class);
+    
+    public static final String CREATE = "create";
+    public static final String UPDATE = "update";
+    public static final String GET_ROWS = "getRows";
+    
+    public static final String OPERATION_TAG = "operation";
+    public static final String LOGIC_TAG = "logic";
+    public static final String STAGE_TAG = "stage";
+    
+    private static final String UNKNOWN_LOGIC = "unknown";
+    
+    private final MeterRegistry meterRegistry;
+    // the meters for each operation, logic, and stage, created when they are first seen
+    private final Map<List<String>,Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<List<String>,Timer> totalTimers = new ConcurrentHashMap<>();
+    private final Map<List<String>,Counter> rowCounters = new ConcurrentHashMap<>();
+    private final Map<List<String>,Counter> slowQueryCounters = new ConcurrentHashMap<>();
+    
+    /**
+     * @param meterRegistry
+     *            the registry for the read metrics, not null
+     */
+    public ReadMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Records the stages of a completed request, and logs the request if it was slow
+     *
+     * @param operation
+     *            the request, e.g. getRows
+     * @param logic
+     *            the query logic
+     * @param timings
+     *            the stage timings of the request
+     * @param numRows
+     *            the number of rows returned
+     * @param sqlQuery
+     *            the sql query which was run or generated, used to fingerprint slow requests
+     * @param slowQueryThresholdMillis
+     *            the time at or above which the request is logged, or 0 to never log the request
+     */
+    public void record(String operation, String logic, ReadTimings timings, int numRows, String sqlQuery, long slowQueryThresholdMillis) {
+        String logicTag = (logic != null) ? logic : UNKNOWN_LOGIC;
+        long elapsedNanos = timings.getElapsedNanos();
+        
+        for (Map.Entry<String,Long> entry : timings.getStageNanos().entrySet()) {
+            getStageTimer(operation, logicTag, entry.getKey()).record(entry.getValue(), TimeUnit.NANOSECONDS);
+        }
+        getTotalTimer(operation, logicTag).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (numRows > 0) {
+            getRowCounter(operation, logicTag).increment(numRows);
+        }
+        
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (slowQueryThresholdMillis > 0 && elapsedMillis >= slowQueryThresholdMillis) {
+            getSlowQueryCounter(operation, logicTag).increment();
+            log.warn("Slow {} for logic {} took {} ms for {} rows [{}], sql fingerprint: {}", operation, logicTag, elapsedMillis, numRows,
+                            timings.toServerTiming(), SqlFingerprint.normalize(sqlQuery));
+        }
+    }
+    
+    private Timer getStageTimer(String operation, String logic, String stage) {
+        return stageTimers.computeIfAbsent(Arrays.asList(operation, logic, stage), key -> {
+            // @formatter:off
+            return Timer.builder("cachedResults.read.stage")
+                    .description("The time spent in each stage of a cached results request")
+                    .tag(OPERATION_TAG, operation)
+                    .tag(LOGIC_TAG, logic)
+                    .tag(STAGE_TAG, stage)
+                    .register(meterRegistry);
+            // @formatter:on
+        });
+    }
+    
+    private Timer getTotalTimer(String operation, String logic) {
+        return totalTimers.computeIfAbsent(Arrays.asList(operation, logic), key -> {
+            // @formatter:off
+            return Timer.builder("cachedResults.read")
+                    .description("The time spent handling a cached results request")
+                    .tag(OPERATION_TAG, operation)
+                    .tag(LOGIC_TAG, logic)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            // @formatter:on
+        });
+    }
+    
+    private Counter getRowCounter(String operation, String logic) {
+        return rowCounters.computeIfAbsent(Arrays.asList(operation, logic), key -> {
+            // @formatter:off
+            return Counter.builder("cachedResults.read.rows")
+                    .description("The number of rows returned by cached results requests")
+                    .tag(OPERATION_TAG, operation)
+                    .tag(LOGIC_TAG, logic)
+                    .register(meterRegistry);
+            // @formatter:on
+        });
+    }
+    
+    private Counter getSlowQueryCounter(String operation, String logic) {
+        return slowQueryCounters.computeIfAbsent(Arrays.asList(operation, logic), key -> {
+            // @formatter:off
+            return Counter.builder("cachedResults.read.slow")
+                    .description("The number of cached results requests which were slower than the slow query threshold")
+                    .tag(OPERATION_TAG, operation)
+                    .tag(LOGIC_TAG, logic)
+                    .register(meterRegistry);
+            // @formatter:on
+        });
+    }
+}
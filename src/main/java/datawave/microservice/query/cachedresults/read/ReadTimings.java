@@ -0,0 +1,86 @@
+package datawave.microservice.query.cachedresults.read;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accumulates the time spent in each stage of a single create, update, or getRows request.
+ *
+ * Stages may be added more than once, e.g. once per row, in which case their times are summed. This is not thread safe, since each request is timed on its
+ * own thread.
+ */
+public class ReadTimings {
+    public static final String SQL = "sql";
+    public static final String CREATE_ROW = "createRow";
+    public static final String OBJECT_SIZE = "objectSize";
+    public static final String OVERFLOW = "overflow";
+    public static final String GET_QUERY_LOGIC = "getQueryLogic";
+    public static final String READ_FROM_CACHE = "readFromCache";
+    public static final String CREATE_RESPONSE = "createResponse";
+    public static final String GENERATE_SQL_QUERY = "generateSqlQuery";
+    public static final String AUDIT = "audit";
+    public static final String TOTAL = "total";
+    
+    private final long startNanos = System.nanoTime();
+    private final Map<String,Long> stageNanos = new LinkedHashMap<>();
+    
+    /**
+     * Adds time to the stage
+     *
+     * @param stage
+     *            the name of the stage
+     * @param nanos
+     *            the time spent in the stage
+     */
+    public void add(String stage, long nanos) {
+        stageNanos.merge(stage, nanos, Long::sum);
+    }
+    
+    /**
+     * Adds the time since the given start time to the stage
+     *
+     * @param stage
+     *            the name of the stage
+     * @param stageStartNanos
+     *            the value of {@link System#nanoTime()} when the stage started
+     * @return the current value of {@link System#nanoTime()}, which can be used as the start of the next stage
+     */
+    public long addSince(String stage, long stageStartNanos) {
+        long nanos = System.nanoTime();
+        add(stage, nanos - stageStartNanos);
+        return nanos;
+    }
+    
+    public Map<String,Long> getStageNanos() {
+        return Collections.unmodifiableMap(stageNanos);
+    }
+    
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+    
+    /**
+     * Formats the stages, followed by the total time so far, as a Server-Timing header value, e.g. {@code sql;dur=12.5, createRow;dur=3.1, total;dur=17.2}
+     *
+     * @return the Server-Timing value, with durations in milliseconds
+     */
+    public String toServerTiming() {
+        StringBuilder serverTiming = new StringBuilder();
+        for (Map.Entry<String,Long> entry : stageNanos.entrySet()) {
+            appendMetric(serverTiming, entry.getKey(), entry.getValue());
+        }
+        appendMetric(serverTiming, TOTAL, getElapsedNanos());
+        return serverTiming.toString();
+    }
+    
+    private static void appendMetric(StringBuilder serverTiming, String stage, long nanos) {
+        if (serverTiming.length() > 0) {
+            serverTiming.append(", ");
+        }
+        double millis = (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        serverTiming.append(stage).append(";dur=").append(String.format(Locale.ROOT, "%.3f", millis));
+    }
+}
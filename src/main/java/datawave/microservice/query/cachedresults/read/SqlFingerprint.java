@@ -0,0 +1,36 @@
+package datawave.microservice.query.cachedresults.read;
+
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes sql queries so that queries which differ only in their literal values, or in the view they read from, share a fingerprint.
+ */
+public class SqlFingerprint {
+    // the view and table names are generated from the query id
+    private static final Pattern GENERATED_NAME = Pattern.compile("\\b([vtod])[0-9a-fA-F]{32}\\b");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'|\"(?:[^\"\\\\]|\\\\.|\"\")*\"");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("(?<![\\w`])-?\\d+(?:\\.\\d+)?(?:[eE][-+]?\\d+)?\\b");
+    private static final Pattern VALUE_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    private SqlFingerprint() {}
+    
+    /**
+     * Replaces the literals and generated names in the sql query with placeholders, and collapses its whitespace
+     *
+     * @param sqlQuery
+     *            the sql query
+     * @return the normalized query, or null if the query is null
+     */
+    public static String normalize(String sqlQuery) {
+        if (sqlQuery == null) {
+            return null;
+        }
+        
+        String fingerprint = GENERATED_NAME.matcher(sqlQuery).replaceAll("$1?");
+        fingerprint = STRING_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = NUMERIC_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = VALUE_LIST.matcher(fingerprint).replaceAll("(?+)");
+        return WHITESPACE.matcher(fingerprint).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,207 @@
+package datawave.microservice.query.cachedresults.read;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Tokenizes and quotes the fields, conditions, grouping, and order of a create request, and checks the resulting sql query against the reserved statements and
+ * allowed functions.
+ */
+public class SqlQueryHelper {
+    private static final String BACKTICK = "`";
+    private static final String LPAREN = "(";
+    private static final String RPAREN = ")";
+    
+    private final List<String> reservedStatements;
+    private final List<String> allowedFunctions;
+    
+    /**
+     * @param reservedStatements
+     *            the patterns of upper case sql queries which are not allowed
+     * @param allowedFunctions
+     *            the patterns of the functions which are allowed
+     */
+    public SqlQueryHelper(List<String> reservedStatements, List<String> allowedFunctions) {
+        this.reservedStatements = reservedStatements;
+        this.allowedFunctions = allowedFunctions;
+    }
+    
+    /**
+     * Splits the fields on the separator, ignoring separators within parentheses
+     *
+     * @param fields
+     *            the fields
+     * @param c
+     *            the separator
+     * @return the trimmed, non-empty tokens
+     */
+    public static String[] tokenizeOutsideParens(String fields, char c) {
+        return tokenizeOutside(fields, new char[] {'(', ')'}, c);
+    }
+    
+    /**
+     * Splits the fields on the separator, ignoring separators between the left and right delimiters
+     *
+     * @param fields
+     *            the fields
+     * @param delimiters
+     *            the left and right delimiters
+     * @param c
+     *            the separator
+     * @return the trimmed, non-empty tokens, or the fields unsplit if the delimiters aren't a pair
+     */
+    public static String[] tokenizeOutside(String fields, char[] delimiters, char c) {
+        if (delimiters == null || delimiters.length != 2) {
+            return new String[] {fields};
+        }
+        char leftDelimiter = delimiters[0];
+        char rightDelimiter = delimiters[1];
+        List<String> result = new ArrayList<>();
+        int start = 0;
+        boolean inParens = false;
+        for (int current = 0; current < fields.length(); current++) {
+            char charAtCurrent = fields.charAt(current);
+            if (charAtCurrent == leftDelimiter) {
+                inParens = true;
+            }
+            if (charAtCurrent == rightDelimiter) {
+                inParens = false;
+            }
+            boolean atLastChar = (current == fields.length() - 1);
+            String trimmedSubstr = "";
+            if (atLastChar) {
+                trimmedSubstr = fields.substring(start).trim();
+            } else if (charAtCurrent == c && !inParens) {
+                trimmedSubstr = fields.substring(start, current).trim();
+                start = current + 1;
+            }
+            if (!trimmedSubstr.isEmpty()) {
+                result.add(trimmedSubstr);
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+    
+    /**
+     * Quotes the fields and functions within the order clause
+     *
+     * @param order
+     *            the order clause, may be null
+     * @param viewColumnNames
+     *            the columns of the view
+     * @return the quoted order clause, or null if there is nothing to order by
+     */
+    public String buildOrderClause(String order, Set<String> viewColumnNames) {
+        if (order != null) {
+            String[] commaSplit = tokenizeOutsideParens(order, ',');
+            StringBuilder out = new StringBuilder();
+            for (String s : commaSplit) {
+                // in case its a function with a direction, separate them
+                String[] spaceParsed = tokenizeOutsideParens(s, ' ');
+                if (out.length() > 0) {
+                    out.append(",");
+                }
+                for (int j = 0; j < spaceParsed.length; j++) {
+                    // get rid of incoming back-tics
+                    spaceParsed[j] = spaceParsed[j].replace("`", "").trim();
+                    spaceParsed[j] = quoteField(spaceParsed[j], viewColumnNames);
+                    if (j > 0) {
+                        out.append(" ");
+                    }
+                    out.append(spaceParsed[j]);
+                }
+            }
+            if (out.length() == 0) {
+                order = null;
+            } else {
+                order = out.toString();
+            }
+        }
+        return order;
+    }
+    
+    /**
+     * Checks the sql query against the reserved statements
+     *
+     * @param sqlQuery
+     *            the sql query
+     * @return true if the query doesn't match any of the reserved statements
+     */
+    public boolean isSqlSafe(String sqlQuery) {
+        boolean isSqlSafe = true;
+        String compareString = sqlQuery.toUpperCase();
+        
+        for (String b : reservedStatements) {
+            if (compareString.matches(b)) {
+                isSqlSafe = false;
+                break;
+            }
+        }
+        
+        return isSqlSafe;
+    }
+    
+    /**
+     * Ensures that identifiers (column names, etc) are quoted with backticks
+     *
+     * @param field
+     *            the field, or a function of fields
+     * @param viewColumnNames
+     *            the columns of the view, used to find the function arguments which need quoting
+     * @return the quoted field
+     */
+    public String quoteField(String field, Set<String> viewColumnNames) {
+        if (!field.equals("*") && field.contains(".")) {
+            if (isFunction(field)) {
+                if (!field.contains("(*)")) {
+                    // Parse the arguments to the function
+                    int startParen = field.lastIndexOf(LPAREN) + 1;
+                    int endParen = field.indexOf(RPAREN);
+                    String[] args = field.substring(startParen, endParen).split(",");
+                    for (String arg : args) {
+                        if (!arg.contains("'") && !arg.contains("\"")) {
+                            if (viewColumnNames != null && viewColumnNames.contains(arg)) {
+                                field = field.replaceAll(arg, BACKTICK + arg + BACKTICK);
+                            }
+                        }
+                    }
+                }
+                return field;
+            } else {
+                return BACKTICK + field + BACKTICK;
+            }
+        } else {
+            return field;
+        }
+    }
+    
+    /**
+     * Checks whether the field is a function call, and that the function is allowed
+     *
+     * @param field
+     *            the field
+     * @return true if the field is an allowed function
+     * @throws IllegalArgumentException
+     *             if the field is a function which isn't allowed
+     */
+    public boolean isFunction(String field) {
+        if (field.contains(LPAREN) && field.contains(RPAREN) && field.indexOf(LPAREN) > 0) {
+            boolean matches = false;
+            for (String pattern : allowedFunctions) {
+                matches = field.matches(pattern);
+                if (matches) {
+                    break;
+                }
+            }
+            if (!matches) {
+                throw new IllegalArgumentException(
+                                "Function not allowed. Allowed functions are: " + StringUtils.join(allowedFunctions, ","));
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -14,7 +14,7 @@ public class CachedResultsQueryStatus implements Serializable {
     private static final long serialVersionUID = -3172313455309782821L;
     
     public enum CACHED_RESULTS_STATE {
-        NONE, LOADING, LOADED, CREATING, CREATED, CANCELED, FAILED
+        NONE, LOADING, LOADED, CREATING, CREATED, CANCELED, FAILED, QUEUED
     }
     
     private CACHED_RESULTS_STATE state;
@@ -26,8 +26,14 @@ public class CachedResultsQueryStatus implements Serializable {
     private String runningQueryId;
     private Query query;
     private String tableName;
+    // the table holding oversized values, if any were written
+    private String overflowTableName;
+    // the table holding the markings dictionary, if the markings are dictionary encoded
+    private String dictionaryTableName;
     private String view;
     private Map<String,Integer> fieldIndexMap;
+    // the number of field columns in the table, when the table is dynamically sized
+    private int numColumns;
     private int rowsWritten;
     private String fields;
     private String conditions;
@@ -38,6 +44,20 @@ public class CachedResultsQueryStatus implements Serializable {
     private String sqlQuery;
     private ProxiedUserDetails currentUser;
     private long lastUpdatedMillis;
+    // the node running the load, and the last time it renewed its lease on the load
+    private String loadOwner;
+    private long heartbeatMillis;
+    // the load's checkpoint, used to resume the load if its owner stops heartbeating
+    private int pagesRequested;
+    private int pagesLoaded;
+    private int recoveryAttempts;
+    // whether the query was created over the provisional view while it was still loading
+    private boolean createdWhileLoading;
+    // identifies the results of the load, so that a later load of the same query can reuse its tables
+    private String fingerprint;
+    // the defined query whose tables were reused, if any, and the time at which those tables were loaded
+    private String reusedDefinedQueryId;
+    private long loadedMillis;
     
     public CachedResultsQueryStatus(String definedQueryId, String cachedQueryId, String alias, ProxiedUserDetails currentUser) {
         this.definedQueryId = definedQueryId;
@@ -120,6 +140,22 @@ public class CachedResultsQueryStatus implements Serializable {
         this.tableName = tableName;
     }
     
+    public String getOverflowTableName() {
+        return overflowTableName;
+    }
+    
+    public void setOverflowTableName(String overflowTableName) {
+        this.overflowTableName = overflowTableName;
+    }
+    
+    public String getDictionaryTableName() {
+        return dictionaryTableName;
+    }
+    
+    public void setDictionaryTableName(String dictionaryTableName) {
+        this.dictionaryTableName = dictionaryTableName;
+    }
+    
     public String getView() {
         return view;
     }
@@ -136,6 +172,14 @@ public class CachedResultsQueryStatus implements Serializable {
         this.fieldIndexMap = fieldIndexMap;
     }
     
+    public int getNumColumns() {
+        return numColumns;
+    }
+    
+    public void setNumColumns(int numColumns) {
+        this.numColumns = numColumns;
+    }
+    
     public int getRowsWritten() {
         return rowsWritten;
     }
@@ -144,6 +188,10 @@ public class CachedResultsQueryStatus implements Serializable {
         this.rowsWritten = rowsWritten;
     }
     
+    public synchronized void incrementRowsWritten(int numRows) {
+        this.rowsWritten += numRows;
+    }
+    
     public String getFields() {
         return fields;
     }
@@ -215,4 +263,84 @@ public class CachedResultsQueryStatus implements Serializable {
     public void setLastUpdatedMillis(long lastUpdatedMillis) {
         this.lastUpdatedMillis = lastUpdatedMillis;
     }
+    
+    public String getLoadOwner() {
+        return loadOwner;
+    }
+    
+    public void setLoadOwner(String loadOwner) {
+        this.loadOwner = loadOwner;
+    }
+    
+    public long getHeartbeatMillis() {
+        return heartbeatMillis;
+    }
+    
+    public void setHeartbeatMillis(long heartbeatMillis) {
+        this.heartbeatMillis = heartbeatMillis;
+    }
+    
+    public int getPagesRequested() {
+        return pagesRequested;
+    }
+    
+    public void setPagesRequested(int pagesRequested) {
+        this.pagesRequested = pagesRequested;
+    }
+    
+    public synchronized int incrementPagesRequested() {
+        return ++this.pagesRequested;
+    }
+    
+    public int getPagesLoaded() {
+        return pagesLoaded;
+    }
+    
+    public void setPagesLoaded(int pagesLoaded) {
+        this.pagesLoaded = pagesLoaded;
+    }
+    
+    public synchronized int incrementPagesLoaded() {
+        return ++this.pagesLoaded;
+    }
+    
+    public int getRecoveryAttempts() {
+        return recoveryAttempts;
+    }
+    
+    public void setRecoveryAttempts(int recoveryAttempts) {
+        this.recoveryAttempts = recoveryAttempts;
+    }
+    
+    public boolean isCreatedWhileLoading() {
+        return createdWhileLoading;
+    }
+    
+    public void setCreatedWhileLoading(boolean createdWhileLoading) {
+        this.createdWhileLoading = createdWhileLoading;
+    }
+    
+    public String getFingerprint() {
+        return fingerprint;
+    }
+    
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+    
+    public String getReusedDefinedQueryId() {
+        return reusedDefinedQueryId;
+    }
+    
+    public void setReusedDefinedQueryId(String reusedDefinedQueryId) {
+        this.reusedDefinedQueryId = reusedDefinedQueryId;
+    }
+    
+    public long getLoadedMillis() {
+        return loadedMillis;
+    }
+    
+    public void setLoadedMillis(long loadedMillis) {
+        this.loadedMillis = loadedMillis;
+    }
 }
@@ -1,5 +1,7 @@
 package datawave.microservice.query.cachedresults.status.cache;
 
+import java.util.List;
+
 import datawave.microservice.query.cachedresults.config.CachedResultsQueryProperties;
 import datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus;
 import datawave.microservice.query.cachedresults.status.cache.util.CacheUpdater;
@@ -13,17 +15,19 @@ public class CachedResultsQueryCache {
     private final DefinedQueryIdByCachedQueryIdCache definedQueryIdByCachedQueryIdCache;
     private final DefinedQueryIdByAliasCache definedQueryIdByAliasCache;
     private final DefinedQueryIdByViewCache definedQueryIdByViewCache;
+    private final DefinedQueryIdByFingerprintCache definedQueryIdByFingerprintCache;
     
     private LockedCacheUpdateUtil<CachedResultsQueryStatus> queryStatusLockedCacheUpdateUtil;
     
     public CachedResultsQueryCache(CachedResultsQueryProperties cachedResultsQueryProperties, CachedResultsQueryStatusCache queryStatusCache,
                     DefinedQueryIdByCachedQueryIdCache definedQueryIdByCachedQueryIdCache, DefinedQueryIdByAliasCache definedQueryIdByAliasCache,
-                    DefinedQueryIdByViewCache definedQueryIdByViewCache) {
+                    DefinedQueryIdByViewCache definedQueryIdByViewCache, DefinedQueryIdByFingerprintCache definedQueryIdByFingerprintCache) {
         this.cachedResultsQueryProperties = cachedResultsQueryProperties;
         this.queryStatusCache = queryStatusCache;
         this.definedQueryIdByCachedQueryIdCache = definedQueryIdByCachedQueryIdCache;
         this.definedQueryIdByAliasCache = definedQueryIdByAliasCache;
         this.definedQueryIdByViewCache = definedQueryIdByViewCache;
+        this.definedQueryIdByFingerprintCache = definedQueryIdByFingerprintCache;
         this.queryStatusLockedCacheUpdateUtil = new LockedCacheUpdateUtil<>(queryStatusCache);
     }
     
@@ -53,6 +57,10 @@ public class CachedResultsQueryCache {
         return queryStatusCache.get(definedQueryId);
     }
     
+    public List<CachedResultsQueryStatus> getQueryStatuses() {
+        return queryStatusCache.getAll();
+    }
+    
     public CachedResultsQueryStatus update(String definedQueryId, CachedResultsQueryStatus cachedResultsQueryStatus)
                     throws QueryException, InterruptedException {
         return queryStatusCache.update(definedQueryId, cachedResultsQueryStatus);
@@ -176,4 +184,19 @@ public class CachedResultsQueryCache {
     public void removeQueryIdByViewLookup(String view) {
         definedQueryIdByViewCache.remove(view);
     }
+    
+    public String putQueryIdByFingerprintLookup(String fingerprint, String definedQueryId) {
+        if (fingerprint != null) {
+            return definedQueryIdByFingerprintCache.update(fingerprint, definedQueryId);
+        }
+        return definedQueryId;
+    }
+    
+    public String lookupQueryIdByFingerprint(String fingerprint) {
+        return definedQueryIdByFingerprintCache.get(fingerprint);
+    }
+    
+    public void removeQueryIdByFingerprintLookup(String fingerprint) {
+        definedQueryIdByFingerprintCache.remove(fingerprint);
+    }
 }
@@ -1,5 +1,8 @@
 package datawave.microservice.query.cachedresults.status.cache;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheConfig;
@@ -30,6 +33,10 @@ public class CachedResultsQueryStatusCache extends LockableCache<CachedResultsQu
         return cacheInspector.list(CACHE_NAME, CachedResultsQueryStatus.class, definedQueryId);
     }
     
+    public List<CachedResultsQueryStatus> getAll() {
+        return new ArrayList<>(cacheInspector.listAll(CACHE_NAME, CachedResultsQueryStatus.class));
+    }
+    
     @Override
     @CachePut(key = "#definedQueryId")
     public CachedResultsQueryStatus update(String definedQueryId, CachedResultsQueryStatus cachedResultsQueryStatus) {
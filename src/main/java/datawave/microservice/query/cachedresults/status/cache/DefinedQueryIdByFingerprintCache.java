@@ -0,0 +1,40 @@
+package datawave.microservice.query.cachedresults.status.cache;
+
+import static datawave.microservice.query.cachedresults.status.cache.DefinedQueryIdByFingerprintCache.CACHE_NAME;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+
+import datawave.microservice.cached.LockableCacheInspector;
+
+@CacheConfig(cacheNames = CACHE_NAME)
+public class DefinedQueryIdByFingerprintCache extends LockableCache<String> {
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+    
+    public static final String CACHE_NAME = "definedQueryIdByFingerprintCache";
+    
+    public DefinedQueryIdByFingerprintCache(LockableCacheInspector cacheInspector) {
+        super(cacheInspector, CACHE_NAME);
+    }
+    
+    @Override
+    public String get(String fingerprint) {
+        return cacheInspector.list(CACHE_NAME, String.class, fingerprint);
+    }
+    
+    @Override
+    @CachePut(key = "#fingerprint")
+    public String update(String fingerprint, String queryId) {
+        return queryId;
+    }
+    
+    @CacheEvict(key = "#fingerprint")
+    public void remove(String fingerprint) {
+        if (log.isDebugEnabled()) {
+            log.debug("Evicting fingerprint {}", fingerprint);
+        }
+    }
+}
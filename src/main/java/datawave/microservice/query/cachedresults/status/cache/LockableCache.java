@@ -3,6 +3,7 @@ package datawave.microservice.query.cachedresults.status.cache;
 import java.util.concurrent.TimeUnit;
 
 import datawave.microservice.cached.LockableCacheInspector;
+import datawave.microservice.query.cachedresults.jfr.DistributedLockWaitEvent;
 
 public abstract class LockableCache<T> {
     protected final LockableCacheInspector cacheInspector;
@@ -17,28 +18,52 @@ public abstract class LockableCache<T> {
     
     public abstract T update(String key, T entry);
     
+    // each lock is recorded as a flight recorder event, so that waits on distributed locks can be seen alongside the local lock and gc profiling
     public void lock(String key) {
+        DistributedLockWaitEvent event = new DistributedLockWaitEvent();
+        event.begin();
         cacheInspector.lock(cacheName, key);
+        event.commit(cacheName, key, -1L, true);
     }
     
     public void lock(String key, long leaseTimeMillis) {
+        DistributedLockWaitEvent event = new DistributedLockWaitEvent();
+        event.begin();
         cacheInspector.lock(cacheName, key, leaseTimeMillis, TimeUnit.MILLISECONDS);
+        event.commit(cacheName, key, -1L, true);
     }
     
     public boolean tryLock(String key) {
-        return cacheInspector.tryLock(cacheName, key);
+        DistributedLockWaitEvent event = new DistributedLockWaitEvent();
+        event.begin();
+        boolean acquired = cacheInspector.tryLock(cacheName, key);
+        event.commit(cacheName, key, 0L, acquired);
+        return acquired;
     }
     
     public boolean tryLock(String key, long waitTimeMillis) {
+        DistributedLockWaitEvent event = new DistributedLockWaitEvent();
+        event.begin();
+        boolean acquired = false;
         try {
-            return cacheInspector.tryLock(cacheName, key, waitTimeMillis, TimeUnit.MILLISECONDS);
+            acquired = cacheInspector.tryLock(cacheName, key, waitTimeMillis, TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
-            return false;
+            // the lock was not acquired
         }
+        event.commit(cacheName, key, waitTimeMillis, acquired);
+        return acquired;
     }
     
     public boolean tryLock(String key, long waitTimeMillis, long leaseTimeMillis) throws InterruptedException {
-        return cacheInspector.tryLock(cacheName, key, waitTimeMillis, TimeUnit.MILLISECONDS, leaseTimeMillis, TimeUnit.MILLISECONDS);
+        DistributedLockWaitEvent event = new DistributedLockWaitEvent();
+        event.begin();
+        boolean acquired = false;
+        try {
+            acquired = cacheInspector.tryLock(cacheName, key, waitTimeMillis, TimeUnit.MILLISECONDS, leaseTimeMillis, TimeUnit.MILLISECONDS);
+        } finally {
+            event.commit(cacheName, key, waitTimeMillis, acquired);
+        }
+        return acquired;
     }
     
     public void unlock(String key) {
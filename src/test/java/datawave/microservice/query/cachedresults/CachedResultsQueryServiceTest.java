@@ -0,0 +1,506 @@
+package datawave.microservice.query.cachedresults;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+import org.apache.commons.collections4.Transformer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import datawave.core.query.cachedresults.CacheableLogic;
+import datawave.core.query.cachedresults.CacheableQueryRowImpl;
+import datawave.core.query.logic.QueryLogic;
+import datawave.core.query.logic.QueryLogicFactory;
+import datawave.microservice.query.QueryImpl;
+import datawave.microservice.query.cachedresults.config.CachedResultsQueryProperties;
+import datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus;
+import datawave.microservice.query.cachedresults.status.cache.CachedResultsQueryCache;
+import datawave.microservice.query.storage.QueryStatus;
+import datawave.microservice.query.storage.QueryStorageCache;
+import datawave.security.authorization.ProxiedUserDetails;
+import datawave.webservice.query.cachedresults.CacheableQueryRow;
+import datawave.webservice.result.GenericResponse;
+import datawave.webservice.result.VoidResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class CachedResultsQueryServiceTest {
+    private static final String TABLE_NAME = "t0123456789abcdef0123456789abcdef";
+    private static final int NUM_FIELDS = 4;
+    private static final List<String> FIELD_NAMES = Arrays.asList("FIELD_A", "FIELD_B", "FIELD_C", "FIELD_D");
+    
+    private CachedResultsQueryProperties properties;
+    private RecordingJdbcTemplate jdbcTemplate;
+    private CachedResultsQueryStatus status;
+    
+    // the collaborators used to resume a load, which are only needed by some of the tests
+    private RecordingQueryCache queryCache;
+    private List<String> queryServiceCalls;
+    private Map<String,QueryStatus> queryStatuses;
+    
+    @BeforeEach
+    public void setup() {
+        properties = new CachedResultsQueryProperties();
+        properties.setNumFields(NUM_FIELDS);
+        properties.getStatementTemplates().setCreateTableTemplate("CREATE TABLE IF NOT EXISTS template (%FIELD_DEFINITIONS%)");
+        properties.getStatementTemplates().setInsert("INSERT INTO %TABLE% (_fixed_, %PREPARED_FIELDS%) VALUES (?, %PREPARED_VALUES%)");
+        jdbcTemplate = new RecordingJdbcTemplate();
+        status = createStatus();
+    }
+    
+    @Test
+    public void testSparseInsertGroupsRowsBySignature() {
+        properties.getSparseInsert().setEnabled(true);
+        CachedResultsQueryService service = createService();
+        
+        // @formatter:off
+        List<CacheableQueryRow> rows = Arrays.asList(
+                createRow("event0", "FIELD_A", "FIELD_C"),
+                createRow("event1", "FIELD_B"),
+                createRow("event2", "FIELD_C", "FIELD_A"),
+                createRow("event3"),
+                createRow("event4", "FIELD_B"));
+        // @formatter:on
+        service.insertCacheableQueryRows(status, rows);
+        
+        // one batch per distinct set of populated columns, in the order the sets were first seen, regardless of the order of the row's columns
+        assertEquals(3, jdbcTemplate.statements.size());
+        assertEquals(Arrays.asList("event0", "event2"), jdbcTemplate.batches.get(0));
+        assertEquals(Arrays.asList("event1", "event4"), jdbcTemplate.batches.get(1));
+        assertEquals(Collections.singletonList("event3"), jdbcTemplate.batches.get(2));
+        
+        // each statement only references the populated columns
+        assertEquals("INSERT INTO " + TABLE_NAME + " (_fixed_, field0, field2) VALUES (?, ?, ?)", jdbcTemplate.statements.get(0));
+        assertEquals("INSERT INTO " + TABLE_NAME + " (_fixed_, field1) VALUES (?, ?)", jdbcTemplate.statements.get(1));
+        assertEquals("INSERT INTO " + TABLE_NAME + " (_fixed_) VALUES (?)", jdbcTemplate.statements.get(2));
+        
+        // and the values are bound to the parameters of their columns
+        int numFixedColumns = CacheableQueryRow.getFixedColumnSet().size();
+        assertEquals("event2_FIELD_A", jdbcTemplate.values.get("event2")[numFixedColumns + 1]);
+        assertEquals("event2_FIELD_C", jdbcTemplate.values.get("event2")[numFixedColumns + 2]);
+        assertEquals("event4_FIELD_B", jdbcTemplate.values.get("event4")[numFixedColumns + 1]);
+        
+        assertEquals(rows.size(), status.getRowsWritten());
+    }
+    
+    @Test
+    public void testFullInsertWritesOneBatch() {
+        CachedResultsQueryService service = createService();
+        
+        List<CacheableQueryRow> rows = Arrays.asList(createRow("event0", "FIELD_A", "FIELD_C"), createRow("event1", "FIELD_B"));
+        service.insertCacheableQueryRows(status, rows);
+        
+        assertEquals(1, jdbcTemplate.statements.size());
+        assertEquals(Arrays.asList("event0", "event1"), jdbcTemplate.batches.get(0));
+        
+        // the unpopulated columns are bound to null
+        int numFixedColumns = CacheableQueryRow.getFixedColumnSet().size();
+        assertEquals("event1_FIELD_B", jdbcTemplate.values.get("event1")[numFixedColumns + 2]);
+        assertEquals(RecordingJdbcTemplate.NULL, jdbcTemplate.values.get("event1")[numFixedColumns + 1]);
+        assertEquals(RecordingJdbcTemplate.NULL, jdbcTemplate.values.get("event1")[numFixedColumns + 3]);
+    }
+    
+    @Test
+    public void testBisectIsolatesTheBadRowWhenTheDriverStops() {
+        testBisectIsolatesTheBadRow(RecordingJdbcTemplate.Driver.STOP_ON_FAILURE);
+    }
+    
+    @Test
+    public void testBisectIsolatesTheBadRowWhenTheDriverContinues() {
+        testBisectIsolatesTheBadRow(RecordingJdbcTemplate.Driver.CONTINUE_ON_FAILURE);
+    }
+    
+    @Test
+    public void testBisectIsolatesTheBadRowWithoutUpdateCounts() {
+        testBisectIsolatesTheBadRow(RecordingJdbcTemplate.Driver.NO_UPDATE_COUNTS);
+    }
+    
+    private void testBisectIsolatesTheBadRow(RecordingJdbcTemplate.Driver driver) {
+        CachedResultsQueryService service = createBisectService(driver);
+        
+        List<CacheableQueryRow> rows = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            rows.add(createRow("event" + i, "FIELD_A"));
+        }
+        // the value is too long for the table until it is truncated on the row's first retry
+        rows.get(5).getColumnValues().put("FIELD_A", "x".repeat(90));
+        
+        service.insertCacheableQueryRows(status, rows);
+        
+        // every row is written exactly once, and only the bad row is truncated
+        List<String> written = new ArrayList<>(jdbcTemplate.written);
+        Collections.sort(written);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            expected.add("event" + i);
+        }
+        assertEquals(expected, written);
+        assertEquals(8, status.getRowsWritten());
+        
+        int numFixedColumns = CacheableQueryRow.getFixedColumnSet().size();
+        assertEquals("event0_FIELD_A", jdbcTemplate.values.get("event0")[numFixedColumns + 1]);
+        assertTrue(((String) jdbcTemplate.values.get("event5")[numFixedColumns + 1]).endsWith("<truncated>"));
+        
+        // and the bad row was retried on its own
+        assertTrue(jdbcTemplate.batches.contains(Collections.singletonList("event5")));
+    }
+    
+    @Test
+    public void testBisectFailsOnceTheBadRowRunsOutOfAttempts() {
+        CachedResultsQueryService service = createBisectService(RecordingJdbcTemplate.Driver.STOP_ON_FAILURE);
+        
+        List<CacheableQueryRow> rows = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            rows.add(createRow("event" + i, "FIELD_A"));
+        }
+        // the value can never be written, since it is still too long once it has been truncated
+        jdbcTemplate.failingEventIds.add("event2");
+        
+        assertThrows(DataAccessException.class, () -> service.insertCacheableQueryRows(status, rows));
+        
+        // the rows before the bad row were written, and the bad row was tried once per attempt
+        assertEquals(Arrays.asList("event0", "event1"), jdbcTemplate.written);
+        assertEquals(2, status.getRowsWritten());
+        assertEquals(properties.getMaxInsertAttempts(), Collections.frequency(jdbcTemplate.batches, Collections.singletonList("event2")));
+    }
+    
+    private CachedResultsQueryService createBisectService(RecordingJdbcTemplate.Driver driver) {
+        properties.setRetryStrategy(CachedResultsQueryProperties.RetryStrategy.BISECT);
+        properties.setMaxInsertAttempts(4);
+        properties.setMaxValueLength(100);
+        jdbcTemplate.driver = driver;
+        jdbcTemplate.maxValueLength = 80;
+        return createService();
+    }
+    
+    @Test
+    public void testResumeContinuesTheRunningQuery() throws Exception {
+        CachedResultsQueryService service = createResumeService();
+        queryStatuses.put("query1", createQueryStatus(QueryStatus.QUERY_STATE.CREATE));
+        
+        // every requested page was loaded, but more rows were written after the last checkpoint
+        status.setPagesRequested(3);
+        status.setPagesLoaded(3);
+        status.setRowsWritten(10);
+        jdbcTemplate.storedRowCount = 12;
+        
+        service.resumeQuery(status);
+        
+        // the running query is continued from where it left off, and the row count is taken from the table
+        assertEquals(Collections.emptyList(), queryServiceCalls);
+        assertEquals("query1", status.getRunningQueryId());
+        assertEquals(3, status.getPagesRequested());
+        assertEquals(3, status.getPagesLoaded());
+        assertEquals(12, status.getRowsWritten());
+        assertEquals(Collections.singletonList(status.getDefinedQueryId()), queryCache.updated);
+        
+        // so none of the rows of the next page are skipped
+        service.loadCacheableQueryRows(status, Arrays.asList(createRow("event0", "FIELD_A"), createRow("event1", "FIELD_A")));
+        assertEquals(Arrays.asList("event0", "event1"), jdbcTemplate.written);
+        assertEquals(14, status.getRowsWritten());
+    }
+    
+    @Test
+    public void testResumeDuplicatesTheQueryWhenPagesWereLost() throws Exception {
+        CachedResultsQueryService service = createResumeService();
+        queryStatuses.put("query1", createQueryStatus(QueryStatus.QUERY_STATE.CREATE));
+        queryStatuses.put("query2", createQueryStatus(QueryStatus.QUERY_STATE.CREATE));
+        
+        // the fourth page was requested, but never written
+        status.setPagesRequested(4);
+        status.setPagesLoaded(3);
+        status.setRowsWritten(2);
+        jdbcTemplate.storedRowCount = 3;
+        jdbcTemplate.storedEventIds = Arrays.asList("event0", "event1", "event2");
+        
+        service.resumeQuery(status);
+        
+        // the running query is replaced by a duplicate, whose page counts start from the pages which were loaded
+        assertEquals(Arrays.asList("close:query1", "duplicate:" + status.getDefinedQueryId()), queryServiceCalls);
+        assertEquals("query2", status.getRunningQueryId());
+        assertEquals(3, status.getPagesRequested());
+        assertEquals(3, status.getPagesLoaded());
+        assertEquals(3, status.getRowsWritten());
+        
+        // the duplicate starts over from the beginning, so the events which were already written are skipped
+        // @formatter:off
+        service.loadCacheableQueryRows(status, Arrays.asList(
+                createRow("event0", "FIELD_A"),
+                createRow("event1", "FIELD_A"),
+                createRow("event2", "FIELD_A"),
+                createRow("event3", "FIELD_A")));
+        // @formatter:on
+        assertEquals(Collections.singletonList("event3"), jdbcTemplate.written);
+        assertEquals(4, status.getRowsWritten());
+        
+        // and once they have been skipped, they are no longer remembered
+        service.loadCacheableQueryRows(status, Collections.singletonList(createRow("event4", "FIELD_A")));
+        assertEquals(Arrays.asList("event3", "event4"), jdbcTemplate.written);
+    }
+    
+    private CachedResultsQueryService createResumeService() {
+        properties.getStatementTemplates().setCountRows("SELECT COUNT(*) FROM %TABLE%");
+        properties.getStatementTemplates().setSelectEventIds("SELECT DISTINCT _eventId_ FROM %TABLE%");
+        status.setRunningQueryId("query1");
+        
+        queryCache = new RecordingQueryCache();
+        queryServiceCalls = new ArrayList<>();
+        queryStatuses = new HashMap<>();
+        
+        QueryService queryService = proxy(QueryService.class, (method, args) -> {
+            switch (method.getName()) {
+                case "close":
+                    queryServiceCalls.add("close:" + args[0]);
+                    return new VoidResponse();
+                case "duplicate":
+                    queryServiceCalls.add("duplicate:" + args[0]);
+                    GenericResponse<String> response = new GenericResponse<>();
+                    response.setResult("query2");
+                    return response;
+                default:
+                    return null;
+            }
+        });
+        QueryStorageCache queryStorageCache = proxy(QueryStorageCache.class,
+                        (method, args) -> method.getName().equals("getQueryStatus") ? queryStatuses.get(args[0]) : null);
+        Object transformer = Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Transformer.class, CacheableLogic.class},
+                        (proxy, method, args) -> null);
+        QueryLogic<?> queryLogic = proxy(QueryLogic.class, (method, args) -> method.getName().equals("getTransformer") ? transformer : null);
+        QueryLogicFactory queryLogicFactory = proxy(QueryLogicFactory.class, (method, args) -> method.getName().equals("getQueryLogic") ? queryLogic : null);
+        
+        return new CachedResultsQueryService(properties, jdbcTemplate, queryCache, null, queryService, null, null, queryLogicFactory, queryStorageCache, null,
+                        null, null, new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    }
+    
+    private static QueryStatus createQueryStatus(QueryStatus.QUERY_STATE queryState) {
+        QueryStatus queryStatus = new QueryStatus();
+        queryStatus.setQuery(new QueryImpl());
+        queryStatus.setQueryState(queryState);
+        return queryStatus;
+    }
+    
+    // creates a proxy for the interface, which handles every method other than hashCode, equals, and toString
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, BiFunction<Method,Object[],Object> handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName();
+                default:
+                    return handler.apply(method, args);
+            }
+        });
+    }
+    
+    private CachedResultsQueryService createService() {
+        return new CachedResultsQueryService(properties, jdbcTemplate, null, null, null, null, null, null, null, null, null, null,
+                        new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    }
+    
+    private static CachedResultsQueryStatus createStatus() {
+        CachedResultsQueryStatus status = new CachedResultsQueryStatus("0123456789abcdef0123456789abcdef", null, null, createUser());
+        status.setQueryLogicName("EventQuery");
+        status.setTableName(TABLE_NAME);
+        
+        Map<String,Integer> fieldIndexMap = new ConcurrentHashMap<>();
+        int columnNumber = CacheableQueryRow.getFixedColumnSet().size();
+        for (String fieldName : FIELD_NAMES) {
+            fieldIndexMap.put(fieldName, ++columnNumber);
+        }
+        status.setFieldIndexMap(fieldIndexMap);
+        return status;
+    }
+    
+    private static CacheableQueryRow createRow(String eventId, String... fieldNames) {
+        Map<String,String> markings = Collections.singletonMap("columnVisibility", "PUBLIC");
+        CacheableQueryRowImpl row = new CacheableQueryRowImpl();
+        row.setDataType("datatype");
+        row.setEventId(eventId);
+        row.setRow("20240101_0");
+        row.setColFam("datatype\u0000" + eventId);
+        row.setMarkings(markings);
+        for (String fieldName : fieldNames) {
+            row.addColumn(fieldName, eventId + "_" + fieldName, markings, "PUBLIC", 1704067200000L);
+        }
+        return row;
+    }
+    
+    private static ProxiedUserDetails createUser() {
+        return (ProxiedUserDetails) Proxy.newProxyInstance(ProxiedUserDetails.class.getClassLoader(), new Class<?>[] {ProxiedUserDetails.class},
+                        (proxy, method, args) -> {
+                            switch (method.getName()) {
+                                case "getShortName":
+                                case "toString":
+                                    return "testuser";
+                                case "hashCode":
+                                    return System.identityHashCode(proxy);
+                                case "equals":
+                                    return proxy == args[0];
+                                default:
+                                    return null;
+                            }
+                        });
+    }
+    
+    /**
+     * Keeps track of the statuses which were updated, without a distributed cache
+     */
+    private static class RecordingQueryCache extends CachedResultsQueryCache {
+        final List<String> updated = new ArrayList<>();
+        
+        RecordingQueryCache() {
+            super(new CachedResultsQueryProperties(), null, null, null, null, null);
+        }
+        
+        @Override
+        public CachedResultsQueryStatus update(String definedQueryId, CachedResultsQueryStatus cachedResultsQueryStatus) {
+            updated.add(definedQueryId);
+            return cachedResultsQueryStatus;
+        }
+    }
+    
+    /**
+     * Binds each batch of rows without a database, keeping the statements, the event ids of each batch, and the values bound for each event.
+     *
+     * Rows with values longer than the maximum value length, or with a failing event id, are rejected the way the given driver would reject them.
+     */
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+        static final Object NULL = new Object();
+        
+        enum Driver {
+            // stops at the first failed row, returning the update counts of the rows before it
+            STOP_ON_FAILURE,
+            // continues past failed rows, returning an update count for every row
+            CONTINUE_ON_FAILURE,
+            // rejects the whole batch without any update counts
+            NO_UPDATE_COUNTS
+        }
+        
+        Driver driver = Driver.STOP_ON_FAILURE;
+        int maxValueLength = Integer.MAX_VALUE;
+        final List<String> failingEventIds = new ArrayList<>();
+        
+        final List<String> statements = new ArrayList<>();
+        final List<List<String>> batches = new ArrayList<>();
+        final Map<String,Object[]> values = new ConcurrentHashMap<>();
+        // the event ids of the rows which were actually written
+        final List<String> written = new ArrayList<>();
+        // what a resumed load finds in the table
+        List<String> storedEventIds = Collections.emptyList();
+        int storedRowCount;
+        
+        @Override
+        public void execute(String sql) {
+            // the table template is created when the service is constructed
+        }
+        
+        @Override
+        public <T> List<T> queryForList(String sql, Class<T> elementType) throws DataAccessException {
+            List<T> results = new ArrayList<>();
+            for (String eventId : storedEventIds) {
+                results.add(elementType.cast(eventId));
+            }
+            return results;
+        }
+        
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType) throws DataAccessException {
+            return requiredType.cast(storedRowCount);
+        }
+        
+        @Override
+        public int[] batchUpdate(String sql, BatchPreparedStatementSetter pss) throws DataAccessException {
+            List<String> eventIds = new ArrayList<>();
+            for (int i = 0; i < pss.getBatchSize(); i++) {
+                Object[] rowValues = new Object[CacheableQueryRow.getFixedColumnSet().size() + NUM_FIELDS + 1];
+                try {
+                    pss.setValues(createPreparedStatement(rowValues), i);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+                String eventId = (String) rowValues[5];
+                eventIds.add(eventId);
+                values.put(eventId, rowValues);
+            }
+            statements.add(sql);
+            batches.add(eventIds);
+            
+            int[] updateCounts = new int[eventIds.size()];
+            int numFailed = 0;
+            for (int i = 0; i < eventIds.size(); i++) {
+                String eventId = eventIds.get(i);
+                if (isRejected(eventId)) {
+                    updateCounts[i] = Statement.EXECUTE_FAILED;
+                    numFailed++;
+                    if (driver == Driver.STOP_ON_FAILURE) {
+                        throw createFailure(Arrays.copyOf(updateCounts, i));
+                    }
+                } else {
+                    updateCounts[i] = 1;
+                    if (driver != Driver.NO_UPDATE_COUNTS) {
+                        written.add(eventId);
+                    }
+                }
+            }
+            
+            if (numFailed > 0) {
+                throw createFailure((driver == Driver.CONTINUE_ON_FAILURE) ? updateCounts : null);
+            } else if (driver == Driver.NO_UPDATE_COUNTS) {
+                written.addAll(eventIds);
+            }
+            return updateCounts;
+        }
+        
+        private boolean isRejected(String eventId) {
+            Object[] rowValues = values.get(eventId);
+            for (Object value : rowValues) {
+                if (value instanceof String && ((String) value).length() > maxValueLength) {
+                    return true;
+                }
+            }
+            return failingEventIds.contains(eventId);
+        }
+        
+        private static DataAccessException createFailure(int[] updateCounts) {
+            SQLException cause = (updateCounts != null) ? new BatchUpdateException("Data too long", updateCounts) : new SQLException("Data too long");
+            return new DataIntegrityViolationException("Batch write failed", cause);
+        }
+        
+        private static PreparedStatement createPreparedStatement(Object[] values) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                            (proxy, method, args) -> {
+                                if (method.getName().equals("setString")) {
+                                    values[(Integer) args[0]] = args[1];
+                                } else if (method.getName().equals("setNull")) {
+                                    values[(Integer) args[0]] = NULL;
+                                }
+                                return null;
+                            });
+        }
+    }
+}
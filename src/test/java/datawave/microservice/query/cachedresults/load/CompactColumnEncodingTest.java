@@ -0,0 +1,98 @@
+package datawave.microservice.query.cachedresults.load;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+public class CompactColumnEncodingTest {
+    
+    @Test
+    public void testMarkingsRoundTrip() {
+        int[] columnNumbers = {11, 12, 13, 140, 900, 16384, 2097152, Integer.MAX_VALUE};
+        int[] markingIds = {1, 0, 1, 127, 128, 0, 300000, Integer.MAX_VALUE};
+        int[] visibilityIds = {0, 2, 3, 0, 16383, 16384, 1, 5};
+        
+        String encoded = CompactColumnEncoding.encodeMarkings(columnNumbers, markingIds, visibilityIds);
+        assertTrue(CompactColumnEncoding.isEncoded(encoded));
+        
+        CompactColumnEncoding.Columns columns = CompactColumnEncoding.decode(encoded);
+        assertTrue(columns.isMarkings());
+        assertArrayEquals(columnNumbers, columns.getColumnNumbers());
+        assertArrayEquals(markingIds, columns.getMarkingIds());
+        assertArrayEquals(visibilityIds, columns.getVisibilityIds());
+        assertNull(columns.getTimestamps());
+    }
+    
+    @Test
+    public void testTimestampsRoundTrip() {
+        int[] columnNumbers = {11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 1000000};
+        // includes nulls, repeated values, and negative deltas
+        Long[] timestamps = {1700000000000L, null, 1600000000000L, 1600000000000L, null, 1700000000001L, 0L, -5L, 1L, null, 1699999999999L};
+        
+        assertTimestampsRoundTrip(columnNumbers, timestamps);
+    }
+    
+    @Test
+    public void testExtremeTimestamps() {
+        int[] columnNumbers = {11, 12, 13, 14, 15, 16};
+        Long[] timestamps = {Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE, -1L, Long.MIN_VALUE, 0L};
+        
+        assertTimestampsRoundTrip(columnNumbers, timestamps);
+    }
+    
+    @Test
+    public void testNullTimestamps() {
+        assertTimestampsRoundTrip(new int[] {11, 12, 13}, new Long[] {null, null, null});
+        assertTimestampsRoundTrip(new int[] {11, 12, 13, 14, 15, 16, 17, 18, 19}, new Long[] {null, null, null, null, null, null, null, null, 42L});
+    }
+    
+    @Test
+    public void testNoColumns() {
+        CompactColumnEncoding.Columns markings = CompactColumnEncoding.decode(CompactColumnEncoding.encodeMarkings(new int[0], new int[0], new int[0]));
+        assertTrue(markings.isMarkings());
+        assertArrayEquals(new int[0], markings.getColumnNumbers());
+        
+        assertTimestampsRoundTrip(new int[0], new Long[0]);
+    }
+    
+    @Test
+    public void testNotEncoded() {
+        assertFalse(CompactColumnEncoding.isEncoded(null));
+        assertFalse(CompactColumnEncoding.isEncoded("FIELD_1:PUBLIC,FIELD_2:PRIVATE"));
+        assertFalse(CompactColumnEncoding.isEncoded("<compact" + CompactColumnEncoding.VERSION + ":AQ"));
+        assertThrows(IllegalArgumentException.class, () -> CompactColumnEncoding.decode("FIELD_1:PUBLIC"));
+    }
+    
+    @Test
+    public void testUnsupportedVersion() {
+        // a value with the current prefix, but a different version byte
+        String payload = Base64.getEncoder().encodeToString(new byte[] {(byte) (CompactColumnEncoding.VERSION + 1), 'M', 0});
+        String encoded = "<compact" + CompactColumnEncoding.VERSION + ":" + payload + ">";
+        assertThrows(IllegalArgumentException.class, () -> CompactColumnEncoding.decode(encoded));
+    }
+    
+    @Test
+    public void testEncodingIsText() {
+        String encoded = CompactColumnEncoding.encodeTimestamps(new int[] {11, 500}, new Long[] {1700000000000L, null});
+        // the encoding is stored in the existing text columns, so it must be printable ascii
+        assertTrue(encoded.chars().allMatch(c -> c >= 0x20 && c < 0x7F));
+    }
+    
+    private static void assertTimestampsRoundTrip(int[] columnNumbers, Long[] timestamps) {
+        String encoded = CompactColumnEncoding.encodeTimestamps(columnNumbers, timestamps);
+        assertTrue(CompactColumnEncoding.isEncoded(encoded));
+        
+        CompactColumnEncoding.Columns columns = CompactColumnEncoding.decode(encoded);
+        assertFalse(columns.isMarkings());
+        assertArrayEquals(columnNumbers, columns.getColumnNumbers());
+        assertArrayEquals(timestamps, columns.getTimestamps());
+        assertNull(columns.getMarkingIds());
+        assertNull(columns.getVisibilityIds());
+    }
+}
@@ -0,0 +1,60 @@
+package datawave.microservice.query.cachedresults.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.scope.ScopedObject;
+import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.RequestScope;
+
+public class DetachedRequestAttributesTest {
+    
+    @Test
+    public void testCreatesConfiguredBeansOutsideOfARequest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerScope(WebApplicationContext.SCOPE_REQUEST, new RequestScope());
+        
+        // registered the same way as a @RequestScope bean method
+        RootBeanDefinition beanDefinition = new RootBeanDefinition(Marking.class, () -> {
+            Marking marking = new Marking();
+            marking.getValues().add("configured");
+            return marking;
+        });
+        beanDefinition.setScope(WebApplicationContext.SCOPE_REQUEST);
+        BeanDefinitionHolder scopedProxyDefinition = ScopedProxyUtils.createScopedProxy(new BeanDefinitionHolder(beanDefinition, "marking"), beanFactory, true);
+        beanFactory.registerBeanDefinition(scopedProxyDefinition.getBeanName(), scopedProxyDefinition.getBeanDefinition());
+        
+        Marking scopedProxy = beanFactory.getBean(Marking.class);
+        assertTrue(scopedProxy instanceof ScopedObject);
+        
+        Marking marking = DetachedRequestAttributes.createTarget((ScopedObject) scopedProxy, Marking.class);
+        Marking otherMarking = DetachedRequestAttributes.createTarget((ScopedObject) scopedProxy, Marking.class);
+        
+        // each call gets a new instance, configured by the bean's definition
+        assertNotSame(marking, otherMarking);
+        assertEquals(List.of("configured"), marking.getValues());
+        assertEquals(List.of("configured"), otherMarking.getValues());
+        
+        // and the thread is left outside of a request
+        assertNull(RequestContextHolder.getRequestAttributes());
+    }
+    
+    public static class Marking {
+        private final List<String> values = new ArrayList<>();
+        
+        public List<String> getValues() {
+            return values;
+        }
+    }
+}
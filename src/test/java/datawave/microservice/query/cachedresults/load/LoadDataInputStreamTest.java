@@ -0,0 +1,142 @@
+package datawave.microservice.query.cachedresults.load;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class LoadDataInputStreamTest {
+    
+    @Test
+    public void testEscape() {
+        assertEquals("a\\\\b", LoadDataInputStream.escape("a\\b"));
+        assertEquals("a\\tb", LoadDataInputStream.escape("a\tb"));
+        assertEquals("a\\nb", LoadDataInputStream.escape("a\nb"));
+        assertEquals("a\\rb", LoadDataInputStream.escape("a\rb"));
+        assertEquals("a\\0b", LoadDataInputStream.escape("a\0b"));
+        assertEquals("\\\\\\t\\n\\r\\0", LoadDataInputStream.escape("\\\t\n\r\0"));
+    }
+    
+    @Test
+    public void testEscapeWithoutSpecialCharacters() {
+        String value = "plain value, with 'quotes' and \"double quotes\"";
+        assertSame(value, LoadDataInputStream.escape(value));
+    }
+    
+    @Test
+    public void testEncodeNulls() {
+        byte[] encoded = LoadDataInputStream.encode(Arrays.asList("a", null, "", "\\N"));
+        // a null is \N, while a literal \N has its backslash escaped
+        assertEquals("a\t\\N\t\t\\\\N\n", new String(encoded, StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    public void testRoundTrip() {
+        List<List<String>> records = new ArrayList<>();
+        records.add(Arrays.asList("user", "plain", "", null));
+        records.add(Arrays.asList("back\\slash", "tab\there", "new\nline", "carriage\rreturn"));
+        records.add(Arrays.asList("nul\0char", "\\N", "N", "\\"));
+        records.add(Arrays.asList("trailing\t", "\n", "\r\n", "\\\\t"));
+        records.add(Arrays.asList("unicode \u00e9\u4e2d\ud83d\ude00", null, null, "end"));
+        
+        LoadDataInputStream inputStream = new LoadDataInputStream(records.iterator());
+        byte[] bytes = readFully(inputStream, 7);
+        
+        assertEquals(records, parse(bytes));
+        assertEquals(bytes.length, inputStream.getBytesRead());
+    }
+    
+    @Test
+    public void testSingleByteReads() {
+        List<List<String>> records = Arrays.asList(Arrays.asList("a\tb", null), Arrays.asList("\u00e9", "c\\d"));
+        
+        LoadDataInputStream inputStream = new LoadDataInputStream(records.iterator());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int b;
+        while ((b = inputStream.read()) != -1) {
+            out.write(b);
+        }
+        
+        assertEquals(records, parse(out.toByteArray()));
+        assertEquals(out.size(), inputStream.getBytesRead());
+    }
+    
+    @Test
+    public void testNoRecords() {
+        LoadDataInputStream inputStream = new LoadDataInputStream(Collections.<List<String>> emptyIterator());
+        assertEquals(-1, inputStream.read());
+        assertEquals(-1, inputStream.read(new byte[8], 0, 8));
+        assertEquals(0, inputStream.getBytesRead());
+    }
+    
+    @Test
+    public void testEncodeMatchesStream() {
+        List<String> record = Arrays.asList("x\ty", null, "z");
+        byte[] bytes = readFully(new LoadDataInputStream(Collections.singletonList(record).iterator()), 1024);
+        assertArrayEquals(LoadDataInputStream.encode(record), bytes);
+    }
+    
+    private static byte[] readFully(LoadDataInputStream inputStream, int chunkSize) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[chunkSize];
+        int numBytes;
+        while ((numBytes = inputStream.read(chunk, 0, chunk.length)) != -1) {
+            out.write(chunk, 0, numBytes);
+        }
+        return out.toByteArray();
+    }
+    
+    // parses the stream the way LOAD DATA does with FIELDS TERMINATED BY '\t' ESCAPED BY '\\' LINES TERMINATED BY '\n'
+    private static List<List<String>> parse(byte[] bytes) {
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean nullField = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                char escaped = text.charAt(++i);
+                switch (escaped) {
+                    case 'N':
+                        nullField = true;
+                        break;
+                    case 't':
+                        field.append('\t');
+                        break;
+                    case 'n':
+                        field.append('\n');
+                        break;
+                    case 'r':
+                        field.append('\r');
+                        break;
+                    case '0':
+                        field.append('\0');
+                        break;
+                    default:
+                        field.append(escaped);
+                }
+            } else if (c == '\t' || c == '\n') {
+                record.add(nullField ? null : field.toString());
+                field.setLength(0);
+                nullField = false;
+                if (c == '\n') {
+                    records.add(record);
+                    record = new ArrayList<>();
+                }
+            } else {
+                field.append(c);
+            }
+        }
+        assertEquals(0, field.length(), "The last record was not terminated");
+        return records;
+    }
+}
@@ -0,0 +1,157 @@
+package datawave.microservice.query.cachedresults.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LoadPipelineTest {
+    private static final long TIMEOUT_MILLIS = 10000L;
+    
+    private ExecutorService executor;
+    
+    @BeforeEach
+    public void setup() {
+        executor = Executors.newCachedThreadPool();
+    }
+    
+    @AfterEach
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    public void testSingleWriterWritesPagesInOrder() throws Exception {
+        LoadPipeline<Integer> pipeline = new LoadPipeline<>(executor, 2, 1, TIMEOUT_MILLIS);
+        List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+        
+        pipeline.run(pages(10), written::addAll);
+        
+        assertEquals(expected(10), written);
+    }
+    
+    @Test
+    public void testMultipleWritersWriteEveryPage() throws Exception {
+        LoadPipeline<Integer> pipeline = new LoadPipeline<>(executor, 2, 3, TIMEOUT_MILLIS);
+        List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+        
+        pipeline.run(pages(20), written::addAll);
+        
+        List<Integer> sorted = new ArrayList<>(written);
+        Collections.sort(sorted);
+        assertEquals(expected(20), sorted);
+    }
+    
+    @Test
+    public void testFetcherBlocksWhenTheBufferIsFull() throws Exception {
+        int depth = 2;
+        LoadPipeline<Integer> pipeline = new LoadPipeline<>(executor, depth, 1, TIMEOUT_MILLIS);
+        AtomicInteger fetched = new AtomicInteger();
+        CountDownLatch writerStarted = new CountDownLatch(1);
+        CountDownLatch releaseWriter = new CountDownLatch(1);
+        List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+        
+        LoadPipeline.PageFetcher<Integer> fetcher = pages(10);
+        Future<?> run = executor.submit(() -> {
+            pipeline.run(() -> {
+                List<Integer> page = fetcher.fetch();
+                if (page != null) {
+                    fetched.incrementAndGet();
+                }
+                return page;
+            }, page -> {
+                writerStarted.countDown();
+                releaseWriter.await();
+                written.addAll(page);
+            });
+            return null;
+        });
+        
+        assertTrue(writerStarted.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        Thread.sleep(500L);
+        
+        // one page is held by the writer, the buffer is full, and the fetcher is blocked trying to add one more
+        assertEquals(depth + 2, fetched.get());
+        
+        releaseWriter.countDown();
+        run.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertEquals(10, fetched.get());
+        assertEquals(expected(10), written);
+    }
+    
+    @Test
+    public void testWriterFailureIsRethrown() {
+        LoadPipeline<Integer> pipeline = new LoadPipeline<>(executor, 2, 1, TIMEOUT_MILLIS);
+        AtomicInteger fetched = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException("write failed");
+        
+        LoadPipeline.PageFetcher<Integer> fetcher = pages(100);
+        Exception e = assertThrows(Exception.class, () -> pipeline.run(() -> {
+            fetched.incrementAndGet();
+            return fetcher.fetch();
+        }, page -> {
+            throw failure;
+        }));
+        
+        assertSame(failure, e);
+        // the fetcher stops soon after the writer fails
+        assertTrue(fetched.get() < 100);
+    }
+    
+    @Test
+    public void testFetcherFailureStopsTheWriters() throws Exception {
+        LoadPipeline<Integer> pipeline = new LoadPipeline<>(executor, 2, 2, TIMEOUT_MILLIS);
+        IllegalStateException failure = new IllegalStateException("fetch failed");
+        AtomicInteger written = new AtomicInteger();
+        
+        LoadPipeline.PageFetcher<Integer> fetcher = pages(5);
+        Exception e = assertThrows(Exception.class, () -> pipeline.run(() -> {
+            List<Integer> page = fetcher.fetch();
+            if (page == null) {
+                throw failure;
+            }
+            return page;
+        }, page -> {
+            Thread.sleep(50L);
+            written.incrementAndGet();
+        }));
+        
+        assertSame(failure, e);
+        
+        // nothing is written once the failure has been rethrown
+        int writtenOnFailure = written.get();
+        Thread.sleep(500L);
+        assertEquals(writtenOnFailure, written.get());
+    }
+    
+    // returns a fetcher for the given number of single row pages, numbered from zero
+    private static LoadPipeline.PageFetcher<Integer> pages(int numPages) {
+        AtomicInteger nextPage = new AtomicInteger();
+        return () -> {
+            int page = nextPage.getAndIncrement();
+            return (page < numPages) ? Collections.singletonList(page) : null;
+        };
+    }
+    
+    private static List<Integer> expected(int numPages) {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < numPages; i++) {
+            expected.add(i);
+        }
+        return expected;
+    }
+}
@@ -0,0 +1,148 @@
+package datawave.microservice.query.cachedresults.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LoadSchedulerTest {
+    
+    private MeterRegistry meterRegistry;
+    // the ids of the started loads, in the order they were started, and the callbacks which complete them
+    private List<String> started;
+    private Map<String,Runnable> completions;
+    
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        started = new ArrayList<>();
+        completions = new HashMap<>();
+    }
+    
+    @Test
+    public void testGlobalLimitQueuesLoads() {
+        LoadScheduler scheduler = new LoadScheduler(2, 0, meterRegistry);
+        submit(scheduler, "load1", "alice", 0);
+        submit(scheduler, "load2", "bob", 0);
+        submit(scheduler, "load3", "carol", 0);
+        
+        assertEquals(Arrays.asList("load1", "load2"), started);
+        assertEquals(2, scheduler.getRunningLoads());
+        assertEquals(1, scheduler.getQueuedLoads());
+        
+        // completing a load starts the next queued load
+        complete("load1");
+        assertEquals(Arrays.asList("load1", "load2", "load3"), started);
+        assertEquals(2, scheduler.getRunningLoads());
+        assertEquals(0, scheduler.getQueuedLoads());
+        
+        complete("load2");
+        complete("load3");
+        assertEquals(0, scheduler.getRunningLoads());
+        
+        // the gauges report the scheduler's state
+        assertEquals(0.0, meterRegistry.get("cachedResults.load.running").gauge().value());
+        assertEquals(0.0, meterRegistry.get("cachedResults.load.queued").gauge().value());
+    }
+    
+    @Test
+    public void testPerUserLimitLetsOtherUsersRun() {
+        LoadScheduler scheduler = new LoadScheduler(0, 1, meterRegistry);
+        submit(scheduler, "alice1", "alice", 0);
+        submit(scheduler, "alice2", "alice", 0);
+        submit(scheduler, "bob1", "bob", 0);
+        
+        // alice's second load waits for her first, while bob's load starts right away
+        assertEquals(Arrays.asList("alice1", "bob1"), started);
+        assertEquals(1, scheduler.getQueuedLoads());
+        
+        complete("bob1");
+        assertEquals(Arrays.asList("alice1", "bob1"), started);
+        
+        complete("alice1");
+        assertEquals(Arrays.asList("alice1", "bob1", "alice2"), started);
+    }
+    
+    @Test
+    public void testHigherPrioritiesStartFirst() {
+        LoadScheduler scheduler = new LoadScheduler(1, 0, meterRegistry);
+        submit(scheduler, "running", "alice", 0);
+        submit(scheduler, "low", "bob", 0);
+        submit(scheduler, "high", "carol", 10);
+        
+        complete("running");
+        assertEquals(Arrays.asList("running", "high"), started);
+        
+        complete("high");
+        assertEquals(Arrays.asList("running", "high", "low"), started);
+    }
+    
+    @Test
+    public void testUsersTakeTurnsWithinAPriority() {
+        LoadScheduler scheduler = new LoadScheduler(1, 0, meterRegistry);
+        submit(scheduler, "running", "carol", 0);
+        submit(scheduler, "alice1", "alice", 0);
+        submit(scheduler, "alice2", "alice", 0);
+        submit(scheduler, "alice3", "alice", 0);
+        submit(scheduler, "bob1", "bob", 0);
+        
+        for (String id : Arrays.asList("running", "alice1", "bob1", "alice2")) {
+            complete(id);
+        }
+        assertEquals(Arrays.asList("running", "alice1", "bob1", "alice2", "alice3"), started);
+    }
+    
+    @Test
+    public void testCancelRemovesQueuedLoads() {
+        LoadScheduler scheduler = new LoadScheduler(1, 0, meterRegistry);
+        submit(scheduler, "load1", "alice", 0);
+        submit(scheduler, "load2", "alice", 0);
+        submit(scheduler, "load3", "bob", 0);
+        assertEquals(2, scheduler.getQueuedLoads());
+        
+        // a queued load is removed and never started, but a running load can't be cancelled by the scheduler
+        assertTrue(scheduler.cancel("load2"));
+        assertFalse(scheduler.cancel("load1"));
+        assertFalse(scheduler.cancel("load2"));
+        assertEquals(1, scheduler.getQueuedLoads());
+        
+        complete("load1");
+        assertEquals(Arrays.asList("load1", "load3"), started);
+        assertEquals(0, scheduler.getQueuedLoads());
+    }
+    
+    @Test
+    public void testFailedStartReleasesItsPlace() {
+        LoadScheduler scheduler = new LoadScheduler(1, 0, meterRegistry);
+        scheduler.submit("broken", "alice", 0, onComplete -> {
+            throw new IllegalStateException("unable to start");
+        });
+        submit(scheduler, "load1", "bob", 0);
+        
+        assertEquals(Arrays.asList("load1"), started);
+        assertEquals(1, scheduler.getRunningLoads());
+        assertEquals(0, scheduler.getQueuedLoads());
+    }
+    
+    private void submit(LoadScheduler scheduler, String id, String user, int priority) {
+        scheduler.submit(id, user, priority, onComplete -> {
+            started.add(id);
+            completions.put(id, onComplete);
+        });
+    }
+    
+    private void complete(String id) {
+        completions.remove(id).run();
+    }
+}
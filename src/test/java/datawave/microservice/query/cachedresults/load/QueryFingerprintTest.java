@@ -0,0 +1,94 @@
+package datawave.microservice.query.cachedresults.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.LinkedMultiValueMap;
+
+import datawave.microservice.query.QueryImpl;
+import datawave.security.authorization.DatawaveUser;
+import datawave.security.authorization.ProxiedUserDetails;
+import datawave.security.authorization.SubjectIssuerDNPair;
+
+public class QueryFingerprintTest {
+    
+    @Test
+    public void testNoRequestedAuthsUsesEachUsersAuths() {
+        for (String queryAuthorizations : Arrays.asList(null, "", " , ")) {
+            QueryImpl query = createQuery(queryAuthorizations);
+            String fingerprint = QueryFingerprint.compute(query, new LinkedMultiValueMap<>(), createUser(user("alice", "A")));
+            String otherFingerprint = QueryFingerprint.compute(query, new LinkedMultiValueMap<>(), createUser(user("bob", "A", "B")));
+            assertNotEquals(fingerprint, otherFingerprint);
+        }
+    }
+    
+    @Test
+    public void testNoRequestedAuthsSharedBySameAuths() {
+        QueryImpl query = createQuery(null);
+        String fingerprint = QueryFingerprint.compute(query, new LinkedMultiValueMap<>(), createUser(user("alice", "A", "B")));
+        String otherFingerprint = QueryFingerprint.compute(query, new LinkedMultiValueMap<>(), createUser(user("bob", "B", "A")));
+        assertEquals(fingerprint, otherFingerprint);
+    }
+    
+    @Test
+    public void testRequestedAuthsLimitTheEffectiveAuths() {
+        QueryImpl query = createQuery("A,B");
+        
+        // the auths which weren't requested don't change the results
+        String fingerprint = QueryFingerprint.compute(query, new LinkedMultiValueMap<>(), createUser(user("alice", "A", "B", "C")));
+        String otherFingerprint = QueryFingerprint.compute(query, new LinkedMultiValueMap<>(), createUser(user("bob", "A", "B", "D")));
+        assertEquals(fingerprint, otherFingerprint);
+        
+        // but holding fewer of the requested auths does
+        String fewerAuthsFingerprint = QueryFingerprint.compute(query, new LinkedMultiValueMap<>(), createUser(user("carol", "A", "C")));
+        assertNotEquals(fingerprint, fewerAuthsFingerprint);
+    }
+    
+    @Test
+    public void testProxiedUsersAuthsAreIncluded() {
+        QueryImpl query = createQuery(null);
+        String fingerprint = QueryFingerprint.compute(query, new LinkedMultiValueMap<>(), createUser(user("server", "A", "B"), user("alice", "A")));
+        String otherFingerprint = QueryFingerprint.compute(query, new LinkedMultiValueMap<>(), createUser(user("server", "A", "B"), user("bob", "A", "B")));
+        assertNotEquals(fingerprint, otherFingerprint);
+    }
+    
+    private static QueryImpl createQuery(String queryAuthorizations) {
+        QueryImpl query = new QueryImpl();
+        query.setQueryLogicName("EventQuery");
+        query.setQuery("FIELD == 'value'");
+        query.setBeginDate(new Date(0L));
+        query.setEndDate(new Date(86400000L));
+        query.setQueryAuthorizations(queryAuthorizations);
+        return query;
+    }
+    
+    private static DatawaveUser user(String name, String... auths) {
+        return new DatawaveUser(SubjectIssuerDNPair.of("cn=" + name, "cn=issuer"), DatawaveUser.UserType.USER, null, Arrays.asList(auths), null, null,
+                        System.currentTimeMillis());
+    }
+    
+    private static ProxiedUserDetails createUser(DatawaveUser... proxiedUsers) {
+        List<DatawaveUser> users = Arrays.asList(proxiedUsers);
+        return (ProxiedUserDetails) Proxy.newProxyInstance(ProxiedUserDetails.class.getClassLoader(), new Class<?>[] {ProxiedUserDetails.class},
+                        (proxy, method, args) -> {
+                            switch (method.getName()) {
+                                case "getProxiedUsers":
+                                    return users;
+                                case "getPrimaryUser":
+                                    return users.get(users.size() - 1);
+                                case "hashCode":
+                                    return System.identityHashCode(proxy);
+                                case "equals":
+                                    return proxy == args[0];
+                                default:
+                                    return null;
+                            }
+                        });
+    }
+}
@@ -0,0 +1,233 @@
+package datawave.microservice.query.cachedresults.monitor;
+
+import static datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus.CACHED_RESULTS_STATE.CREATED;
+import static datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus.CACHED_RESULTS_STATE.FAILED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import datawave.microservice.query.cachedresults.config.CachedResultsQueryProperties;
+import datawave.microservice.query.cachedresults.monitor.cache.MonitorStatus;
+import datawave.microservice.query.cachedresults.monitor.cache.MonitorStatusCache;
+import datawave.microservice.query.cachedresults.monitor.config.MonitorProperties;
+import datawave.microservice.query.cachedresults.status.CachedResultsQueryStatus;
+import datawave.microservice.query.cachedresults.status.cache.CachedResultsQueryCache;
+
+public class MonitorTaskTest {
+    private static final long EXPIRED_MILLIS = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2);
+    
+    private CachedResultsQueryProperties properties;
+    private TestQueryCache queryCache;
+    private TestJdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    public void setup() {
+        properties = new CachedResultsQueryProperties();
+        properties.getStatementTemplates().setListExpiredTablesAndViews("SELECT TABLE_NAME FROM %DATABASE_NAME% WHERE DAYS > %DAYS_TO_LIVE%");
+        properties.getStatementTemplates().setDropView("DROP VIEW %TABLE%");
+        properties.getStatementTemplates().setDropTable("DROP TABLE %TABLE%");
+        queryCache = new TestQueryCache();
+        jdbcTemplate = new TestJdbcTemplate();
+    }
+    
+    @Test
+    public void testReusedTablesAreKept() throws Exception {
+        // the original load has expired, but its tables were reused by a later load
+        CachedResultsQueryStatus original = createStatus("query1", "v1", "t1", "d1", CREATED, EXPIRED_MILLIS);
+        original.setFingerprint("fingerprint");
+        queryCache.fingerprints.put("fingerprint", "query1");
+        CachedResultsQueryStatus reused = createStatus("query2", "v2", "t1", "d1", CREATED, System.currentTimeMillis());
+        reused.setReusedDefinedQueryId("query1");
+        jdbcTemplate.expiredTables = Arrays.asList("v1", "t1", "d1");
+        
+        createMonitorTask().call();
+        
+        // only the original view and status are removed, along with the fingerprint which would have let other loads reuse its tables
+        assertEquals(Collections.singletonList("DROP VIEW v1"), jdbcTemplate.executed);
+        assertNull(queryCache.statuses.get("query1"));
+        assertEquals(reused, queryCache.statuses.get("query2"));
+        assertNull(queryCache.fingerprints.get("fingerprint"));
+    }
+    
+    @Test
+    public void testReusedTablesAreDroppedOnceEveryLoadHasExpired() throws Exception {
+        createStatus("query1", "v1", "t1", "d1", CREATED, EXPIRED_MILLIS);
+        createStatus("query2", "v2", "t1", "d1", CREATED, EXPIRED_MILLIS).setReusedDefinedQueryId("query1");
+        jdbcTemplate.expiredTables = Arrays.asList("v1", "v2", "t1", "d1");
+        
+        createMonitorTask().call();
+        
+        assertEquals(Arrays.asList("DROP VIEW v1", "DROP VIEW v2", "DROP TABLE t1", "DROP TABLE d1"), jdbcTemplate.executed);
+        assertEquals(Collections.emptyMap(), queryCache.statuses);
+    }
+    
+    @Test
+    public void testFailedLoadsDoNotKeepReusedTables() throws Exception {
+        createStatus("query1", "v1", "t1", null, CREATED, EXPIRED_MILLIS);
+        // a failed load which reused the tables is stale, even though it was updated recently
+        createStatus("query2", null, "t1", null, FAILED, System.currentTimeMillis()).setReusedDefinedQueryId("query1");
+        jdbcTemplate.expiredTables = Arrays.asList("v1", "t1");
+        
+        createMonitorTask().call();
+        
+        assertEquals(Arrays.asList("DROP VIEW v1", "DROP TABLE t1"), jdbcTemplate.executed);
+        assertEquals(Collections.emptyMap(), queryCache.statuses);
+    }
+    
+    private MonitorTask createMonitorTask() throws SQLException {
+        return new MonitorTask(new MonitorProperties(), properties, new TestMonitorStatusCache(), null, queryCache, jdbcTemplate);
+    }
+    
+    private CachedResultsQueryStatus createStatus(String definedQueryId, String view, String tableName, String dictionaryTableName,
+                    CachedResultsQueryStatus.CACHED_RESULTS_STATE state, long lastUpdatedMillis) {
+        CachedResultsQueryStatus status = new CachedResultsQueryStatus(definedQueryId, null, null, null);
+        status.setView(view);
+        status.setTableName(tableName);
+        status.setDictionaryTableName(dictionaryTableName);
+        status.setState(state);
+        status.setLastUpdatedMillis(lastUpdatedMillis);
+        queryCache.statuses.put(definedQueryId, status);
+        return status;
+    }
+    
+    /**
+     * Always lets the monitor run, without a distributed cache
+     */
+    private static class TestMonitorStatusCache extends MonitorStatusCache {
+        TestMonitorStatusCache() {
+            super(null);
+        }
+        
+        @Override
+        public MonitorStatus getStatus() {
+            return new MonitorStatus();
+        }
+        
+        @Override
+        public MonitorStatus setStatus(MonitorStatus monitorStatus) {
+            return monitorStatus;
+        }
+        
+        @Override
+        public boolean tryLock(long waitTime, TimeUnit waitTimeUnit, long leaseTime, TimeUnit leaseTimeUnit) {
+            return true;
+        }
+        
+        @Override
+        public void unlock() {
+            // nothing to unlock
+        }
+    }
+    
+    /**
+     * Keeps the statuses and their fingerprints in memory, without a distributed cache
+     */
+    private static class TestQueryCache extends CachedResultsQueryCache {
+        final Map<String,CachedResultsQueryStatus> statuses = new LinkedHashMap<>();
+        final Map<String,String> fingerprints = new HashMap<>();
+        
+        TestQueryCache() {
+            super(new CachedResultsQueryProperties(), null, null, null, null, null);
+        }
+        
+        @Override
+        public CachedResultsQueryStatus lookupQueryStatus(String key) {
+            return statuses.values().stream().filter(status -> key.equals(status.getDefinedQueryId()) || key.equals(status.getView())).findFirst()
+                            .orElse(null);
+        }
+        
+        @Override
+        public List<CachedResultsQueryStatus> getQueryStatuses() {
+            return new ArrayList<>(statuses.values());
+        }
+        
+        @Override
+        public CachedResultsQueryStatus removeQueryStatus(String definedQueryId) {
+            return statuses.remove(definedQueryId);
+        }
+        
+        @Override
+        public void removeQueryIdByAliasLookup(String alias) {
+            // aliases aren't used by these tests
+        }
+        
+        @Override
+        public void removeQueryIdByViewLookup(String view) {
+            // views are looked up from the statuses themselves
+        }
+        
+        @Override
+        public String lookupQueryIdByFingerprint(String fingerprint) {
+            return fingerprints.get(fingerprint);
+        }
+        
+        @Override
+        public void removeQueryIdByFingerprintLookup(String fingerprint) {
+            fingerprints.remove(fingerprint);
+        }
+    }
+    
+    /**
+     * Lists the given expired tables and views, and keeps the statements which drop them, without a database
+     */
+    private static class TestJdbcTemplate extends JdbcTemplate {
+        List<String> expiredTables = Collections.emptyList();
+        final List<String> executed = new ArrayList<>();
+        
+        TestJdbcTemplate() {
+            Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                            (proxy, method, args) -> method.getName().equals("getSchema") ? "cachedresults" : null);
+            setDataSource((DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] {DataSource.class},
+                            (proxy, method, args) -> method.getName().equals("getConnection") ? connection : null));
+        }
+        
+        @Override
+        public <T> T query(String sql, ResultSetExtractor<T> rse) throws DataAccessException {
+            Iterator<String> tables = expiredTables.iterator();
+            String[] current = new String[1];
+            ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+                            (proxy, method, args) -> {
+                                switch (method.getName()) {
+                                    case "next":
+                                        current[0] = tables.hasNext() ? tables.next() : null;
+                                        return current[0] != null;
+                                    case "getString":
+                                        return current[0];
+                                    default:
+                                        return null;
+                                }
+                            });
+            try {
+                return rse.extractData(resultSet);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        
+        @Override
+        public void execute(String sql) throws DataAccessException {
+            executed.add(sql);
+        }
+    }
+}